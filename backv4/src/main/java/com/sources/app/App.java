@@ -8,8 +8,14 @@ import org.hibernate.Session;
 
 import com.sources.app.config.DaoRegistry;
 import com.sources.app.config.ServerConfig;
+import com.sources.app.config.ServerExecutors;
 import com.sources.app.config.ServerRoutes;
+import com.sources.app.dao.ServiceApprovalRollup;
+import com.sources.app.dao.ServiceExpiryWheel;
+import com.sources.app.dao.SystemConfigRegistry;
+import com.sources.app.handlers.NotificationHandler;
 import com.sources.app.metrics.MetricsConfiguration;
+import com.sources.app.notifications.EmailDispatcher;
 import com.sources.app.scheduler.ServiceExpirationScheduler;
 import com.sources.app.util.HibernateUtil;
 import com.sun.net.httpserver.HttpServer;
@@ -88,21 +94,30 @@ public class App {
         String host = ServerConfig.host();
         int port = ServerConfig.port();
 
-        // Verificar servicios expirados al iniciar
-        logger.info("Verificando servicios expirados...");
-        int updatedUsers = daoRegistry.getUserDAO().checkAllUsersServiceExpiration();
-        logger.info("Se actualizaron {} usuarios con servicios expirados.", updatedUsers);
+        // Configuración del sistema en memoria con recarga periódica
+        SystemConfigRegistry.getInstance().start(daoRegistry.getSystemConfigDAO());
 
-        // Programar tarea diaria para verificar servicios expirados
-        new ServiceExpirationScheduler(daoRegistry.getUserDAO()).startDaily();
+        // Totales de aprobaciones del dashboard: una consulta agregada al iniciar y ajustes al escribir
+        ServiceApprovalRollup.getInstance().start(daoRegistry.getServiceApprovalDAO());
+
+        // Expirar cada servicio pagado al llegar su fecha; si no se pueden cargar
+        // los vencimientos, verificar en segundo plano al iniciar y después una vez al día
+        if (!ServiceExpiryWheel.getInstance().start(daoRegistry.getUserDAO())) {
+            new ServiceExpirationScheduler(daoRegistry.getUserDAO()).start();
+        }
 
         // Crear y configurar el servidor HTTP
         HttpServer server = HttpServer.create(new InetSocketAddress(host, port), 0);
         // Registrar rutas en un único lugar para reducir acoplamiento
         ServerRoutes.register(server, daoRegistry);
 
-        server.setExecutor(null); // Usa el executor por defecto
+        // Executor configurable (virtual, pool o inline) vía SERVER_EXECUTOR
+        ServerExecutors.apply(server);
         server.start();
+
+        // Al apagar, enviar los resúmenes abiertos y vaciar la cola de correos
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> NotificationHandler.shutdownShared(EmailDispatcher.shutdownTimeoutMillis()), "email-shutdown"));
         logger.info("Servidor iniciado en http://{}:{}/api", host, port);
     }
 }
@@ -0,0 +1,76 @@
+package com.sources.app.admission;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import com.sources.app.metrics.MetricsConfiguration;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * Decorates an {@link HttpHandler} with admission control. When the route
+ * class is saturated the request is answered with {@code 503} and a
+ * {@code Retry-After} header without reaching the delegate. CORS preflight
+ * requests are always let through.
+ */
+public final class AdmissionControlHandler implements HttpHandler {
+
+    private static final byte[] REJECTION_BODY =
+            "{\"error\":\"Servicio saturado, intente de nuevo en unos segundos\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final AdmissionController controller;
+    private final String pathLabel;
+    private final HttpHandler delegate;
+
+    AdmissionControlHandler(AdmissionController controller, String pathLabel, HttpHandler delegate) {
+        this.controller = Objects.requireNonNull(controller, "controller");
+        this.pathLabel = Objects.requireNonNull(pathLabel, "pathLabel");
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    public static HttpHandler of(RouteClass routeClass, String pathLabel, HttpHandler delegate) {
+        return new AdmissionControlHandler(AdmissionController.forClass(routeClass), pathLabel, delegate);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        if ("OPTIONS".equalsIgnoreCase(exchange.getRequestMethod())) {
+            delegate.handle(exchange);
+            return;
+        }
+        if (!controller.tryAcquire()) {
+            reject(exchange);
+            return;
+        }
+        try {
+            delegate.handle(exchange);
+        } finally {
+            controller.release();
+        }
+    }
+
+    private void reject(HttpExchange exchange) throws IOException {
+        MetricsConfiguration.ADMISSION_REJECTED_TOTAL.labels(controller.getRouteClass(), pathLabel).inc();
+        exchange.getResponseHeaders().set("Retry-After", String.valueOf(retryAfterSeconds()));
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+        exchange.sendResponseHeaders(503, REJECTION_BODY.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(REJECTION_BODY);
+        }
+    }
+
+    static long retryAfterSeconds() {
+        String value = System.getenv("ADMISSION_RETRY_AFTER_SECONDS");
+        if (value == null || value.isBlank()) {
+            return 1;
+        }
+        try {
+            return Math.max(1, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.sources.app.admission;
+
+import java.util.Locale;
+
+import com.sources.app.config.EnvConfig;
+
+/**
+ * Groups HTTP routes that share an admission budget. Each class has its own
+ * concurrency limit, wait-queue size and maximum wait, overridable through
+ * {@code ADMISSION_<CLASE>_MAX_CONCURRENT}, {@code ADMISSION_<CLASE>_MAX_QUEUE}
+ * and {@code ADMISSION_<CLASE>_MAX_WAIT_MS}.
+ */
+public enum RouteClass {
+    /**
+     * Login y gestión de usuarios.
+     */
+    AUTH(16, 64, 2000),
+    /**
+     * Aprobación de recetas y servicios.
+     */
+    APPROVALS(16, 64, 3000),
+    /**
+     * Lectura de catálogos (pólizas, hospitales, medicamentos, servicios).
+     */
+    CATALOG(32, 128, 1000),
+    /**
+     * Resto de rutas.
+     */
+    DEFAULT(32, 128, 2000);
+
+    private final int defaultMaxConcurrent;
+    private final int defaultMaxQueue;
+    private final long defaultMaxWaitMillis;
+
+    RouteClass(int defaultMaxConcurrent, int defaultMaxQueue, long defaultMaxWaitMillis) {
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.defaultMaxQueue = defaultMaxQueue;
+        this.defaultMaxWaitMillis = defaultMaxWaitMillis;
+    }
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public int maxConcurrent() {
+        return EnvConfig.positiveInt(env("MAX_CONCURRENT"), defaultMaxConcurrent);
+    }
+
+    public int maxQueue() {
+        return EnvConfig.nonNegativeInt(env("MAX_QUEUE"), defaultMaxQueue);
+    }
+
+    public long maxWaitMillis() {
+        return EnvConfig.nonNegativeLong(env("MAX_WAIT_MS"), defaultMaxWaitMillis);
+    }
+
+    /**
+     * La concurrencia debe ser mayor que 0, o no pasaría ninguna petición;
+     * cola y espera sí admiten 0: rechazar en cuanto no haya hueco libre.
+     */
+    private String env(String suffix) {
+        return "ADMISSION_" + name() + "_" + suffix;
+    }
+}
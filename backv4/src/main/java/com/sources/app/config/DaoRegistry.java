@@ -29,6 +29,8 @@ public class DaoRegistry {
     private final HospitalInsuranceServiceDAO hospitalInsuranceServiceDAO = new HospitalInsuranceServiceDAO();
     private final EnsuranceAppointmentDAO ensuranceAppointmentDAO = new EnsuranceAppointmentDAO();
     private final PrescriptionApprovalDAO prescriptionApprovalDAO = new PrescriptionApprovalDAO();
+    private final ServiceApprovalDAO serviceApprovalDAO = new ServiceApprovalDAO();
+    private final SystemConfigDAO systemConfigDAO = new SystemConfigDAO();
 
     public UserDAO getUserDAO() { return userDAO; }
     public PolicyDAO getPolicyDAO() { return policyDAO; }
@@ -51,4 +53,6 @@ public class DaoRegistry {
     public HospitalInsuranceServiceDAO getHospitalInsuranceServiceDAO() { return hospitalInsuranceServiceDAO; }
     public EnsuranceAppointmentDAO getEnsuranceAppointmentDAO() { return ensuranceAppointmentDAO; }
     public PrescriptionApprovalDAO getPrescriptionApprovalDAO() { return prescriptionApprovalDAO; }
+    public ServiceApprovalDAO getServiceApprovalDAO() { return serviceApprovalDAO; }
+    public SystemConfigDAO getSystemConfigDAO() { return systemConfigDAO; }
 }
@@ -0,0 +1,66 @@
+package com.sources.app.config;
+
+/**
+ * Reads numeric settings from environment variables. A missing, blank,
+ * unparsable or out-of-range value falls back to the given default.
+ */
+public final class EnvConfig {
+    private EnvConfig() {}
+
+    /**
+     * @return the value of {@code name} if it is greater than 0, otherwise
+     * {@code defaultValue}.
+     */
+    public static long positiveLong(String name, long defaultValue) {
+        return parsePositive(System.getenv(name), defaultValue);
+    }
+
+    /**
+     * Same as {@link #positiveLong} for settings held in an {@code int}.
+     */
+    public static int positiveInt(String name, int defaultValue) {
+        return parsePositiveInt(System.getenv(name), defaultValue);
+    }
+
+    /**
+     * @return the value of {@code name} if it is 0 or greater, otherwise
+     * {@code defaultValue}.
+     */
+    public static long nonNegativeLong(String name, long defaultValue) {
+        return parseNonNegative(System.getenv(name), defaultValue);
+    }
+
+    /**
+     * Same as {@link #nonNegativeLong} for settings held in an {@code int}.
+     */
+    public static int nonNegativeInt(String name, int defaultValue) {
+        long parsed = nonNegativeLong(name, defaultValue);
+        return parsed <= Integer.MAX_VALUE ? (int) parsed : defaultValue;
+    }
+
+    static long parsePositive(String value, long defaultValue) {
+        long parsed = parse(value, defaultValue);
+        return parsed > 0 ? parsed : defaultValue;
+    }
+
+    static int parsePositiveInt(String value, int defaultValue) {
+        long parsed = parsePositive(value, defaultValue);
+        return parsed <= Integer.MAX_VALUE ? (int) parsed : defaultValue;
+    }
+
+    static long parseNonNegative(String value, long defaultValue) {
+        long parsed = parse(value, defaultValue);
+        return parsed >= 0 ? parsed : defaultValue;
+    }
+
+    private static long parse(String value, long defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
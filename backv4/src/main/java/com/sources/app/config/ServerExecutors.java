@@ -0,0 +1,199 @@
+package com.sources.app.config;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sources.app.metrics.MetricsConfiguration;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Builds the {@link Executor} used by the embedded {@link HttpServer}.
+ *
+ * <p>The mode is read from {@code SERVER_EXECUTOR}:</p>
+ * <ul>
+ * <li>{@code virtual}: one virtual thread per request.</li>
+ * <li>{@code pool} (default): bounded platform pool sized by
+ * {@code SERVER_EXECUTOR_THREADS} with a wait queue of
+ * {@code SERVER_EXECUTOR_QUEUE} entries. When the queue is full the
+ * dispatcher thread runs the request itself, which applies back-pressure on
+ * the acceptor instead of dropping connections.</li>
+ * <li>{@code inline}: previous behaviour, every request runs on the
+ * {@code HttpServer} dispatcher thread.</li>
+ * </ul>
+ * Active and queued requests are exported as Prometheus gauges.
+ */
+public final class ServerExecutors {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServerExecutors.class);
+
+    /**
+     * Supported execution modes.
+     */
+    public enum Mode {
+        VIRTUAL, POOL, INLINE
+    }
+
+    static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+    private ServerExecutors() {
+    }
+
+    /**
+     * Configures the executor of the given server according to the
+     * environment.
+     *
+     * @param server servidor HTTP a configurar.
+     * @return el executor asignado, o {@code null} en modo inline.
+     */
+    public static ExecutorService apply(HttpServer server) {
+        Mode mode = mode();
+        int threads = poolThreads();
+        int queue = queueCapacity();
+        ExecutorService executor = create(mode, threads, queue);
+        server.setExecutor(executor);
+        if (mode == Mode.POOL) {
+            LOGGER.info("Executor HTTP en modo {} ({} hilos, cola {})", mode, threads, queue);
+        } else {
+            LOGGER.info("Executor HTTP en modo {}", mode);
+        }
+        return executor;
+    }
+
+    /**
+     * Creates the executor for the given mode. Returns {@code null} for
+     * {@link Mode#INLINE}, which {@link HttpServer#setExecutor(Executor)}
+     * interprets as "run on the dispatcher thread".
+     */
+    public static ExecutorService create(Mode mode, int threads, int queueCapacity) {
+        String label = mode.name().toLowerCase(Locale.ROOT);
+        switch (mode) {
+            case VIRTUAL:
+                ThreadFactory factory = Thread.ofVirtual().name("http-vt-", 0).factory();
+                return new InstrumentedExecutorService(Executors.newThreadPerTaskExecutor(factory), label);
+            case POOL:
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                        threads, threads, 60L, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity),
+                        new NamedThreadFactory("http-worker-"),
+                        new ThreadPoolExecutor.CallerRunsPolicy());
+                pool.allowCoreThreadTimeOut(true);
+                return new InstrumentedExecutorService(pool, label);
+            case INLINE:
+            default:
+                return null;
+        }
+    }
+
+    public static Mode mode() {
+        return parseMode(System.getenv("SERVER_EXECUTOR"));
+    }
+
+    public static int poolThreads() {
+        int defaultThreads = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+        return EnvConfig.positiveInt("SERVER_EXECUTOR_THREADS", defaultThreads);
+    }
+
+    public static int queueCapacity() {
+        return EnvConfig.positiveInt("SERVER_EXECUTOR_QUEUE", DEFAULT_QUEUE_CAPACITY);
+    }
+
+    static Mode parseMode(String value) {
+        if (value == null || value.isBlank()) {
+            return Mode.POOL;
+        }
+        try {
+            return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Modo de executor inválido '{}'. Se usará POOL.", value);
+            return Mode.POOL;
+        }
+    }
+
+    /**
+     * Wraps an executor so every submitted request is counted as queued until
+     * it starts and as active while it runs.
+     */
+    static final class InstrumentedExecutorService extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final String mode;
+
+        InstrumentedExecutorService(ExecutorService delegate, String mode) {
+            this.delegate = delegate;
+            this.mode = mode;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            MetricsConfiguration.HTTP_EXECUTOR_QUEUED_REQUESTS.labels(mode).inc();
+            try {
+                delegate.execute(() -> {
+                    MetricsConfiguration.HTTP_EXECUTOR_QUEUED_REQUESTS.labels(mode).dec();
+                    MetricsConfiguration.HTTP_EXECUTOR_ACTIVE_REQUESTS.labels(mode).inc();
+                    try {
+                        command.run();
+                    } finally {
+                        MetricsConfiguration.HTTP_EXECUTOR_ACTIVE_REQUESTS.labels(mode).dec();
+                    }
+                });
+            } catch (RuntimeException e) {
+                MetricsConfiguration.HTTP_EXECUTOR_QUEUED_REQUESTS.labels(mode).dec();
+                throw e;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + counter.incrementAndGet());
+            thread.setDaemon(false);
+            return thread;
+        }
+    }
+}
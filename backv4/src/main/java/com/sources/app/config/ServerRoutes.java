@@ -1,53 +1,64 @@
 package com.sources.app.config;
 
+import com.sources.app.admission.AdmissionControlHandler;
+import com.sources.app.admission.RouteClass;
 import com.sources.app.handlers.*;
+import com.sources.app.metrics.InstrumentedHttpHandler;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 
 /**
  * Centralizes all HTTP route registrations. This reduces coupling in
  * the application bootstrap and makes routes easier to maintain.
+ * Every route is wrapped with admission control for its {@link RouteClass}
+ * and, outside of it, with request metrics so 503 rejections are counted too.
  */
 public final class ServerRoutes {
     private ServerRoutes() {}
 
     public static void register(HttpServer server, DaoRegistry dao) {
         // Auth & users
-        server.createContext("/api/login", new LoginHandler(dao.getUserDAO()));
-        server.createContext("/api/users", new UserHandler(dao.getUserDAO()));
-        server.createContext("/api/users/by-email", new UserByEmailHandler(dao.getUserDAO()));
+        route(server, "/api/login", RouteClass.AUTH, new LoginHandler(dao.getUserDAO()));
+        route(server, "/api/users", RouteClass.AUTH, new UserHandler(dao.getUserDAO()));
+        route(server, "/api/users/by-email", RouteClass.AUTH, new UserByEmailHandler(dao.getUserDAO()));
 
         // Core entities
-        server.createContext("/api/policy", new PolicyHandler(dao.getPolicyDAO()));
-        server.createContext("/api/appointment", new AppointmentHandler(dao.getAppointmentDAO()));
-        server.createContext("/api/appointmentmade", new AppointmentMadeHandler(dao.getAppointmentMadeDAO()));
-        server.createContext("/api/category", new CategoryHandler(dao.getCategoryDAO()));
-        server.createContext("/api/configurableamount", new ConfigurableAmountHandler(dao.getConfigurableAmountDAO()));
-        server.createContext("/api/hospital", new HospitalHandler(dao.getHospitalDAO()));
-        server.createContext("/api/medicine", new MedicineHandler(dao.getMedicineDAO()));
-        server.createContext("/api/medicinepres", new MedicinePresHandler(dao.getMedicinePresDAO()));
-        server.createContext("/api/pharmacy", new PharmacyHandler(dao.getPharmacyDAO()));
-        server.createContext("/api/prescription", new PrescriptionHandler(dao.getPrescriptionDAO()));
-        server.createContext("/api/service", new ServiceHandler(dao.getServiceDAO()));
-        server.createContext("/api/totalhospital", new TotalHospitalHandler(dao.getTotalHospitalDAO()));
-        server.createContext("/api/totalpharmacy", new TotalPharmacyHandler(dao.getTotalPharmacyDAO()));
-        server.createContext("/api/transactions", new TransactionsHandler(dao.getTransactionsDAO()));
-        server.createContext("/api/transactionpolicy", new TransactionPolicyHandler(dao.getTransactionPolicyDAO()));
-        server.createContext("/api/servicecategory", new ServiceCategoryHandler(dao.getServiceCategoryDAO()));
+        route(server, "/api/policy", RouteClass.CATALOG, new PolicyHandler(dao.getPolicyDAO()));
+        route(server, "/api/appointment", RouteClass.DEFAULT, new AppointmentHandler(dao.getAppointmentDAO()));
+        route(server, "/api/appointmentmade", RouteClass.DEFAULT, new AppointmentMadeHandler(dao.getAppointmentMadeDAO()));
+        route(server, "/api/category", RouteClass.CATALOG, new CategoryHandler(dao.getCategoryDAO()));
+        route(server, "/api/configurableamount", RouteClass.DEFAULT, new ConfigurableAmountHandler(dao.getConfigurableAmountDAO()));
+        route(server, "/api/hospital", RouteClass.CATALOG, new HospitalHandler(dao.getHospitalDAO()));
+        route(server, "/api/medicine", RouteClass.CATALOG, new MedicineHandler(dao.getMedicineDAO()));
+        route(server, "/api/medicinepres", RouteClass.DEFAULT, new MedicinePresHandler(dao.getMedicinePresDAO()));
+        route(server, "/api/pharmacy", RouteClass.CATALOG, new PharmacyHandler(dao.getPharmacyDAO()));
+        route(server, "/api/prescription", RouteClass.DEFAULT, new PrescriptionHandler(dao.getPrescriptionDAO()));
+        route(server, "/api/service", RouteClass.CATALOG, new ServiceHandler(dao.getServiceDAO()));
+        route(server, "/api/totalhospital", RouteClass.DEFAULT, new TotalHospitalHandler(dao.getTotalHospitalDAO()));
+        route(server, "/api/totalpharmacy", RouteClass.DEFAULT, new TotalPharmacyHandler(dao.getTotalPharmacyDAO()));
+        route(server, "/api/transactions", RouteClass.DEFAULT, new TransactionsHandler(dao.getTransactionsDAO()));
+        route(server, "/api/transactionpolicy", RouteClass.DEFAULT, new TransactionPolicyHandler(dao.getTransactionPolicyDAO()));
+        route(server, "/api/servicecategory", RouteClass.CATALOG, new ServiceCategoryHandler(dao.getServiceCategoryDAO()));
 
         // Notifications
-        server.createContext("/api/notifications/email", new NotificationHandler());
+        route(server, "/api/notifications/email", RouteClass.DEFAULT, new NotificationHandler());
 
         // Insurance services
-        server.createContext("/api/insurance-services", new InsuranceServiceHandler(dao.getInsuranceServiceDAO(), dao.getCategoryDAO()));
-        server.createContext("/api/hospital-services", new HospitalInsuranceServiceHandler(dao.getHospitalInsuranceServiceDAO(), dao.getHospitalDAO(), dao.getInsuranceServiceDAO()));
+        route(server, "/api/insurance-services", RouteClass.CATALOG, new InsuranceServiceHandler(dao.getInsuranceServiceDAO(), dao.getCategoryDAO()));
+        route(server, "/api/hospital-services", RouteClass.CATALOG, new HospitalInsuranceServiceHandler(dao.getHospitalInsuranceServiceDAO(), dao.getHospitalDAO(), dao.getInsuranceServiceDAO()));
 
         // Integrations / proxies
-        server.createContext("/api/hospital-integration", new HospitalRedirectHandler());
-        server.createContext("/api/hospital-proxy", new HospitalServiceProxyHandler(dao.getHospitalDAO()));
+        route(server, "/api/hospital-integration", RouteClass.DEFAULT, new HospitalRedirectHandler());
+        route(server, "/api/hospital-proxy", RouteClass.DEFAULT, new HospitalServiceProxyHandler(dao.getHospitalDAO()));
 
         // Ensurance appointments and approvals
-        server.createContext("/api/ensurance-appointments", new EnsuranceAppointmentHandler(dao.getEnsuranceAppointmentDAO()));
-        server.createContext("/api/prescriptions/", new PrescriptionApprovalHandler(dao.getPrescriptionApprovalDAO(), dao.getUserDAO(), dao.getConfigurableAmountDAO()));
-        server.createContext("/api/configurable-amount/", new ConfigurableAmountHandler(dao.getConfigurableAmountDAO()));
+        route(server, "/api/ensurance-appointments", RouteClass.DEFAULT, new EnsuranceAppointmentHandler(dao.getEnsuranceAppointmentDAO()));
+        route(server, "/api/prescriptions/", RouteClass.APPROVALS, new PrescriptionApprovalHandler(dao.getPrescriptionApprovalDAO(), dao.getUserDAO(), dao.getConfigurableAmountDAO()));
+        route(server, "/api/configurable-amount/", RouteClass.DEFAULT, new ConfigurableAmountHandler(dao.getConfigurableAmountDAO()));
+    }
+
+    private static void route(HttpServer server, String path, RouteClass routeClass, HttpHandler handler) {
+        server.createContext(path, InstrumentedHttpHandler.of(path,
+                AdmissionControlHandler.of(routeClass, path, handler)));
     }
 }
@@ -19,6 +19,8 @@ import com.sources.app.util.HibernateUtil;
  */
 public class AppointmentDAO {
 
+    private static final KeysetQuery<Appointment> PAGE_QUERY = KeysetQuery.of(Appointment.class, "idAppointment");
+
     /**
      * Constructor por defecto para AppointmentDAO.
      */
@@ -130,6 +132,18 @@ public class AppointmentDAO {
         }
     }
 
+    /**
+     * Recupera una página de citas ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de citas de la página.
+     * @return La página de entidades {@link Appointment}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Appointment> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza una cita existente en la base de datos.
      *
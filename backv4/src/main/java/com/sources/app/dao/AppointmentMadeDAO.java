@@ -17,6 +17,8 @@ import java.util.List;
  */
 public class AppointmentMadeDAO {
 
+    private static final KeysetQuery<AppointmentMade> PAGE_QUERY = KeysetQuery.of(AppointmentMade.class, "idCita");
+
     /**
      * Constructor por defecto para AppointmentMadeDAO.
      */
@@ -88,6 +90,18 @@ public class AppointmentMadeDAO {
         }
     }
 
+    /**
+     * Recupera una página de citas realizadas ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de citas realizadas de la página.
+     * @return La página de entidades {@link AppointmentMade}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<AppointmentMade> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza un registro existente de AppointmentMade. Usualmente, solo se
      * actualizaría la fecha `appointmentMadeDate` si fuera necesario.
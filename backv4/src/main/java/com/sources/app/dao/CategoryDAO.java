@@ -15,6 +15,8 @@ import java.util.List;
  */
 public class CategoryDAO {
 
+    private static final KeysetQuery<Category> PAGE_QUERY = KeysetQuery.of(Category.class, "idCategory");
+
     /**
      * Constructor por defecto para CategoryDAO.
      */
@@ -75,6 +77,7 @@ public class CategoryDAO {
     public List<Category> findAll() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<Category> query = session.createQuery("FROM Category", Category.class);
+            query.setCacheable(true);
             return query.getResultList();
         } catch (Exception e) {
             e.printStackTrace();
@@ -82,6 +85,18 @@ public class CategoryDAO {
         }
     }
 
+    /**
+     * Recupera una página de categorías ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de categorías de la página.
+     * @return La página de entidades {@link Category}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Category> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza una categoría existente en la base de datos.
      *
@@ -8,15 +8,38 @@ import org.hibernate.query.Query;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Data Access Object (DAO) para gestionar la entidad ConfigurableAmount. Esta
  * entidad almacena montos configurables, como el monto máximo para recetas. Se
  * asume que normalmente habrá una sola fila de configuración. Proporciona
  * métodos para crear, buscar, actualizar y obtener la configuración actual.
+ *
+ * <p>La configuración actual se mantiene en memoria como una copia que se
+ * reemplaza de forma atómica: se carga una sola vez y se refresca cuando
+ * {@link #create(BigDecimal)} o {@link #update(ConfigurableAmount)} terminan
+ * con éxito, de modo que {@link #findCurrentConfig()} no consulta la base de
+ * datos en cada aprobación. Los cambios hechos fuera de este DAO (otra
+ * instancia o SQL directo) se ven tras reiniciar o al actualizar el monto por
+ * la API.</p>
  */
 public class ConfigurableAmountDAO {
 
+    private static final BigDecimal DEFAULT_PRESCRIPTION_AMOUNT = new BigDecimal("250.00");
+
+    /**
+     * Copia de la configuración actual; {@code null} mientras no se ha cargado.
+     */
+    private final AtomicReference<ConfigurableAmount> currentSnapshot = new AtomicReference<>();
+
+    /**
+     * Serializa la primera carga para que solo un hilo cree la configuración
+     * por defecto.
+     */
+    private final Object currentLoadLock = new Object();
+
     /**
      * Constructor por defecto para ConfigurableAmountDAO.
      */
@@ -42,6 +65,8 @@ public class ConfigurableAmountDAO {
 
             session.save(confAmount);
             tx.commit();
+            // Solo pasa a ser la actual si todavía no había ninguna
+            currentSnapshot.compareAndSet(null, snapshotOf(confAmount));
         } catch (Exception e) {
             if (tx != null) {
                 tx.rollback();
@@ -100,6 +125,10 @@ public class ConfigurableAmountDAO {
             tx = session.beginTransaction();
             session.update(confAmount);
             tx.commit();
+            ConfigurableAmount updated = snapshotOf(confAmount);
+            currentSnapshot.updateAndGet(current -> current == null
+                    || Objects.equals(current.getIdConfigurableAmount(), updated.getIdConfigurableAmount())
+                    ? updated : current);
             return confAmount;
         } catch (Exception e) {
             if (tx != null) {
@@ -111,13 +140,38 @@ public class ConfigurableAmountDAO {
     }
 
     /**
-     * Busca la configuración de monto actual (se asume que solo existe una). Si
-     * no se encuentra ninguna configuración, crea una por defecto con un valor
-     * predeterminado.
+     * Devuelve la configuración de monto actual (se asume que solo existe una).
+     * Tras la primera carga se responde desde memoria; cada llamada recibe su
+     * propia copia, así que modificarla no altera la configuración en caché.
+     * Si no existe ninguna configuración, crea una por defecto con Q250.00;
+     * las llamadas concurrentes esperan a esa única creación.
      *
-     * @return El objeto ConfigurableAmount actual, o uno nuevo si no existe.
+     * @return El objeto ConfigurableAmount actual, o null si no se pudo cargar
+     * ni crear.
      */
     public ConfigurableAmount findCurrentConfig() {
+        ConfigurableAmount snapshot = currentSnapshot.get();
+        if (snapshot != null) {
+            return snapshotOf(snapshot);
+        }
+        synchronized (currentLoadLock) {
+            snapshot = currentSnapshot.get();
+            if (snapshot != null) {
+                return snapshotOf(snapshot);
+            }
+            ConfigurableAmount loaded = loadCurrentConfig();
+            if (loaded != null) {
+                currentSnapshot.set(snapshotOf(loaded));
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Busca la configuración en la base de datos. Si no se encuentra ninguna
+     * configuración, crea una por defecto con un valor predeterminado.
+     */
+    private ConfigurableAmount loadCurrentConfig() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<ConfigurableAmount> query = session.createQuery("FROM ConfigurableAmount", ConfigurableAmount.class);
             query.setMaxResults(1); // Solo nos interesa la primera fila
@@ -125,14 +179,14 @@ public class ConfigurableAmountDAO {
             if (confAmount == null) {
                 // Si no existe, crear una con valor por defecto
                 System.out.println("No se encontró configuración, creando una por defecto con Q250.00");
-                return create(new BigDecimal("250.00"));
+                return create(DEFAULT_PRESCRIPTION_AMOUNT);
             }
             return confAmount;
         } catch (Exception e) {
             // Si falla la búsqueda, intentar crear una por defecto
             e.printStackTrace();
             try {
-                return create(new BigDecimal("250.00"));
+                return create(DEFAULT_PRESCRIPTION_AMOUNT);
             } catch (Exception createEx) {
                 // Si también falla la creación, devolver null
                 createEx.printStackTrace();
@@ -140,4 +194,11 @@ public class ConfigurableAmountDAO {
             }
         }
     }
+
+    private static ConfigurableAmount snapshotOf(ConfigurableAmount source) {
+        ConfigurableAmount copy = new ConfigurableAmount();
+        copy.setIdConfigurableAmount(source.getIdConfigurableAmount());
+        copy.setPrescriptionAmount(source.getPrescriptionAmount());
+        return copy;
+    }
 }
@@ -0,0 +1,128 @@
+package com.sources.app.dao;
+
+import com.sources.app.entities.EmailOutbox;
+import com.sources.app.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.query.MutationQuery;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Data Access Object (DAO) para el outbox de correos (EmailOutbox). Guarda
+ * los correos aceptados para que sobrevivan a un reinicio hasta que el
+ * servidor SMTP los acepte.
+ */
+public class EmailOutboxDAO {
+
+    /**
+     * Longitud máxima guardada del último error.
+     */
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    /**
+     * Guarda un correo pendiente.
+     *
+     * @return El correo guardado con su identificador, o null si ocurre un
+     * error.
+     */
+    public EmailOutbox create(String recipient, String subject, String body) {
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            transaction = session.beginTransaction();
+            EmailOutbox email = new EmailOutbox(recipient, subject, body);
+            session.persist(email);
+            transaction.commit();
+            return email;
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Obtiene los correos pendientes en orden de llegada; los fallidos no se
+     * incluyen.
+     *
+     * @return La lista de correos pendientes, o una lista vacía si ocurre un
+     * error.
+     */
+    public List<EmailOutbox> findPending() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                    "FROM EmailOutbox WHERE status = :status ORDER BY idEmail", EmailOutbox.class)
+                    .setParameter("status", EmailOutbox.PENDING)
+                    .list();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return List.of();
+        }
+    }
+
+    /**
+     * Borra los correos ya entregados.
+     *
+     * @return true si se borraron, false si ocurre un error.
+     */
+    public boolean delete(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return true;
+        }
+        return execute(session -> session.createMutationQuery("DELETE FROM EmailOutbox WHERE idEmail IN :ids")
+                .setParameterList("ids", ids));
+    }
+
+    /**
+     * Registra un intento fallido que se volverá a intentar.
+     *
+     * @return true si se actualizó, false si ocurre un error.
+     */
+    public boolean recordAttempt(List<Long> ids, int attempts, String error) {
+        return setStatus(ids, EmailOutbox.PENDING, attempts, error);
+    }
+
+    /**
+     * Marca los correos como fallidos: no se reintentarán ni se cargarán al
+     * arrancar, pero quedan en la tabla para revisarlos.
+     *
+     * @return true si se actualizó, false si ocurre un error.
+     */
+    public boolean markFailed(List<Long> ids, int attempts, String error) {
+        return setStatus(ids, EmailOutbox.FAILED, attempts, error);
+    }
+
+    private boolean setStatus(List<Long> ids, String status, int attempts, String error) {
+        if (ids.isEmpty()) {
+            return true;
+        }
+        String lastError = error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        return execute(session -> session.createMutationQuery(
+                "UPDATE EmailOutbox SET status = :status, attempts = :attempts, lastError = :error "
+                + "WHERE idEmail IN :ids")
+                .setParameter("status", status)
+                .setParameter("attempts", attempts)
+                .setParameter("error", lastError)
+                .setParameterList("ids", ids));
+    }
+
+    private boolean execute(Function<Session, MutationQuery> statement) {
+        Transaction transaction = null;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            transaction = session.beginTransaction();
+            statement.apply(session).executeUpdate();
+            transaction.commit();
+            return true;
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
+import java.io.IOException;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -17,6 +18,9 @@ import java.util.List;
  */
 public class EnsuranceAppointmentDAO {
 
+    private static final KeysetQuery<EnsuranceAppointment> PAGE_QUERY =
+            KeysetQuery.of(EnsuranceAppointment.class, "idAppointment").descending();
+
     /**
      * Constructor por defecto para EnsuranceAppointmentDAO.
      */
@@ -139,6 +143,31 @@ public class EnsuranceAppointmentDAO {
         }
     }
 
+    /**
+     * Recorre todas las citas de seguro, ordenadas por fecha descendente, sin
+     * cargarlas en una lista; la sesión sigue abierta mientras
+     * {@code consumer} consume el stream.
+     *
+     * @param consumer Recibe las citas de seguro.
+     * @throws IOException Si la lanza {@code consumer}; los errores de base de
+     * datos también se propagan.
+     */
+    public void streamAll(ResultStreamConsumer<EnsuranceAppointment> consumer) throws IOException {
+        StreamQuery.stream(EnsuranceAppointment.class, "FROM EnsuranceAppointment ORDER BY appointmentDate DESC", consumer);
+    }
+
+    /**
+     * Recupera una página de citas de seguro ordenada por ID descendente, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de citas de seguro de la página.
+     * @return La página de entidades {@link EnsuranceAppointment}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<EnsuranceAppointment> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza una cita de seguro existente en la base de datos.
      *
@@ -13,6 +13,8 @@ import java.util.List;
  */
 public class HospitalDAO {
 
+    private static final KeysetQuery<Hospital> PAGE_QUERY = KeysetQuery.of(Hospital.class, "idHospital");
+
     /**
      * Constructor por defecto para HospitalDAO.
      */
@@ -110,6 +112,7 @@ public class HospitalDAO {
         try {
             session = HibernateUtil.getSessionFactory().openSession();
             Query<Hospital> query = session.createQuery("FROM Hospital", Hospital.class);
+            query.setCacheable(true);
             return query.getResultList();
         } catch (Exception e) {
             e.printStackTrace();
@@ -121,6 +124,18 @@ public class HospitalDAO {
         }
     }
 
+    /**
+     * Recupera una página de hospitales ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de hospitales de la página.
+     * @return La página de entidades {@link Hospital}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Hospital> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza un hospital existente en la base de datos.
      *
@@ -6,7 +6,12 @@ import com.sources.app.util.HibernateUtil;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object (DAO) para gestionar las entidades InsuranceService (Servicio de Seguro).
@@ -15,6 +20,14 @@ import java.util.List;
  */
 public class InsuranceServiceDAO {
 
+    private static final KeysetQuery<InsuranceService> PAGE_QUERY =
+            KeysetQuery.of(InsuranceService.class, "idInsuranceService");
+
+    /**
+     * Máximo de valores por lista IN; Oracle no admite más de 1000.
+     */
+    static final int IN_LIST_CHUNK_SIZE = 1000;
+
     /**
      * Constructor por defecto para InsuranceServiceDAO.
      */
@@ -58,6 +71,7 @@ public class InsuranceServiceDAO {
     public List<InsuranceService> findAll() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<InsuranceService> query = session.createQuery("FROM InsuranceService", InsuranceService.class);
+            query.setCacheable(true);
             return query.getResultList();
         } catch (Exception e) {
             e.printStackTrace();
@@ -65,6 +79,18 @@ public class InsuranceServiceDAO {
         }
     }
 
+    /**
+     * Recupera una página de servicios de seguro ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de servicios de seguro de la página.
+     * @return La página de entidades {@link InsuranceService}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<InsuranceService> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Busca servicios de seguro por su categoría principal.
      *
@@ -203,4 +229,40 @@ public class InsuranceServiceDAO {
             return null;
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Resuelve en bloque qué IDs externos ya están importados, con una
+     * consulta por cada {@value #IN_LIST_CHUNK_SIZE} IDs en una sola sesión.
+     *
+     * @param externalIds IDs externos a buscar; nulos y repetidos se ignoran.
+     * @return Mapa de ID externo al menor {@code idInsuranceService} con ese
+     * ID externo (sólo los importados), o null si ocurre un error.
+     */
+    public Map<String, Long> findByExternalIds(Collection<String> externalIds) {
+        Map<String, Long> imported = new HashMap<>();
+        if (externalIds == null || externalIds.isEmpty()) {
+            return imported;
+        }
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(externalIds));
+        distinct.remove(null);
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            for (int from = 0; from < distinct.size(); from += IN_LIST_CHUNK_SIZE) {
+                List<String> chunk = distinct.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, distinct.size()));
+                List<Object[]> rows = session.createQuery(
+                    "SELECT s.externalId, s.idInsuranceService FROM InsuranceService s"
+                    + " WHERE s.externalId IN (:externalIds) ORDER BY s.idInsuranceService",
+                    Object[].class
+                )
+                    .setParameterList("externalIds", chunk)
+                    .getResultList();
+                for (Object[] row : rows) {
+                    imported.putIfAbsent((String) row[0], ((Number) row[1]).longValue());
+                }
+            }
+            return imported;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
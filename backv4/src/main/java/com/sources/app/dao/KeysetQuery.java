@@ -0,0 +1,169 @@
+package com.sources.app.dao;
+
+import com.sources.app.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consulta paginada por cursor (keyset) sobre la clave primaria de una entidad.
+ *
+ * <p>En lugar de {@code OFFSET}, cada página pide las filas cuya clave es
+ * mayor que la última fila devuelta ({@code WHERE id > :after ORDER BY id}),
+ * de modo que la base de datos recorre el índice de la clave desde ese punto
+ * y el coste de una página no depende de cuántas filas haya antes. Las claves
+ * compuestas se comparan en orden lexicográfico. Se lee una fila de más para
+ * saber si existe una página siguiente.</p>
+ *
+ * <p>Las instancias son inmutables; cada DAO guarda la suya en una constante.
+ * A diferencia de los demás métodos de los DAO, los errores de base de datos
+ * se propagan: una página vacía se confundiría con el final del listado.</p>
+ *
+ * @param <T> El tipo de entidad consultada.
+ */
+final class KeysetQuery<T> {
+
+    static final String CURSOR_SEPARATOR = ":";
+    private static final String ALIAS = "e";
+
+    private final Class<T> type;
+    private final List<String> keys;
+    private final List<String> fetchJoins;
+    private final boolean descending;
+
+    private KeysetQuery(Class<T> type, List<String> keys, List<String> fetchJoins, boolean descending) {
+        this.type = type;
+        this.keys = keys;
+        this.fetchJoins = fetchJoins;
+        this.descending = descending;
+    }
+
+    /**
+     * @param type La entidad a consultar; su nombre HQL es el nombre simple de la clase.
+     * @param keys Las propiedades numéricas de la clave primaria, p. ej. {@code "idOrder"} o {@code "id.orderId", "id.medicineId"}.
+     */
+    static <T> KeysetQuery<T> of(Class<T> type, String... keys) {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("Se necesita al menos una propiedad de clave");
+        }
+        return new KeysetQuery<>(type, List.of(keys), List.of(), false);
+    }
+
+    /**
+     * Carga además la asociación indicada en la misma consulta ({@code join fetch}).
+     */
+    KeysetQuery<T> fetchJoin(String association) {
+        List<String> joins = new ArrayList<>(fetchJoins);
+        joins.add(association);
+        return new KeysetQuery<>(type, keys, List.copyOf(joins), descending);
+    }
+
+    /**
+     * Recorre la clave de mayor a menor (los registros más recientes primero).
+     */
+    KeysetQuery<T> descending() {
+        return new KeysetQuery<>(type, keys, fetchJoins, true);
+    }
+
+    /**
+     * Lee una página.
+     *
+     * @param after El cursor devuelto por la página anterior, o null/vacío para la primera.
+     * @param limit El número máximo de filas (mayor que 0).
+     * @return La página, con el cursor de la siguiente si quedan filas.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    KeysetPage<T> fetch(String after, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("El límite debe ser mayor que 0");
+        }
+        long[] cursor = parseCursor(after);
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<Object[]> query = session.createQuery(hql(cursor != null), Object[].class);
+            if (cursor != null) {
+                for (int i = 0; i < cursor.length; i++) {
+                    query.setParameter("k" + i, cursor[i]);
+                }
+            }
+            query.setMaxResults(limit + 1);
+            return toPage(query.getResultList(), limit);
+        }
+    }
+
+    String hql(boolean withCursor) {
+        StringBuilder hql = new StringBuilder("select ").append(ALIAS);
+        for (String key : keys) {
+            hql.append(", ").append(path(key));
+        }
+        hql.append(" from ").append(type.getSimpleName()).append(' ').append(ALIAS);
+        for (String join : fetchJoins) {
+            hql.append(" join fetch ").append(path(join));
+        }
+        if (withCursor) {
+            // (k0 > :k0) or (k0 = :k0 and k1 > :k1) or ...
+            String comparison = descending ? " < :k" : " > :k";
+            hql.append(" where ");
+            for (int i = 0; i < keys.size(); i++) {
+                if (i > 0) {
+                    hql.append(" or ");
+                }
+                hql.append('(');
+                for (int j = 0; j < i; j++) {
+                    hql.append(path(keys.get(j))).append(" = :k").append(j).append(" and ");
+                }
+                hql.append(path(keys.get(i))).append(comparison).append(i).append(')');
+            }
+        }
+        hql.append(" order by ");
+        for (int i = 0; i < keys.size(); i++) {
+            hql.append(i > 0 ? ", " : "").append(path(keys.get(i))).append(descending ? " desc" : " asc");
+        }
+        return hql.toString();
+    }
+
+    long[] parseCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        String[] parts = after.trim().split(CURSOR_SEPARATOR, -1);
+        if (parts.length != keys.size()) {
+            throw new IllegalArgumentException("Cursor no válido: " + after);
+        }
+        long[] values = new long[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Long.parseLong(parts[i]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor no válido: " + after);
+        }
+        return values;
+    }
+
+    KeysetPage<T> toPage(List<Object[]> rows, int limit) {
+        boolean hasNext = rows.size() > limit;
+        int size = Math.min(rows.size(), limit);
+        List<T> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(type.cast(rows.get(i)[0]));
+        }
+        return new KeysetPage<>(items, hasNext ? cursorOf(rows.get(size - 1)) : null);
+    }
+
+    private String cursorOf(Object[] row) {
+        StringBuilder cursor = new StringBuilder();
+        for (int i = 1; i < row.length; i++) {
+            if (i > 1) {
+                cursor.append(CURSOR_SEPARATOR);
+            }
+            cursor.append(((Number) row[i]).longValue());
+        }
+        return cursor.toString();
+    }
+
+    private static String path(String property) {
+        return ALIAS + "." + property;
+    }
+}
@@ -17,6 +17,8 @@ import java.util.List;
  */
 public class MedicineDAO {
 
+    private static final KeysetQuery<Medicine> PAGE_QUERY = KeysetQuery.of(Medicine.class, "idMedicine");
+
     /**
      * Crea un nuevo medicamento en la base de datos.
      *
@@ -99,6 +101,18 @@ public class MedicineDAO {
         }
     }
 
+    /**
+     * Recupera una página de medicamentos ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de medicamentos de la página.
+     * @return La página de entidades {@link Medicine}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Medicine> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza un medicamento existente en la base de datos.
      *
@@ -18,6 +18,9 @@ import java.util.List;
  */
 public class MedicinePresDAO {
 
+    private static final KeysetQuery<MedicinePres> PAGE_QUERY =
+            KeysetQuery.of(MedicinePres.class, "prescription.idPrescription", "medicine.idMedicine");
+
     /**
      * Crea una nueva relación entre un medicamento y una receta.
      *
@@ -100,6 +103,18 @@ public class MedicinePresDAO {
         }
     }
 
+    /**
+     * Recupera una página de medicamentos de receta ordenada por clave, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de medicamentos de receta de la página.
+     * @return La página de entidades {@link MedicinePres}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<MedicinePres> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza una relación MedicinePres existente. Nota: Dado que la clave
      * primaria es compuesta y define la relación, generalmente no hay atributos
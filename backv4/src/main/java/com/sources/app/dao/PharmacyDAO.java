@@ -14,6 +14,8 @@ import java.util.List;
  */
 public class PharmacyDAO {
 
+    private static final KeysetQuery<Pharmacy> PAGE_QUERY = KeysetQuery.of(Pharmacy.class, "idPharmacy");
+
     /**
      * Crea una nueva farmacia en la base de datos.
      *
@@ -81,6 +83,7 @@ public class PharmacyDAO {
     public List<Pharmacy> findAll() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<Pharmacy> query = session.createQuery("FROM Pharmacy", Pharmacy.class);
+            query.setCacheable(true);
             return query.getResultList();
         } catch (Exception e) {
             e.printStackTrace();
@@ -88,6 +91,18 @@ public class PharmacyDAO {
         }
     }
 
+    /**
+     * Recupera una página de farmacias ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de farmacias de la página.
+     * @return La página de entidades {@link Pharmacy}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Pharmacy> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza una farmacia existente en la base de datos.
      *
@@ -15,6 +15,8 @@ import java.util.List;
  */
 public class PolicyDAO {
 
+    private static final KeysetQuery<Policy> PAGE_QUERY = KeysetQuery.of(Policy.class, "idPolicy");
+
     /**
      * Crea una nueva póliza en la base de datos.
      *
@@ -81,6 +83,7 @@ public class PolicyDAO {
     public List<Policy> findAll() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<Policy> query = session.createQuery("FROM Policy", Policy.class);
+            query.setCacheable(true);
             return query.getResultList();
         } catch (Exception e) {
             e.printStackTrace();
@@ -88,6 +91,18 @@ public class PolicyDAO {
         }
     }
 
+    /**
+     * Recupera una página de pólizas ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de pólizas de la página.
+     * @return La página de entidades {@link Policy}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Policy> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza una póliza existente en la base de datos.
      *
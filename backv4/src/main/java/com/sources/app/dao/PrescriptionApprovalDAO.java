@@ -6,6 +6,7 @@ import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -15,6 +16,9 @@ import java.util.List;
  */
 public class PrescriptionApprovalDAO {
 
+    private static final KeysetQuery<PrescriptionApproval> PAGE_QUERY =
+            KeysetQuery.of(PrescriptionApproval.class, "idApproval").descending();
+
     /**
      * Guarda un nuevo registro de aprobación de receta en la base de datos.
      *
@@ -69,6 +73,29 @@ public class PrescriptionApprovalDAO {
             return null;
         }
     }
+
+    /**
+     * Recorre todos los registros de aprobación de recetas, ordenados por fecha de aprobación descendente,
+     * sin cargarlos en una lista; la sesión sigue abierta mientras {@code consumer} consume el stream.
+     *
+     * @param consumer Recibe las aprobaciones de receta.
+     * @throws IOException Si la lanza {@code consumer}; los errores de base de datos también se propagan.
+     */
+    public void streamAll(ResultStreamConsumer<PrescriptionApproval> consumer) throws IOException {
+        StreamQuery.stream(PrescriptionApproval.class, "FROM PrescriptionApproval ORDER BY approvalDate DESC", consumer);
+    }
+
+    /**
+     * Recupera una página de aprobaciones de receta ordenada por ID descendente, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de aprobaciones de receta de la página.
+     * @return La página de entidades {@link PrescriptionApproval}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<PrescriptionApproval> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
     
     public List<PrescriptionApproval> findByUserId(Long userId) {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
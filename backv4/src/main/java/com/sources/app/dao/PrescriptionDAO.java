@@ -22,6 +22,8 @@ import java.util.List;
  */
 public class PrescriptionDAO {
 
+    private static final KeysetQuery<Prescription> PAGE_QUERY = KeysetQuery.of(Prescription.class, "idPrescription");
+
     /**
      * Crea una nueva receta en la base de datos.
      *
@@ -149,6 +151,18 @@ public class PrescriptionDAO {
         }
     }
 
+    /**
+     * Recupera una página de recetas ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de recetas de la página.
+     * @return La página de entidades {@link Prescription}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Prescription> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza una receta existente en la base de datos.
      *
@@ -0,0 +1,22 @@
+package com.sources.app.dao;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+/**
+ * Recibe el resultado de una consulta como {@link Stream} mientras la sesión
+ * de Hibernate sigue abierta. El stream deja de ser válido al volver de
+ * {@link #accept}.
+ *
+ * @param <T> El tipo de entidad consultada.
+ */
+@FunctionalInterface
+public interface ResultStreamConsumer<T> {
+
+    /**
+     * @param results Las filas, leídas de la base de datos a medida que se
+     * consumen.
+     * @throws IOException Si falla la escritura de las filas.
+     */
+    void accept(Stream<T> results) throws IOException;
+}
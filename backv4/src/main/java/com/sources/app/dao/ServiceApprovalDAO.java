@@ -6,8 +6,13 @@ import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -17,6 +22,11 @@ import java.util.UUID;
  */
 public class ServiceApprovalDAO {
 
+    /**
+     * Tamaño de lote por defecto de {@link #backfillApprovalDays()}.
+     */
+    static final int DEFAULT_BACKFILL_BATCH_SIZE = 500;
+
     /**
      * Crea un nuevo registro de aprobación de servicio.
      * Genera automáticamente un código de aprobación único y establece la fecha de aprobación si no se proporcionan.
@@ -42,6 +52,7 @@ public class ServiceApprovalDAO {
             
             session.save(approval);
             transaction.commit();
+            ServiceApprovalRollup.getInstance().replace(null, ServiceApprovalRollup.Entry.of(approval));
             return approval;
         } catch (Exception e) {
             if (transaction != null) {
@@ -54,6 +65,8 @@ public class ServiceApprovalDAO {
     
     /**
      * Actualiza un registro de aprobación de servicio existente.
+     * Si los totales del dashboard están cargados, lee antes la fila actual
+     * para poder restar su aportación en {@link ServiceApprovalRollup}.
      *
      * @param approval El objeto ServiceApproval con los datos actualizados.
      * @return El objeto ServiceApproval actualizado, o null si ocurre un error.
@@ -62,8 +75,18 @@ public class ServiceApprovalDAO {
         Transaction transaction = null;
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             transaction = session.beginTransaction();
+            ServiceApprovalRollup rollup = ServiceApprovalRollup.getInstance();
+            ServiceApprovalRollup.Entry before = null;
+            if (rollup.isLoaded() && approval.getId() != null) {
+                ServiceApproval current = session.get(ServiceApproval.class, approval.getId());
+                if (current != null) {
+                    before = ServiceApprovalRollup.Entry.of(current);
+                    session.evict(current);
+                }
+            }
             session.update(approval);
             transaction.commit();
+            rollup.replace(before, ServiceApprovalRollup.Entry.of(approval));
             return approval;
         } catch (Exception e) {
             if (transaction != null) {
@@ -218,6 +241,131 @@ public class ServiceApprovalDAO {
         }
     }
     
+    /**
+     * Obtiene las aprobaciones más recientes, ordenadas por fecha descendente.
+     *
+     * @param limit El número máximo de aprobaciones a devolver.
+     * @return Una lista con como mucho {@code limit} aprobaciones, o null si ocurre un error.
+     */
+    public List<ServiceApproval> findRecent(int limit) {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<ServiceApproval> query = session.createQuery(
+                "FROM ServiceApproval ORDER BY approvalDate DESC", ServiceApproval.class);
+            query.setMaxResults(limit);
+            return query.list();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Agrupa todas las aprobaciones por estado, hospital y día de
+     * aprobación en una sola consulta, para reconstruir
+     * {@link ServiceApprovalRollup}. Agrupa por la columna
+     * {@code approval_day} y no por la fecha completa, que daría una fila por
+     * aprobación. Cada fila contiene: estado, hospital, día, número de
+     * aprobaciones, número con receta, suma cubierta, suma del paciente y
+     * suma del coste del servicio.
+     *
+     * @return Las filas agrupadas, o null si ocurre un error.
+     */
+    List<Object[]> findRollupGroups() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            Query<Object[]> query = session.createQuery(
+                "SELECT a.status, a.hospitalId, a.approvalDay, count(a), count(a.prescriptionId), "
+                + "sum(a.coveredAmount), sum(a.patientAmount), sum(a.serviceCost) "
+                + "FROM ServiceApproval a GROUP BY a.status, a.hospitalId, a.approvalDay",
+                Object[].class);
+            return query.list();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Rellena {@code approval_day} en las aprobaciones guardadas antes de
+     * que existiera esa columna, en lotes de
+     * {@value #DEFAULT_BACKFILL_BATCH_SIZE}. Ver
+     * {@link #backfillApprovalDays(int)}.
+     *
+     * @return El número de aprobaciones actualizadas.
+     */
+    int backfillApprovalDays() {
+        return backfillApprovalDays(DEFAULT_BACKFILL_BATCH_SIZE);
+    }
+
+    /**
+     * Rellena {@code approval_day} en las aprobaciones guardadas antes de
+     * que existiera esa columna, para que {@link #findRollupGroups()} las
+     * cuente en su día. Tras la primera ejecución no encuentra filas.
+     *
+     * <p>Se procesa por lotes en orden de ID, como
+     * {@link UserDAO#checkAllUsersServiceExpiration(int, java.util.function.IntConsumer)}:
+     * cada lote lee solo el ID y la fecha de {@code batchSize} aprobaciones
+     * como máximo, calcula el día en la zona horaria de la JVM (igual que
+     * {@link ServiceApproval#setApprovalDate(Date)}) y lo guarda con un
+     * {@code UPDATE} masivo por cada día distinto del lote, en su propia
+     * transacción. Si un lote falla se deshace solo ese lote y se detiene el
+     * proceso; los anteriores quedan confirmados y el siguiente arranque
+     * retoma el resto.</p>
+     *
+     * @param batchSize Número máximo de aprobaciones por lote (mayor que 0).
+     * @return El número de aprobaciones actualizadas en los lotes confirmados.
+     */
+    int backfillApprovalDays(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que 0");
+        }
+        long lastId = Long.MIN_VALUE;
+        int updatedCount = 0;
+        while (true) {
+            List<Object[]> rows;
+            int updated = 0;
+            Transaction transaction = null;
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                transaction = session.beginTransaction();
+                rows = session.createQuery(
+                        "SELECT a.id, a.approvalDate FROM ServiceApproval a"
+                        + " WHERE a.approvalDay IS NULL AND a.approvalDate IS NOT NULL AND a.id > :lastId"
+                        + " ORDER BY a.id", Object[].class)
+                        .setParameter("lastId", lastId)
+                        .setMaxResults(batchSize)
+                        .getResultList();
+                Map<LocalDate, List<Long>> idsByDay = new HashMap<>();
+                for (Object[] row : rows) {
+                    LocalDate day = ((Date) row[1]).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+                    idsByDay.computeIfAbsent(day, d -> new ArrayList<>()).add((Long) row[0]);
+                }
+                for (Map.Entry<LocalDate, List<Long>> day : idsByDay.entrySet()) {
+                    updated += session.createMutationQuery(
+                            "UPDATE ServiceApproval a SET a.approvalDay = :day"
+                            + " WHERE a.id IN (:ids) AND a.approvalDay IS NULL")
+                            .setParameter("day", day.getKey())
+                            .setParameterList("ids", day.getValue())
+                            .executeUpdate();
+                }
+                transaction.commit();
+            } catch (Exception e) {
+                if (transaction != null && transaction.getStatus().canRollback()) {
+                    try {
+                        transaction.rollback();
+                    } catch (Exception rbEx) {
+                        rbEx.printStackTrace();
+                    }
+                }
+                e.printStackTrace();
+                return updatedCount;
+            }
+            updatedCount += updated;
+            if (rows.size() < batchSize) {
+                return updatedCount;
+            }
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+        }
+    }
+
     /**
      * Genera un código de aprobación único utilizando UUID.
      * Formato: "AP" seguido de 8 caracteres hexadecimales en mayúsculas.
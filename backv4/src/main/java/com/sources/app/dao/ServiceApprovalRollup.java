@@ -0,0 +1,423 @@
+package com.sources.app.dao;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sources.app.entities.ServiceApproval;
+
+/**
+ * Totales de {@link ServiceApproval} mantenidos en memoria para el dashboard,
+ * de modo que su coste no crezca con el histórico de aprobaciones.
+ *
+ * <p>Se guardan conteos y sumas de importes (cubierto, paciente y coste del
+ * servicio) agregados de tres formas: por estado, por hospital y por día de
+ * aprobación. Los totales se actualizan así:</p>
+ * <ul>
+ * <li>Reconstrucción completa con una sola consulta {@code GROUP BY} (sin
+ * cargar entidades) al llamar a {@link #start(ServiceApprovalDAO)}.</li>
+ * <li>Reconstrucción periódica cada
+ * {@code SERVICE_APPROVAL_ROLLUP_REBUILD_MINUTES} minutos (60 por defecto, 0
+ * la desactiva), que corrige cambios hechos por otras instancias o
+ * directamente en la base de datos.</li>
+ * <li>Ajuste incremental cuando {@link ServiceApprovalDAO#create},
+ * {@link ServiceApprovalDAO#update} (y por tanto {@code updateStatus} y
+ * {@code updatePrescriptionInfo}) confirman su transacción: se resta la
+ * fila anterior y se suma la nueva.</li>
+ * </ul>
+ * Mientras no haya una carga completa los ajustes se ignoran y
+ * {@link #isLoaded()} devuelve {@code false}. Una reconstrucción que empezó
+ * antes de un ajuste se descarta para no perderlo.
+ */
+public class ServiceApprovalRollup {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceApprovalRollup.class);
+    private static final ServiceApprovalRollup INSTANCE = new ServiceApprovalRollup();
+
+    static final long DEFAULT_REBUILD_MINUTES = 60;
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    /**
+     * Conteo y sumas de un grupo de aprobaciones. Las instancias que devuelve
+     * {@link Snapshot} no cambian.
+     */
+    public static final class Totals {
+
+        static final Totals EMPTY = new Totals();
+
+        private long count;
+        private long withPrescription;
+        private double coveredAmount;
+        private double patientAmount;
+        private double serviceCost;
+
+        Totals() {
+        }
+
+        private Totals(Totals other) {
+            this.count = other.count;
+            this.withPrescription = other.withPrescription;
+            this.coveredAmount = other.coveredAmount;
+            this.patientAmount = other.patientAmount;
+            this.serviceCost = other.serviceCost;
+        }
+
+        void reset() {
+            count = 0;
+            withPrescription = 0;
+            coveredAmount = 0.0;
+            patientAmount = 0.0;
+            serviceCost = 0.0;
+        }
+
+        void add(Entry entry, int sign) {
+            count += sign * entry.count;
+            withPrescription += sign * entry.withPrescription;
+            coveredAmount += sign * entry.coveredAmount;
+            patientAmount += sign * entry.patientAmount;
+            serviceCost += sign * entry.serviceCost;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getWithPrescription() {
+            return withPrescription;
+        }
+
+        public double getCoveredAmount() {
+            return coveredAmount;
+        }
+
+        public double getPatientAmount() {
+            return patientAmount;
+        }
+
+        public double getServiceCost() {
+            return serviceCost;
+        }
+    }
+
+    /**
+     * Aportación de una aprobación (o de un grupo de la consulta agregada)
+     * a los totales.
+     */
+    static final class Entry {
+
+        final String status;
+        final Long hospitalId;
+        final LocalDate day;
+        final long count;
+        final long withPrescription;
+        final double coveredAmount;
+        final double patientAmount;
+        final double serviceCost;
+
+        Entry(String status, Long hospitalId, LocalDate day, long count, long withPrescription,
+              double coveredAmount, double patientAmount, double serviceCost) {
+            this.status = status;
+            this.hospitalId = hospitalId;
+            this.day = day;
+            this.count = count;
+            this.withPrescription = withPrescription;
+            this.coveredAmount = coveredAmount;
+            this.patientAmount = patientAmount;
+            this.serviceCost = serviceCost;
+        }
+
+        static Entry of(ServiceApproval approval) {
+            if (approval == null) {
+                return null;
+            }
+            return new Entry(approval.getStatus(), approval.getHospitalId(), dayOf(approval.getApprovalDate()), 1,
+                    approval.getPrescriptionId() != null ? 1 : 0,
+                    valueOf(approval.getCoveredAmount()), valueOf(approval.getPatientAmount()),
+                    valueOf(approval.getServiceCost()));
+        }
+
+        /**
+         * Convierte una fila de {@link ServiceApprovalDAO#findRollupGroups()}:
+         * estado, hospital, día, conteo, conteo con receta y las tres sumas.
+         */
+        static Entry fromGroupRow(Object[] row) {
+            Long hospitalId = row[1] == null ? null : ((Number) row[1]).longValue();
+            return new Entry((String) row[0], hospitalId, (LocalDate) row[2], longOf(row[3]), longOf(row[4]),
+                    valueOf((Number) row[5]), valueOf((Number) row[6]), valueOf((Number) row[7]));
+        }
+
+        private static LocalDate dayOf(Date date) {
+            return date == null ? null : Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+
+        private static long longOf(Object value) {
+            return value == null ? 0L : ((Number) value).longValue();
+        }
+
+        private static double valueOf(Number value) {
+            return value == null ? 0.0 : value.doubleValue();
+        }
+    }
+
+    /**
+     * Copia de los totales en un momento dado.
+     */
+    public static final class Snapshot {
+
+        private final Totals totals;
+        private final Map<String, Totals> byStatus;
+        private final Map<Long, Totals> byHospital;
+        private final SortedMap<LocalDate, Totals> byDay;
+
+        private Snapshot(Totals totals, Map<String, Totals> byStatus, Map<Long, Totals> byHospital,
+                         SortedMap<LocalDate, Totals> byDay) {
+            this.totals = totals;
+            this.byStatus = byStatus;
+            this.byHospital = byHospital;
+            this.byDay = byDay;
+        }
+
+        public Totals getTotals() {
+            return totals;
+        }
+
+        /**
+         * @return los totales del estado indicado (vacíos si no hay ninguna aprobación con ese estado).
+         */
+        public Totals status(String status) {
+            return byStatus.getOrDefault(status, Totals.EMPTY);
+        }
+
+        public Map<String, Totals> getByStatus() {
+            return byStatus;
+        }
+
+        public Map<Long, Totals> getByHospital() {
+            return byHospital;
+        }
+
+        /**
+         * @return los totales por día de aprobación, en orden cronológico.
+         */
+        public SortedMap<LocalDate, Totals> getByDay() {
+            return byDay;
+        }
+    }
+
+    private final Totals totals = new Totals();
+    private final Map<String, Totals> byStatus = new HashMap<>();
+    private final Map<Long, Totals> byHospital = new HashMap<>();
+    private final SortedMap<LocalDate, Totals> byDay = new TreeMap<>();
+    private long version;
+    private boolean loaded;
+
+    private volatile Supplier<List<Object[]>> loader;
+    private ScheduledExecutorService scheduler;
+
+    ServiceApprovalRollup() {
+    }
+
+    /**
+     * @return la instancia compartida por toda la aplicación.
+     */
+    public static ServiceApprovalRollup getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Calcula los totales de una lista de aprobaciones ya cargada, sin tocar
+     * el estado compartido.
+     */
+    public static Snapshot summarize(Collection<ServiceApproval> approvals) {
+        ServiceApprovalRollup rollup = new ServiceApprovalRollup();
+        for (ServiceApproval approval : approvals) {
+            rollup.apply(Entry.of(approval), 1);
+        }
+        return rollup.copy();
+    }
+
+    /**
+     * Completa el día de las aprobaciones antiguas, reconstruye los totales
+     * y programa la reconstrucción periódica según
+     * {@code SERVICE_APPROVAL_ROLLUP_REBUILD_MINUTES}.
+     *
+     * @param dao DAO usado para la consulta agregada.
+     */
+    public void start(ServiceApprovalDAO dao) {
+        int backfilled = dao.backfillApprovalDays();
+        if (backfilled > 0) {
+            LOGGER.info("Día de aprobación calculado para {} aprobaciones existentes", backfilled);
+        }
+        start(dao::findRollupGroups, rebuildMinutes());
+    }
+
+    synchronized void start(Supplier<List<Object[]>> source, long rebuildMinutes) {
+        this.loader = source;
+        if (rebuild()) {
+            LOGGER.info("Totales de aprobaciones de servicio cargados ({} aprobaciones)", snapshot().getTotals().getCount());
+        } else {
+            LOGGER.warn("No se pudieron cargar los totales de aprobaciones; el dashboard los calculará desde la base de datos");
+        }
+        if (scheduler == null && rebuildMinutes > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "service-approval-rollup");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::rebuild, rebuildMinutes, rebuildMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Detiene la reconstrucción periódica. Los totales siguen disponibles.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Vuelve a calcular todos los totales con la consulta agregada.
+     *
+     * @return {@code true} si se publicaron totales nuevos.
+     */
+    public boolean rebuild() {
+        Supplier<List<Object[]>> source = loader;
+        if (source == null) {
+            return false;
+        }
+        for (int attempt = 0; attempt < MAX_REBUILD_ATTEMPTS; attempt++) {
+            long before;
+            synchronized (this) {
+                before = version;
+            }
+            List<Object[]> rows;
+            try {
+                rows = source.get();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Error reconstruyendo los totales de aprobaciones", e);
+                return false;
+            }
+            if (rows == null) {
+                return false;
+            }
+            synchronized (this) {
+                // Si hubo un ajuste durante la consulta, la lectura puede ser anterior a él
+                if (version != before) {
+                    continue;
+                }
+                clear();
+                for (Object[] row : rows) {
+                    apply(Entry.fromGroupRow(row), 1);
+                }
+                version++;
+                loaded = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} si ya hubo al menos una reconstrucción completa.
+     */
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return una copia de los totales actuales; su tamaño depende del número
+     * de estados, hospitales y días, no del de aprobaciones.
+     */
+    public synchronized Snapshot snapshot() {
+        return copy();
+    }
+
+    /**
+     * Sustituye la aportación de una aprobación tras confirmar su escritura.
+     *
+     * @param before la aprobación tal como estaba antes, o null si es nueva.
+     * @param after la aprobación tal como quedó, o null si se eliminó.
+     */
+    synchronized void replace(Entry before, Entry after) {
+        version++;
+        if (!loaded) {
+            return;
+        }
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    private void apply(Entry entry, int sign) {
+        if (entry == null) {
+            return;
+        }
+        totals.add(entry, sign);
+        if (entry.status != null) {
+            add(byStatus, entry.status, entry, sign);
+        }
+        if (entry.hospitalId != null) {
+            add(byHospital, entry.hospitalId, entry, sign);
+        }
+        if (entry.day != null) {
+            add(byDay, entry.day, entry, sign);
+        }
+    }
+
+    private static <K> void add(Map<K, Totals> buckets, K key, Entry entry, int sign) {
+        Totals bucket = buckets.computeIfAbsent(key, k -> new Totals());
+        bucket.add(entry, sign);
+        if (bucket.count <= 0) {
+            buckets.remove(key);
+        }
+    }
+
+    private void clear() {
+        totals.reset();
+        byStatus.clear();
+        byHospital.clear();
+        byDay.clear();
+    }
+
+    private Snapshot copy() {
+        return new Snapshot(new Totals(totals),
+                Collections.unmodifiableMap(copyOf(byStatus, new LinkedHashMap<>())),
+                Collections.unmodifiableMap(copyOf(byHospital, new LinkedHashMap<>())),
+                Collections.unmodifiableSortedMap(copyOf(byDay, new TreeMap<>())));
+    }
+
+    private static <K, M extends Map<K, Totals>> M copyOf(Map<K, Totals> source, M target) {
+        source.forEach((key, value) -> target.put(key, new Totals(value)));
+        return target;
+    }
+
+    static long rebuildMinutes() {
+        String value = System.getenv("SERVICE_APPROVAL_ROLLUP_REBUILD_MINUTES");
+        if (value == null || value.isBlank()) {
+            return DEFAULT_REBUILD_MINUTES;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_REBUILD_MINUTES;
+        }
+    }
+}
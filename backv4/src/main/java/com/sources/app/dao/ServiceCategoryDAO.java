@@ -19,6 +19,9 @@ import java.util.List;
  */
 public class ServiceCategoryDAO {
 
+    private static final KeysetQuery<ServiceCategory> PAGE_QUERY =
+            KeysetQuery.of(ServiceCategory.class, "service.idService", "category.idCategory");
+
     /**
      * Crea una nueva relación entre un servicio y una categoría.
      *
@@ -93,6 +96,7 @@ public class ServiceCategoryDAO {
     public List<ServiceCategory> findAll() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<ServiceCategory> query = session.createQuery("FROM ServiceCategory", ServiceCategory.class);
+            query.setCacheable(true);
             return query.getResultList();
         } catch (Exception e) {
             e.printStackTrace();
@@ -100,6 +104,18 @@ public class ServiceCategoryDAO {
         }
     }
 
+    /**
+     * Recupera una página de relaciones servicio-categoría ordenada por clave, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de relaciones servicio-categoría de la página.
+     * @return La página de entidades {@link ServiceCategory}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<ServiceCategory> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza una relación ServiceCategory existente en la base de datos.
      * Nota: Dado que la clave primaria es compuesta y define la relación,
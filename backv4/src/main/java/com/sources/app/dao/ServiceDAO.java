@@ -15,6 +15,9 @@ import java.util.List;
  */
 public class ServiceDAO {
 
+    private static final KeysetQuery<Service> PAGE_QUERY = KeysetQuery.of(Service.class, "idService")
+            .fetchJoin("hospital").fetchJoin("category").fetchJoin("subcategory");
+
     /**
      * Crea un nuevo servicio en la base de datos.
      * Se espera que el objeto Service proporcionado ya contenga las referencias
@@ -94,6 +97,19 @@ public class ServiceDAO {
         }
     }
 
+    /**
+     * Recupera una página de servicios ordenada por ID, a partir del cursor dado, cargando
+     * hospital, categoría y subcategoría en la misma consulta (como {@link #findAllWithDetails()}).
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de servicios de la página.
+     * @return La página de entidades {@link Service}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Service> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Recupera todos los servicios de la base de datos, cargando explícitamente sus relaciones asociadas
      * (hospital, categoría principal, subcategoría) mediante JOIN FETCH.
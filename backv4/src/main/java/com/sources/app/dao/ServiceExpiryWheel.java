@@ -0,0 +1,222 @@
+package com.sources.app.dao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sources.app.config.EnvConfig;
+import com.sources.app.entities.User;
+import com.sources.app.metrics.MetricsConfiguration;
+import com.sources.app.util.HierarchicalTimingWheel;
+
+/**
+ * Expira el servicio pagado de cada usuario en el momento de su
+ * {@code expirationDate}, sin barridos periódicos de la tabla de usuarios.
+ *
+ * <p>Cada usuario con {@code paidService = true} y fecha de expiración tiene
+ * un temporizador en una {@link HierarchicalTimingWheel} de ticks de un
+ * segundo. La rueda se llena al llamar a {@link #start(UserDAO)} con una sola
+ * consulta de IDs y fechas, y {@link UserDAO#update} la mantiene al día tras
+ * confirmar cada cambio. Un hilo avanza la rueda cada segundo y los usuarios
+ * vencidos se marcan como expirados con {@link UserDAO#expireServices} en
+ * lotes de {@code SERVICE_EXPIRATION_BATCH_SIZE}; un lote que falla se
+ * reintenta en el siguiente tick. La actualización solo afecta a usuarios
+ * que siguen pagados y con la fecha ya pasada, así que un temporizador
+ * obsoleto no expira a nadie antes de tiempo.</p>
+ *
+ * <p>Los cambios hechos por otras instancias no llegan a esta rueda hasta el
+ * siguiente arranque.</p>
+ */
+public final class ServiceExpiryWheel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceExpiryWheel.class);
+    private static final ServiceExpiryWheel INSTANCE = new ServiceExpiryWheel(System::currentTimeMillis);
+
+    static final long TICK_MILLIS = 1000L;
+
+    private final LongSupplier clock;
+    private final Set<Long> pending = new LinkedHashSet<>();
+    private volatile HierarchicalTimingWheel<Long> wheel;
+    private Function<Collection<Long>, Integer> expirer;
+    private int batchSize;
+    private ScheduledExecutorService ticker;
+
+    ServiceExpiryWheel(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return la instancia compartida por toda la aplicación.
+     */
+    public static ServiceExpiryWheel getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Carga los vencimientos de todos los usuarios con servicio pagado y
+     * empieza a avanzar la rueda cada segundo.
+     *
+     * @param dao DAO usado para la carga inicial y para expirar los lotes.
+     * @return {@code true} si la carga inicial funcionó; si no, la rueda no
+     * se activa y hay que recurrir al barrido diario.
+     */
+    public boolean start(UserDAO dao) {
+        if (!load(dao::findPaidServiceExpirations, dao::expireServices, expirationBatchSize())) {
+            LOGGER.warn("No se pudieron cargar los vencimientos de servicio; se usará el barrido diario");
+            return false;
+        }
+        LOGGER.info("Vencimientos de servicio cargados ({} usuarios con servicio pagado)", size());
+        synchronized (this) {
+            if (ticker == null) {
+                ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "service-expiry-wheel");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                ticker.scheduleWithFixedDelay(this::tick, 0L, TICK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Crea la rueda con los vencimientos dados.
+     *
+     * @param source Filas {@code [idUser, expirationDate]}; null si falló la consulta.
+     * @param expirer Marca como expirados los IDs dados; devuelve las filas
+     * actualizadas, o un número negativo si falló.
+     */
+    synchronized boolean load(Supplier<List<Object[]>> source, Function<Collection<Long>, Integer> expirer,
+                              int batchSize) {
+        List<Object[]> rows;
+        try {
+            rows = source.get();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Error cargando los vencimientos de servicio", e);
+            return false;
+        }
+        if (rows == null) {
+            return false;
+        }
+        HierarchicalTimingWheel<Long> loaded = new HierarchicalTimingWheel<>(TICK_MILLIS, clock.getAsLong());
+        for (Object[] row : rows) {
+            if (row[0] != null && row[1] != null) {
+                loaded.schedule(((Number) row[0]).longValue(), deadline((Date) row[1]));
+            }
+        }
+        this.expirer = expirer;
+        this.batchSize = batchSize;
+        this.wheel = loaded;
+        return true;
+    }
+
+    /**
+     * Detiene el avance de la rueda.
+     */
+    public synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    /**
+     * @return {@code true} si la rueda está cargada.
+     */
+    public boolean isStarted() {
+        return wheel != null;
+    }
+
+    /**
+     * @return el número de usuarios con un vencimiento programado.
+     */
+    public int size() {
+        HierarchicalTimingWheel<Long> current = wheel;
+        return current == null ? 0 : current.size();
+    }
+
+    /**
+     * Programa o cancela el vencimiento de un usuario según su estado tras
+     * una escritura confirmada. No hace nada si la rueda no está cargada.
+     */
+    void track(User user) {
+        HierarchicalTimingWheel<Long> current = wheel;
+        if (current == null || user == null || user.getIdUser() == null) {
+            return;
+        }
+        if (Boolean.TRUE.equals(user.getPaidService()) && user.getExpirationDate() != null) {
+            current.schedule(user.getIdUser(), deadline(user.getExpirationDate()));
+        } else {
+            current.cancel(user.getIdUser());
+        }
+    }
+
+    /**
+     * @return el vencimiento programado de un usuario, o null si no tiene.
+     */
+    Long deadlineOf(Long idUser) {
+        HierarchicalTimingWheel<Long> current = wheel;
+        return current == null ? null : current.deadlineOf(idUser);
+    }
+
+    /**
+     * Avanza la rueda hasta ahora y expira los usuarios vencidos por lotes.
+     *
+     * @return el número de usuarios expirados en este tick.
+     */
+    synchronized int tick() {
+        HierarchicalTimingWheel<Long> current = wheel;
+        if (current == null) {
+            return 0;
+        }
+        int expired = 0;
+        try {
+            pending.addAll(current.advance(clock.getAsLong()));
+            while (!pending.isEmpty()) {
+                List<Long> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+                for (Long id : pending) {
+                    batch.add(id);
+                    if (batch.size() == batchSize) {
+                        break;
+                    }
+                }
+                Integer updated = expirer.apply(batch);
+                if (updated == null || updated < 0) {
+                    // Se reintenta en el siguiente tick
+                    break;
+                }
+                pending.removeAll(batch);
+                expired += updated;
+                MetricsConfiguration.SERVICE_EXPIRATION_CHUNKS_TOTAL.inc();
+                MetricsConfiguration.SERVICE_EXPIRATION_ROWS_TOTAL.inc(updated);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Error expirando servicios vencidos", e);
+        }
+        return expired;
+    }
+
+    /**
+     * El servicio expira cuando {@code expirationDate} queda estrictamente
+     * antes de ahora, igual que en {@link UserDAO#checkAllUsersServiceExpiration()}.
+     */
+    private static long deadline(Date expirationDate) {
+        return expirationDate.getTime() + 1;
+    }
+
+    static int expirationBatchSize() {
+        return EnvConfig.positiveInt("SERVICE_EXPIRATION_BATCH_SIZE", UserDAO.DEFAULT_EXPIRATION_BATCH_SIZE);
+    }
+}
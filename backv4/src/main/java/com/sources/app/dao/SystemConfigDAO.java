@@ -50,6 +50,7 @@ public class SystemConfigDAO {
             }
 
             transaction.commit();
+            SystemConfigRegistry.getInstance().put(key, config.getConfigValue());
             return config;
         } catch (Exception e) {
             if (transaction != null) {
@@ -81,13 +82,19 @@ public class SystemConfigDAO {
 
     /**
      * Obtiene el valor de una configuración como String, devolviendo un valor
-     * por defecto si no se encuentra.
+     * por defecto si no se encuentra. Una vez cargado el
+     * {@link SystemConfigRegistry} se responde desde memoria; antes de eso se
+     * consulta la base de datos.
      *
      * @param key La clave de la configuración.
      * @param defaultValue El valor a devolver si la clave no existe.
      * @return El valor de la configuración como String, o el valor por defecto.
      */
     public String getConfigValue(String key, String defaultValue) {
+        SystemConfigRegistry registry = SystemConfigRegistry.getInstance();
+        if (registry.isLoaded()) {
+            return registry.getString(key, defaultValue);
+        }
         SystemConfig config = getByKey(key);
         return config != null ? config.getConfigValue() : defaultValue;
     }
@@ -173,6 +180,9 @@ public class SystemConfigDAO {
             int result = query.executeUpdate();
 
             transaction.commit();
+            if (result > 0) {
+                SystemConfigRegistry.getInstance().remove(key);
+            }
             return result > 0;
         } catch (Exception e) {
             if (transaction != null) {
@@ -0,0 +1,245 @@
+package com.sources.app.dao;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sources.app.entities.SystemConfig;
+
+/**
+ * Copia en memoria de todas las entradas de {@link SystemConfig}, pensada para
+ * leer configuración desde las rutas de petición sin ir a la base de datos.
+ *
+ * <p>La configuración se guarda en un mapa inmutable junto con un número de
+ * versión; cada cambio publica un mapa nuevo de forma atómica, así que las
+ * lecturas nunca bloquean. El contenido se actualiza de tres formas:</p>
+ * <ul>
+ * <li>Carga completa al llamar a {@link #start(SystemConfigDAO)}.</li>
+ * <li>Recarga periódica cada {@code SYSTEM_CONFIG_REFRESH_SECONDS} segundos
+ * (60 por defecto, 0 la desactiva) para ver cambios hechos por otras
+ * instancias.</li>
+ * <li>Escritura inmediata cuando {@link SystemConfigDAO#saveOrUpdate} o
+ * {@link SystemConfigDAO#delete} terminan con éxito.</li>
+ * </ul>
+ * Una recarga que empezó antes de una escritura local se descarta para no
+ * pisar el valor más reciente.
+ */
+public final class SystemConfigRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SystemConfigRegistry.class);
+    private static final SystemConfigRegistry INSTANCE = new SystemConfigRegistry();
+
+    static final long DEFAULT_REFRESH_SECONDS = 60;
+    private static final int MAX_REFRESH_ATTEMPTS = 3;
+
+    /**
+     * Estado publicado: versión, valores y si ya hubo una carga completa.
+     */
+    static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(0L, Collections.emptyMap(), false);
+
+        final long version;
+        final Map<String, String> values;
+        final boolean loaded;
+
+        Snapshot(long version, Map<String, String> values, boolean loaded) {
+            this.version = version;
+            this.values = values;
+            this.loaded = loaded;
+        }
+
+        Snapshot with(String key, String value) {
+            Map<String, String> copy = new HashMap<>(values);
+            if (value == null) {
+                copy.remove(key);
+            } else {
+                copy.put(key, value);
+            }
+            return new Snapshot(version + 1, Collections.unmodifiableMap(copy), loaded);
+        }
+    }
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    private volatile Supplier<List<SystemConfig>> loader;
+    private ScheduledExecutorService scheduler;
+
+    SystemConfigRegistry() {
+    }
+
+    /**
+     * @return la instancia compartida por toda la aplicación.
+     */
+    public static SystemConfigRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Carga la configuración y programa la recarga periódica según
+     * {@code SYSTEM_CONFIG_REFRESH_SECONDS}.
+     *
+     * @param dao DAO usado para leer todas las entradas.
+     */
+    public void start(SystemConfigDAO dao) {
+        start(dao::getAll, refreshSeconds());
+    }
+
+    synchronized void start(Supplier<List<SystemConfig>> source, long refreshSeconds) {
+        this.loader = source;
+        if (refresh()) {
+            LOGGER.info("Configuración del sistema cargada ({} claves)", snapshot.get().values.size());
+        } else {
+            LOGGER.warn("No se pudo cargar la configuración del sistema; se leerá de la base de datos");
+        }
+        if (scheduler == null && refreshSeconds > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "system-config-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::refresh, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Detiene la recarga periódica. La última copia sigue disponible.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Vuelve a leer todas las entradas desde la base de datos.
+     *
+     * @return {@code true} si se publicó una copia nueva.
+     */
+    public boolean refresh() {
+        Supplier<List<SystemConfig>> source = loader;
+        if (source == null) {
+            return false;
+        }
+        for (int attempt = 0; attempt < MAX_REFRESH_ATTEMPTS; attempt++) {
+            Snapshot before = snapshot.get();
+            List<SystemConfig> configs;
+            try {
+                configs = source.get();
+            } catch (RuntimeException e) {
+                LOGGER.warn("Error recargando la configuración del sistema", e);
+                return false;
+            }
+            if (configs == null) {
+                return false;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (SystemConfig config : configs) {
+                if (config.getConfigKey() != null && config.getConfigValue() != null) {
+                    values.put(config.getConfigKey(), config.getConfigValue());
+                }
+            }
+            Snapshot next = new Snapshot(before.version + 1, Collections.unmodifiableMap(values), true);
+            // Si hubo una escritura durante la carga, la lectura puede ser anterior a ella
+            if (snapshot.compareAndSet(before, next)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@code true} si ya se hizo al menos una carga completa.
+     */
+    public boolean isLoaded() {
+        return snapshot.get().loaded;
+    }
+
+    /**
+     * @return versión de la copia actual; aumenta con cada cambio.
+     */
+    public long getVersion() {
+        return snapshot.get().version;
+    }
+
+    /**
+     * @return todas las entradas actuales (mapa inmutable).
+     */
+    public Map<String, String> asMap() {
+        return snapshot.get().values;
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = snapshot.get().values.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public Integer getInt(String key, Integer defaultValue) {
+        String value = snapshot.get().values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public Double getDouble(String key, Double defaultValue) {
+        String value = snapshot.get().values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Considera "true", "1" y "yes" (sin distinguir mayúsculas) como
+     * verdadero, igual que {@link SystemConfigDAO#getConfigValueAsBoolean}.
+     */
+    public Boolean getBoolean(String key, Boolean defaultValue) {
+        String value = snapshot.get().values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        return "true".equalsIgnoreCase(value) || "1".equals(value) || "yes".equalsIgnoreCase(value);
+    }
+
+    void put(String key, String value) {
+        if (key != null) {
+            snapshot.updateAndGet(current -> current.with(key, value));
+        }
+    }
+
+    void remove(String key) {
+        if (key != null) {
+            snapshot.updateAndGet(current -> current.with(key, null));
+        }
+    }
+
+    static long refreshSeconds() {
+        String value = System.getenv("SYSTEM_CONFIG_REFRESH_SECONDS");
+        if (value == null || value.isBlank()) {
+            return DEFAULT_REFRESH_SECONDS;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_REFRESH_SECONDS;
+        }
+    }
+}
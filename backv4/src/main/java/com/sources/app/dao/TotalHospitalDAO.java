@@ -18,6 +18,8 @@ import java.util.List;
  */
 public class TotalHospitalDAO {
 
+    private static final KeysetQuery<TotalHospital> PAGE_QUERY = KeysetQuery.of(TotalHospital.class, "idTotalHospital");
+
     /**
      * Crea un nuevo registro de total diario para un hospital específico.
      *
@@ -95,6 +97,18 @@ public class TotalHospitalDAO {
         }
     }
 
+    /**
+     * Recupera una página de totales de hospital ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de totales de hospital de la página.
+     * @return La página de entidades {@link TotalHospital}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<TotalHospital> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza un registro existente de TotalHospital en la base de datos.
      *
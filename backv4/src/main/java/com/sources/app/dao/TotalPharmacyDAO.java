@@ -18,6 +18,8 @@ import java.util.List;
  */
 public class TotalPharmacyDAO {
 
+    private static final KeysetQuery<TotalPharmacy> PAGE_QUERY = KeysetQuery.of(TotalPharmacy.class, "idTotalPharmacy");
+
     /**
      * Crea un nuevo registro de total diario para una farmacia específica.
      *
@@ -95,6 +97,18 @@ public class TotalPharmacyDAO {
         }
     }
 
+    /**
+     * Recupera una página de totales de farmacia ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de totales de farmacia de la página.
+     * @return La página de entidades {@link TotalPharmacy}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<TotalPharmacy> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza un registro existente de TotalPharmacy en la base de datos.
      *
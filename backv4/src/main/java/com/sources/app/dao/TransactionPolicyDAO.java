@@ -20,6 +20,9 @@ import java.util.List;
  */
 public class TransactionPolicyDAO {
 
+    private static final KeysetQuery<TransactionPolicy> PAGE_QUERY =
+            KeysetQuery.of(TransactionPolicy.class, "idTransactionPolicy");
+
     /**
      * Crea un nuevo registro de transacción de póliza.
      *
@@ -102,6 +105,18 @@ public class TransactionPolicyDAO {
         }
     }
 
+    /**
+     * Recupera una página de transacciones de póliza ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de transacciones de póliza de la página.
+     * @return La página de entidades {@link TransactionPolicy}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<TransactionPolicy> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza un registro existente de TransactionPolicy en la base de datos.
      *
@@ -17,6 +17,8 @@ import java.util.List;
  */
 public class TransactionsDAO {
 
+    private static final KeysetQuery<Transactions> PAGE_QUERY = KeysetQuery.of(Transactions.class, "idTransaction");
+
     /**
      * Crea una nueva transacción en la base de datos.
      *
@@ -132,6 +134,18 @@ public class TransactionsDAO {
         }
     }
 
+    /**
+     * Recupera una página de transacciones ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de transacciones de la página.
+     * @return La página de entidades {@link Transactions}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Transactions> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Actualiza una transacción existente en la base de datos.
      *
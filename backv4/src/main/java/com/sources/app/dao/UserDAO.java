@@ -6,8 +6,10 @@ import com.sources.app.util.HibernateUtil;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
+import java.util.Collection;
 import java.util.List;
 import java.util.Date;
+import java.util.function.IntConsumer;
 
 /**
  * Data Access Object (DAO) para gestionar las entidades de Usuario (User).
@@ -17,6 +19,13 @@ import java.util.Date;
  */
 public class UserDAO {
 
+    private static final KeysetQuery<User> PAGE_QUERY = KeysetQuery.of(User.class, "idUser");
+
+    /**
+     * Tamaño de lote por defecto de {@link #checkAllUsersServiceExpiration()}.
+     */
+    public static final int DEFAULT_EXPIRATION_BATCH_SIZE = 500;
+
     /**
      * Autentica a un usuario basado en su correo electrónico y contraseña.
      *
@@ -157,6 +166,18 @@ public class UserDAO {
         }
     }
 
+    /**
+     * Recupera una página de usuarios ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de usuarios de la página.
+     * @return La página de entidades {@link User}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<User> findPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Busca un usuario por su ID único.
      *
@@ -227,6 +248,7 @@ public class UserDAO {
 
             session.update(existingUser);
             tx.commit();
+            ServiceExpiryWheel.getInstance().track(existingUser);
 
             return existingUser;
         } catch (Exception e) {
@@ -273,41 +295,111 @@ public class UserDAO {
 
     /**
      * Verifica y actualiza el estado de expiración del servicio para todos los
-     * usuarios. Busca usuarios con `paidService = true` y `expirationDate`
-     * anterior a hoy, y para ellos, establece `paidService = false` y `policy =
-     * null`.
+     * usuarios, en lotes de {@value #DEFAULT_EXPIRATION_BATCH_SIZE}. Ver
+     * {@link #checkAllUsersServiceExpiration(int, IntConsumer)}.
      *
      * @return El número de usuarios cuyo estado de servicio fue actualizado a
      * expirado.
      */
     public int checkAllUsersServiceExpiration() {
-        int updatedCount = 0;
-        Transaction tx = null;
-        Session session = null;
-
-        try {
-            session = HibernateUtil.getSessionFactory().openSession();
-            tx = session.beginTransaction();
+        return checkAllUsersServiceExpiration(DEFAULT_EXPIRATION_BATCH_SIZE, null);
+    }
 
-            // Buscar usuarios con servicio pagado y fecha de expiración anterior a hoy
-            Date today = new Date();
-            Query<User> query = session.createQuery(
-                    "FROM User WHERE paidService = true AND expirationDate < :today",
-                    User.class
-            );
-            query.setParameter("today", today);
-            List<User> expiredUsers = query.getResultList();
-
-            for (User user : expiredUsers) {
-                user.setPaidService(false);
-                user.setPolicy(null);
-                session.update(user);
-                updatedCount++;
+    /**
+     * Marca como expirado el servicio de los usuarios con `paidService = true`
+     * y `expirationDate` anterior a ahora: establece `paidService = false` y
+     * `policy = null`.
+     *
+     * <p>Se procesa por lotes en orden de ID. Cada lote lee solo los IDs
+     * ({@code batchSize} como máximo) y los actualiza con un único
+     * {@code UPDATE} masivo en su propia transacción, así que no se cargan
+     * entidades ni se mantiene una transacción larga. Si un lote falla se
+     * deshace solo ese lote y se detiene el proceso; los lotes anteriores
+     * quedan confirmados y la siguiente ejecución retoma el resto.</p>
+     *
+     * @param batchSize Número máximo de usuarios por lote (mayor que 0).
+     * @param onChunk Recibe el número de usuarios actualizados en cada lote
+     * confirmado; puede ser null.
+     * @return El número total de usuarios actualizados en los lotes confirmados.
+     */
+    public int checkAllUsersServiceExpiration(int batchSize, IntConsumer onChunk) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que 0");
+        }
+        Date now = new Date();
+        long lastId = Long.MIN_VALUE;
+        int updatedCount = 0;
+        while (true) {
+            List<Long> ids;
+            int updated;
+            Transaction tx = null;
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                tx = session.beginTransaction();
+                ids = session.createQuery(
+                        "SELECT u.idUser FROM User u WHERE u.paidService = true AND u.expirationDate < :now"
+                        + " AND u.idUser > :lastId ORDER BY u.idUser", Long.class)
+                        .setParameter("now", now)
+                        .setParameter("lastId", lastId)
+                        .setMaxResults(batchSize)
+                        .getResultList();
+                updated = ids.isEmpty() ? 0 : session.createMutationQuery(
+                        "UPDATE User u SET u.paidService = false, u.policy = null"
+                        + " WHERE u.idUser IN (:ids) AND u.paidService = true AND u.expirationDate < :now")
+                        .setParameterList("ids", ids)
+                        .setParameter("now", now)
+                        .executeUpdate();
+                tx.commit();
+            } catch (Exception e) {
+                if (tx != null && tx.getStatus().canRollback()) {
+                    try {
+                        tx.rollback();
+                    } catch (Exception rbEx) {
+                        rbEx.printStackTrace();
+                    }
+                }
+                e.printStackTrace();
+                return updatedCount;
+            }
+            if (ids.isEmpty()) {
+                break;
+            }
+            updatedCount += updated;
+            if (onChunk != null) {
+                onChunk.accept(updated);
+            }
+            if (ids.size() < batchSize) {
+                break;
             }
+            lastId = ids.get(ids.size() - 1);
+        }
+        System.out.println("Servicios expirados actualizados: " + updatedCount);
+        return updatedCount;
+    }
 
+    /**
+     * Marca como expirado el servicio de los usuarios dados que sigan con
+     * `paidService = true` y `expirationDate` anterior a ahora, con un único
+     * {@code UPDATE} masivo. Los demás IDs se ignoran, así que un ID obsoleto
+     * no expira a nadie antes de tiempo.
+     *
+     * @param ids IDs de los usuarios a expirar.
+     * @return El número de usuarios actualizados, o -1 si ocurre un error.
+     */
+    public int expireServices(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        Transaction tx = null;
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            tx = session.beginTransaction();
+            int updated = session.createMutationQuery(
+                    "UPDATE User u SET u.paidService = false, u.policy = null"
+                    + " WHERE u.idUser IN (:ids) AND u.paidService = true AND u.expirationDate < :now")
+                    .setParameterList("ids", ids)
+                    .setParameter("now", new Date())
+                    .executeUpdate();
             tx.commit();
-            System.out.println("Servicios expirados actualizados: " + updatedCount);
-            return updatedCount;
+            return updated;
         } catch (Exception e) {
             if (tx != null && tx.getStatus().canRollback()) {
                 try {
@@ -317,11 +409,47 @@ public class UserDAO {
                 }
             }
             e.printStackTrace();
-            return 0;
-        } finally {
-            if (session != null && session.isOpen()) {
-                session.close();
-            }
+            return -1;
+        }
+    }
+
+    /**
+     * Obtiene el ID y la fecha de expiración de todos los usuarios con
+     * `paidService = true` y fecha de expiración definida.
+     *
+     * @return Filas {@code [idUser, expirationDate]}, o null si ocurre un
+     * error.
+     */
+    public List<Object[]> findPaidServiceExpirations() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                    "SELECT u.idUser, u.expirationDate FROM User u"
+                    + " WHERE u.paidService = true AND u.expirationDate IS NOT NULL", Object[].class)
+                    .getResultList();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Obtiene la fecha de expiración más antigua entre los usuarios que
+     * siguen con `paidService = true` aunque su servicio ya expiró, es decir,
+     * cuánto va atrasada la expiración.
+     *
+     * @return La fecha más antigua pendiente, null si no hay pendientes o si
+     * ocurre un error.
+     */
+    public Date findOldestPendingExpiration() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            return session.createQuery(
+                    "SELECT min(u.expirationDate) FROM User u WHERE u.paidService = true AND u.expirationDate < :now",
+                    Date.class)
+                    .setParameter("now", new Date())
+                    .uniqueResult();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
         }
     }
 
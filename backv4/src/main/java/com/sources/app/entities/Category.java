@@ -2,12 +2,17 @@ package com.sources.app.entities;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Representa una entidad de categoría mapeada a la tabla CATEGORY.
  * Utilizada para clasificar otros elementos como servicios o medicamentos.
  */
 @Entity
 @Table(name = "CATEGORY")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 public class Category {
     /**
      * El identificador único para la categoría.
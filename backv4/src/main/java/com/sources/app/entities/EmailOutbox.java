@@ -0,0 +1,131 @@
+package com.sources.app.entities;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+/**
+ * Correo aceptado por la API y pendiente de envío, mapeado a la tabla
+ * EMAIL_OUTBOX. La fila se guarda antes de responder al cliente y se borra
+ * cuando el servidor SMTP acepta el correo; los que no se pudieron entregar
+ * quedan marcados como {@link #FAILED}.
+ */
+@Entity
+@Table(name = "EMAIL_OUTBOX")
+public class EmailOutbox {
+
+    /**
+     * Estado de un correo que aún se intentará enviar.
+     */
+    public static final String PENDING = "PENDING";
+    /**
+     * Estado de un correo rechazado por el servidor o sin intentos restantes.
+     */
+    public static final String FAILED = "FAILED";
+
+    /**
+     * Identificador único del correo.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID_EMAIL")
+    private Long idEmail;
+
+    /**
+     * Destinatario, o varios separados por coma.
+     */
+    @Column(name = "RECIPIENT", length = 1000, nullable = false)
+    private String recipient;
+
+    /**
+     * Asunto del correo.
+     */
+    @Column(name = "SUBJECT", length = 1000, nullable = false)
+    private String subject;
+
+    /**
+     * Cuerpo en texto plano.
+     */
+    @Lob
+    @Column(name = "BODY", nullable = false)
+    private String body;
+
+    /**
+     * {@link #PENDING} o {@link #FAILED}.
+     */
+    @Column(name = "STATUS", length = 10, nullable = false)
+    private String status;
+
+    /**
+     * Intentos de envío fallidos hasta ahora.
+     */
+    @Column(name = "ATTEMPTS", nullable = false)
+    private int attempts;
+
+    /**
+     * Último error devuelto al intentar el envío.
+     */
+    @Column(name = "LAST_ERROR", length = 1000)
+    private String lastError;
+
+    /**
+     * Fecha y hora en que se aceptó el correo.
+     */
+    @Column(name = "CREATED_AT", nullable = false)
+    private Date createdAt;
+
+    /**
+     * Constructor por defecto requerido por JPA.
+     */
+    public EmailOutbox() {
+    }
+
+    /**
+     * Crea un correo pendiente, sin intentos.
+     */
+    public EmailOutbox(String recipient, String subject, String body) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.body = body;
+        this.status = PENDING;
+    }
+
+    /**
+     * Establece la fecha de aceptación al persistir.
+     */
+    @PrePersist
+    protected void onCreate() {
+        createdAt = new Date();
+    }
+
+    public Long getIdEmail() {
+        return idEmail;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -2,12 +2,17 @@ package com.sources.app.entities;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Representa una entidad de hospital mapeada a la tabla HOSPITALS.
  * Contiene información sobre hospitales, como nombre, dirección, teléfono, email y estado.
  */
 @Entity
 @Table(name = "HOSPITALS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "hospital")
 public class Hospital {
     /**
      * El identificador único para el hospital.
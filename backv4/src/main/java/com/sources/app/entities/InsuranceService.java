@@ -2,12 +2,17 @@ package com.sources.app.entities;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Representa una entidad de servicio de seguro mapeada a la tabla INSURANCE_SERVICES.
  * Contiene información sobre los servicios ofrecidos por el seguro, incluyendo categorías, precio y cobertura.
  */
 @Entity
 @Table(name = "INSURANCE_SERVICES")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "insurance-service")
 public class InsuranceService {
 
     /**
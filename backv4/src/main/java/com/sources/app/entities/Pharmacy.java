@@ -1,5 +1,6 @@
 package com.sources.app.entities;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -7,6 +8,9 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Representa una entidad de farmacia mapeada a la tabla PHARMACY. Contiene
  * información sobre farmacias, como nombre, dirección, teléfono, email y
@@ -14,6 +18,8 @@ import jakarta.persistence.Table;
  */
 @Entity
 @Table(name = "PHARMACY")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pharmacy")
 public class Pharmacy {
 
     /**
@@ -3,6 +3,9 @@ package com.sources.app.entities;
 import jakarta.persistence.*;
 import java.util.Date;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Representa una entidad de póliza de seguro mapeada a la tabla POLICY.
  * Contiene información sobre las pólizas, como porcentaje de cobertura, fechas
@@ -10,6 +13,8 @@ import java.util.Date;
  */
 @Entity
 @Table(name = "POLICY")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "policy")
 public class Policy {
 
     /**
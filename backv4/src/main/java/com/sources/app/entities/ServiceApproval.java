@@ -1,5 +1,7 @@
 package com.sources.app.entities;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Date;
 
 import jakarta.persistence.Column;
@@ -98,6 +100,15 @@ public class ServiceApproval {
     @Temporal(TemporalType.TIMESTAMP)
     private Date approvalDate;
     
+    /**
+     * Día de {@link #approvalDate} en la zona horaria del servidor. Se
+     * guarda aparte para que los totales por día se agrupen en la base de
+     * datos sin funciones de fecha propias de cada dialecto; lo mantiene
+     * {@link #setApprovalDate(Date)}.
+     */
+    @Column(name = "approval_day")
+    private LocalDate approvalDay;
+    
     /**
      * Fecha en que se completó el servicio.
      * Puede ser nulo si aún no está completado.
@@ -307,6 +318,8 @@ public class ServiceApproval {
      */
     public void setApprovalDate(Date approvalDate) {
         this.approvalDate = approvalDate;
+        this.approvalDay = approvalDate == null ? null
+                : approvalDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
     }
 
     /**
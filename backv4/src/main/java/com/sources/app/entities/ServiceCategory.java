@@ -2,6 +2,9 @@ package com.sources.app.entities;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Representa la relación entre un servicio y una categoría, mapeada a la tabla SERVICE_CATEGORY.
  * Utiliza una clave primaria compuesta definida en {@link ServiceCategoryId}.
@@ -10,6 +13,8 @@ import jakarta.persistence.*;
 @Entity
 @Table(name = "SERVICE_CATEGORY")
 @IdClass(ServiceCategoryId.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "service-category")
 public class ServiceCategory {
 
     /**
@@ -3,12 +3,17 @@ package com.sources.app.entities;
 import jakarta.persistence.*;
 import java.util.Date;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Representa una entidad de configuración del sistema mapeada a la tabla SYSTEM_CONFIG.
  * Almacena pares clave-valor para configuraciones generales del sistema.
  */
 @Entity
 @Table(name = "SYSTEM_CONFIG")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "system-config")
 public class SystemConfig {
 
     /**
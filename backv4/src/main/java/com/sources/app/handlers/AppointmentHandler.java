@@ -1,7 +1,6 @@
 package com.sources.app.handlers;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
@@ -14,6 +13,7 @@ import com.sources.app.dao.AppointmentDAO;
 import com.sources.app.entities.Appointment;
 import com.sources.app.entities.Hospital;
 import com.sources.app.entities.User;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -170,6 +170,9 @@ public class AppointmentHandler implements HttpHandler {
 
         // Si no se encontró por ID ni por user_id (o no había query), buscar todas
         if (singleAppointment == null && appointments == null) {
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", appointmentDAO::findPage)) {
+                return;
+            }
             appointments = appointmentDAO.findAll();
         }
 
@@ -301,13 +304,7 @@ public class AppointmentHandler implements HttpHandler {
      * @throws IOException Si ocurre un error al escribir la respuesta.
      */
     private void sendJsonResponse(HttpExchange exchange, int statusCode, Object data) throws IOException {
-        String jsonResponse = objectMapper.writeValueAsString(data);
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        JsonResponseWriter.sendJson(exchange, statusCode, objectMapper, data);
     }
 
     /**
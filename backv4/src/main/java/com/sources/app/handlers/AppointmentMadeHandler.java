@@ -1,7 +1,6 @@
 package com.sources.app.handlers;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
@@ -12,6 +11,7 @@ import java.util.stream.Collectors;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.AppointmentMadeDAO;
 import com.sources.app.entities.AppointmentMade;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -155,6 +155,9 @@ public class AppointmentMadeHandler implements HttpHandler {
             }
         } else {
             // Obtener todas las citas realizadas
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", appointmentMadeDAO::findPage)) {
+                return;
+            }
             List<AppointmentMade> list = appointmentMadeDAO.findAll();
             sendJsonResponse(exchange, 200, list);
         }
@@ -267,13 +270,7 @@ public class AppointmentMadeHandler implements HttpHandler {
      * @throws IOException Si ocurre un error al escribir la respuesta.
      */
     private void sendJsonResponse(HttpExchange exchange, int statusCode, Object data) throws IOException {
-        String jsonResponse = objectMapper.writeValueAsString(data);
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        JsonResponseWriter.sendJson(exchange, statusCode, objectMapper, data);
     }
 
     /**
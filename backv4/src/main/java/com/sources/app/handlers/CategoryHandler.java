@@ -1,7 +1,6 @@
 package com.sources.app.handlers;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
@@ -11,6 +10,7 @@ import java.util.stream.Collectors;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.CategoryDAO;
 import com.sources.app.entities.Category;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -147,6 +147,9 @@ public class CategoryHandler implements HttpHandler {
             }
         } else {
             // Obtener todas las categorías
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", categoryDAO::findPage)) {
+                return;
+            }
             List<Category> list = categoryDAO.findAll();
             sendJsonResponse(exchange, 200, list);
         }
@@ -265,13 +268,7 @@ public class CategoryHandler implements HttpHandler {
      * @throws IOException Si ocurre un error al escribir la respuesta.
      */
     private void sendJsonResponse(HttpExchange exchange, int statusCode, Object data) throws IOException {
-        String jsonResponse = objectMapper.writeValueAsString(data);
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        JsonResponseWriter.sendJson(exchange, statusCode, objectMapper, data);
     }
 
     /**
@@ -2,7 +2,6 @@ package com.sources.app.handlers;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
@@ -10,6 +9,7 @@ import java.util.Map;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.ConfigurableAmountDAO;
 import com.sources.app.entities.ConfigurableAmount;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -243,13 +243,7 @@ public class ConfigurableAmountHandler implements HttpHandler {
      * @throws IOException Si ocurre un error al escribir la respuesta.
      */
     private void sendJsonResponse(HttpExchange exchange, int statusCode, Object data) throws IOException {
-        String jsonResponse = objectMapper.writeValueAsString(data);
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        JsonResponseWriter.sendJson(exchange, statusCode, objectMapper, data);
     }
 
     /**
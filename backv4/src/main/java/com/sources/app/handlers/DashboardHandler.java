@@ -4,9 +4,12 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -15,9 +18,11 @@ import com.sources.app.dao.HospitalDAO;
 import com.sources.app.dao.HospitalInsuranceServiceDAO;
 import com.sources.app.dao.InsuranceServiceDAO;
 import com.sources.app.dao.ServiceApprovalDAO;
+import com.sources.app.dao.ServiceApprovalRollup;
 import com.sources.app.entities.ServiceApproval;
 import com.sources.app.util.HibernateUtil;
 import com.sources.app.util.PharmacyClient;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -64,6 +69,18 @@ public class DashboardHandler implements HttpHandler {
      * formato de fecha/hora.
      */
     private final ObjectMapper objectMapper;
+    /**
+     * Totales de aprobaciones en memoria.
+     */
+    private final ServiceApprovalRollup rollup;
+    /**
+     * Número de transacciones recientes que se muestran.
+     */
+    private static final int RECENT_TRANSACTIONS = 10;
+    /**
+     * Número de días con actividad que se incluyen en {@code approvalsByDay}.
+     */
+    private static final int DAYS_IN_DASHBOARD = 30;
     /**
      * Ruta base para los datos del dashboard.
      */
@@ -90,6 +107,17 @@ public class DashboardHandler implements HttpHandler {
             HospitalDAO hospitalDAO,
             InsuranceServiceDAO insuranceServiceDAO,
             HospitalInsuranceServiceDAO hospitalInsuranceServiceDAO) {
+        this(serviceApprovalDAO, hospitalDAO, insuranceServiceDAO, hospitalInsuranceServiceDAO,
+                ServiceApprovalRollup.getInstance());
+    }
+
+    DashboardHandler(
+            ServiceApprovalDAO serviceApprovalDAO,
+            HospitalDAO hospitalDAO,
+            InsuranceServiceDAO insuranceServiceDAO,
+            HospitalInsuranceServiceDAO hospitalInsuranceServiceDAO,
+            ServiceApprovalRollup rollup) {
+        this.rollup = rollup;
         this.serviceApprovalDAO = serviceApprovalDAO;
         this.hospitalDAO = hospitalDAO;
         this.insuranceServiceDAO = insuranceServiceDAO;
@@ -165,10 +193,12 @@ public class DashboardHandler implements HttpHandler {
      * aprobaciones de servicio más recientes). - Conteos de
      * conexiones/integraciones (algunos valores son ficticios/placeholders).
      * Empaqueta todos estos datos en un mapa y los envía como una respuesta
-     * JSON. Nota: La obtención de todas las aprobaciones
-     * (`serviceApprovalDAO.findAll()`) puede ser ineficiente para grandes
-     * volúmenes de datos; se deberían considerar consultas SQL agregadas o
-     * paginación.
+     * JSON. Las estadísticas de aprobaciones salen de
+     * {@link ServiceApprovalRollup}, así que no recorren el histórico; solo si
+     * los totales no están cargados se leen todas las aprobaciones con
+     * {@code serviceApprovalDAO.findAll()}. También se incluyen los totales
+     * por hospital ({@code approvalsByHospital}) y por día de los últimos
+     * {@value #DAYS_IN_DASHBOARD} días con actividad ({@code approvalsByDay}).
      *
      * @param exchange El objeto {@link HttpExchange}.
      * @throws IOException Si ocurre un error al obtener datos o al enviar la
@@ -179,37 +209,34 @@ public class DashboardHandler implements HttpHandler {
             // Recopilar datos para el dashboard
             Map<String, Object> dashboardData = new HashMap<>();
 
-            // 1. Estadísticas de aprobaciones de servicio
-            List<ServiceApproval> approvals = serviceApprovalDAO.findAll(); // Podría ser costoso, considerar paginación o querys específicas
-            long totalApprovals = approvals.size();
-            long approvedCount = approvals.stream().filter(a -> "APPROVED".equals(a.getStatus())).count();
-            long pendingCount = approvals.stream().filter(a -> "PENDING".equals(a.getStatus())).count();
-            long rejectedCount = approvals.stream().filter(a -> "REJECTED".equals(a.getStatus())).count();
-            long completedCount = approvals.stream().filter(a -> "COMPLETED".equals(a.getStatus())).count();
-            long withPrescription = approvals.stream().filter(a -> a.getPrescriptionId() != null).count();
-
-            // Usar DoubleStream para sumar montos de forma segura (manejo de nulos)
-            double totalCoveredAmount = approvals.stream()
-                    .mapToDouble(a -> a.getCoveredAmount() != null ? a.getCoveredAmount() : 0.0)
-                    .sum();
-            double totalPatientAmount = approvals.stream()
-                    .mapToDouble(a -> a.getPatientAmount() != null ? a.getPatientAmount() : 0.0)
-                    .sum();
-            double totalAmount = approvals.stream()
-                    .mapToDouble(a -> a.getServiceCost() != null ? a.getServiceCost() : 0.0)
-                    .sum();
+            // 1. Estadísticas de aprobaciones de servicio, desde los totales en memoria
+            ServiceApprovalRollup.Snapshot stats;
+            List<ServiceApproval> recentApprovals;
+            if (rollup.isLoaded()) {
+                stats = rollup.snapshot();
+                recentApprovals = serviceApprovalDAO.findRecent(RECENT_TRANSACTIONS);
+                if (recentApprovals == null) {
+                    recentApprovals = Collections.emptyList();
+                }
+            } else {
+                // Sin totales cargados (p. ej. falló la carga inicial) se calculan recorriendo todas las aprobaciones
+                List<ServiceApproval> approvals = serviceApprovalDAO.findAll();
+                stats = ServiceApprovalRollup.summarize(approvals);
+                recentApprovals = approvals.subList(0, Math.min(RECENT_TRANSACTIONS, approvals.size()));
+            }
+            long withPrescription = stats.getTotals().getWithPrescription();
 
             // Agrupar estadísticas de aprobación
             Map<String, Object> approvalStats = new HashMap<>();
-            approvalStats.put("total", Long.valueOf(totalApprovals));
-            approvalStats.put("approved", Long.valueOf(approvedCount));
-            approvalStats.put("pending", Long.valueOf(pendingCount));
-            approvalStats.put("rejected", Long.valueOf(rejectedCount));
-            approvalStats.put("completed", Long.valueOf(completedCount));
+            approvalStats.put("total", Long.valueOf(stats.getTotals().getCount()));
+            approvalStats.put("approved", Long.valueOf(stats.status("APPROVED").getCount()));
+            approvalStats.put("pending", Long.valueOf(stats.status("PENDING").getCount()));
+            approvalStats.put("rejected", Long.valueOf(stats.status("REJECTED").getCount()));
+            approvalStats.put("completed", Long.valueOf(stats.status("COMPLETED").getCount()));
             approvalStats.put("withPrescription", Long.valueOf(withPrescription));
-            approvalStats.put("totalCoveredAmount", totalCoveredAmount);
-            approvalStats.put("totalPatientAmount", totalPatientAmount);
-            approvalStats.put("totalAmount", totalAmount);
+            approvalStats.put("totalCoveredAmount", stats.getTotals().getCoveredAmount());
+            approvalStats.put("totalPatientAmount", stats.getTotals().getPatientAmount());
+            approvalStats.put("totalAmount", stats.getTotals().getServiceCost());
 
             // 2. Conteo de hospitales y servicios de seguro (considerar count(*) queries si es más eficiente)
             long hospitalCount = hospitalDAO.findAll().size();
@@ -223,13 +250,9 @@ public class DashboardHandler implements HttpHandler {
             pharmacyStats.put("dispensedPrescriptions", dispensedPrescriptions);
             pharmacyStats.put("pendingPrescriptions", Long.valueOf(withPrescription - dispensedPrescriptions));
 
-            // 4. Transacciones recientes (Obtener últimas N directamente desde la BD sería más eficiente)
-            // Revert to original logic for recent transactions
+            // 4. Transacciones recientes (las más nuevas primero)
             List<Map<String, Object>> recentTransactions = new ArrayList<>();
             SimpleDateFormat transactionDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"); // Use separate formatter if needed
-            int transactionsToShow = Math.min(10, approvals.size());
-            List<ServiceApproval> recentApprovals = approvals.subList(Math.max(0, approvals.size() - transactionsToShow), approvals.size());
-            // Consider reversing if needed: Collections.reverse(recentApprovals);
 
             for (ServiceApproval approval : recentApprovals) {
                 Map<String, Object> transaction = new HashMap<>();
@@ -265,6 +288,8 @@ public class DashboardHandler implements HttpHandler {
             dashboardData.put("serviceCount", Long.valueOf(serviceCount));
             dashboardData.put("pharmacyStats", pharmacyStats);
             dashboardData.put("recentTransactions", recentTransactions);
+            dashboardData.put("approvalsByHospital", stats.getByHospital());
+            dashboardData.put("approvalsByDay", lastDays(stats));
             dashboardData.put("connections", connections);
             dashboardData.put("lastUpdated", new Date()); // Jackson usará el formato definido
 
@@ -280,6 +305,19 @@ public class DashboardHandler implements HttpHandler {
         }
     }
 
+    /**
+     * Totales de los últimos días con aprobaciones, con la fecha como clave
+     * ({@code yyyy-MM-dd}).
+     */
+    private static Map<String, ServiceApprovalRollup.Totals> lastDays(ServiceApprovalRollup.Snapshot stats) {
+        List<LocalDate> days = new ArrayList<>(stats.getByDay().keySet());
+        Map<String, ServiceApprovalRollup.Totals> result = new LinkedHashMap<>();
+        for (LocalDate day : days.subList(Math.max(0, days.size() - DAYS_IN_DASHBOARD), days.size())) {
+            result.put(day.toString(), stats.getByDay().get(day));
+        }
+        return result;
+    }
+
     /**
      * Maneja las solicitudes GET a {@code /api/dashboard/status}. Verifica el
      * estado de conexión de varios componentes críticos: - Conexión a la base
@@ -413,13 +451,7 @@ public class DashboardHandler implements HttpHandler {
      * @throws IOException Si ocurre un error al escribir la respuesta.
      */
     private void sendJsonResponse(HttpExchange exchange, int statusCode, Object data) throws IOException {
-        String response = objectMapper.writeValueAsString(data);
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        byte[] responseBytes = response.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        JsonResponseWriter.sendJson(exchange, statusCode, objectMapper, data);
     }
 
     /**
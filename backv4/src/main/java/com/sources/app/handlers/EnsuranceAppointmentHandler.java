@@ -2,7 +2,6 @@ package com.sources.app.handlers;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -16,6 +15,7 @@ import java.util.stream.Collectors;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.EnsuranceAppointmentDAO;
 import com.sources.app.entities.EnsuranceAppointment;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -182,8 +182,9 @@ public class EnsuranceAppointmentHandler implements HttpHandler {
             handleGetByUserId(exchange, params.get("userId"));
         } else if (params.containsKey("id")) { // Añadir búsqueda por ID primario si se necesita
             handleGetById(exchange, params.get("id"));
-        } else if (query == null || query.isEmpty()) {
-            // Si no hay parámetros específicos, obtiene todas las citas
+        } else if (query == null || query.isEmpty()
+                || params.containsKey(KeysetPagination.LIMIT_PARAM) || params.containsKey(KeysetPagination.AFTER_PARAM)) {
+            // Si no hay parámetros específicos, obtiene todas las citas (o una página de ellas)
             handleGetAll(exchange);
         } else {
             // Parámetro no reconocido
@@ -193,17 +194,20 @@ public class EnsuranceAppointmentHandler implements HttpHandler {
 
     /**
      * Maneja la solicitud GET para obtener todas las citas de
-     * {@link EnsuranceAppointment}. Llama a
-     * {@link EnsuranceAppointmentDAO#findAll()} y envía la lista resultante
-     * como JSON.
+     * {@link EnsuranceAppointment} como un array JSON que se escribe a medida
+     * que las citas se leen de
+     * {@link EnsuranceAppointmentDAO#streamAll(com.sources.app.dao.ResultStreamConsumer)}.
      *
      * @param exchange El objeto {@link HttpExchange}.
      * @throws IOException Si ocurre un error al obtener los datos o al enviar
      * la respuesta.
      */
     private void handleGetAll(HttpExchange exchange) throws IOException {
-        List<EnsuranceAppointment> appointments = appointmentDAO.findAll();
-        sendJsonResponse(exchange, 200, appointments);
+        if (KeysetPagination.respond(exchange, objectMapper, "application/json", appointmentDAO::findPage)) {
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        appointmentDAO.streamAll(appointments -> JsonResponseWriter.writeArray(exchange, 200, objectMapper, appointments));
     }
 
     /**
@@ -471,13 +475,7 @@ public class EnsuranceAppointmentHandler implements HttpHandler {
      * @throws IOException Si ocurre un error al escribir la respuesta.
      */
     private void sendJsonResponse(HttpExchange exchange, int statusCode, Object data) throws IOException {
-        String body = objectMapper.writeValueAsString(data);
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        byte[] responseBytes = body.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        JsonResponseWriter.sendJson(exchange, statusCode, objectMapper, data);
     }
 
     /**
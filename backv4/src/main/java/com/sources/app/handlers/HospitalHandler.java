@@ -1,7 +1,6 @@
 package com.sources.app.handlers;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
@@ -11,6 +10,7 @@ import java.util.stream.Collectors;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.HospitalDAO;
 import com.sources.app.entities.Hospital;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -150,6 +150,9 @@ public class HospitalHandler implements HttpHandler {
             }
         } else {
             // Obtener todos los hospitales
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", hospitalDAO::findPage)) {
+                return;
+            }
             List<Hospital> list = hospitalDAO.findAll();
             sendJsonResponse(exchange, 200, list);
         }
@@ -261,13 +264,7 @@ public class HospitalHandler implements HttpHandler {
      * @throws IOException Si ocurre un error al escribir la respuesta.
      */
     private void sendJsonResponse(HttpExchange exchange, int statusCode, Object data) throws IOException {
-        String body = objectMapper.writeValueAsString(data);
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        byte[] responseBytes = body.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        JsonResponseWriter.sendJson(exchange, statusCode, objectMapper, data);
     }
 
     /**
@@ -6,6 +6,8 @@ import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sources.app.resilience.Downstream;
+import com.sources.app.resilience.DownstreamGuard;
 import com.sources.app.util.HttpClientUtil;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
@@ -46,6 +48,11 @@ public class HospitalRedirectHandler implements HttpHandler {
     // URL configurable desde variable de entorno (integración externa)
     private static final String HOSPITAL_API_BASE_URL = System.getenv("HOSPITAL_API_URL") != null
             ? System.getenv("HOSPITAL_API_URL") : "http://localhost:8000/api";
+
+    static {
+        DownstreamGuard.register(Downstream.HOSPITAL, HOSPITAL_API_BASE_URL);
+    }
+
     /**
      * ObjectMapper para serializar respuestas de error en formato JSON.
      */
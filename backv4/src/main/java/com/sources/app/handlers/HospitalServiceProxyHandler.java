@@ -6,18 +6,34 @@ import com.sources.app.entities.Hospital;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
+import com.sources.app.config.EnvConfig;
+import com.sources.app.metrics.MetricsConfiguration;
+import com.sources.app.tracing.Span;
+import com.sources.app.tracing.Tracing;
+import io.prometheus.client.Histogram;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manejador que actúa como proxy entre el frontend y los servicios del hospital.
  * Utiliza el puerto configurado para cada hospital para realizar las solicitudes.
+ * Los cuerpos se transmiten en streaming sobre conexiones reutilizadas, el
+ * puerto de cada hospital se guarda en caché y el tiempo de respuesta de cada
+ * hospital se publica en {@code ensurance_hospital_proxy_upstream_seconds}.
  */
 public class HospitalServiceProxyHandler implements HttpHandler {
 
@@ -25,6 +41,41 @@ public class HospitalServiceProxyHandler implements HttpHandler {
     private final ObjectMapper objectMapper;
     private static final String ENDPOINT_PREFIX = "/api/hospital-proxy";
 
+    /** Tamaño de los bloques copiados entre el hospital y el cliente. */
+    static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+    private static final Duration UPSTREAM_TIMEOUT = Duration.ofSeconds(30);
+    private static final long DEFAULT_ROUTE_TTL_SECONDS = 60;
+    /** Vigencia de cada entrada de la tabla de rutas ({@code HOSPITAL_PROXY_ROUTE_TTL_SECONDS}). */
+    private static final long ROUTE_TTL_MILLIS = TimeUnit.SECONDS.toMillis(
+            EnvConfig.positiveLong("HOSPITAL_PROXY_ROUTE_TTL_SECONDS", DEFAULT_ROUTE_TTL_SECONDS));
+
+    /**
+     * Headers de conexión que no se reenvían en ninguna dirección; incluye
+     * los que {@link HttpClient} no permite fijar.
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "te", "trailer",
+            "transfer-encoding", "upgrade", "host", "content-length", "expect");
+
+    /**
+     * Cliente compartido hacia los hospitales: mantiene abiertas las
+     * conexiones entre peticiones y no sigue redirecciones, que se devuelven
+     * tal cual al cliente.
+     */
+    private static final HttpClient UPSTREAM = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    /**
+     * Puerto configurado de un hospital y hasta cuándo vale.
+     */
+    private record Route(String port, long expiresAt) {
+    }
+
+    private final Map<Long, Route> routes = new ConcurrentHashMap<>();
+
     /**
      * Constructor para el proxy de servicios del hospital.
      *
@@ -65,25 +116,26 @@ public class HospitalServiceProxyHandler implements HttpHandler {
                 return;
             }
 
-            // Obtener el hospital de la base de datos
-            Hospital hospital = hospitalDAO.findById(hospitalId);
-            if (hospital == null) {
+            // Obtener el puerto del hospital (tabla de rutas en caché)
+            Route route = routeFor(hospitalId);
+            if (route == null) {
                 sendErrorResponse(exchange, 404, "Hospital no encontrado");
                 return;
             }
+            String hospitalConfiguredPort = route.port();
 
             // Usar el puerto proporcionado en el header o el puerto del hospital o el valor por defecto
             String port = hospitalPort != null && !hospitalPort.trim().isEmpty() ? 
                          hospitalPort : 
-                         (hospital.getPort() != null && !hospital.getPort().trim().isEmpty() ? 
-                         hospital.getPort() : "8000");
+                         (hospitalConfiguredPort != null && !hospitalConfiguredPort.trim().isEmpty() ? 
+                         hospitalConfiguredPort : "8000");
 
             // Construir la URL del servicio del hospital
             String targetPath = path.substring(ENDPOINT_PREFIX.length());
             String targetUrl = "http://localhost:" + port + targetPath;
 
             // Reenviar la solicitud al servicio del hospital
-            forwardRequest(exchange, targetUrl);
+            forwardRequest(exchange, targetUrl, hospitalId);
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -92,82 +144,143 @@ public class HospitalServiceProxyHandler implements HttpHandler {
     }
 
     /**
-     * Reenvía la solicitud HTTP al servicio de destino.
+     * Reenvía la solicitud HTTP al servicio de destino sin acumular los
+     * cuerpos en memoria: el cuerpo de la petición se envía mientras se lee y
+     * la respuesta se copia al cliente por bloques de
+     * {@value #TRANSFER_BUFFER_SIZE} bytes, con longitud fija si el hospital la
+     * declara o en chunks si no.
      *
      * @param exchange Intercambio HTTP original
      * @param targetUrl URL del servicio de destino
-     * @throws IOException Si ocurre un error al reenviar la solicitud
+     * @param hospitalId ID del hospital, para la métrica de latencia
+     * @throws IOException Si ocurre un error al enviar la respuesta al cliente
      */
-    private void forwardRequest(HttpExchange exchange, String targetUrl) throws IOException {
-        HttpURLConnection connection = null;
-        try {
-            // Crear la conexión
-            URL url = new URL(targetUrl);
-            connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod(exchange.getRequestMethod());
-
-            // Copiar headers, excepto los relacionados con la conexión
-            for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
-                String key = header.getKey();
-                if (!key.equalsIgnoreCase("Host") && !key.equalsIgnoreCase("Connection")) {
-                    for (String value : header.getValue()) {
-                        connection.addRequestProperty(key, value);
-                    }
-                }
-            }
+    private void forwardRequest(HttpExchange exchange, String targetUrl, Long hospitalId) throws IOException {
+        String method = exchange.getRequestMethod().toUpperCase();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(targetUrl))
+                .version(HttpClient.Version.HTTP_1_1)
+                .timeout(UPSTREAM_TIMEOUT);
 
-            // Configurar para enviar datos si es necesario
-            boolean hasOutput = "POST".equals(exchange.getRequestMethod()) || 
-                              "PUT".equals(exchange.getRequestMethod());
-            if (hasOutput) {
-                connection.setDoOutput(true);
-                try (InputStream is = exchange.getRequestBody();
-                     OutputStream os = connection.getOutputStream()) {
-                    byte[] buffer = new byte[1024];
-                    int length;
-                    while ((length = is.read(buffer)) > 0) {
-                        os.write(buffer, 0, length);
-                    }
-                }
-            }
-
-            // Obtener la respuesta
-            int responseCode = connection.getResponseCode();
-            
-            // Copiar headers de respuesta
-            for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
-                if (header.getKey() != null) {
-                    for (String value : header.getValue()) {
-                        exchange.getResponseHeaders().add(header.getKey(), value);
-                    }
+        // Copiar headers, excepto los de conexión (hop-by-hop)
+        for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+            String key = header.getKey();
+            if (key != null && !HOP_BY_HOP_HEADERS.contains(key.toLowerCase(Locale.ROOT))
+                    && !Tracing.TRACEPARENT_HEADER.equalsIgnoreCase(key)
+                    && !Tracing.TRACESTATE_HEADER.equalsIgnoreCase(key)) {
+                for (String value : header.getValue()) {
+                    builder.header(key, value);
                 }
             }
+        }
 
-            // Asegurar que el Content-Type está establecido
-            if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
-                exchange.getResponseHeaders().add("Content-Type", "application/json");
-            }
+        // Enviar el cuerpo en streaming si es necesario
+        boolean hasOutput = "POST".equals(method) || "PUT".equals(method);
+        if (hasOutput) {
+            HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.ofInputStream(exchange::getRequestBody);
+            long contentLength = parseContentLength(exchange.getRequestHeaders().getFirst("Content-Length"));
+            builder.method(method, contentLength >= 0
+                    ? HttpRequest.BodyPublishers.fromPublisher(body, contentLength)
+                    : body);
+        } else {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        }
 
-            // Leer y enviar el cuerpo de la respuesta
-            try (InputStream is = responseCode >= 400 ? connection.getErrorStream() : connection.getInputStream()) {
-                if (is != null) {
-                    byte[] response = is.readAllBytes();
-                    exchange.sendResponseHeaders(responseCode, response.length);
-                    try (OutputStream os = exchange.getResponseBody()) {
-                        os.write(response);
-                    }
-                } else {
-                    exchange.sendResponseHeaders(responseCode, -1);
-                }
-            }
+        // El hospital ve la llamada como hija del span del proxy
+        Span span = Tracing.startSpan(method + " hospital " + hospitalId, Span.Kind.CLIENT)
+                .setAttribute("http.request.method", method)
+                .setAttribute("server.address", URI.create(targetUrl).getHost())
+                .setAttribute("hospital.id", String.valueOf(hospitalId));
+        HttpResponse<InputStream> response;
+        Histogram.Timer timer = MetricsConfiguration.HOSPITAL_PROXY_UPSTREAM_SECONDS
+                .labels(String.valueOf(hospitalId)).startTimer();
+        Span.Scope scope = span.makeCurrent();
+        try {
+            Tracing.inject(builder::header);
+            response = UPSTREAM.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+            span.setAttribute("http.response.status_code", response.statusCode());
         } catch (IOException e) {
+            span.recordException(e);
             e.printStackTrace();
             sendErrorResponse(exchange, 502, "Error al comunicarse con el servicio del hospital: " + e.getMessage());
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            span.recordException(e);
+            sendErrorResponse(exchange, 502, "Error al comunicarse con el servicio del hospital: interrumpido");
+            return;
         } finally {
-            if (connection != null) {
-                connection.disconnect();
+            timer.observeDuration();
+            span.end();
+            scope.close();
+        }
+
+        // Copiar headers de respuesta; la longitud la gestiona sendResponseHeaders
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            String key = header.getKey();
+            if (key != null && !key.startsWith(":") && !HOP_BY_HOP_HEADERS.contains(key.toLowerCase(Locale.ROOT))) {
+                for (String value : header.getValue()) {
+                    exchange.getResponseHeaders().add(key, value);
+                }
             }
         }
+
+        // Asegurar que el Content-Type está establecido
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+        }
+
+        try (InputStream is = response.body()) {
+            long contentLength = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+            boolean noBody = "HEAD".equals(method) || response.statusCode() == 204
+                    || response.statusCode() == 304 || contentLength == 0;
+            if (noBody) {
+                exchange.sendResponseHeaders(response.statusCode(), -1);
+                return;
+            }
+            // 0 = respuesta en chunks cuando el hospital no declara la longitud
+            exchange.sendResponseHeaders(response.statusCode(), contentLength > 0 ? contentLength : 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+                int length;
+                while ((length = is.read(buffer)) != -1) {
+                    os.write(buffer, 0, length);
+                }
+            }
+        }
+    }
+
+    /**
+     * Devuelve la ruta del hospital, leyendo la base de datos sólo cuando no
+     * está en caché o ha caducado.
+     *
+     * @return Ruta con el puerto configurado (puede ser null), o null si el
+     * hospital no existe.
+     */
+    private Route routeFor(Long hospitalId) {
+        long now = System.currentTimeMillis();
+        Route cached = routes.get(hospitalId);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached;
+        }
+        Hospital hospital = hospitalDAO.findById(hospitalId);
+        if (hospital == null) {
+            routes.remove(hospitalId);
+            return null;
+        }
+        Route route = new Route(hospital.getPort(), now + ROUTE_TTL_MILLIS);
+        routes.put(hospitalId, route);
+        return route;
+    }
+
+    private static long parseContentLength(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
     }
 
     /**
@@ -7,7 +7,12 @@ import com.sources.app.dao.InsuranceServiceDAO;
 import com.sources.app.dao.CategoryDAO;
 import com.sources.app.entities.InsuranceService;
 import com.sources.app.entities.Category;
+import com.sources.app.resilience.Downstream;
+import com.sources.app.resilience.DownstreamGuard;
+import com.sources.app.util.HospitalServiceCatalog;
+import com.sources.app.util.HospitalServiceDiscovery;
 import com.sources.app.util.HttpClientUtil;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -121,6 +126,29 @@ public class InsuranceServiceHandler implements HttpHandler {
         "http://192.168.0.4:5050/api/services"
     };
 
+    static {
+        // Sólo la URL base configurada pasa por el circuit breaker del hospital;
+        // las candidatas del descubrimiento se sondean aparte
+        DownstreamGuard.register(Downstream.HOSPITAL, HOSPITAL_API_BASE_URL);
+    }
+
+    /**
+     * Catálogo compartido de servicios del hospital, descargado desde la
+     * primera URL candidata que responde.
+     */
+    private static final HospitalServiceCatalog HOSPITAL_CATALOG = HospitalServiceCatalog.create(
+            HospitalServiceDiscovery.create(Arrays.asList(HOSPITAL_SERVICE_URLS)));
+
+    /**
+     * Ruta para descartar la copia en memoria del catálogo del hospital.
+     */
+    private static final String HOSPITAL_SERVICES_CACHE_PATH = HOSPITAL_SERVICES_PATH + "/cache";
+
+    /**
+     * Catálogo usado por esta instancia para listar servicios del hospital.
+     */
+    private final HospitalServiceCatalog hospitalServiceCatalog;
+
     /**
      * Constructor del manejador de servicios de seguro. Inicializa los DAOs
      * necesarios y el ObjectMapper.
@@ -130,9 +158,19 @@ public class InsuranceServiceHandler implements HttpHandler {
      * @param categoryDAO DAO para interactuar con la tabla de categorías.
      */
     public InsuranceServiceHandler(InsuranceServiceDAO insuranceServiceDAO, CategoryDAO categoryDAO) {
+        this(insuranceServiceDAO, categoryDAO, HOSPITAL_CATALOG);
+    }
+
+    /**
+     * Constructor que permite inyectar el catálogo de la API del hospital
+     * (útil en pruebas).
+     */
+    InsuranceServiceHandler(InsuranceServiceDAO insuranceServiceDAO, CategoryDAO categoryDAO,
+                            HospitalServiceCatalog hospitalServiceCatalog) {
         this.insuranceServiceDAO = insuranceServiceDAO;
         this.categoryDAO = categoryDAO;
         this.objectMapper = new ObjectMapper();
+        this.hospitalServiceCatalog = hospitalServiceCatalog;
     }
 
     /**
@@ -214,7 +252,11 @@ public class InsuranceServiceHandler implements HttpHandler {
                     }
                     break;
                 case "DELETE":
-                    if (idFromPath != null) {
+                    if (path.equals(HOSPITAL_SERVICES_CACHE_PATH)) {
+                        hospitalServiceCatalog.invalidate();
+                        LOGGER.log(Level.INFO, "Caché del catálogo de servicios del hospital invalidada.");
+                        exchange.sendResponseHeaders(204, -1);
+                    } else if (idFromPath != null) {
                         handleDelete(exchange, idFromPath);
                     } else {
                         LOGGER.log(Level.WARNING, "Intento de DELETE sin ID en la ruta: {0}", path);
@@ -293,10 +335,10 @@ public class InsuranceServiceHandler implements HttpHandler {
 
     /**
      * Maneja la solicitud GET a
-     * {@code /api/insurance-services/hospital-services}. Intenta obtener la
-     * lista de servicios desde una API externa de hospital, probando una lista
-     * predefinida de URLs. Marca los servicios que ya existen en la base de
-     * datos local.
+     * {@code /api/insurance-services/hospital-services}. Obtiene la lista de
+     * servicios de la API externa del hospital desde la copia en memoria
+     * ({@link HospitalServiceCatalog}) y marca los servicios que ya existen en
+     * la base de datos local.
      *
      * @param exchange El objeto {@link HttpExchange}.
      * @throws IOException Si ocurre un error de comunicación o al procesar la
@@ -304,38 +346,20 @@ public class InsuranceServiceHandler implements HttpHandler {
      */
     private void handleGetHospitalServices(HttpExchange exchange) throws IOException {
         LOGGER.log(Level.INFO, "Solicitud GET para obtener servicios de hospital externos.");
-        String servicesJson = null;
-        String successUrl = "";
-
-        for (String url : HOSPITAL_SERVICE_URLS) {
-            LOGGER.log(Level.FINE, "Intentando obtener servicios externos desde: {0}", url);
-            try {
-                servicesJson = HttpClientUtil.get(url);
-                if (servicesJson != null && !servicesJson.trim().isEmpty()) {
-                    successUrl = url;
-                    break;
+        try {
+            List<Map<String, Object>> externalServices = hospitalServiceCatalog.get();
+            if (externalServices == null) {
+                byte[] body = objectMapper.writeValueAsBytes(Map.of(
+                        "success", false,
+                        "message", "No se pudieron obtener los servicios del hospital"
+                ));
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(503, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
                 }
-            } catch (Exception e) {
-                LOGGER.log(Level.WARNING, "Fallo al intentar obtener servicios desde: " + url, e);
-            }
-        }
-
-        if (servicesJson == null || servicesJson.trim().isEmpty()) {
-            byte[] body = objectMapper.writeValueAsBytes(Map.of(
-                    "success", false,
-                    "message", "No se pudieron obtener los servicios del hospital"
-            ));
-            exchange.getResponseHeaders().set("Content-Type", "application/json");
-            exchange.sendResponseHeaders(503, body.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(body);
+                return;
             }
-            return;
-        }
-
-        try {
-            List<Map<String, Object>> externalServices = objectMapper.readValue(servicesJson, new TypeReference<List<Map<String, Object>>>() {
-            });
 
             List<Map<String, Object>> processed = new ArrayList<>();
             for (Map<String, Object> item : externalServices) {
@@ -370,16 +394,23 @@ public class InsuranceServiceHandler implements HttpHandler {
                     out.put("price", ((Number) item.get("price")).doubleValue());
                 }
 
-                List<InsuranceService> existing = insuranceServiceDAO.findByExternalId(externalId);
-                boolean imported = existing != null && !existing.isEmpty();
-                out.put("imported", imported);
-                if (imported && existing.get(0) != null && existing.get(0).getIdInsuranceService() != null) {
-                    // Asegurar tipo Long para tests
-                    out.put("insuranceServiceId", existing.get(0).getIdInsuranceService().longValue());
-                }
                 processed.add(out);
             }
 
+            // Estado de importación de todo el catálogo en una sola consulta
+            List<String> externalIds = new ArrayList<>(processed.size());
+            for (Map<String, Object> out : processed) {
+                externalIds.add((String) out.get("hospitalServiceId"));
+            }
+            Map<String, Long> importedIds = insuranceServiceDAO.findByExternalIds(externalIds);
+            for (Map<String, Object> out : processed) {
+                Long insuranceServiceId = importedIds == null ? null : importedIds.get((String) out.get("hospitalServiceId"));
+                out.put("imported", insuranceServiceId != null);
+                if (insuranceServiceId != null) {
+                    out.put("insuranceServiceId", insuranceServiceId);
+                }
+            }
+
             sendJsonResponse(exchange, 200, processed);
 
         } catch (IOException e) {
@@ -587,6 +618,9 @@ public class InsuranceServiceHandler implements HttpHandler {
                 }
             } else {
                 // Obtener todos los servicios si no hay filtro de categoría
+                if (KeysetPagination.respond(exchange, objectMapper, "application/json", insuranceServiceDAO::findPage)) {
+                    return;
+                }
                 services = insuranceServiceDAO.findAll();
             }
             LOGGER.log(Level.INFO, "Enviando {0} servicios.", services.size());
@@ -1018,14 +1052,7 @@ public class InsuranceServiceHandler implements HttpHandler {
      * @throws IOException Si ocurre un error al escribir la respuesta.
      */
     private void sendJsonResponse(HttpExchange exchange, int statusCode, Object data) throws IOException {
-        String jsonResponse = objectMapper.writeValueAsString(data);
-        byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
-        LOGGER.log(Level.FINE, "Respuesta enviada: Código={0}, Tamaño={1} bytes", new Object[]{statusCode, responseBytes.length});
+        JsonResponseWriter.sendJson(exchange, statusCode, objectMapper, data);
     }
 
     /**
@@ -1,7 +1,6 @@
 package com.sources.app.handlers;
 
 import java.io.IOException;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
@@ -14,6 +13,7 @@ import java.util.stream.Collectors;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.MedicineDAO;
 import com.sources.app.entities.Medicine;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -153,6 +153,9 @@ public class MedicineHandler implements HttpHandler {
                 }
             } else {
                 // Obtener todos los medicamentos
+                if (KeysetPagination.respond(exchange, objectMapper, "application/json", medicineDAO::findPage)) {
+                    return;
+                }
                 List<Medicine> list = medicineDAO.findAll();
                 sendJsonResponse(exchange, 200, list);
             }
@@ -278,13 +281,7 @@ public class MedicineHandler implements HttpHandler {
      * @throws IOException Si ocurre un error al escribir la respuesta.
      */
     private void sendJsonResponse(HttpExchange exchange, int statusCode, Object data) throws IOException {
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        String jsonResponse = objectMapper.writeValueAsString(data);
-        byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        JsonResponseWriter.sendJson(exchange, statusCode, objectMapper, data);
     }
 
     /**
@@ -14,6 +14,7 @@ import com.sources.app.dao.MedicinePresDAO;
 import com.sources.app.entities.Medicine;
 import com.sources.app.entities.MedicinePres;
 import com.sources.app.entities.Prescription;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -164,9 +165,12 @@ public class MedicinePresHandler implements HttpHandler {
             }
         } else {
             // Si no se especifican IDs, obtiene todas las relaciones
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", medicinePresDAO::findPage)) {
+                return;
+            }
             List<MedicinePres> list = medicinePresDAO.findAll();
-            String jsonResponse = objectMapper.writeValueAsString(list);
-            sendJsonResponse(exchange, 200, jsonResponse);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            JsonResponseWriter.write(exchange, 200, objectMapper, list);
         }
     }
 
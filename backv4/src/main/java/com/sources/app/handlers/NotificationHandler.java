@@ -2,7 +2,6 @@ package com.sources.app.handlers;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Properties;
@@ -12,29 +11,32 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
-import jakarta.mail.AuthenticationFailedException;
-import jakarta.mail.Authenticator;
-import jakarta.mail.Message;
-import jakarta.mail.MessagingException;
-import jakarta.mail.PasswordAuthentication;
-import jakarta.mail.Session;
-import jakarta.mail.Transport;
-import jakarta.mail.internet.InternetAddress;
-import jakarta.mail.internet.MimeMessage;
+import com.sources.app.metrics.MetricsConfiguration;
+import com.sources.app.notifications.DigestCoalescer;
+import com.sources.app.notifications.EmailDispatcher;
+import com.sources.app.notifications.OutgoingEmail;
+import com.sources.app.util.JsonResponseWriter;
 
 /**
  * Manejador HTTP diseñado específicamente para enviar notificaciones por correo
  * electrónico. Expone un único endpoint para recibir solicitudes de envío de
  * correo. La configuración del servidor SMTP (host, puerto, autenticación) y
  * las credenciales del remitente se cargan desde un archivo de propiedades
- * (`mail.properties`) ubicado en el classpath.
+ * (`mail.properties`) ubicado en el classpath. El envío lo hace en segundo
+ * plano un {@link EmailDispatcher}; las notificaciones normales pasan antes por
+ * un {@link DigestCoalescer} que las agrupa por destinatario.
  *
  * <p>
  * Endpoint manejado:</p>
  * <ul>
- * <li>{@code POST /api/notifications/email}: Envía un correo electrónico.
- * Requiere un cuerpo JSON con los campos "to" (destinatario), "subject"
- * (asunto) y "body" (cuerpo del mensaje).</li>
+ * <li>{@code POST /api/notifications/email}: Guarda el correo en el outbox y
+ * responde 202 sin esperar al servidor SMTP; si no se puede guardar responde
+ * 500. Los correos guardados se envían aunque el servicio se reinicie antes,
+ * y los que no se pueden entregar quedan marcados como fallidos en el outbox.
+ * Requiere un cuerpo JSON con los
+ * campos "to" (destinatario), "subject" (asunto) y "body" (cuerpo del
+ * mensaje). Con {@code "priority": "urgent"} el correo se encola de inmediato
+ * en lugar de esperar al resumen del destinatario.</li>
  * </ul>
  */
 public class NotificationHandler implements HttpHandler {
@@ -53,40 +55,88 @@ public class NotificationHandler implements HttpHandler {
     private static final Logger LOGGER = Logger.getLogger(NotificationHandler.class.getName());
 
     /**
-     * Propiedades de configuración de correo cargadas desde `mail.properties`.
+     * Cola de envío compartida por todas las instancias creadas con el
+     * constructor por defecto.
      */
-    private final Properties mailProperties;
+    private static EmailDispatcher sharedDispatcher;
     /**
-     * Dirección de correo electrónico del remitente, obtenida de las
-     * propiedades.
+     * Agrupador compartido, sobre {@link #sharedDispatcher}.
      */
-    private final String senderEmail;
+    private static DigestCoalescer sharedCoalescer;
+
+    /**
+     * Cola a la que se entregan los correos.
+     */
+    private final EmailDispatcher dispatcher;
     /**
-     * Contraseña de la cuenta de correo del remitente, obtenida de las
-     * propiedades.
+     * Agrupa las notificaciones no urgentes en resúmenes por destinatario.
      */
-    private final String senderPassword;
+    private final DigestCoalescer coalescer;
 
     /**
-     * Constructor del manejador de notificaciones. Inicializa el ObjectMapper y
-     * carga las propiedades de configuración de correo (servidor SMTP,
-     * credenciales del remitente) desde el archivo `mail.properties` usando el
-     * método {@link #loadMailProperties()}. Registra un error grave si faltan
-     * las propiedades esenciales `mail.sender.email` o `mail.sender.password`.
+     * Constructor del manejador de notificaciones. Carga las propiedades de
+     * configuración de correo (servidor SMTP, credenciales del remitente)
+     * desde el archivo `mail.properties` usando el método
+     * {@link #loadMailProperties()} y arranca la cola de envío la primera vez.
      */
     public NotificationHandler() {
-        this.objectMapper = new ObjectMapper();
-        this.mailProperties = loadMailProperties();
-        this.senderEmail = mailProperties.getProperty("mail.sender.email");
-        this.senderPassword = mailProperties.getProperty("mail.sender.password");
+        this(sharedDispatcher(), sharedCoalescer());
+    }
 
-        if (this.senderEmail == null || this.senderPassword == null) {
-            LOGGER.severe("Faltan propiedades esenciales (mail.sender.email o mail.sender.password) en mail.properties");
-            // Considerar lanzar una excepción aquí si es crítico
+    /**
+     * Constructor que recibe la cola de envío; usado en pruebas. Registra un
+     * error grave si la configuración de correo está incompleta.
+     *
+     * @param dispatcher Cola a la que se entregan los correos.
+     * @param coalescer  Agrupador de las notificaciones no urgentes.
+     */
+    NotificationHandler(EmailDispatcher dispatcher, DigestCoalescer coalescer) {
+        this.objectMapper = new ObjectMapper();
+        this.dispatcher = dispatcher;
+        this.coalescer = coalescer;
+        if (!dispatcher.isConfigured()) {
+            LOGGER.severe("Faltan propiedades esenciales (servidor SMTP, mail.sender.email o mail.sender.password) en mail.properties");
         }
         LOGGER.info("NotificationHandler inicializado."); // No mostrar email en logs públicos
     }
 
+    /**
+     * Envía los resúmenes abiertos y espera a que la cola compartida se
+     * vacíe; lo llama el hook de apagado de la aplicación. Lo que no se
+     * envíe a tiempo sigue en el outbox.
+     *
+     * @param timeoutMillis Espera máxima para vaciar la cola.
+     * @return {@code true} si no quedó ningún correo sin enviar.
+     */
+    public static synchronized boolean shutdownShared(long timeoutMillis) {
+        if (sharedDispatcher == null) {
+            return true;
+        }
+        if (sharedCoalescer != null) {
+            sharedCoalescer.flushAll();
+        }
+        boolean drained = sharedDispatcher.shutdown(timeoutMillis);
+        if (!drained) {
+            LOGGER.warning("Apagado: quedan " + sharedDispatcher.queueDepth()
+                    + " correos sin enviar; siguen en el outbox y se enviarán en el próximo arranque");
+        }
+        return drained;
+    }
+
+    private static synchronized EmailDispatcher sharedDispatcher() {
+        if (sharedDispatcher == null) {
+            sharedDispatcher = EmailDispatcher.create(loadMailProperties());
+        }
+        return sharedDispatcher;
+    }
+
+    private static synchronized DigestCoalescer sharedCoalescer() {
+        if (sharedCoalescer == null) {
+            sharedCoalescer = DigestCoalescer.create(sharedDispatcher());
+        }
+        return sharedCoalescer;
+    }
+
     /**
      * Carga las propiedades de configuración de correo electrónico desde el
      * archivo `mail.properties` que debe encontrarse en el classpath del
@@ -98,9 +148,9 @@ public class NotificationHandler implements HttpHandler {
      * en el classpath o si ocurre un error de {@link IOException} durante la
      * carga.
      */
-    private Properties loadMailProperties() {
+    private static Properties loadMailProperties() {
         Properties props = new Properties();
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream("mail.properties")) {
+        try (InputStream input = NotificationHandler.class.getClassLoader().getResourceAsStream("mail.properties")) {
             if (input == null) {
                 LOGGER.severe("No se pudo encontrar el archivo mail.properties en el classpath.");
                 throw new RuntimeException("No se pudo encontrar el archivo mail.properties.");
@@ -121,11 +171,12 @@ public class NotificationHandler implements HttpHandler {
      * OPTIONS (preflight), valida que la ruta coincida exactamente con
      * {@link #ENDPOINT} y que el método sea POST. Si la solicitud es válida,
      * lee el cuerpo JSON, extrae el destinatario, asunto y cuerpo del mensaje,
-     * valida que no estén vacíos, e invoca a
-     * {@link #sendEmail(String, String, String)} para realizar el envío.
-     * Responde con 200 (OK) si el envío es exitoso, 400 si faltan datos o el
-     * JSON es inválido, 500 si ocurre un error interno durante el envío, 404 si
-     * la ruta es incorrecta, o 405 si el método no es POST.
+     * valida que no estén vacíos y lo entrega a la cola de envío (urgente) o al
+     * resumen del destinatario (normal). Responde con 202 (Accepted) si el
+     * correo quedó aceptado, 400 si faltan datos, 500 si el JSON es inválido o
+     * el correo no está configurado, 503 si la cola o los resúmenes pendientes
+     * están llenos, 404 si la ruta es incorrecta, o 405 si el método no es
+     * POST.
      *
      * @param exchange El objeto {@link HttpExchange} que encapsula la solicitud
      * y la respuesta HTTP.
@@ -165,6 +216,7 @@ public class NotificationHandler implements HttpHandler {
                 String to = emailRequest.get("to");
                 String subject = emailRequest.get("subject");
                 String body = emailRequest.get("body");
+                boolean urgent = "urgent".equalsIgnoreCase(emailRequest.get("priority"));
 
                 // Validar datos mínimos requeridos
                 if (to == null || to.trim().isEmpty()
@@ -175,21 +227,35 @@ public class NotificationHandler implements HttpHandler {
                     return;
                 }
 
-                // Enviar el email usando el método auxiliar
-                boolean emailSent = sendEmail(to, subject, body);
+                if (!dispatcher.isConfigured()) {
+                    LOGGER.severe("Intento de enviar email sin configuración SMTP o credenciales completas.");
+                    sendErrorResponse(exchange, 500, "Error interno al enviar el email.");
+                    return;
+                }
+
+                // Las urgentes se encolan ya; el resto espera al resumen del destinatario
+                OutgoingEmail email = new OutgoingEmail(to, subject, body);
+                boolean accepted = true;
+                if (urgent) {
+                    accepted = dispatcher.submit(email);
+                    if (accepted) {
+                        MetricsConfiguration.EMAIL_NOTIFICATIONS_TOTAL.labels("urgent").inc();
+                    }
+                } else {
+                    accepted = coalescer.add(email);
+                }
 
-                if (emailSent) {
-                    // Email enviado con éxito
-                    LOGGER.info("Email enviado exitosamente a: " + to);
+                if (accepted) {
+                    LOGGER.info("Email encolado para: " + to);
                     Map<String, Object> response = Map.of(
                             "success", true,
-                            "message", "Email enviado con éxito"
+                            "message", "Email guardado y encolado para envío"
                     );
-                    sendJsonResponse(exchange, 200, response);
+                    sendJsonResponse(exchange, 202, response);
                 } else {
-                    // Error interno al enviar el email (ya logueado en sendEmail)
-                    LOGGER.severe("Fallo al enviar email a: " + to + " (ver logs anteriores para detalles).");
-                    sendErrorResponse(exchange, 500, "Error interno al enviar el email.");
+                    LOGGER.warning("Cola de emails o resúmenes llena; se rechaza el envío a: " + to);
+                    exchange.getResponseHeaders().set("Retry-After", "5");
+                    sendErrorResponse(exchange, 503, "Cola de emails llena.");
                 }
             } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
                 // Para JSON malformado, los tests esperan 500 sin cuerpo
@@ -206,108 +272,18 @@ public class NotificationHandler implements HttpHandler {
         }
     }
 
-    /**
-     * Envía un correo electrónico utilizando la API Jakarta Mail y la
-     * configuración (servidor SMTP, credenciales) cargada desde
-     * `mail.properties`. Configura la sesión de correo con autenticación SMTP y
-     * TLS (basado en las propiedades). Crea un {@link MimeMessage} con el
-     * remitente, destinatario(s), asunto y cuerpo. Maneja posibles errores
-     * durante la configuración o el envío (e.g., credenciales inválidas,
-     * problemas de conexión con el servidor SMTP, dirección de destinatario
-     * inválida) y los registra.
-     *
-     * @param to La dirección de correo electrónico del destinatario (o
-     * múltiples direcciones separadas por coma).
-     * @param subject El asunto del correo electrónico.
-     * @param body El cuerpo del correo electrónico (como texto plano).
-     * @return {@code true} si {@link Transport#send(Message)} se completa sin
-     * lanzar excepciones, {@code false} si faltan credenciales en la
-     * configuración o si ocurre cualquier excepción durante la preparación o
-     * envío del correo.
-     */
-    private boolean sendEmail(String to, String subject, String body) {
-        // Validar que las propiedades esenciales estén cargadas
-        if (senderEmail == null || senderPassword == null) {
-            LOGGER.severe("Intento de enviar email sin credenciales configuradas.");
-            return false;
-        }
-
-        try {
-            LOGGER.info("Intentando enviar email a: " + to + " con asunto: " + subject);
-
-            // Configurar propiedades para el servidor SMTP desde las propiedades cargadas
-            Properties props = new Properties();
-            props.put("mail.smtp.auth", mailProperties.getProperty("mail.smtp.auth", "true"));
-            props.put("mail.smtp.starttls.enable", mailProperties.getProperty("mail.smtp.starttls.enable", "true"));
-            props.put("mail.smtp.host", mailProperties.getProperty("mail.smtp.host"));
-            props.put("mail.smtp.port", mailProperties.getProperty("mail.smtp.port"));
-
-            // Validar que host y port no sean nulos
-            if (props.getProperty("mail.smtp.host") == null || props.getProperty("mail.smtp.port") == null) {
-                LOGGER.severe("Faltan propiedades SMTP host o port en mail.properties.");
-                return false;
-            }
-
-            // Crear sesión con autenticación
-            Session session = Session.getInstance(props, new Authenticator() {
-                @Override
-                protected PasswordAuthentication getPasswordAuthentication() {
-                    // Usa las credenciales cargadas en el constructor
-                    return new PasswordAuthentication(senderEmail, senderPassword);
-                }
-            });
-
-            // Habilitar debug de JavaMail si es necesario (útil en desarrollo)
-            // session.setDebug(true);
-            // Crear el mensaje MimeMessage
-            MimeMessage message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(senderEmail));
-            // Manejar múltiples destinatarios si están separados por coma
-            message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(to, false));
-            message.setSubject(subject, "UTF-8"); // Especificar UTF-8 para el asunto
-            // Considerar usar MimeMultipart para contenido HTML o mixto
-            message.setText(body, "UTF-8"); // Especificar UTF-8 para el cuerpo
-            message.setHeader("Content-Type", "text/plain; charset=UTF-8"); // Asegurar Content-Type
-
-            // Enviar el mensaje
-            Transport.send(message);
-
-            LOGGER.info("Email enviado correctamente a: " + to);
-            return true;
-        } catch (AuthenticationFailedException e) {
-            LOGGER.severe("Error de autenticación al enviar email desde " + senderEmail + ": " + e.getMessage());
-            // No exponer detalles de contraseña en logs
-            return false;
-        } catch (MessagingException e) {
-            LOGGER.severe("Error de MessagingException al enviar email a " + to + ": " + e.getMessage());
-            // Podría ser dirección inválida, problema de conexión, etc.
-            e.printStackTrace(); // Útil para ver la causa raíz
-            return false;
-        } catch (Exception e) { // Captura genérica para otros errores inesperados
-            LOGGER.severe("Error inesperado al intentar enviar email a " + to + ": " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
-    }
-
     /**
      * Envía una respuesta JSON al cliente. Serializa el objeto de datos a JSON
      * y lo escribe en el cuerpo de la respuesta con el código de estado
      * adecuado. Utilizado principalmente para respuestas de éxito.
      *
      * @param exchange El objeto {@link HttpExchange}.
-     * @param statusCode El código de estado HTTP (e.g., 200).
+     * @param statusCode El código de estado HTTP (e.g., 202).
      * @param data El objeto a serializar.
      * @throws IOException Si ocurre un error al escribir la respuesta.
      */
     private void sendJsonResponse(HttpExchange exchange, int statusCode, Object data) throws IOException {
-        String jsonResponse = objectMapper.writeValueAsString(data);
-        exchange.getResponseHeaders().set("Content-Type", "application/json");
-        byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(statusCode, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        JsonResponseWriter.sendJson(exchange, statusCode, objectMapper, data);
     }
 
     /**
@@ -5,6 +5,7 @@ import com.sources.app.entities.Pharmacy;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sources.app.dao.PharmacyDAO;
+import com.sources.app.util.JsonResponseWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
@@ -85,14 +86,12 @@ public class PharmacyHandler implements HttpHandler {
                 exchange.sendResponseHeaders(400, -1);
             }
         } else {
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", pharmacyDAO::findPage)) {
+                return;
+            }
             List<Pharmacy> list = pharmacyDAO.findAll();
-            String jsonResponse = objectMapper.writeValueAsString(list);
             exchange.getResponseHeaders().set("Content-Type", "application/json");
-            byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(200, responseBytes.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(responseBytes);
-            }
+            JsonResponseWriter.write(exchange, 200, objectMapper, list);
         }
     }
 
@@ -3,6 +3,7 @@ package com.sources.app.handlers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.entities.Policy;
 import com.sources.app.dao.PolicyDAO;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -91,14 +92,12 @@ public class PolicyHandler implements HttpHandler {
                 exchange.sendResponseHeaders(400, -1);
             }
         } else {
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", policyDAO::findPage)) {
+                return;
+            }
             List<Policy> policies = policyDAO.findAll();
-            String jsonResponse = objectMapper.writeValueAsString(policies);
             exchange.getResponseHeaders().set("Content-Type", "application/json");
-            byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(200, responseBytes.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(responseBytes);
-            }
+            JsonResponseWriter.write(exchange, 200, objectMapper, policies);
         }
     }
 
@@ -20,6 +20,7 @@ import com.sources.app.dao.UserDAO;
 import com.sources.app.entities.ConfigurableAmount;
 import com.sources.app.entities.PrescriptionApproval;
 import com.sources.app.entities.User;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -125,9 +126,9 @@ public class PrescriptionApprovalHandler implements HttpHandler {
      * proporciona el parámetro de consulta `userId`, filtra las aprobaciones
      * para ese usuario usando
      * {@link PrescriptionApprovalDAO#findByUserId(Long)}. Si no se proporciona
-     * `userId` o es inválido, obtiene todas las aprobaciones usando
-     * {@link PrescriptionApprovalDAO#findAll()}. Envía la lista de aprobaciones
-     * resultante como JSON.
+     * `userId`, envía todas las aprobaciones como un array JSON que se escribe
+     * a medida que se leen de
+     * {@link PrescriptionApprovalDAO#streamAll(com.sources.app.dao.ResultStreamConsumer)}.
      *
      * @param exchange El objeto {@link HttpExchange}.
      * @throws IOException Si ocurre un error al obtener datos o al enviar la
@@ -135,10 +136,10 @@ public class PrescriptionApprovalHandler implements HttpHandler {
      */
     private void handleGetApprovals(HttpExchange exchange) throws IOException {
         String query = exchange.getRequestURI().getQuery();
-        List<PrescriptionApproval> approvals;
 
         if (query != null && query.contains("userId=")) {
             Map<String, String> params = parseQuery(query);
+            List<PrescriptionApproval> approvals;
             try {
                 Long userId = Long.parseLong(params.get("userId"));
                 approvals = approvalDAO.findByUserId(userId);
@@ -146,12 +147,16 @@ public class PrescriptionApprovalHandler implements HttpHandler {
                 exchange.sendResponseHeaders(400, -1); // Bad Request
                 return;
             }
-        } else {
-            approvals = approvalDAO.findAll();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            JsonResponseWriter.write(exchange, 200, objectMapper, approvals);
+            return;
         }
 
-        String jsonResponse = objectMapper.writeValueAsString(approvals);
-        sendJsonResponse(exchange, 200, jsonResponse);
+        if (KeysetPagination.respond(exchange, objectMapper, "application/json", approvalDAO::findPage)) {
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        approvalDAO.streamAll(approvals -> JsonResponseWriter.writeArray(exchange, 200, objectMapper, approvals));
     }
 
     /**
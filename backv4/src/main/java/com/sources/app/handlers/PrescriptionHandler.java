@@ -3,6 +3,7 @@ package com.sources.app.handlers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.PrescriptionDAO;
 import com.sources.app.entities.Prescription;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -72,13 +73,8 @@ public class PrescriptionHandler implements HttpHandler {
                 try {
                     Long userId = Long.parseLong(params.get("user_id"));
                     List<Prescription> list = prescriptionDAO.findByUserId(userId);
-                    String jsonResponse = objectMapper.writeValueAsString(list);
                     exchange.getResponseHeaders().set("Content-Type", "application/json");
-                    byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-                    exchange.sendResponseHeaders(200, responseBytes.length);
-                    try(OutputStream os = exchange.getResponseBody()){
-                        os.write(responseBytes);
-                    }
+                    JsonResponseWriter.write(exchange, 200, objectMapper, list);
                 } catch(NumberFormatException e){
                     exchange.sendResponseHeaders(400, -1);
                 }
@@ -103,25 +99,18 @@ public class PrescriptionHandler implements HttpHandler {
                 }
             } else {
                 // Si no se pasan parámetros específicos, se retornan todas las recetas
+                if (KeysetPagination.respond(exchange, objectMapper, "application/json", prescriptionDAO::findPage)) {
+                    return;
+                }
                 List<Prescription> list = prescriptionDAO.findAll();
-                String jsonResponse = objectMapper.writeValueAsString(list);
                 exchange.getResponseHeaders().set("Content-Type", "application/json");
-                byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-                exchange.sendResponseHeaders(200, responseBytes.length);
-                try(OutputStream os = exchange.getResponseBody()){
-                    os.write(responseBytes);
-                }
+                JsonResponseWriter.write(exchange, 200, objectMapper, list);
             }
         } else {
             // Sin query, retorna todas las recetas
             List<Prescription> list = prescriptionDAO.findAll();
-            String jsonResponse = objectMapper.writeValueAsString(list);
             exchange.getResponseHeaders().set("Content-Type", "application/json");
-            byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(200, responseBytes.length);
-            try(OutputStream os = exchange.getResponseBody()){
-                os.write(responseBytes);
-            }
+            JsonResponseWriter.write(exchange, 200, objectMapper, list);
         }
     }
 
@@ -5,6 +5,7 @@ import com.sources.app.dao.ServiceCategoryDAO;
 import com.sources.app.entities.ServiceCategory;
 import com.sources.app.entities.Service;
 import com.sources.app.entities.Category;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -88,14 +89,12 @@ public class ServiceCategoryHandler implements HttpHandler {
             }
         } else {
             // Si no se especifican ambos IDs, devolvemos todos los registros
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", serviceCategoryDAO::findPage)) {
+                return;
+            }
             List<ServiceCategory> list = serviceCategoryDAO.findAll();
-            String jsonResponse = objectMapper.writeValueAsString(list);
             exchange.getResponseHeaders().set("Content-Type", "application/json");
-            byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(200, responseBytes.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(responseBytes);
-            }
+            JsonResponseWriter.write(exchange, 200, objectMapper, list);
         }
     }
 
@@ -3,6 +3,7 @@ package com.sources.app.handlers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.entities.Service;
 import com.sources.app.dao.ServiceDAO;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -87,14 +88,12 @@ public class ServiceHandler implements HttpHandler {
             }
         } else {
             // Recuperamos todos los servicios con sus detalles
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", serviceDAO::findPage)) {
+                return;
+            }
             List<Service> list = serviceDAO.findAllWithDetails();
-            String jsonResponse = objectMapper.writeValueAsString(list);
             exchange.getResponseHeaders().set("Content-Type", "application/json");
-            byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(200, responseBytes.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(responseBytes);
-            }
+            JsonResponseWriter.write(exchange, 200, objectMapper, list);
         }
     }
 
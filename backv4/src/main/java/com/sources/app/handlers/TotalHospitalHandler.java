@@ -3,6 +3,7 @@ package com.sources.app.handlers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.TotalHospitalDAO;
 import com.sources.app.entities.TotalHospital;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -85,14 +86,12 @@ public class TotalHospitalHandler implements HttpHandler {
                 exchange.sendResponseHeaders(400, -1);
             }
         } else {
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", totalHospitalDAO::findPage)) {
+                return;
+            }
             List<TotalHospital> list = totalHospitalDAO.findAll();
-            String jsonResponse = objectMapper.writeValueAsString(list);
             exchange.getResponseHeaders().set("Content-Type", "application/json");
-            byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(200, responseBytes.length);
-            try (OutputStream os = exchange.getResponseBody()){
-                os.write(responseBytes);
-            }
+            JsonResponseWriter.write(exchange, 200, objectMapper, list);
         }
     }
 
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.TotalPharmacyDAO;
 import com.sources.app.entities.TotalPharmacy;
 import com.sources.app.entities.Pharmacy;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -86,14 +87,12 @@ public class TotalPharmacyHandler implements HttpHandler {
                 exchange.sendResponseHeaders(400, -1);
             }
         } else {
-            List<TotalPharmacy> list = totalPharmacyDAO.findAll();
-            String jsonResponse = objectMapper.writeValueAsString(list);
-            exchange.getResponseHeaders().set("Content-Type","application/json");
-            byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(200, responseBytes.length);
-            try(OutputStream os = exchange.getResponseBody()){
-                os.write(responseBytes);
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", totalPharmacyDAO::findPage)) {
+                return;
             }
+            List<TotalPharmacy> list = totalPharmacyDAO.findAll();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            JsonResponseWriter.write(exchange, 200, objectMapper, list);
         }
     }
 
@@ -5,6 +5,7 @@ import com.sources.app.dao.TransactionPolicyDAO;
 import com.sources.app.entities.TransactionPolicy;
 import com.sources.app.entities.Policy;
 import com.sources.app.entities.User;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -86,14 +87,12 @@ public class TransactionPolicyHandler implements HttpHandler {
                 exchange.sendResponseHeaders(400, -1);
             }
         } else {
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", transactionPolicyDAO::findPage)) {
+                return;
+            }
             List<TransactionPolicy> list = transactionPolicyDAO.findAll();
-            String jsonResponse = objectMapper.writeValueAsString(list);
             exchange.getResponseHeaders().set("Content-Type", "application/json");
-            byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(200, responseBytes.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(responseBytes);
-            }
+            JsonResponseWriter.write(exchange, 200, objectMapper, list);
         }
     }
 
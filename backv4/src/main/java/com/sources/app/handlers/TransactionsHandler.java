@@ -3,6 +3,7 @@ package com.sources.app.handlers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.TransactionsDAO;
 import com.sources.app.entities.Transactions;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -123,13 +124,8 @@ public class TransactionsHandler implements HttpHandler {
                     List<Transactions> list = transactionsDAO.findByUserId(userId);
                     System.out.println("Encontradas " + list.size() + " transacciones");
                     
-                    String jsonResponse = objectMapper.writeValueAsString(list);
                     exchange.getResponseHeaders().set("Content-Type", "application/json");
-                    byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-                    exchange.sendResponseHeaders(200, responseBytes.length);
-                    try (OutputStream os = exchange.getResponseBody()) {
-                        os.write(responseBytes);
-                    }
+                    JsonResponseWriter.write(exchange, 200, objectMapper, list);
                 } catch (NumberFormatException e) {
                     System.err.println("Error al convertir ID de usuario: " + e.getMessage());
                     exchange.sendResponseHeaders(400, -1);
@@ -155,25 +151,18 @@ public class TransactionsHandler implements HttpHandler {
                 }
             } else {
                 // Si no se especifica parámetro, retorna todas las transacciones
+                if (KeysetPagination.respond(exchange, objectMapper, "application/json", transactionsDAO::findPage)) {
+                    return;
+                }
                 List<Transactions> list = transactionsDAO.findAll();
-                String jsonResponse = objectMapper.writeValueAsString(list);
                 exchange.getResponseHeaders().set("Content-Type", "application/json");
-                byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-                exchange.sendResponseHeaders(200, responseBytes.length);
-                try (OutputStream os = exchange.getResponseBody()) {
-                    os.write(responseBytes);
-                }
+                JsonResponseWriter.write(exchange, 200, objectMapper, list);
             }
         } else {
             // Sin query, retornar todas las transacciones
             List<Transactions> list = transactionsDAO.findAll();
-            String jsonResponse = objectMapper.writeValueAsString(list);
             exchange.getResponseHeaders().set("Content-Type", "application/json");
-            byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(200, responseBytes.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(responseBytes);
-            }
+            JsonResponseWriter.write(exchange, 200, objectMapper, list);
         }
     }
 
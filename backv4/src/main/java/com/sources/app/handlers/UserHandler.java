@@ -11,6 +11,7 @@ import java.util.regex.Pattern;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.UserDAO;
 import com.sources.app.entities.User;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -164,14 +165,12 @@ public class UserHandler implements HttpHandler {
             }
         } else if (path.equals(ENDPOINT)) {
             // Si no se especifica un id, devolvemos todos los usuarios
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json", userDAO::findPage)) {
+                return;
+            }
             List<User> users = userDAO.findAll();
-            String jsonResponse = objectMapper.writeValueAsString(users);
             exchange.getResponseHeaders().set("Content-Type", "application/json");
-            byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-            exchange.sendResponseHeaders(200, responseBytes.length);
-            try (OutputStream os = exchange.getResponseBody()) {
-                os.write(responseBytes);
-            }
+            JsonResponseWriter.write(exchange, 200, objectMapper, users);
         } else {
             // Ruta con sufijo no numérico: error de petición
             exchange.sendResponseHeaders(400, -1);
@@ -0,0 +1,211 @@
+package com.sources.app.metrics;
+
+import com.sources.app.tracing.Span;
+import com.sources.app.tracing.Tracing;
+import com.sources.app.util.QueryMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Decorates {@link HttpHandler} instances with Prometheus metrics instrumentation.
+ *
+ * <p>Requests are labeled with a route template rather than the raw path:
+ * below the context path, identifiers (numbers, UUIDs, emails, long hex
+ * strings) become {@code {id}}, other values {@code {param}}, and anything
+ * deeper than {@value #MAX_TEMPLATE_SEGMENTS} segments is folded into
+ * {@code /**}. Any error status ({@code 4xx}, {@code 5xx}) is labeled with the
+ * context path alone, so unknown or malformed URLs cannot create new
+ * series.</p>
+ *
+ * <p>SQL statements issued while the request runs are counted through
+ * {@link QueryMetrics}, and each request runs inside a server span that
+ * continues the caller's {@code traceparent} ({@link Tracing}).</p>
+ */
+public final class InstrumentedHttpHandler implements HttpHandler {
+
+    static final int MAX_TEMPLATE_SEGMENTS = 2;
+
+    private static final Pattern ID_SEGMENT = Pattern.compile(
+            "\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|[0-9a-fA-F]{16,}|[^/]*@[^/]*");
+    private static final Pattern LITERAL_SEGMENT = Pattern.compile("[a-z][a-z0-9_-]{0,31}");
+
+    private final String pathLabel;
+    private final HttpHandler delegate;
+
+    private InstrumentedHttpHandler(String pathLabel, HttpHandler delegate) {
+        this.pathLabel = Objects.requireNonNull(pathLabel, "pathLabel");
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    /**
+     * @param pathLabel the context path the handler is registered under.
+     */
+    public static HttpHandler of(String pathLabel, HttpHandler delegate) {
+        return new InstrumentedHttpHandler(pathLabel, delegate);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        MetricsConfiguration.HTTP_INFLIGHT_REQUESTS.labels(pathLabel).inc();
+        QueryMetrics.beginRequest();
+        Span span = Tracing.startServerSpan(method + " " + pathLabel,
+                exchange.getRequestHeaders().getFirst(Tracing.TRACEPARENT_HEADER),
+                exchange.getRequestHeaders().getFirst(Tracing.TRACESTATE_HEADER));
+        Span.Scope scope = span.makeCurrent();
+        long start = System.nanoTime();
+
+        // Wrap both streams to count bytes
+        CountingInputStream requestStream = new CountingInputStream(exchange.getRequestBody());
+        CountingOutputStream responseStream = new CountingOutputStream(exchange.getResponseBody());
+        exchange.setStreams(requestStream, responseStream);
+
+        int statusCode = 200;
+
+        try {
+            delegate.handle(exchange);
+            statusCode = exchange.getResponseCode();
+            if (statusCode == -1) {
+                statusCode = 200;
+            }
+        } catch (IOException | RuntimeException e) {
+            statusCode = 500;
+            span.recordException(e);
+            throw e;
+        } finally {
+            String route = statusCode >= 400 ? pathLabel : routeTemplate(pathLabel, exchange.getRequestURI().getPath());
+            MetricsConfiguration.HTTP_REQUEST_DURATION_SECONDS
+                    .labels(route, method)
+                    .observe((System.nanoTime() - start) / 1_000_000_000.0);
+            MetricsConfiguration.HTTP_INFLIGHT_REQUESTS.labels(pathLabel).dec();
+            QueryMetrics.endRequest(route);
+
+            MetricsConfiguration.HTTP_REQUEST_SIZE_BYTES
+                    .labels(route, method)
+                    .observe(requestStream.getCount());
+            MetricsConfiguration.HTTP_RESPONSE_SIZE_BYTES
+                    .labels(route, method)
+                    .observe(responseStream.getCount());
+
+            MetricsConfiguration.HTTP_REQUESTS_TOTAL
+                    .labels(route, method, Integer.toString(statusCode))
+                    .inc();
+
+            span.updateName(method + " " + route)
+                    .setAttribute("http.request.method", method)
+                    .setAttribute("http.route", route)
+                    .setAttribute("url.path", exchange.getRequestURI().getPath())
+                    .setAttribute("http.response.status_code", statusCode);
+            if (statusCode >= 500) {
+                span.setError("HTTP " + statusCode);
+            }
+            span.end();
+            scope.close();
+        }
+    }
+
+    /**
+     * Builds the route template for a request path under the given context
+     * path, e.g. {@code /api/insurance-services/5} becomes
+     * {@code /api/insurance-services/{id}}.
+     */
+    static String routeTemplate(String contextPath, String requestPath) {
+        String base = contextPath.endsWith("/") ? contextPath.substring(0, contextPath.length() - 1) : contextPath;
+        if (requestPath == null || !requestPath.startsWith(base)) {
+            return contextPath;
+        }
+        StringBuilder template = new StringBuilder(base);
+        int segments = 0;
+        for (String segment : requestPath.substring(base.length()).split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (++segments > MAX_TEMPLATE_SEGMENTS) {
+                template.append("/**");
+                break;
+            }
+            template.append('/');
+            if (ID_SEGMENT.matcher(segment).matches()) {
+                template.append("{id}");
+            } else if (LITERAL_SEGMENT.matcher(segment).matches()) {
+                template.append(segment);
+            } else {
+                template.append("{param}");
+            }
+        }
+        return template.length() == 0 ? "/" : template.toString();
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        private long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result != -1) {
+                count++;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int result = super.read(b, off, len);
+            if (result > 0) {
+                count += result;
+            }
+            return result;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) {
+                count += skipped;
+            }
+            return skipped;
+        }
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        private long getCount() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            // FilterOutputStream would write byte by byte
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.sources.app.metrics;
 
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+import io.prometheus.client.Summary;
 import io.prometheus.client.hotspot.DefaultExports;
 
 /**
@@ -10,6 +13,7 @@ import io.prometheus.client.hotspot.DefaultExports;
 public final class MetricsConfiguration {
 
     private static final CollectorRegistry REGISTRY = CollectorRegistry.defaultRegistry;
+    private static final String LABEL_METHOD = "method";
 
     public static final Counter DB_QUERIES_TOTAL = Counter.build()
             .name("ensurance_db_queries_total")
@@ -17,6 +21,218 @@ public final class MetricsConfiguration {
             .labelNames("operation", "entity", "status")
             .register(REGISTRY);
 
+    public static final Histogram DB_QUERY_DURATION_SECONDS = Histogram.build()
+            .name("ensurance_db_query_duration_seconds")
+            .help("Hibernate query execution time by normalized statement and entity")
+            .labelNames("statement", "entity")
+            .buckets(0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5)
+            .register(REGISTRY);
+
+    public static final Histogram DB_STATEMENTS_PER_REQUEST = Histogram.build()
+            .name("ensurance_db_statements_per_request")
+            .help("SQL statements issued while handling one HTTP request")
+            .labelNames("path")
+            .buckets(0, 1, 2, 5, 10, 25, 50, 100, 250)
+            .register(REGISTRY);
+
+    public static final Counter DB_REQUEST_STATEMENT_THRESHOLD_EXCEEDED_TOTAL = Counter.build()
+            .name("ensurance_db_request_statement_threshold_exceeded_total")
+            .help("HTTP requests that issued more SQL statements than DB_REQUEST_STATEMENT_THRESHOLD")
+            .labelNames("path")
+            .register(REGISTRY);
+
+    public static final Counter HTTP_REQUESTS_TOTAL = Counter.build()
+            .name("ensurance_http_requests_total")
+            .help("Total HTTP requests handled by the API")
+            .labelNames("path", LABEL_METHOD, "status")
+            .register(REGISTRY);
+
+    /**
+     * Buckets are dense between 50 ms and 1 s, where the API latency
+     * objectives sit, so percentiles near them are not interpolated across
+     * wide buckets.
+     */
+    public static final Histogram HTTP_REQUEST_DURATION_SECONDS = Histogram.build()
+            .name("ensurance_http_request_duration_seconds")
+            .help("Time spent processing HTTP requests")
+            .labelNames("path", LABEL_METHOD)
+            .buckets(0.005, 0.01, 0.025, 0.05, 0.075, 0.1, 0.15, 0.2, 0.3, 0.5, 0.75, 1, 2.5, 5, 10)
+            .register(REGISTRY);
+
+    public static final Gauge HTTP_INFLIGHT_REQUESTS = Gauge.build()
+            .name("ensurance_http_inflight_requests")
+            .help("Number of HTTP requests currently being processed")
+            .labelNames("path")
+            .register(REGISTRY);
+
+    public static final Summary HTTP_REQUEST_SIZE_BYTES = Summary.build()
+            .name("ensurance_http_request_size_bytes")
+            .help("Size of HTTP request bodies in bytes")
+            .labelNames("path", LABEL_METHOD)
+            .register(REGISTRY);
+
+    public static final Summary HTTP_RESPONSE_SIZE_BYTES = Summary.build()
+            .name("ensurance_http_response_size_bytes")
+            .help("Size of HTTP response bodies in bytes")
+            .labelNames("path", LABEL_METHOD)
+            .register(REGISTRY);
+
+    public static final Gauge HTTP_EXECUTOR_ACTIVE_REQUESTS = Gauge.build()
+            .name("ensurance_http_executor_active_requests")
+            .help("HTTP requests currently running on the server executor")
+            .labelNames("mode")
+            .register(REGISTRY);
+
+    public static final Gauge HTTP_EXECUTOR_QUEUED_REQUESTS = Gauge.build()
+            .name("ensurance_http_executor_queued_requests")
+            .help("HTTP requests accepted and waiting for an executor thread")
+            .labelNames("mode")
+            .register(REGISTRY);
+
+    public static final Counter ADMISSION_REJECTED_TOTAL = Counter.build()
+            .name("ensurance_admission_rejected_total")
+            .help("Requests rejected with 503 by admission control")
+            .labelNames("route_class", "path")
+            .register(REGISTRY);
+
+    public static final Gauge ADMISSION_INFLIGHT_REQUESTS = Gauge.build()
+            .name("ensurance_admission_inflight_requests")
+            .help("Requests currently holding an admission slot")
+            .labelNames("route_class")
+            .register(REGISTRY);
+
+    public static final Gauge ADMISSION_QUEUED_REQUESTS = Gauge.build()
+            .name("ensurance_admission_queued_requests")
+            .help("Requests waiting for an admission slot")
+            .labelNames("route_class")
+            .register(REGISTRY);
+
+    public static final Counter SERVICE_EXPIRATION_ROWS_TOTAL = Counter.build()
+            .name("ensurance_service_expiration_rows_total")
+            .help("Users whose paid service was marked as expired")
+            .register(REGISTRY);
+
+    public static final Counter SERVICE_EXPIRATION_CHUNKS_TOTAL = Counter.build()
+            .name("ensurance_service_expiration_chunks_total")
+            .help("Service expiration batches committed")
+            .register(REGISTRY);
+
+    public static final Gauge SERVICE_EXPIRATION_ROWS_PER_SECOND = Gauge.build()
+            .name("ensurance_service_expiration_rows_per_second")
+            .help("Throughput of the last service expiration run")
+            .register(REGISTRY);
+
+    public static final Gauge SERVICE_EXPIRATION_LAG_SECONDS = Gauge.build()
+            .name("ensurance_service_expiration_lag_seconds")
+            .help("Age of the oldest expired service still marked as paid, measured at the start and end of each run")
+            .register(REGISTRY);
+
+    public static final Counter HTTP_CLIENT_REQUESTS_TOTAL = Counter.build()
+            .name("ensurance_http_client_requests_total")
+            .help("Outgoing HTTP requests sent through the shared pooled client")
+            .labelNames("host", "version")
+            .register(REGISTRY);
+
+    public static final Gauge HTTP_CLIENT_IN_FLIGHT = Gauge.build()
+            .name("ensurance_http_client_inflight_requests")
+            .help("Outgoing HTTP requests currently waiting for a response, per host")
+            .labelNames("host")
+            .register(REGISTRY);
+
+    public static final Counter HTTP_CLIENT_LIMIT_WAITS_TOTAL = Counter.build()
+            .name("ensurance_http_client_limit_waits_total")
+            .help("Outgoing HTTP requests that had to wait for the per-host connection limit")
+            .labelNames("host")
+            .register(REGISTRY);
+
+    public static final Counter HTTP_CLIENT_SINGLE_FLIGHT_TOTAL = Counter.build()
+            .name("ensurance_http_client_single_flight_total")
+            .help("Outgoing GET calls by single-flight role: leader sends the request, shared reuses an identical one in flight")
+            .labelNames("host", "role")
+            .register(REGISTRY);
+
+    public static final Gauge CIRCUIT_BREAKER_STATE = Gauge.build()
+            .name("ensurance_circuit_breaker_state")
+            .help("Circuit breaker state per downstream service: 0 closed, 1 open, 2 half-open")
+            .labelNames("downstream")
+            .register(REGISTRY);
+
+    public static final Counter CIRCUIT_BREAKER_TRANSITIONS_TOTAL = Counter.build()
+            .name("ensurance_circuit_breaker_transitions_total")
+            .help("Circuit breaker state transitions per downstream service")
+            .labelNames("downstream", "from", "to")
+            .register(REGISTRY);
+
+    public static final Counter DOWNSTREAM_REJECTED_TOTAL = Counter.build()
+            .name("ensurance_downstream_rejected_total")
+            .help("Calls to a downstream service refused without being attempted")
+            .labelNames("downstream", "reason")
+            .register(REGISTRY);
+
+    public static final Counter HOSPITAL_CATALOG_REQUESTS_TOTAL = Counter.build()
+            .name("ensurance_hospital_catalog_requests_total")
+            .help("Hospital services catalog lookups by result: hit, stale or miss")
+            .labelNames("result")
+            .register(REGISTRY);
+
+    public static final Counter HOSPITAL_CATALOG_REFRESHES_TOTAL = Counter.build()
+            .name("ensurance_hospital_catalog_refreshes_total")
+            .help("Hospital services catalog downloads by result")
+            .labelNames("result")
+            .register(REGISTRY);
+
+    public static final Gauge HOSPITAL_CATALOG_AGE_SECONDS = Gauge.build()
+            .name("ensurance_hospital_catalog_age_seconds")
+            .help("Seconds since the cached hospital services catalog was downloaded, 0 when empty")
+            .register(REGISTRY);
+
+    public static final Histogram HOSPITAL_PROXY_UPSTREAM_SECONDS = Histogram.build()
+            .name("ensurance_hospital_proxy_upstream_seconds")
+            .help("Time until a hospital service returns the response headers of a proxied request")
+            .labelNames("hospital")
+            .buckets(0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30)
+            .register(REGISTRY);
+
+    public static final Gauge EMAIL_QUEUE_DEPTH = Gauge.build()
+            .name("ensurance_email_queue_depth")
+            .help("Emails waiting in the dispatch queue, including scheduled retries")
+            .register(REGISTRY);
+
+    public static final Histogram EMAIL_SEND_SECONDS = Histogram.build()
+            .name("ensurance_email_send_seconds")
+            .help("Time to hand one email to the SMTP server over an open connection")
+            .buckets(0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10)
+            .register(REGISTRY);
+
+    public static final Counter EMAIL_DELIVERIES_TOTAL = Counter.build()
+            .name("ensurance_email_deliveries_total")
+            .help("Email delivery attempts by result: sent, retry, failed or rejected")
+            .labelNames("result")
+            .register(REGISTRY);
+
+    public static final Counter EMAIL_SMTP_CONNECTIONS_TOTAL = Counter.build()
+            .name("ensurance_email_smtp_connections_total")
+            .help("SMTP connections opened by the email dispatch workers, by result")
+            .labelNames("result")
+            .register(REGISTRY);
+
+    public static final Counter EMAIL_NOTIFICATIONS_TOTAL = Counter.build()
+            .name("ensurance_email_notifications_total")
+            .help("Notifications handed to the email queue, by path: urgent, single or digest")
+            .labelNames("path")
+            .register(REGISTRY);
+
+    public static final Counter EMAIL_DIGESTS_TOTAL = Counter.build()
+            .name("ensurance_email_digests_total")
+            .help("Digest emails built from several notifications to the same recipient")
+            .register(REGISTRY);
+
+    public static final Counter TRACE_SPANS_TOTAL = Counter.build()
+            .name("ensurance_trace_spans_total")
+            .help("Sampled trace spans by export result: exported, dropped or failed")
+            .labelNames("result")
+            .register(REGISTRY);
+
     private static volatile boolean initialized = false;
 
     private MetricsConfiguration() {
@@ -24,11 +240,13 @@ public final class MetricsConfiguration {
     }
 
     /**
-     * Initializes the default JVM and system metrics exactly once.
+     * Initializes the default JVM and system metrics, plus the second-level
+     * cache statistics, exactly once.
      */
     public static synchronized void initialize() {
         if (!initialized) {
             DefaultExports.initialize();
+            new CacheMetricsCollector().register(REGISTRY);
             initialized = true;
         }
     }
@@ -0,0 +1,214 @@
+package com.sources.app.notifications;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sources.app.config.EnvConfig;
+import com.sources.app.metrics.MetricsConfiguration;
+
+/**
+ * Agrupa por destinatario las notificaciones que llegan dentro de una ventana
+ * y las entrega al {@link EmailDispatcher} como un único correo resumen.
+ *
+ * <p>La primera notificación para un destinatario abre una ventana de
+ * {@code NOTIFICATION_DIGEST_WINDOW_SECONDS} (30 s por defecto); al cerrarse
+ * se envía lo acumulado, tal cual si sólo llegó una. Una ventana que junta
+ * {@code NOTIFICATION_DIGEST_MAX_ITEMS} notificaciones (50 por defecto) se
+ * envía sin esperar. Las notificaciones urgentes no pasan por aquí.</p>
+ *
+ * <p>{@link #add(OutgoingEmail)} rechaza la notificación si la cola del
+ * despachador está llena o si ya hay {@code NOTIFICATION_DIGEST_MAX_RECIPIENTS}
+ * destinatarios (10000 por defecto) con una ventana abierta. Las aceptadas se
+ * guardan en el outbox del despachador antes de acumularse, así que una
+ * ventana abierta no se pierde con un reinicio. Un resumen que la cola rechaza
+ * al cerrarse su ventana vuelve a la ventana del destinatario y se reintenta
+ * al cabo de otra ventana; si el despachador se está deteniendo se queda en el
+ * outbox para el siguiente arranque.</p>
+ *
+ * <p>Métricas: {@code ensurance_email_notifications_total} por salida
+ * ({@code single}, {@code digest}; las urgentes las cuenta el manejador como
+ * {@code urgent}) y {@code ensurance_email_digests_total}.</p>
+ */
+public class DigestCoalescer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DigestCoalescer.class);
+
+    private static final long DEFAULT_WINDOW_SECONDS = 30;
+    private static final int DEFAULT_MAX_ITEMS = 50;
+    private static final int DEFAULT_MAX_RECIPIENTS = 10_000;
+
+    /**
+     * Notificaciones acumuladas de un destinatario. Sólo se modifica dentro
+     * de {@code compute} sobre su clave.
+     */
+    private static final class Pending {
+        private final List<OutgoingEmail> emails = new ArrayList<>();
+    }
+
+    private final EmailDispatcher dispatcher;
+    private final long windowMillis;
+    private final int maxItems;
+    private final int maxRecipients;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+
+    public DigestCoalescer(EmailDispatcher dispatcher, long windowMillis, int maxItems, int maxRecipients,
+                           ScheduledExecutorService scheduler) {
+        this.dispatcher = dispatcher;
+        this.windowMillis = windowMillis;
+        this.maxItems = maxItems;
+        this.maxRecipients = maxRecipients;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Crea el agrupador sobre el despachador dado con la configuración del
+     * entorno.
+     */
+    public static DigestCoalescer create(EmailDispatcher dispatcher) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "email-digest");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new DigestCoalescer(dispatcher,
+                TimeUnit.SECONDS.toMillis(EnvConfig.positiveLong("NOTIFICATION_DIGEST_WINDOW_SECONDS", DEFAULT_WINDOW_SECONDS)),
+                EnvConfig.positiveInt("NOTIFICATION_DIGEST_MAX_ITEMS", DEFAULT_MAX_ITEMS),
+                EnvConfig.positiveInt("NOTIFICATION_DIGEST_MAX_RECIPIENTS", DEFAULT_MAX_RECIPIENTS), scheduler);
+    }
+
+    /**
+     * Acumula la notificación en la ventana de su destinatario.
+     *
+     * @return {@code false} si la cola del despachador está llena o no caben
+     * más destinatarios; la notificación no se acumula.
+     * @throws IllegalStateException si no se pudo guardar en el outbox.
+     */
+    public boolean add(OutgoingEmail email) {
+        if (!dispatcher.hasCapacity()) {
+            return false;
+        }
+        OutgoingEmail stored = dispatcher.store(email);
+        String key = stored.to().trim().toLowerCase(Locale.ROOT);
+        Pending[] full = new Pending[1];
+        boolean[] accepted = {true};
+        pending.compute(key, (k, current) -> {
+            Pending target = current;
+            if (target == null) {
+                if (pending.size() >= maxRecipients) {
+                    accepted[0] = false;
+                    return null;
+                }
+                target = open(k);
+            }
+            target.emails.add(stored);
+            if (target.emails.size() >= maxItems) {
+                full[0] = target;
+                return null;
+            }
+            return target;
+        });
+        if (full[0] != null) {
+            deliver(key, full[0].emails);
+        }
+        if (!accepted[0]) {
+            dispatcher.discard(stored);
+        }
+        return accepted[0];
+    }
+
+    /**
+     * @return destinatarios con una ventana abierta.
+     */
+    public int pendingRecipients() {
+        return pending.size();
+    }
+
+    /**
+     * Envía ya todas las ventanas abiertas; para el apagado.
+     */
+    public void flushAll() {
+        for (String key : List.copyOf(pending.keySet())) {
+            Pending window = pending.get(key);
+            if (window != null) {
+                flush(key, window);
+            }
+        }
+    }
+
+    /**
+     * Abre una ventana y programa su cierre; se llama dentro de
+     * {@code compute} sobre la clave.
+     */
+    private Pending open(String key) {
+        Pending window = new Pending();
+        scheduler.schedule(() -> flush(key, window), windowMillis, TimeUnit.MILLISECONDS);
+        return window;
+    }
+
+    private void flush(String key, Pending window) {
+        // Si la ventana ya salió por llena, la clave puede ser de otra nueva
+        if (pending.remove(key, window)) {
+            deliver(key, window.emails);
+        }
+    }
+
+    private void deliver(String key, List<OutgoingEmail> emails) {
+        OutgoingEmail email = emails.size() == 1 ? emails.get(0) : digest(emails);
+        if (!dispatcher.submit(email)) {
+            requeue(key, emails);
+            return;
+        }
+        if (emails.size() == 1) {
+            MetricsConfiguration.EMAIL_NOTIFICATIONS_TOTAL.labels("single").inc();
+        } else {
+            MetricsConfiguration.EMAIL_NOTIFICATIONS_TOTAL.labels("digest").inc(emails.size());
+            MetricsConfiguration.EMAIL_DIGESTS_TOTAL.inc();
+        }
+    }
+
+    /**
+     * Devuelve al principio de la ventana del destinatario las notificaciones
+     * de un resumen que la cola rechazó, para reintentarlas con la siguiente.
+     */
+    private void requeue(String key, List<OutgoingEmail> emails) {
+        if (dispatcher.isClosed()) {
+            LOGGER.warn("El despachador se está deteniendo; {} notificaciones para {} quedan en el outbox",
+                    emails.size(), key);
+            return;
+        }
+        LOGGER.warn("Cola de emails llena; se reintentarán {} notificaciones para {}", emails.size(), key);
+        pending.compute(key, (k, current) -> {
+            Pending target = current != null ? current : open(k);
+            target.emails.addAll(0, emails);
+            return target;
+        });
+    }
+
+    /**
+     * Un correo con el asunto y el cuerpo de cada notificación, en orden de
+     * llegada, que cubre las filas del outbox de todas ellas.
+     */
+    static OutgoingEmail digest(List<OutgoingEmail> emails) {
+        StringBuilder body = new StringBuilder()
+                .append("Tienes ").append(emails.size()).append(" notificaciones nuevas:\n");
+        List<Long> outboxIds = new ArrayList<>();
+        for (int i = 0; i < emails.size(); i++) {
+            OutgoingEmail email = emails.get(i);
+            body.append('\n').append(i + 1).append(". ").append(email.subject()).append('\n')
+                    .append(email.body()).append('\n');
+            outboxIds.addAll(email.outboxIds());
+        }
+        return new OutgoingEmail(emails.get(0).to(), "Resumen de " + emails.size() + " notificaciones",
+                body.toString(), outboxIds);
+    }
+}
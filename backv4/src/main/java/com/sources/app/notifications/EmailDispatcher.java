@@ -0,0 +1,477 @@
+package com.sources.app.notifications;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sources.app.config.EnvConfig;
+import com.sources.app.dao.EmailOutboxDAO;
+import com.sources.app.entities.EmailOutbox;
+import com.sources.app.metrics.MetricsConfiguration;
+import com.sun.mail.smtp.SMTPAddressFailedException;
+import com.sun.mail.smtp.SMTPSendFailedException;
+
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Cola de envío de correos con hilos trabajadores que mantienen abierta su
+ * conexión SMTP y envían por lotes.
+ *
+ * <p>{@link #submit(OutgoingEmail)} guarda el correo en el outbox
+ * ({@link EmailOutboxDAO}) y lo encola. Cada trabajador toma hasta
+ * {@code EMAIL_BATCH_SIZE} correos (20 por defecto) y los envía por la misma
+ * conexión, que reutiliza entre lotes y cierra tras
+ * {@code EMAIL_TRANSPORT_IDLE_SECONDS} (30 s por defecto) sin trabajo. Los
+ * fallos transitorios se reintentan con espera creciente hasta
+ * {@code EMAIL_MAX_ATTEMPTS} intentos (5 por defecto); los rechazos
+ * permanentes del servidor (5xx) y las direcciones inválidas no se
+ * reintentan. La cola admite {@code EMAIL_QUEUE_CAPACITY} correos (10000 por
+ * defecto).</p>
+ *
+ * <p>La fila del outbox se borra cuando el servidor acepta el correo y se
+ * marca como fallida cuando lo rechaza o se agotan los intentos. La cola en
+ * memoria sólo programa los envíos y reintentos: {@link #start()} vuelve a
+ * encolar las filas pendientes, así que lo que no se envió antes de una
+ * caída, o dentro de los {@code EMAIL_SHUTDOWN_TIMEOUT_SECONDS} (10 s por
+ * defecto) que {@link #shutdown(long)} espera en el apagado, sale en el
+ * siguiente arranque.</p>
+ *
+ * <p>Métricas: {@code ensurance_email_queue_depth},
+ * {@code ensurance_email_send_seconds},
+ * {@code ensurance_email_deliveries_total} por resultado ({@code sent},
+ * {@code retry}, {@code failed}, {@code rejected}) y
+ * {@code ensurance_email_smtp_connections_total}.</p>
+ */
+public class EmailDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private static final int DEFAULT_WORKERS = 2;
+    private static final int DEFAULT_BATCH_SIZE = 20;
+    private static final int DEFAULT_CAPACITY = 10_000;
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+    private static final long DEFAULT_RETRY_BACKOFF_MILLIS = 2_000;
+    private static final long DEFAULT_IDLE_SECONDS = 30;
+    private static final long DEFAULT_SHUTDOWN_SECONDS = 10;
+    private static final long POLL_MILLIS = 250;
+    private static final String SMTP_TIMEOUT_MILLIS = "10000";
+
+    /**
+     * Correo en cola con sus intentos; no está disponible hasta
+     * {@code readyAt}.
+     */
+    private static final class Job implements Delayed {
+        private final OutgoingEmail email;
+        private final int attempts;
+        private final long readyAt;
+
+        Job(OutgoingEmail email, int attempts, long delayMillis) {
+            this.email = email;
+            this.attempts = attempts;
+            this.readyAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(readyAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(readyAt, ((Job) other).readyAt);
+        }
+    }
+
+    private final Properties mailProperties;
+    private final EmailOutboxDAO outbox;
+    private final Session session;
+    private final String senderEmail;
+    private final String senderPassword;
+    private final boolean authEnabled;
+    private final int workerCount;
+    private final int batchSize;
+    private final int capacity;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long idleMillis;
+    private final DelayQueue<Job> queue = new DelayQueue<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+    private volatile boolean closed;
+
+    /**
+     * Despachador sin outbox: la cola sólo vive en memoria. Para pruebas.
+     */
+    public EmailDispatcher(Properties mailProperties, int workerCount, int batchSize, int capacity,
+                           int maxAttempts, long retryBackoffMillis, long idleMillis) {
+        this(mailProperties, null, workerCount, batchSize, capacity, maxAttempts, retryBackoffMillis, idleMillis);
+    }
+
+    /**
+     * @param mailProperties Configuración de {@code mail.properties}: host,
+     *                       puerto, autenticación y remitente.
+     * @param outbox         Tabla donde se guardan los correos hasta
+     *                       entregarlos, o {@code null} para no guardarlos.
+     */
+    public EmailDispatcher(Properties mailProperties, EmailOutboxDAO outbox, int workerCount, int batchSize,
+                           int capacity, int maxAttempts, long retryBackoffMillis, long idleMillis) {
+        this.mailProperties = mailProperties;
+        this.outbox = outbox;
+        this.senderEmail = mailProperties.getProperty("mail.sender.email");
+        this.senderPassword = mailProperties.getProperty("mail.sender.password");
+        this.authEnabled = Boolean.parseBoolean(mailProperties.getProperty("mail.smtp.auth", "true"));
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.idleMillis = idleMillis;
+
+        Properties props = new Properties();
+        props.put("mail.smtp.auth", String.valueOf(authEnabled));
+        props.put("mail.smtp.starttls.enable", mailProperties.getProperty("mail.smtp.starttls.enable", "true"));
+        props.put("mail.smtp.connectiontimeout", SMTP_TIMEOUT_MILLIS);
+        props.put("mail.smtp.timeout", SMTP_TIMEOUT_MILLIS);
+        props.put("mail.smtp.writetimeout", SMTP_TIMEOUT_MILLIS);
+        this.session = Session.getInstance(props);
+    }
+
+    /**
+     * Crea y arranca el despachador con la configuración del entorno, y lo
+     * publica en {@code ensurance_email_queue_depth}.
+     */
+    public static EmailDispatcher create(Properties mailProperties) {
+        EmailDispatcher dispatcher = new EmailDispatcher(mailProperties, new EmailOutboxDAO(),
+                EnvConfig.positiveInt("EMAIL_WORKERS", DEFAULT_WORKERS),
+                EnvConfig.positiveInt("EMAIL_BATCH_SIZE", DEFAULT_BATCH_SIZE),
+                EnvConfig.positiveInt("EMAIL_QUEUE_CAPACITY", DEFAULT_CAPACITY),
+                EnvConfig.positiveInt("EMAIL_MAX_ATTEMPTS", DEFAULT_MAX_ATTEMPTS),
+                EnvConfig.positiveLong("EMAIL_RETRY_BACKOFF_MS", DEFAULT_RETRY_BACKOFF_MILLIS),
+                TimeUnit.SECONDS.toMillis(EnvConfig.positiveLong("EMAIL_TRANSPORT_IDLE_SECONDS", DEFAULT_IDLE_SECONDS)));
+        MetricsConfiguration.EMAIL_QUEUE_DEPTH.setChild(new Gauge.Child() {
+            @Override
+            public double get() {
+                return dispatcher.queueDepth();
+            }
+        });
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    /**
+     * @return plazo de {@link #shutdown(long)} en el apagado, según
+     * {@code EMAIL_SHUTDOWN_TIMEOUT_SECONDS}.
+     */
+    public static long shutdownTimeoutMillis() {
+        return TimeUnit.SECONDS.toMillis(EnvConfig.positiveLong("EMAIL_SHUTDOWN_TIMEOUT_SECONDS", DEFAULT_SHUTDOWN_SECONDS));
+    }
+
+    /**
+     * @return {@code true} si hay host, puerto y remitente y, con
+     * autenticación, contraseña.
+     */
+    public boolean isConfigured() {
+        return mailProperties.getProperty("mail.smtp.host") != null
+                && mailProperties.getProperty("mail.smtp.port") != null
+                && senderEmail != null
+                && (!authEnabled || senderPassword != null);
+    }
+
+    /**
+     * Guarda el correo en el outbox, si aún no lo está, y lo encola sin
+     * esperar al envío.
+     *
+     * @return {@code false} si la cola está llena o el despachador se está
+     * deteniendo; el correo no se guarda.
+     * @throws IllegalStateException si no se pudo guardar en el outbox.
+     */
+    public boolean submit(OutgoingEmail email) {
+        if (closed || queue.size() >= capacity) {
+            MetricsConfiguration.EMAIL_DELIVERIES_TOTAL.labels("rejected").inc();
+            return false;
+        }
+        queue.add(new Job(store(email), 0, 0));
+        return true;
+    }
+
+    /**
+     * Guarda el correo en el outbox sin encolarlo; lo usa
+     * {@link DigestCoalescer} para que las notificaciones sobrevivan a un
+     * reinicio mientras esperan su resumen.
+     *
+     * @return el correo con su fila del outbox, o el mismo si ya tenía o no
+     * hay outbox.
+     * @throws IllegalStateException si no se pudo guardar.
+     */
+    public OutgoingEmail store(OutgoingEmail email) {
+        if (outbox == null || !email.outboxIds().isEmpty()) {
+            return email;
+        }
+        EmailOutbox row = outbox.create(email.to(), email.subject(), email.body());
+        if (row == null) {
+            throw new IllegalStateException("No se pudo guardar el correo en el outbox");
+        }
+        return new OutgoingEmail(email.to(), email.subject(), email.body(), List.of(row.getIdEmail()));
+    }
+
+    /**
+     * Borra del outbox un correo guardado con {@link #store(OutgoingEmail)}
+     * que finalmente no se aceptó.
+     */
+    public void discard(OutgoingEmail email) {
+        if (outbox != null) {
+            outbox.delete(email.outboxIds());
+        }
+    }
+
+    /**
+     * @return {@code true} si {@link #submit(OutgoingEmail)} aceptaría ahora
+     * un correo: la cola no está llena ni deteniéndose.
+     */
+    public boolean hasCapacity() {
+        return !closed && queue.size() < capacity;
+    }
+
+    /**
+     * @return {@code true} desde que empieza {@link #shutdown(long)}.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return correos en cola, incluidos los reintentos programados.
+     */
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Vuelve a encolar los correos pendientes del outbox y arranca los hilos
+     * trabajadores.
+     */
+    public synchronized void start() {
+        if (running || closed) {
+            return;
+        }
+        running = true;
+        if (outbox != null) {
+            List<EmailOutbox> pending = outbox.findPending();
+            for (EmailOutbox row : pending) {
+                OutgoingEmail email = new OutgoingEmail(row.getRecipient(), row.getSubject(), row.getBody(),
+                        List.of(row.getIdEmail()));
+                queue.add(new Job(email, row.getAttempts(), 0));
+            }
+            if (!pending.isEmpty()) {
+                LOGGER.info("Se recuperan {} correos pendientes del outbox", pending.size());
+            }
+        }
+        for (int i = 1; i <= workerCount; i++) {
+            Thread thread = new Thread(this::work, "email-dispatch-" + i);
+            thread.setDaemon(true);
+            workers.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Deja de aceptar correos y espera a que los trabajadores vacíen la cola,
+     * reintentos incluidos. Lo que quede sigue en el outbox.
+     *
+     * @return {@code true} si la cola quedó vacía dentro del plazo.
+     */
+    public synchronized boolean shutdown(long timeoutMillis) {
+        closed = true;
+        running = false;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        boolean drained = true;
+        for (Thread worker : workers) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            try {
+                worker.join(Math.max(1, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                worker.interrupt();
+                drained = false;
+            }
+        }
+        workers.clear();
+        return drained && queue.isEmpty();
+    }
+
+    private void work() {
+        Transport transport = null;
+        List<Job> batch = new ArrayList<>(batchSize);
+        long lastUsed = System.nanoTime();
+        try {
+            while (running || !queue.isEmpty()) {
+                // Espera corta para notar enseguida el shutdown
+                Job first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (transport != null && System.nanoTime() - lastUsed >= TimeUnit.MILLISECONDS.toNanos(idleMillis)) {
+                        transport = close(transport);
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                transport = sendBatch(transport, batch);
+                batch.clear();
+                lastUsed = System.nanoTime();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batch.forEach(queue::add);
+        } finally {
+            close(transport);
+        }
+    }
+
+    /**
+     * Envía el lote por la conexión abierta, reconectando si el servidor la
+     * cerró.
+     *
+     * @return la conexión a reutilizar en el siguiente lote, o {@code null}.
+     */
+    private Transport sendBatch(Transport transport, List<Job> batch) {
+        // Un NOOP por lote comprueba que el servidor no cerró la conexión
+        if (transport != null && !transport.isConnected()) {
+            transport = close(transport);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Job job = batch.get(i);
+            try {
+                if (transport == null) {
+                    transport = connect();
+                }
+            } catch (MessagingException e) {
+                LOGGER.warn("No se pudo conectar al servidor SMTP; se reintentarán {} correos", batch.size() - i, e);
+                batch.subList(i, batch.size()).forEach(pending -> retryOrFail(pending, e));
+                return null;
+            }
+            Histogram.Timer timer = MetricsConfiguration.EMAIL_SEND_SECONDS.startTimer();
+            try {
+                MimeMessage message = toMessage(job.email);
+                transport.sendMessage(message, message.getAllRecipients());
+                MetricsConfiguration.EMAIL_DELIVERIES_TOTAL.labels("sent").inc();
+                delivered(job);
+            } catch (MessagingException e) {
+                if (isPermanent(e)) {
+                    MetricsConfiguration.EMAIL_DELIVERIES_TOTAL.labels("failed").inc();
+                    LOGGER.error("El servidor SMTP rechazó el correo a {}; no se reintentará", job.email.to(), e);
+                    failed(job, job.attempts + 1, e);
+                } else {
+                    LOGGER.warn("Fallo transitorio al enviar correo a {}", job.email.to(), e);
+                    retryOrFail(job, e);
+                    transport = close(transport);
+                }
+            } finally {
+                timer.observeDuration();
+            }
+        }
+        return transport;
+    }
+
+    private Transport connect() throws MessagingException {
+        Transport fresh = session.getTransport("smtp");
+        try {
+            fresh.connect(mailProperties.getProperty("mail.smtp.host"),
+                    Integer.parseInt(mailProperties.getProperty("mail.smtp.port", "-1").trim()),
+                    authEnabled ? senderEmail : null,
+                    authEnabled ? senderPassword : null);
+        } catch (MessagingException | RuntimeException e) {
+            MetricsConfiguration.EMAIL_SMTP_CONNECTIONS_TOTAL.labels("failure").inc();
+            throw e instanceof MessagingException me ? me : new MessagingException("Configuración SMTP inválida", e);
+        }
+        MetricsConfiguration.EMAIL_SMTP_CONNECTIONS_TOTAL.labels("success").inc();
+        return fresh;
+    }
+
+    private void retryOrFail(Job job, Exception error) {
+        int attempts = job.attempts + 1;
+        if (attempts >= maxAttempts) {
+            MetricsConfiguration.EMAIL_DELIVERIES_TOTAL.labels("failed").inc();
+            LOGGER.error("Se descarta el correo a {} tras {} intentos; queda como fallido en el outbox",
+                    job.email.to(), attempts);
+            failed(job, attempts, error);
+            return;
+        }
+        MetricsConfiguration.EMAIL_DELIVERIES_TOTAL.labels("retry").inc();
+        if (outbox != null) {
+            outbox.recordAttempt(job.email.outboxIds(), attempts, error.getMessage());
+        }
+        queue.add(new Job(job.email, attempts, retryBackoffMillis * attempts));
+    }
+
+    private void delivered(Job job) {
+        if (outbox != null && !outbox.delete(job.email.outboxIds())) {
+            LOGGER.warn("No se pudo borrar del outbox el correo enviado a {}; se reenviará al reiniciar",
+                    job.email.to());
+        }
+    }
+
+    private void failed(Job job, int attempts, Exception error) {
+        if (outbox != null) {
+            outbox.markFailed(job.email.outboxIds(), attempts, error.getMessage());
+        }
+    }
+
+    private MimeMessage toMessage(OutgoingEmail email) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(senderEmail));
+        // Manejar múltiples destinatarios si están separados por coma
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.to(), false));
+        message.setSubject(email.subject(), "UTF-8");
+        message.setText(email.body(), "UTF-8");
+        message.setHeader("Content-Type", "text/plain; charset=UTF-8");
+        message.saveChanges();
+        return message;
+    }
+
+    /**
+     * Direcciones inválidas y respuestas 5xx del servidor no mejoran al
+     * reintentar.
+     */
+    private static boolean isPermanent(MessagingException e) {
+        for (Exception cause = e; cause != null;
+             cause = cause instanceof MessagingException me ? me.getNextException() : null) {
+            if (cause instanceof AddressException) {
+                return true;
+            }
+            if (cause instanceof SMTPSendFailedException failed) {
+                return failed.getReturnCode() >= 500;
+            }
+            if (cause instanceof SMTPAddressFailedException failed) {
+                return failed.getReturnCode() >= 500;
+            }
+        }
+        return false;
+    }
+
+    private static Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                LOGGER.debug("Error al cerrar la conexión SMTP", e);
+            }
+        }
+        return null;
+    }
+}
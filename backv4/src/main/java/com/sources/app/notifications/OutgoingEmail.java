@@ -0,0 +1,26 @@
+package com.sources.app.notifications;
+
+import java.util.List;
+
+/**
+ * Correo pendiente de envío.
+ *
+ * @param to        Destinatario, o varios separados por coma.
+ * @param subject   Asunto.
+ * @param body      Cuerpo en texto plano.
+ * @param outboxIds Filas del outbox que cubre este correo: una, varias si es
+ *                  un resumen, o ninguna si aún no se guardó.
+ */
+public record OutgoingEmail(String to, String subject, String body, List<Long> outboxIds) {
+
+    public OutgoingEmail {
+        outboxIds = List.copyOf(outboxIds);
+    }
+
+    /**
+     * Correo aún sin guardar en el outbox.
+     */
+    public OutgoingEmail(String to, String subject, String body) {
+        this(to, subject, body, List.of());
+    }
+}
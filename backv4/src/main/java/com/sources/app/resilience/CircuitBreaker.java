@@ -0,0 +1,153 @@
+package com.sources.app.resilience;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+import com.sources.app.metrics.MetricsConfiguration;
+
+/**
+ * Circuit breaker over a count-based sliding window of the last
+ * {@code windowSize} call outcomes.
+ *
+ * <p>While {@link State#CLOSED}, once the window holds at least
+ * {@code minimumCalls} outcomes and the failure rate reaches
+ * {@code failureRatePercent}, the circuit opens. While {@link State#OPEN} every
+ * call is refused until {@code openMillis} have passed; then it goes
+ * {@link State#HALF_OPEN} and lets {@code halfOpenCalls} trial calls through.
+ * If all of them succeed the circuit closes with an empty window; any failure
+ * opens it again.</p>
+ *
+ * <p>Each transition updates {@code ensurance_circuit_breaker_state} and
+ * {@code ensurance_circuit_breaker_transitions_total}.</p>
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED(0), OPEN(1), HALF_OPEN(2);
+
+        private final int metricValue;
+
+        State(int metricValue) {
+            this.metricValue = metricValue;
+        }
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    /** Resultados recientes en anillo: true = fallo. */
+    private final boolean[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRatePercent, long openMillis,
+                   int halfOpenCalls, LongSupplier clock) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRatePercent = failureRatePercent;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        MetricsConfiguration.CIRCUIT_BREAKER_STATE.labels(name).set(State.CLOSED.metricValue);
+    }
+
+    /**
+     * @return {@code true} si la llamada puede hacerse; en ese caso el
+     * llamador debe informar el resultado con {@link #onSuccess()} o
+     * {@link #onFailure()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openMillis) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                return false;
+            }
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        switch (state) {
+            case CLOSED -> record(false);
+            case HALF_OPEN -> {
+                if (++trialsSucceeded >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case OPEN -> {
+                // Llamada iniciada antes de abrirse el circuito
+            }
+        }
+    }
+
+    public synchronized void onFailure() {
+        switch (state) {
+            case CLOSED -> {
+                record(true);
+                if (recorded >= minimumCalls && failures * 100 >= failureRatePercent * recorded) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            case HALF_OPEN -> transitionTo(State.OPEN);
+            case OPEN -> {
+                // Llamada iniciada antes de abrirse el circuito
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void transitionTo(State target) {
+        MetricsConfiguration.CIRCUIT_BREAKER_TRANSITIONS_TOTAL
+                .labels(name, state.name().toLowerCase(Locale.ROOT), target.name().toLowerCase(Locale.ROOT)).inc();
+        MetricsConfiguration.CIRCUIT_BREAKER_STATE.labels(name).set(target.metricValue);
+        state = target;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        if (target == State.OPEN) {
+            openedAt = clock.getAsLong();
+        } else if (target == State.CLOSED) {
+            next = 0;
+            recorded = 0;
+            failures = 0;
+        }
+    }
+}
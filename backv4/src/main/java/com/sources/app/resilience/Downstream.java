@@ -0,0 +1,75 @@
+package com.sources.app.resilience;
+
+import com.sources.app.config.EnvConfig;
+import java.util.Locale;
+
+/**
+ * External services this backend calls. Each one has its own circuit breaker
+ * and bulkhead, configurable through {@code RESILIENCE_<SERVICIO>_MAX_CONCURRENT},
+ * {@code _WINDOW_SIZE}, {@code _MIN_CALLS}, {@code _FAILURE_RATE} (percent),
+ * {@code _OPEN_MS} and {@code _HALF_OPEN_CALLS}.
+ */
+public enum Downstream {
+    /**
+     * API del hospital.
+     */
+    HOSPITAL,
+    /**
+     * Backend de la farmacia.
+     */
+    PHARMACY,
+    /**
+     * Backend de la aseguradora.
+     */
+    INSURANCE;
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Llamadas simultáneas permitidas; las demás fallan de inmediato.
+     */
+    public int maxConcurrent() {
+        return EnvConfig.positiveInt(env("MAX_CONCURRENT"), 16);
+    }
+
+    /**
+     * Número de llamadas recientes sobre las que se calcula la tasa de fallos.
+     */
+    public int windowSize() {
+        return EnvConfig.positiveInt(env("WINDOW_SIZE"), 20);
+    }
+
+    /**
+     * Llamadas mínimas en la ventana antes de poder abrir el circuito.
+     */
+    public int minimumCalls() {
+        return EnvConfig.positiveInt(env("MIN_CALLS"), 10);
+    }
+
+    /**
+     * Porcentaje de fallos en la ventana a partir del cual se abre el circuito.
+     */
+    public int failureRatePercent() {
+        return EnvConfig.positiveInt(env("FAILURE_RATE"), 50);
+    }
+
+    /**
+     * Tiempo que el circuito permanece abierto antes de probar de nuevo.
+     */
+    public long openMillis() {
+        return EnvConfig.positiveLong(env("OPEN_MS"), 30_000);
+    }
+
+    /**
+     * Llamadas de prueba que deben salir bien para volver a cerrar el circuito.
+     */
+    public int halfOpenCalls() {
+        return EnvConfig.positiveInt(env("HALF_OPEN_CALLS"), 3);
+    }
+
+    private String env(String suffix) {
+        return "RESILIENCE_" + name() + "_" + suffix;
+    }
+}
@@ -1,6 +1,7 @@
 package com.sources.app.scheduler;
 
 import java.time.Duration;
+import java.util.Date;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -8,38 +9,83 @@ import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.sources.app.config.EnvConfig;
 import com.sources.app.dao.UserDAO;
+import com.sources.app.metrics.MetricsConfiguration;
 
 /**
  * Schedules a daily task to verify and update users with expired services.
+ *
+ * <p>Each run expires users in batches of {@code SERVICE_EXPIRATION_BATCH_SIZE}
+ * (500 by default), committing every batch on its own, and records progress in
+ * the {@code ensurance_service_expiration_*} metrics.</p>
  */
 public class ServiceExpirationScheduler {
     private static final Logger LOGGER = LoggerFactory.getLogger(ServiceExpirationScheduler.class);
     private static final long PERIOD_MILLIS = Duration.ofDays(1).toMillis();
 
     private final UserDAO userDAO;
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "service-expiration");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public ServiceExpirationScheduler(UserDAO userDAO) {
+        this(userDAO, batchSize());
+    }
+
+    ServiceExpirationScheduler(UserDAO userDAO, int batchSize) {
         this.userDAO = userDAO;
+        this.batchSize = batchSize;
     }
 
     /**
-     * Starts a daily fixed-rate job. First run is after PERIOD_MILLIS.
+     * Runs the first check right away in the background, so startup does not
+     * wait for it, and then once a day.
      */
-    public void startDaily() {
+    public void start() {
         scheduler.scheduleAtFixedRate(() -> {
             try {
                 LOGGER.info("Ejecutando verificación programada de servicios expirados...");
-                int count = userDAO.checkAllUsersServiceExpiration();
+                int count = runOnce();
                 LOGGER.info("Verificación programada: se actualizaron {} usuarios con servicios expirados.", count);
             } catch (Exception e) {
                 LOGGER.error("Error en verificación programada de servicios expirados", e);
             }
-        }, PERIOD_MILLIS, PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+        }, 0L, PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Expires every pending user and updates the metrics.
+     *
+     * @return number of users updated.
+     */
+    int runOnce() {
+        recordLag();
+        long start = System.nanoTime();
+        int count = userDAO.checkAllUsersServiceExpiration(batchSize, updated -> {
+            MetricsConfiguration.SERVICE_EXPIRATION_CHUNKS_TOTAL.inc();
+            MetricsConfiguration.SERVICE_EXPIRATION_ROWS_TOTAL.inc(updated);
+        });
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        MetricsConfiguration.SERVICE_EXPIRATION_ROWS_PER_SECOND.set(seconds > 0 ? count / seconds : 0.0);
+        recordLag();
+        return count;
+    }
+
+    private void recordLag() {
+        Date oldest = userDAO.findOldestPendingExpiration();
+        double lag = oldest == null ? 0.0 : Math.max(0L, System.currentTimeMillis() - oldest.getTime()) / 1000.0;
+        MetricsConfiguration.SERVICE_EXPIRATION_LAG_SECONDS.set(lag);
     }
 
     public void shutdown() {
         scheduler.shutdownNow();
     }
+
+    static int batchSize() {
+        return EnvConfig.positiveInt("SERVICE_EXPIRATION_BATCH_SIZE", UserDAO.DEFAULT_EXPIRATION_BATCH_SIZE);
+    }
 }
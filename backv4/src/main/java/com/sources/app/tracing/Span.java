@@ -0,0 +1,170 @@
+package com.sources.app.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Una operación medida dentro de una traza: una petición HTTP atendida, una
+ * llamada saliente o una sentencia SQL.
+ *
+ * <p>Se crea con {@link Tracing}, se marca como actual con
+ * {@link #makeCurrent()} mientras dura la operación y se cierra con
+ * {@link #end()}. Los spans no muestreados sólo llevan los identificadores
+ * para propagarlos; sus atributos se ignoran y no se exportan.</p>
+ */
+public final class Span {
+
+    /**
+     * Tipo de span, con el código que usa OTLP.
+     */
+    public enum Kind {
+        INTERNAL(1), SERVER(2), CLIENT(3);
+
+        private final int otlpCode;
+
+        Kind(int otlpCode) {
+            this.otlpCode = otlpCode;
+        }
+
+        int otlpCode() {
+            return otlpCode;
+        }
+    }
+
+    /**
+     * Restaura el span actual anterior al cerrarse.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final SpanContext context;
+    private final String parentSpanId;
+    private final Kind kind;
+    private final boolean recording;
+    private final long startEpochNanos;
+    private final long startNanoTime;
+    private final Map<String, Object> attributes;
+    private final AtomicBoolean ended = new AtomicBoolean();
+    private volatile String name;
+    private volatile String errorMessage;
+    private volatile long endEpochNanos;
+
+    Span(String name, Kind kind, SpanContext context, String parentSpanId, boolean recording) {
+        this.name = name;
+        this.kind = kind;
+        this.context = context;
+        this.parentSpanId = parentSpanId;
+        this.recording = recording;
+        this.startEpochNanos = Tracing.epochNanos();
+        this.startNanoTime = System.nanoTime();
+        this.attributes = recording ? new LinkedHashMap<>() : Map.of();
+    }
+
+    public SpanContext context() {
+        return context;
+    }
+
+    /**
+     * @return {@code true} si el span se exportará al terminar.
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Cambia el nombre, p. ej. cuando la ruta sólo se conoce al final.
+     */
+    public Span updateName(String newName) {
+        this.name = newName;
+        return this;
+    }
+
+    public Span setAttribute(String key, String value) {
+        if (recording && value != null) {
+            synchronized (attributes) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    public Span setAttribute(String key, long value) {
+        if (recording) {
+            synchronized (attributes) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Marca el span como fallido.
+     */
+    public Span setError(String message) {
+        this.errorMessage = message == null ? "" : message;
+        return this;
+    }
+
+    /**
+     * Marca el span como fallido por una excepción.
+     */
+    public Span recordException(Throwable error) {
+        setAttribute("exception.type", error.getClass().getName());
+        return setError(error.getMessage());
+    }
+
+    /**
+     * Hace de este span el actual del hilo hasta cerrar el {@link Scope}.
+     */
+    public Scope makeCurrent() {
+        return Tracing.makeCurrent(this);
+    }
+
+    /**
+     * Termina el span y, si se muestreó, lo encola para exportarlo. Las
+     * llamadas posteriores no tienen efecto.
+     */
+    public void end() {
+        if (!ended.compareAndSet(false, true)) {
+            return;
+        }
+        endEpochNanos = startEpochNanos + (System.nanoTime() - startNanoTime);
+        if (recording) {
+            Tracing.onEnd(this);
+        }
+    }
+
+    String name() {
+        return name;
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    String parentSpanId() {
+        return parentSpanId;
+    }
+
+    long startEpochNanos() {
+        return startEpochNanos;
+    }
+
+    long endEpochNanos() {
+        return endEpochNanos;
+    }
+
+    String errorMessage() {
+        return errorMessage;
+    }
+
+    Map<String, Object> attributes() {
+        synchronized (attributes) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+        }
+    }
+}
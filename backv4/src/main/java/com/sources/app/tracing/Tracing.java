@@ -0,0 +1,238 @@
+package com.sources.app.tracing;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Trazas distribuidas con propagación W3C Trace Context.
+ *
+ * <p>Cada petición atendida abre un span {@code SERVER} que continúa la traza
+ * de la cabecera {@code traceparent} entrante, si la hay. Las llamadas
+ * salientes ({@code PooledHttpClient}, proxy de hospitales) abren spans
+ * {@code CLIENT} y envían su propio {@code traceparent}, y cada sentencia SQL
+ * ejecutada dentro de una traza muestreada abre un span hijo
+ * ({@link TracingSessionListener}).</p>
+ *
+ * <p>Configuración por variables de entorno:</p>
+ * <ul>
+ * <li>{@code TRACE_EXPORTER}: {@code none} (por defecto: se propaga el
+ * contexto pero no se exporta nada), {@code file} (OTLP/JSON, un lote por
+ * línea, en {@code TRACE_FILE}; {@code traces.jsonl} por defecto) u
+ * {@code otlp} (POST a {@code TRACE_OTLP_ENDPOINT};
+ * {@code http://localhost:4318/v1/traces} por defecto).</li>
+ * <li>{@code TRACE_SAMPLE_RATE}: fracción de trazas nuevas que se muestrean
+ * (0.1 por defecto). Las que llegan de otro servicio respetan su bandera
+ * {@code sampled}.</li>
+ * <li>{@code TRACE_SERVICE_NAME}, {@code TRACE_QUEUE_CAPACITY} y
+ * {@code TRACE_EXPORT_INTERVAL_MS}, ver {@link BatchSpanProcessor}.</li>
+ * </ul>
+ */
+public final class Tracing {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Tracing.class);
+
+    public static final String TRACEPARENT_HEADER = "traceparent";
+    public static final String TRACESTATE_HEADER = "tracestate";
+
+    static final double DEFAULT_SAMPLE_RATE = 0.1;
+    private static final String DEFAULT_SERVICE_NAME = "backv4";
+    private static final String DEFAULT_FILE = "traces.jsonl";
+    private static final String DEFAULT_OTLP_ENDPOINT = "http://localhost:4318/v1/traces";
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private static volatile double sampleRate = readSampleRate();
+    private static volatile BatchSpanProcessor processor = createProcessor();
+
+    private Tracing() {
+    }
+
+    /**
+     * Abre el span de una petición entrante.
+     *
+     * @param traceparent cabecera {@code traceparent} recibida, o {@code null}.
+     * @param traceState cabecera {@code tracestate} recibida, o {@code null}.
+     */
+    public static Span startServerSpan(String name, String traceparent, String traceState) {
+        SpanContext remote = SpanContext.fromTraceparent(traceparent, traceState);
+        if (remote == null) {
+            return newSpan(name, Span.Kind.SERVER, SpanContext.newRoot(sampleRoot()), null);
+        }
+        return newSpan(name, Span.Kind.SERVER, remote.newChild(), remote.spanId());
+    }
+
+    /**
+     * Abre un span hijo del actual, o la raíz de una traza nueva si no hay
+     * ninguno.
+     */
+    public static Span startSpan(String name, Span.Kind kind) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return newSpan(name, kind, SpanContext.newRoot(sampleRoot()), null);
+        }
+        return newSpan(name, kind, parent.context().newChild(), parent.context().spanId());
+    }
+
+    /**
+     * @return el span actual del hilo, o {@code null}.
+     */
+    public static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Escribe {@code traceparent} y {@code tracestate} del span actual con
+     * el setter dado. No hace nada fuera de una traza.
+     */
+    public static void inject(BiConsumer<String, String> setter) {
+        Span span = CURRENT.get();
+        if (span == null) {
+            return;
+        }
+        setter.accept(TRACEPARENT_HEADER, span.context().traceparent());
+        if (span.context().traceState() != null) {
+            setter.accept(TRACESTATE_HEADER, span.context().traceState());
+        }
+    }
+
+    /**
+     * Envuelve una tarea para que, al ejecutarse en otro hilo, continúe la
+     * traza del span actual.
+     */
+    public static <T> Supplier<T> propagating(Supplier<T> task) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> inScope(parent, task::get);
+    }
+
+    /**
+     * Tarea ejecutada dentro de un span; puede lanzar {@code E}.
+     */
+    @FunctionalInterface
+    public interface ScopedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * Ejecuta la tarea con {@code span} como span actual del hilo y restaura
+     * el anterior al terminar.
+     */
+    public static <T, E extends Exception> T inScope(Span span, ScopedCall<T, E> call) throws E {
+        Span.Scope scope = makeCurrent(span);
+        try {
+            return call.call();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Registra {@link TracingSessionListener} para que las sentencias SQL
+     * aparezcan en las trazas. Sin exportador no se registra nada.
+     *
+     * @param configuration configuración de Hibernate ya cargada.
+     * @return {@code true} si quedó registrado.
+     */
+    public static boolean configure(Configuration configuration) {
+        if (processor == null) {
+            return false;
+        }
+        configuration.setProperty(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                TracingSessionListener.class.getName());
+        return true;
+    }
+
+    /**
+     * Sustituye la configuración leída del entorno; para pruebas.
+     *
+     * @param newProcessor destino de los spans, o {@code null} para no exportar.
+     */
+    static void install(double newSampleRate, BatchSpanProcessor newProcessor) {
+        sampleRate = newSampleRate;
+        processor = newProcessor;
+    }
+
+    static Span.Scope makeCurrent(Span span) {
+        Span previous = CURRENT.get();
+        CURRENT.set(span);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    static void onEnd(Span span) {
+        BatchSpanProcessor current = processor;
+        if (current != null) {
+            current.offer(span);
+        }
+    }
+
+    static long epochNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    private static Span newSpan(String name, Span.Kind kind, SpanContext context, String parentSpanId) {
+        return new Span(name, kind, context, parentSpanId, context.sampled() && processor != null);
+    }
+
+    private static boolean sampleRoot() {
+        double rate = sampleRate;
+        return rate >= 1.0 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static double readSampleRate() {
+        String value = System.getenv("TRACE_SAMPLE_RATE");
+        if (value == null || value.isBlank()) {
+            return DEFAULT_SAMPLE_RATE;
+        }
+        try {
+            double rate = Double.parseDouble(value.trim());
+            return rate >= 0 && rate <= 1 ? rate : DEFAULT_SAMPLE_RATE;
+        } catch (NumberFormatException e) {
+            return DEFAULT_SAMPLE_RATE;
+        }
+    }
+
+    private static BatchSpanProcessor createProcessor() {
+        String exporterName = env("TRACE_EXPORTER", "none").toLowerCase(Locale.ROOT);
+        SpanExporter exporter;
+        switch (exporterName) {
+            case "none":
+                return null;
+            case "file":
+                exporter = new FileSpanExporter(Path.of(env("TRACE_FILE", DEFAULT_FILE)));
+                break;
+            case "otlp":
+                exporter = new OtlpHttpSpanExporter(env("TRACE_OTLP_ENDPOINT", DEFAULT_OTLP_ENDPOINT));
+                break;
+            default:
+                LOGGER.warn("TRACE_EXPORTER desconocido: {}; no se exportarán trazas", exporterName);
+                return null;
+        }
+        BatchSpanProcessor created = BatchSpanProcessor.create(exporter, env("TRACE_SERVICE_NAME", DEFAULT_SERVICE_NAME));
+        Runtime.getRuntime().addShutdownHook(new Thread(created::flush, "trace-export-flush"));
+        LOGGER.info("Trazas activas: exportador {}, muestreo {}", exporterName, sampleRate);
+        return created;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+}
@@ -0,0 +1,175 @@
+package com.sources.app.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.prometheus.PrometheusMetricsTrackerFactory;
+
+import io.prometheus.client.CollectorRegistry;
+
+/**
+ * Construye el pool de conexiones HikariCP que usa Hibernate en lugar del
+ * pool interno ({@code hibernate.connection.pool_size}), que no está pensado
+ * para producción.
+ *
+ * <p>Los datos de conexión (URL, driver, usuario y contraseña) se toman de la
+ * configuración de Hibernate ya resuelta. El tamaño y los tiempos del pool se
+ * configuran con propiedades de sistema o variables de entorno:</p>
+ * <ul>
+ * <li>{@code DB_POOL_ENABLED} (true): false vuelve al pool interno.</li>
+ * <li>{@code DB_POOL_MAX_SIZE} (valor de {@code hibernate.connection.pool_size}
+ * o 10) y {@code DB_POOL_MIN_IDLE} (2).</li>
+ * <li>{@code DB_POOL_MAX_LIFETIME_MS} (30 min), {@code DB_POOL_IDLE_TIMEOUT_MS}
+ * (10 min) y {@code DB_POOL_CONNECTION_TIMEOUT_MS} (5 s).</li>
+ * <li>{@code DB_POOL_LEAK_DETECTION_MS} (30 s, 0 desactiva).</li>
+ * <li>{@code DB_POOL_STATEMENT_CACHE_SIZE} (50): caché implícita de
+ * sentencias preparadas del driver de Oracle.</li>
+ * </ul>
+ * Las métricas del pool (conexiones activas, ociosas, pendientes y tiempo de
+ * adquisición) se exportan al {@link CollectorRegistry} por defecto con el
+ * prefijo {@code hikaricp_}.
+ */
+public final class ConnectionPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPool.class);
+
+    // Nombres heredados que siguen usando los hibernate.cfg.xml; las
+    // constantes de AvailableSettings para ellos están obsoletas
+    private static final String LEGACY_URL = "hibernate.connection.url";
+    private static final String LEGACY_DRIVER = "hibernate.connection.driver_class";
+    private static final String LEGACY_USER = "hibernate.connection.username";
+    private static final String LEGACY_PASSWORD = "hibernate.connection.password";
+
+    private ConnectionPool() {
+    }
+
+    /**
+     * Reemplaza el proveedor de conexiones de la configuración por un pool
+     * HikariCP.
+     *
+     * @param configuration configuración de Hibernate ya cargada.
+     * @param poolName nombre del pool, usado como etiqueta en las métricas.
+     * @return el pool creado, o {@code null} si está desactivado o no hay URL
+     * de conexión.
+     */
+    public static HikariDataSource configure(Configuration configuration, String poolName) {
+        if (!Boolean.parseBoolean(setting("DB_POOL_ENABLED", "true"))) {
+            LOGGER.info("Pool HikariCP desactivado; se usará el pool interno de Hibernate");
+            return null;
+        }
+        Properties props = configuration.getProperties();
+        String url = resolved(props, AvailableSettings.JAKARTA_JDBC_URL, LEGACY_URL);
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+
+        HikariConfig config = buildConfig(props, poolName);
+        config.setJdbcUrl(url);
+        HikariDataSource dataSource = new PooledDataSource(config);
+        props.put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+        LOGGER.info("Pool HikariCP '{}' iniciado (max={}, minIdle={})",
+                poolName, config.getMaximumPoolSize(), config.getMinimumIdle());
+        return dataSource;
+    }
+
+    static HikariConfig buildConfig(Properties props, String poolName) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+
+        String driver = resolved(props, AvailableSettings.JAKARTA_JDBC_DRIVER, LEGACY_DRIVER);
+        if (driver != null && !driver.isBlank()) {
+            config.setDriverClassName(driver);
+        }
+        String user = resolved(props, AvailableSettings.JAKARTA_JDBC_USER, LEGACY_USER);
+        if (user != null) {
+            config.setUsername(user);
+        }
+        String password = resolved(props, AvailableSettings.JAKARTA_JDBC_PASSWORD, LEGACY_PASSWORD);
+        if (password != null) {
+            config.setPassword(password);
+        }
+        config.setAutoCommit(Boolean.parseBoolean(props.getProperty(AvailableSettings.AUTOCOMMIT, "false")));
+
+        int defaultMax = parseInt(props.getProperty(AvailableSettings.POOL_SIZE), 10);
+        int maxSize = parseInt(setting("DB_POOL_MAX_SIZE", null), defaultMax);
+        config.setMaximumPoolSize(Math.max(1, maxSize));
+        config.setMinimumIdle(Math.min(config.getMaximumPoolSize(), parseInt(setting("DB_POOL_MIN_IDLE", null), 2)));
+        config.setMaxLifetime(parseLong(setting("DB_POOL_MAX_LIFETIME_MS", null), 1_800_000L));
+        config.setIdleTimeout(parseLong(setting("DB_POOL_IDLE_TIMEOUT_MS", null), 600_000L));
+        config.setConnectionTimeout(parseLong(setting("DB_POOL_CONNECTION_TIMEOUT_MS", null), 5_000L));
+        config.setLeakDetectionThreshold(parseLong(setting("DB_POOL_LEAK_DETECTION_MS", null), 30_000L));
+
+        int statementCache = parseInt(setting("DB_POOL_STATEMENT_CACHE_SIZE", null), 50);
+        if (statementCache > 0 && driver != null && driver.startsWith("oracle.")) {
+            config.addDataSourceProperty("oracle.jdbc.implicitStatementCacheSize", String.valueOf(statementCache));
+        }
+
+        config.setMetricsTrackerFactory(new PrometheusMetricsTrackerFactory(CollectorRegistry.defaultRegistry));
+        return config;
+    }
+
+    /**
+     * Hibernate pide {@code getConnection(user, password)} cuando la
+     * configuración conserva credenciales; el pool ya las tiene, así que se
+     * ignoran.
+     */
+    private static final class PooledDataSource extends HikariDataSource {
+
+        private PooledDataSource(HikariConfig config) {
+            super(config);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+
+    /**
+     * Lee el ajuste por su nombre de Jakarta Persistence y, si no está, por
+     * el nombre heredado de Hibernate.
+     */
+    private static String resolved(Properties props, String key, String legacyKey) {
+        String value = props.getProperty(key, props.getProperty(legacyKey));
+        return value == null ? null : ConfigurationHelper.resolvePlaceHolder(value);
+    }
+
+    private static String setting(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(name);
+        }
+        return (value == null || value.isBlank()) ? defaultValue : value.trim();
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static long parseLong(String value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
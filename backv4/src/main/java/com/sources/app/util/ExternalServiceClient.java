@@ -6,7 +6,6 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -14,6 +13,9 @@ import java.util.concurrent.Executors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.exceptions.ExternalServiceException;
+import com.sources.app.resilience.Downstream;
+import com.sources.app.resilience.DownstreamGuard;
+import com.sources.app.tracing.Tracing;
 
 /**
  * Cliente para comunicación con servicios externos (hospitales y farmacias)
@@ -28,6 +30,11 @@ public class ExternalServiceClient {
     private static final ExecutorService executor = Executors.newFixedThreadPool(5);
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    static {
+        DownstreamGuard.register(Downstream.HOSPITAL, HOSPITAL_BASE_URL);
+        DownstreamGuard.register(Downstream.PHARMACY, PHARMACY_BASE_URL);
+    }
+
     /**
      * Constructor por defecto para ExternalServiceClient.
      */
@@ -35,13 +42,12 @@ public class ExternalServiceClient {
     }
 
     /**
-     * Punto de extensión para tests: abre una conexión HTTP para la URL dada.
-     * Los tests pueden mockear este método estático para inyectar un
-     * HttpURLConnection.
+     * Punto de extensión para tests: abre una conexión HTTP para la URL dada
+     * sobre el cliente compartido ({@link PooledHttpClient}). Los tests pueden
+     * mockear este método estático para inyectar un HttpURLConnection.
      */
     public static HttpURLConnection open(String urlString) throws IOException {
-        URL url = new URL(urlString);
-        return (HttpURLConnection) url.openConnection();
+        return PooledHttpClient.open(urlString);
     }
 
     /**
@@ -189,13 +195,13 @@ public class ExternalServiceClient {
      * String.
      */
     public CompletableFuture<String> getAsync(String endpoint, boolean isHospital) {
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(Tracing.propagating(() -> {
             try {
                 return get(endpoint, isHospital);
             } catch (IOException | ExternalServiceException e) {
                 throw new RuntimeException(e);
             }
-        }, executor);
+        }), executor);
     }
 
     /**
@@ -209,13 +215,13 @@ public class ExternalServiceClient {
      * String.
      */
     public CompletableFuture<String> postAsync(String endpoint, Object requestBody, boolean isHospital) {
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(Tracing.propagating(() -> {
             try {
                 return post(endpoint, requestBody, isHospital);
             } catch (IOException | ExternalServiceException e) {
                 throw new RuntimeException(e);
             }
-        }, executor);
+        }), executor);
     }
 
     /**
@@ -229,13 +235,13 @@ public class ExternalServiceClient {
      * String.
      */
     public CompletableFuture<String> putAsync(String endpoint, Object requestBody, boolean isHospital) {
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(Tracing.propagating(() -> {
             try {
                 return put(endpoint, requestBody, isHospital);
             } catch (IOException | ExternalServiceException e) {
                 throw new RuntimeException(e);
             }
-        }, executor);
+        }), executor);
     }
 
     /**
@@ -3,6 +3,8 @@ package com.sources.app.util;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
 
+import com.sources.app.tracing.Tracing;
+
 /**
  * Clase de utilidad para gestionar la SessionFactory de Hibernate. Sigue el
  * patrón Singleton para asegurar una única instancia de SessionFactory.
@@ -57,6 +59,18 @@ public class HibernateUtil {
             System.out.println("⚠️ Variable DB_SCHEMA_ENSURANCE no definida, usando esquema por defecto");
         }
 
+        // Caché de segundo nivel para entidades de referencia (ver ehcache.xml)
+        SecondLevelCache.configure(configuration);
+
+        // Tiempo por consulta y sentencias por petición en Prometheus
+        QueryMetrics.configure(configuration);
+
+        // Spans por sentencia SQL en las trazas muestreadas
+        Tracing.configure(configuration);
+
+        // Pool de conexiones HikariCP con métricas en Prometheus
+        ConnectionPool.configure(configuration, "ensurance-db");
+
         return configuration.buildSessionFactory();
     }
 
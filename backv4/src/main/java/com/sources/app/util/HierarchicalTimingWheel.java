@@ -0,0 +1,213 @@
+package com.sources.app.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rueda de temporizadores jerárquica: programa, reprograma y cancela un
+ * vencimiento por clave en O(1) y, al avanzar el reloj, devuelve las claves
+ * vencidas sin recorrer las demás.
+ *
+ * <p>Hay {@value #LEVELS} niveles de {@value #SLOTS} casillas. En el nivel 0
+ * cada casilla dura un tick; en el nivel {@code n}, {@code 64^n} ticks. Un
+ * temporizador se guarda en el nivel más bajo que alcanza su vencimiento y,
+ * cuando el nivel inferior da la vuelta, su casilla se redistribuye hacia
+ * abajo (como en los temporizadores del kernel de Linux). Con ticks de un
+ * segundo los seis niveles cubren más de dos mil años.</p>
+ *
+ * <p>Un temporizador nunca vence antes de su plazo: se redondea hacia arriba
+ * al tick siguiente. La clase es segura para varios hilos; todas las
+ * operaciones sincronizan sobre la instancia.</p>
+ *
+ * @param <K> El tipo de clave de los temporizadores.
+ */
+public final class HierarchicalTimingWheel<K> {
+
+    static final int LEVELS = 6;
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /**
+     * Temporizador enlazado en la lista doble de su casilla.
+     */
+    private static final class Timer<K> {
+        final K key;
+        final long deadlineMillis;
+        long tick;
+        int level;
+        int slot;
+        Timer<K> prev;
+        Timer<K> next;
+
+        Timer(K key, long deadlineMillis, long tick) {
+            this.key = key;
+            this.deadlineMillis = deadlineMillis;
+            this.tick = tick;
+        }
+    }
+
+    private final long tickMillis;
+    private final Timer<K>[][] slots;
+    private final Map<K, Timer<K>> timers = new HashMap<>();
+    /** Siguiente tick por procesar. */
+    private long currentTick;
+
+    /**
+     * @param tickMillis Duración de un tick en milisegundos (precisión de la rueda).
+     * @param startMillis Hora inicial del reloj, normalmente {@link System#currentTimeMillis()}.
+     */
+    public HierarchicalTimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("El tick debe ser de al menos 1 ms");
+        }
+        this.tickMillis = tickMillis;
+        // Java no crea arrays de un tipo genérico; el cast es seguro porque el
+        // array es privado y sólo se guardan en él instancias de Timer<K>
+        @SuppressWarnings("unchecked")
+        Timer<K>[][] heads = (Timer<K>[][]) new Timer<?>[LEVELS][SLOTS];
+        this.slots = heads;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Programa (o reprograma) el vencimiento de una clave.
+     *
+     * @param deadlineMillis Momento a partir del cual la clave vence. Si ya
+     * pasó, vence en el siguiente {@link #advance(long)}.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        Timer<K> existing = timers.remove(key);
+        if (existing != null) {
+            unlink(existing);
+        }
+        long tick = Math.ceilDiv(deadlineMillis, tickMillis);
+        Timer<K> timer = new Timer<>(key, deadlineMillis, tick);
+        timers.put(key, timer);
+        place(timer);
+    }
+
+    /**
+     * Cancela el temporizador de una clave.
+     *
+     * @return {@code true} si la clave estaba programada.
+     */
+    public synchronized boolean cancel(K key) {
+        Timer<K> timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    /**
+     * @return el vencimiento programado de la clave, o null si no tiene.
+     */
+    public synchronized Long deadlineOf(K key) {
+        Timer<K> timer = timers.get(key);
+        return timer == null ? null : timer.deadlineMillis;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    /**
+     * Avanza el reloj hasta {@code nowMillis} y retira las claves vencidas.
+     *
+     * @return las claves cuyo vencimiento, redondeado hacia arriba al tick,
+     * es anterior o igual a {@code nowMillis}, en orden de tick.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<K> expired = new ArrayList<>();
+        while (currentTick <= targetTick) {
+            int index = (int) (currentTick & SLOT_MASK);
+            if (index == 0) {
+                for (int level = 1; level < LEVELS; level++) {
+                    if (cascade(level) != 0) {
+                        break;
+                    }
+                }
+            }
+            Timer<K> timer = slots[0][index];
+            slots[0][index] = null;
+            while (timer != null) {
+                Timer<K> next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                timers.remove(timer.key);
+                expired.add(timer.key);
+                timer = next;
+            }
+            currentTick++;
+        }
+        return expired;
+    }
+
+    /**
+     * Redistribuye hacia niveles inferiores la casilla del nivel dado que
+     * corresponde al tick actual.
+     *
+     * @return el índice de la casilla redistribuida.
+     */
+    private int cascade(int level) {
+        int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        Timer<K> timer = slots[level][index];
+        slots[level][index] = null;
+        while (timer != null) {
+            Timer<K> next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            place(timer);
+            timer = next;
+        }
+        return index;
+    }
+
+    private void place(Timer<K> timer) {
+        long delta = timer.tick - currentTick;
+        int level;
+        int slot;
+        if (delta < 0) {
+            // Ya vencido: se procesa en el siguiente tick
+            level = 0;
+            slot = (int) (currentTick & SLOT_MASK);
+        } else {
+            if (delta > MAX_DELTA) {
+                timer.tick = currentTick + MAX_DELTA;
+                delta = MAX_DELTA;
+            }
+            level = 0;
+            while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+            slot = (int) ((timer.tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        }
+        timer.level = level;
+        timer.slot = slot;
+        Timer<K> head = slots[level][slot];
+        timer.next = head;
+        if (head != null) {
+            head.prev = timer;
+        }
+        slots[level][slot] = timer;
+    }
+
+    private void unlink(Timer<K> timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            slots[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+    }
+}
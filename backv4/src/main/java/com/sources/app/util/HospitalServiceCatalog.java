@@ -0,0 +1,190 @@
+package com.sources.app.util;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sources.app.config.EnvConfig;
+import com.sources.app.metrics.MetricsConfiguration;
+
+import io.prometheus.client.Gauge;
+
+/**
+ * Copia en memoria del catálogo de servicios de la API del hospital, ya
+ * parseado, con stale-while-revalidate.
+ *
+ * <p>Dentro de {@code HOSPITAL_CATALOG_TTL_SECONDS} (300 s por defecto) la copia
+ * se sirve tal cual. Pasado el TTL se sigue sirviendo de inmediato y se pide
+ * una copia nueva en segundo plano; si la recarga falla se conserva la
+ * anterior. Sólo cuando la copia supera además
+ * {@code HOSPITAL_CATALOG_MAX_STALE_SECONDS} (3600 s por defecto), o no hay
+ * ninguna, la petición espera a la descarga.</p>
+ *
+ * <p>Métricas: {@code ensurance_hospital_catalog_requests_total} por resultado
+ * ({@code hit}, {@code stale}, {@code miss}),
+ * {@code ensurance_hospital_catalog_refreshes_total} y
+ * {@code ensurance_hospital_catalog_age_seconds}.</p>
+ */
+public final class HospitalServiceCatalog {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HospitalServiceCatalog.class);
+
+    private static final long DEFAULT_TTL_SECONDS = 300;
+    private static final long DEFAULT_MAX_STALE_SECONDS = 3600;
+    private static final TypeReference<List<Map<String, Object>>> CATALOG_TYPE = new TypeReference<>() {
+    };
+
+    private record Entry(List<Map<String, Object>> services, long loadedAt) {
+    }
+
+    private final Supplier<String> source;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long ttlMillis;
+    private final long maxStaleMillis;
+    private final Executor refreshExecutor;
+    private final LongSupplier clock;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile Entry entry;
+
+    /**
+     * @param source          Devuelve el JSON del catálogo, o {@code null} si
+     *                        el hospital no respondió.
+     * @param refreshExecutor Ejecuta las recargas en segundo plano.
+     */
+    public HospitalServiceCatalog(Supplier<String> source, long ttlMillis, long maxStaleMillis,
+                                  Executor refreshExecutor, LongSupplier clock) {
+        this.source = source;
+        this.ttlMillis = ttlMillis;
+        this.maxStaleMillis = maxStaleMillis;
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Crea el catálogo sobre el descubrimiento dado, con la configuración del
+     * entorno, y lo publica en {@code ensurance_hospital_catalog_age_seconds}.
+     */
+    public static HospitalServiceCatalog create(HospitalServiceDiscovery discovery) {
+        Executor executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "hospital-catalog-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Supplier<String> source = () -> {
+            HospitalServiceDiscovery.Result result = discovery.fetch();
+            return result == null ? null : result.body();
+        };
+        HospitalServiceCatalog catalog = new HospitalServiceCatalog(source,
+                TimeUnit.SECONDS.toMillis(EnvConfig.positiveLong("HOSPITAL_CATALOG_TTL_SECONDS", DEFAULT_TTL_SECONDS)),
+                TimeUnit.SECONDS.toMillis(EnvConfig.positiveLong("HOSPITAL_CATALOG_MAX_STALE_SECONDS", DEFAULT_MAX_STALE_SECONDS)),
+                executor, System::currentTimeMillis);
+        MetricsConfiguration.HOSPITAL_CATALOG_AGE_SECONDS.setChild(new Gauge.Child() {
+            @Override
+            public double get() {
+                return catalog.ageSeconds();
+            }
+        });
+        return catalog;
+    }
+
+    /**
+     * @return los servicios del hospital, o {@code null} si no hay copia y el
+     * hospital no respondió.
+     * @throws IOException Si hubo que descargar el catálogo y la respuesta no
+     * es una lista JSON válida.
+     */
+    public List<Map<String, Object>> get() throws IOException {
+        Entry current = entry;
+        if (current != null) {
+            long age = clock.getAsLong() - current.loadedAt();
+            if (age < ttlMillis) {
+                MetricsConfiguration.HOSPITAL_CATALOG_REQUESTS_TOTAL.labels("hit").inc();
+                return current.services();
+            }
+            if (age < ttlMillis + maxStaleMillis) {
+                MetricsConfiguration.HOSPITAL_CATALOG_REQUESTS_TOTAL.labels("stale").inc();
+                refreshInBackground();
+                return current.services();
+            }
+        }
+        MetricsConfiguration.HOSPITAL_CATALOG_REQUESTS_TOTAL.labels("miss").inc();
+        return load(current);
+    }
+
+    /**
+     * Descarta la copia; la siguiente petición vuelve a descargar el catálogo.
+     */
+    public void invalidate() {
+        entry = null;
+    }
+
+    /**
+     * @return segundos desde la última descarga correcta, o 0 si no hay copia.
+     */
+    public double ageSeconds() {
+        Entry current = entry;
+        return current == null ? 0 : (clock.getAsLong() - current.loadedAt()) / 1000.0;
+    }
+
+    /**
+     * Descarga síncrona; las peticiones concurrentes sin copia esperan a una
+     * sola descarga.
+     */
+    private synchronized List<Map<String, Object>> load(Entry seen) throws IOException {
+        Entry current = entry;
+        if (current != null && current != seen) {
+            return current.services();
+        }
+        List<Map<String, Object>> services;
+        try {
+            services = download();
+        } catch (IOException e) {
+            MetricsConfiguration.HOSPITAL_CATALOG_REFRESHES_TOTAL.labels("failure").inc();
+            throw e;
+        }
+        MetricsConfiguration.HOSPITAL_CATALOG_REFRESHES_TOTAL.labels(services != null ? "success" : "failure").inc();
+        return services;
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                boolean refreshed = download() != null;
+                MetricsConfiguration.HOSPITAL_CATALOG_REFRESHES_TOTAL.labels(refreshed ? "success" : "failure").inc();
+            } catch (IOException | RuntimeException e) {
+                MetricsConfiguration.HOSPITAL_CATALOG_REFRESHES_TOTAL.labels("failure").inc();
+                LOGGER.warn("No se pudo recargar el catálogo del hospital; se mantiene la copia anterior", e);
+            } finally {
+                refreshing.set(false);
+            }
+        });
+    }
+
+    /**
+     * Descarga y parsea el catálogo y, si todo va bien, lo publica.
+     */
+    private List<Map<String, Object>> download() throws IOException {
+        String json = source.get();
+        if (json == null || json.trim().isEmpty()) {
+            return null;
+        }
+        List<Map<String, Object>> services = Collections.unmodifiableList(objectMapper.readValue(json, CATALOG_TYPE));
+        entry = new Entry(services, clock.getAsLong());
+        return services;
+    }
+}
@@ -0,0 +1,233 @@
+package com.sources.app.util;
+
+import com.sources.app.config.EnvConfig;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Descubre qué URL candidata de la API del hospital responde, probándolas en
+ * paralelo y quedándose con la primera respuesta no vacía.
+ *
+ * <p>La última URL buena se recuerda. Las siguientes búsquedas la prueban
+ * primero y, si no contesta en {@code HOSPITAL_DISCOVERY_HEDGE_MS}
+ * (300 ms por defecto) o falla, lanzan el resto de candidatas. Cuando la URL
+ * recordada supera {@code HOSPITAL_DISCOVERY_TTL_SECONDS} (60 s por defecto)
+ * se vuelve a sondear todo en segundo plano sin retrasar la petición en
+ * curso.</p>
+ *
+ * <p>Los sondeos salen por un cliente propio con un timeout de
+ * {@code HOSPITAL_DISCOVERY_PROBE_TIMEOUT_MS} (2000 ms por defecto) y no pasan
+ * por el circuit breaker del hospital: las candidatas caídas no deben dejar
+ * sin servicio a las llamadas a la URL configurada.</p>
+ */
+public final class HospitalServiceDiscovery {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HospitalServiceDiscovery.class);
+
+    private static final long DEFAULT_TTL_SECONDS = 60;
+    private static final long DEFAULT_HEDGE_MILLIS = 300;
+    private static final long DEFAULT_PROBE_TIMEOUT_MILLIS = 2_000;
+    /** Margen sobre el timeout de los sondeos, incluida la cobertura. */
+    private static final long DISCOVERY_TIMEOUT_MILLIS = 12_000;
+
+    /**
+     * URL que respondió y el cuerpo recibido.
+     */
+    public record Result(String url, String body) {
+    }
+
+    private record LastGood(String url, long verifiedAt) {
+    }
+
+    private final List<String> candidates;
+    private final Function<String, String> fetcher;
+    private final Executor executor;
+    private final long ttlMillis;
+    private final long hedgeMillis;
+    private final LongSupplier clock;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile LastGood lastGood;
+
+    /**
+     * @param fetcher  GET que devuelve el cuerpo, o {@code null} si falla.
+     * @param executor Ejecuta los sondeos; con un ejecutor directo las
+     *                 candidatas se prueban de una en una en el hilo llamante.
+     */
+    public HospitalServiceDiscovery(List<String> candidates, Function<String, String> fetcher, Executor executor,
+                             long ttlMillis, long hedgeMillis, LongSupplier clock) {
+        this.candidates = List.copyOf(candidates);
+        this.fetcher = fetcher;
+        this.executor = executor;
+        this.ttlMillis = ttlMillis;
+        this.hedgeMillis = hedgeMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Crea un descubrimiento con un hilo de sondeo por candidata y un cliente
+     * HTTP sólo para sondeos ({@link #probe}).
+     */
+    public static HospitalServiceDiscovery create(List<String> candidates) {
+        Executor executor = Executors.newFixedThreadPool(Math.max(1, candidates.size()), new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "hospital-discovery-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        Duration probeTimeout = Duration.ofMillis(
+                EnvConfig.positiveLong("HOSPITAL_DISCOVERY_PROBE_TIMEOUT_MS", DEFAULT_PROBE_TIMEOUT_MILLIS));
+        HttpClient probeClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(probeTimeout)
+                .build();
+        return new HospitalServiceDiscovery(candidates, url -> probe(probeClient, probeTimeout, url), executor,
+                TimeUnit.SECONDS.toMillis(EnvConfig.positiveLong("HOSPITAL_DISCOVERY_TTL_SECONDS", DEFAULT_TTL_SECONDS)),
+                EnvConfig.positiveLong("HOSPITAL_DISCOVERY_HEDGE_MS", DEFAULT_HEDGE_MILLIS), System::currentTimeMillis);
+    }
+
+    /**
+     * Obtiene la respuesta de la primera candidata sana.
+     *
+     * @return la URL y el cuerpo, o {@code null} si ninguna candidata
+     * respondió.
+     */
+    public Result fetch() {
+        LastGood known = lastGood;
+        if (known != null && clock.getAsLong() - known.verifiedAt() >= ttlMillis) {
+            refreshInBackground();
+        }
+        try {
+            return race(known == null ? null : known.url()).get(DISCOVERY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            LOGGER.warn("Ninguna URL del hospital respondió a tiempo", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return la última URL que respondió, o {@code null} si no hay ninguna.
+     */
+    public String lastGoodUrl() {
+        LastGood known = lastGood;
+        return known == null ? null : known.url();
+    }
+
+    private void refreshInBackground() {
+        if (refreshing.compareAndSet(false, true)) {
+            race(null).whenComplete((result, error) -> refreshing.set(false));
+        }
+    }
+
+    /**
+     * Lanza los sondeos. Con {@code preferred}, esa URL sale primero y el
+     * resto tras el retardo de cobertura o en cuanto falle.
+     */
+    private CompletableFuture<Result> race(String preferred) {
+        CompletableFuture<Result> winner = new CompletableFuture<>();
+        List<String> others = new ArrayList<>(candidates);
+        others.remove(preferred);
+        AtomicInteger pending = new AtomicInteger(others.size() + (preferred == null ? 0 : 1));
+        AtomicBoolean othersLaunched = new AtomicBoolean();
+        Runnable launchOthers = () -> {
+            if (othersLaunched.compareAndSet(false, true)) {
+                for (String url : others) {
+                    if (winner.isDone()) {
+                        return;
+                    }
+                    executor.execute(() -> probe(url, winner, pending, null));
+                }
+            }
+        };
+        winner.thenAccept(this::remember);
+        if (pending.get() == 0) {
+            winner.complete(null);
+            return winner;
+        }
+
+        if (preferred == null) {
+            launchOthers.run();
+        } else {
+            executor.execute(() -> probe(preferred, winner, pending, launchOthers));
+            if (!winner.isDone()) {
+                CompletableFuture.delayedExecutor(hedgeMillis, TimeUnit.MILLISECONDS).execute(launchOthers);
+            }
+        }
+        return winner;
+    }
+
+    private void probe(String url, CompletableFuture<Result> winner, AtomicInteger pending, Runnable onFailure) {
+        if (winner.isDone()) {
+            return;
+        }
+        String body = null;
+        try {
+            body = fetcher.apply(url);
+        } catch (RuntimeException e) {
+            LOGGER.debug("Fallo al sondear {}", url, e);
+        }
+        if (body != null && !body.trim().isEmpty()) {
+            winner.complete(new Result(url, body));
+            return;
+        }
+        if (onFailure != null) {
+            onFailure.run();
+        }
+        if (pending.decrementAndGet() == 0) {
+            winner.complete(null);
+        }
+    }
+
+    /**
+     * GET de sondeo directo, sin pool compartido ni circuit breaker.
+     *
+     * @return el cuerpo de una respuesta 2xx, o {@code null}.
+     */
+    static String probe(HttpClient client, Duration timeout, String url) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(timeout)
+                    .header("Accept", "application/json")
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            return response.statusCode() / 100 == 2 ? response.body() : null;
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.debug("Sondeo fallido a {}: {}", url, e.toString());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void remember(Result result) {
+        lastGood = result == null ? null : new LastGood(result.url(), clock.getAsLong());
+    }
+}
@@ -5,7 +5,6 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -25,13 +24,12 @@ public class HttpClientUtil {
     private static final int TIMEOUT = 5000; // 5 segundos
 
     /**
-     * Punto de extensión para tests: abre una conexión HTTP para la URL dada.
-     * Los tests pueden mockear este método estático para inyectar un
-     * HttpURLConnection.
+     * Punto de extensión para tests: abre una conexión HTTP para la URL dada
+     * sobre el cliente compartido ({@link PooledHttpClient}). Los tests pueden
+     * mockear este método estático para inyectar un HttpURLConnection.
      */
     public static HttpURLConnection open(String urlString) throws IOException {
-        URL url = new URL(urlString);
-        return (HttpURLConnection) url.openConnection();
+        return PooledHttpClient.open(urlString);
     }
 
     /**
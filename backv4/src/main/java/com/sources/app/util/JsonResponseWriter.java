@@ -0,0 +1,190 @@
+package com.sources.app.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * Escribe respuestas JSON directamente en {@link HttpExchange#getResponseBody()}
+ * sin construir antes el {@code String} con el documento completo.
+ *
+ * <p>Las cabeceras no se envían hasta que Jackson ha serializado
+ * {@link #BUFFER_LIMIT} bytes (64 KB) o el documento entero. Una respuesta que
+ * cabe en ese búfer sale con {@code Content-Length}; una mayor pasa a
+ * transferencia {@code chunked} y, desde ahí, Jackson vacía su propio búfer
+ * (unos 8 KB) en el cuerpo cada vez que se llena, así que la memoria extra no
+ * depende del tamaño de la respuesta. El JSON generado es el mismo que el de
+ * {@code writeValueAsString} con el mismo {@link ObjectMapper}.</p>
+ *
+ * <p>{@link #writeArray} hace lo mismo con un {@link Stream} de elementos, que
+ * se serializan a medida que se leen: junto con un DAO que entrega el
+ * resultado de la consulta como stream, un listado completo no se materializa
+ * ni como lista ni como texto.</p>
+ *
+ * <p>Si la serialización falla antes de enviar las cabeceras, el error se
+ * propaga y quien llama puede responder 500. Si falla después, sólo se
+ * registra y se cierra el intercambio; el cliente recibe una respuesta
+ * truncada.</p>
+ */
+public final class JsonResponseWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonResponseWriter.class);
+
+    /** Longitud que indica a {@code HttpServer} una respuesta chunked. */
+    static final long CHUNKED = 0L;
+
+    /** Bytes que se serializan antes de comprometer el código de estado. */
+    static final int BUFFER_LIMIT = 64 * 1024;
+
+    private JsonResponseWriter() {
+    }
+
+    /**
+     * Fija {@code Content-Type: application/json} y serializa {@code data}
+     * con {@link #write}.
+     */
+    public static void sendJson(HttpExchange exchange, int statusCode, ObjectMapper mapper, Object data)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        write(exchange, statusCode, mapper, data);
+    }
+
+    /**
+     * Serializa {@code value} (una entidad, una lista, un mapa...) en el
+     * cuerpo de la respuesta; la cabecera {@code Content-Type} la fija quien
+     * llama.
+     *
+     * @throws IOException Si la serialización falla antes de enviar las
+     * cabeceras; no se ha escrito nada en el intercambio.
+     */
+    public static void write(HttpExchange exchange, int statusCode, ObjectMapper mapper, Object value)
+            throws IOException {
+        DeferredBody body = new DeferredBody(exchange, statusCode);
+        try {
+            writer(mapper).writeValue(body, value);
+            body.finish();
+        } catch (IOException | RuntimeException e) {
+            if (!body.committed) {
+                throw e;
+            }
+            abort(exchange, e);
+        }
+    }
+
+    /**
+     * Serializa {@code items} como un array JSON, elemento a elemento, y
+     * cierra el stream. La cabecera {@code Content-Type} la fija quien llama.
+     *
+     * @throws IOException Si la serialización o la lectura de los elementos
+     * falla antes de enviar las cabeceras; no se ha escrito nada en el
+     * intercambio.
+     */
+    public static void writeArray(HttpExchange exchange, int statusCode, ObjectMapper mapper, Stream<?> items)
+            throws IOException {
+        try (items) {
+            writeArray(exchange, statusCode, mapper, items.iterator());
+        }
+    }
+
+    /**
+     * Igual que {@link #writeArray(HttpExchange, int, ObjectMapper, Stream)}
+     * para un {@link Iterator}.
+     */
+    public static void writeArray(HttpExchange exchange, int statusCode, ObjectMapper mapper, Iterator<?> items)
+            throws IOException {
+        DeferredBody body = new DeferredBody(exchange, statusCode);
+        try {
+            try (SequenceWriter array = writer(mapper).writeValuesAsArray(body)) {
+                while (items.hasNext()) {
+                    array.write(items.next());
+                }
+            }
+            body.finish();
+        } catch (IOException | RuntimeException e) {
+            if (!body.committed) {
+                throw e;
+            }
+            abort(exchange, e);
+        }
+    }
+
+    /**
+     * Sin vaciados intermedios ni cierre del cuerpo por parte de Jackson: el
+     * cuerpo lo cierra {@link DeferredBody#finish()}, una sola vez.
+     */
+    private static ObjectWriter writer(ObjectMapper mapper) {
+        return mapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static void abort(HttpExchange exchange, Exception e) {
+        LOGGER.warn("Error escribiendo la respuesta JSON de {}", exchange.getRequestURI(), e);
+        exchange.close();
+    }
+
+    /**
+     * Acumula la salida hasta {@link #BUFFER_LIMIT} bytes; al superarlo envía
+     * las cabeceras como chunked y escribe desde entonces en el cuerpo.
+     */
+    private static final class DeferredBody extends OutputStream {
+
+        private final HttpExchange exchange;
+        private final int statusCode;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream target;
+        private boolean committed;
+
+        private DeferredBody(HttpExchange exchange, int statusCode) {
+            this.exchange = exchange;
+            this.statusCode = statusCode;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (target == null && buffer.size() + len <= BUFFER_LIMIT) {
+                buffer.write(b, off, len);
+                return;
+            }
+            if (target == null) {
+                committed = true;
+                exchange.sendResponseHeaders(statusCode, CHUNKED);
+                target = exchange.getResponseBody();
+                buffer.writeTo(target);
+                buffer.reset();
+            }
+            target.write(b, off, len);
+        }
+
+        /**
+         * Envía lo acumulado con su longitud, o cierra el cuerpo chunked.
+         */
+        private void finish() throws IOException {
+            if (target == null) {
+                committed = true;
+                byte[] bytes = buffer.toByteArray();
+                exchange.sendResponseHeaders(statusCode, bytes.length);
+                target = exchange.getResponseBody();
+                target.write(bytes);
+            }
+            target.close();
+        }
+    }
+}
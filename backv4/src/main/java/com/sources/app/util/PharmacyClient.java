@@ -5,10 +5,11 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sources.app.resilience.Downstream;
+import com.sources.app.resilience.DownstreamGuard;
 
 /**
  * Cliente para realizar llamadas a la API de Farmacia
@@ -21,14 +22,17 @@ public class PharmacyClient {
     private static final int TIMEOUT = 10000; // 10 segundos
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    static {
+        DownstreamGuard.register(Downstream.PHARMACY, PHARMACY_API_BASE_URL);
+    }
+
     /**
-     * Punto de extensión para tests: abre una conexión HTTP para la URL dada.
-     * Los tests pueden mockear este método estático para inyectar un
-     * HttpURLConnection.
+     * Punto de extensión para tests: abre una conexión HTTP para la URL dada
+     * sobre el cliente compartido ({@link PooledHttpClient}). Los tests pueden
+     * mockear este método estático para inyectar un HttpURLConnection.
      */
     public static HttpURLConnection open(String urlString) throws IOException {
-        URL url = new URL(urlString);
-        return (HttpURLConnection) url.openConnection();
+        return PooledHttpClient.open(urlString);
     }
 
     /**
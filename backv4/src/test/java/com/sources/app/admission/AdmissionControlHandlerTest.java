@@ -0,0 +1,92 @@
+package com.sources.app.admission;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlHandlerTest {
+
+    @Mock
+    private HttpExchange exchange;
+    @Mock
+    private HttpHandler delegate;
+
+    private final Headers responseHeaders = new Headers();
+    private final ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(exchange.getResponseHeaders()).thenReturn(responseHeaders);
+        lenient().when(exchange.getResponseBody()).thenReturn(responseBody);
+    }
+
+    @Test
+    void handle_slotAvailable_delegatesAndReleases() throws IOException {
+        AdmissionController controller = new AdmissionController("handler-ok", 1, 0, 0);
+        AdmissionControlHandler handler = new AdmissionControlHandler(controller, "/api/test", delegate);
+        when(exchange.getRequestMethod()).thenReturn("GET");
+
+        handler.handle(exchange);
+        handler.handle(exchange);
+
+        verify(delegate, times(2)).handle(exchange);
+        verify(exchange, never()).sendResponseHeaders(eq(503), anyLong());
+    }
+
+    @Test
+    void handle_delegateThrows_stillReleasesSlot() throws IOException {
+        AdmissionController controller = new AdmissionController("handler-throw", 1, 0, 0);
+        AdmissionControlHandler handler = new AdmissionControlHandler(controller, "/api/test", delegate);
+        when(exchange.getRequestMethod()).thenReturn("GET");
+        doThrow(new IOException("boom")).when(delegate).handle(exchange);
+
+        assertThrows(IOException.class, () -> handler.handle(exchange));
+        assertTrue(controller.tryAcquire());
+        controller.release();
+    }
+
+    @Test
+    void handle_saturated_returns503WithRetryAfter() throws IOException {
+        AdmissionController controller = new AdmissionController("handler-full", 1, 0, 0);
+        AdmissionControlHandler handler = new AdmissionControlHandler(controller, "/api/test", delegate);
+        when(exchange.getRequestMethod()).thenReturn("POST");
+        assertTrue(controller.tryAcquire());
+
+        handler.handle(exchange);
+
+        verify(delegate, never()).handle(exchange);
+        verify(exchange).sendResponseHeaders(eq(503), anyLong());
+        assertEquals("1", responseHeaders.getFirst("Retry-After"));
+        assertTrue(responseBody.toString(StandardCharsets.UTF_8).contains("error"));
+        controller.release();
+    }
+
+    @Test
+    void handle_options_bypassesAdmission() throws IOException {
+        AdmissionController controller = new AdmissionController("handler-options", 1, 0, 0);
+        AdmissionControlHandler handler = new AdmissionControlHandler(controller, "/api/test", delegate);
+        when(exchange.getRequestMethod()).thenReturn("OPTIONS");
+        assertTrue(controller.tryAcquire());
+
+        handler.handle(exchange);
+
+        verify(delegate).handle(exchange);
+        controller.release();
+    }
+}
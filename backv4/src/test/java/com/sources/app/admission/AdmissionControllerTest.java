@@ -0,0 +1,67 @@
+package com.sources.app.admission;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+
+    @Test
+    void tryAcquire_withinLimit_admits() {
+        AdmissionController controller = new AdmissionController("test-within", 2, 0, 0);
+        assertTrue(controller.tryAcquire());
+        assertTrue(controller.tryAcquire());
+        controller.release();
+        controller.release();
+    }
+
+    @Test
+    void tryAcquire_saturatedWithoutQueue_rejectsImmediately() {
+        AdmissionController controller = new AdmissionController("test-noqueue", 1, 0, 5000);
+        assertTrue(controller.tryAcquire());
+        long start = System.nanoTime();
+        assertFalse(controller.tryAcquire());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        controller.release();
+        assertTrue(controller.tryAcquire());
+        controller.release();
+    }
+
+    @Test
+    void tryAcquire_queuedRequest_admittedWhenSlotFrees() throws Exception {
+        AdmissionController controller = new AdmissionController("test-queue", 1, 1, 5000);
+        assertTrue(controller.tryAcquire());
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicBoolean admitted = new AtomicBoolean();
+        Thread waiter = new Thread(() -> {
+            admitted.set(controller.tryAcquire());
+            done.countDown();
+        });
+        waiter.start();
+        Thread.sleep(100);
+        controller.release();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(admitted.get());
+        controller.release();
+    }
+
+    @Test
+    void tryAcquire_waitExpires_rejects() {
+        AdmissionController controller = new AdmissionController("test-timeout", 1, 1, 50);
+        assertTrue(controller.tryAcquire());
+        assertFalse(controller.tryAcquire());
+        controller.release();
+    }
+
+    @Test
+    void forClass_returnsSharedInstance() {
+        assertSame(AdmissionController.forClass(RouteClass.AUTH), AdmissionController.forClass(RouteClass.AUTH));
+        assertEquals("auth", AdmissionController.forClass(RouteClass.AUTH).getRouteClass());
+    }
+}
@@ -0,0 +1,37 @@
+package com.sources.app.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnvConfigTest {
+
+    @Test
+    void parsePositive_fallsBackOnInvalidValues() {
+        assertEquals(7, EnvConfig.parsePositive(null, 7));
+        assertEquals(7, EnvConfig.parsePositive(" ", 7));
+        assertEquals(7, EnvConfig.parsePositive("abc", 7));
+        assertEquals(7, EnvConfig.parsePositive("-3", 7));
+        assertEquals(7, EnvConfig.parsePositive("0", 7));
+        assertEquals(12, EnvConfig.parsePositive(" 12 ", 7));
+        assertEquals(5_000_000_000L, EnvConfig.parsePositive("5000000000", 7));
+    }
+
+    @Test
+    void parsePositiveInt_fallsBackWhenValueDoesNotFitInAnInt() {
+        assertEquals(12, EnvConfig.parsePositiveInt("12", 7));
+        assertEquals(7, EnvConfig.parsePositiveInt("5000000000", 7));
+    }
+
+    @Test
+    void parseNonNegative_acceptsZero() {
+        assertEquals(0, EnvConfig.parseNonNegative("0", 7));
+        assertEquals(7, EnvConfig.parseNonNegative("-1", 7));
+        assertEquals(7, EnvConfig.parseNonNegative(null, 7));
+    }
+
+    @Test
+    void positiveLong_usesDefaultWhenVariableIsUnset() {
+        assertEquals(42, EnvConfig.positiveLong("ENV_CONFIG_TEST_UNSET_VARIABLE", 42));
+    }
+}
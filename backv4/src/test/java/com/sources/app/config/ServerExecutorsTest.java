@@ -0,0 +1,75 @@
+package com.sources.app.config;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.sources.app.metrics.MetricsConfiguration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerExecutorsTest {
+
+    @Test
+    void parseMode_defaultsToPoolAndIgnoresCase() {
+        assertEquals(ServerExecutors.Mode.POOL, ServerExecutors.parseMode(null));
+        assertEquals(ServerExecutors.Mode.POOL, ServerExecutors.parseMode(" "));
+        assertEquals(ServerExecutors.Mode.POOL, ServerExecutors.parseMode("unknown"));
+        assertEquals(ServerExecutors.Mode.VIRTUAL, ServerExecutors.parseMode("Virtual"));
+        assertEquals(ServerExecutors.Mode.INLINE, ServerExecutors.parseMode("inline"));
+    }
+
+    @Test
+    void create_inlineReturnsNull() {
+        assertNull(ServerExecutors.create(ServerExecutors.Mode.INLINE, 4, 10));
+    }
+
+    @Test
+    void create_poolRunsOnWorkerThreadAndTracksActive() throws Exception {
+        ExecutorService executor = ServerExecutors.create(ServerExecutors.Mode.POOL, 2, 10);
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicReference<String> threadName = new AtomicReference<>();
+            executor.execute(() -> {
+                threadName.set(Thread.currentThread().getName());
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(threadName.get().startsWith("http-worker-"));
+            assertEquals(1.0, MetricsConfiguration.HTTP_EXECUTOR_ACTIVE_REQUESTS.labels("pool").get());
+            release.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0.0, MetricsConfiguration.HTTP_EXECUTOR_ACTIVE_REQUESTS.labels("pool").get());
+        assertEquals(0.0, MetricsConfiguration.HTTP_EXECUTOR_QUEUED_REQUESTS.labels("pool").get());
+    }
+
+    @Test
+    void create_virtualRunsOnVirtualThread() throws Exception {
+        ExecutorService executor = ServerExecutors.create(ServerExecutors.Mode.VIRTUAL, 1, 1);
+        try {
+            CountDownLatch done = new CountDownLatch(1);
+            AtomicReference<Boolean> virtual = new AtomicReference<>();
+            executor.execute(() -> {
+                virtual.set(Thread.currentThread().isVirtual());
+                done.countDown();
+            });
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            assertTrue(virtual.get());
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -307,4 +307,108 @@ class ConfigurableAmountDAOTest {
         verify(createSession).save(any(ConfigurableAmount.class));
         verify(createTransaction).rollback(); // Rollback should occur in create
     }
-} 
\ No newline at end of file
+
+    @Test
+    void findCurrentConfig_SecondCallServedFromMemory() {
+        // Arrange
+        ConfigurableAmount stored = new ConfigurableAmount();
+        stored.setIdConfigurableAmount(1L);
+        stored.setPrescriptionAmount(new BigDecimal("300.00"));
+        when(mockQuery.setMaxResults(1)).thenReturn(mockQuery);
+        when(mockQuery.uniqueResult()).thenReturn(stored);
+
+        // Act
+        ConfigurableAmount first = configurableAmountDAO.findCurrentConfig();
+        ConfigurableAmount second = configurableAmountDAO.findCurrentConfig();
+
+        // Assert
+        assertEquals(new BigDecimal("300.00"), second.getPrescriptionAmount());
+        assertEquals(1L, second.getIdConfigurableAmount());
+        assertNotSame(first, second);
+        verify(mockSessionFactory, times(1)).openSession();
+    }
+
+    @Test
+    void findCurrentConfig_CallerChangesDoNotLeakIntoCache() {
+        // Arrange
+        ConfigurableAmount stored = new ConfigurableAmount();
+        stored.setIdConfigurableAmount(1L);
+        stored.setPrescriptionAmount(new BigDecimal("300.00"));
+        when(mockQuery.setMaxResults(1)).thenReturn(mockQuery);
+        when(mockQuery.uniqueResult()).thenReturn(stored);
+
+        // Act
+        configurableAmountDAO.findCurrentConfig().setPrescriptionAmount(new BigDecimal("1.00"));
+        ConfigurableAmount result = configurableAmountDAO.findCurrentConfig();
+
+        // Assert
+        assertEquals(new BigDecimal("300.00"), result.getPrescriptionAmount());
+    }
+
+    @Test
+    void update_RefreshesCachedCurrentConfig() {
+        // Arrange
+        ConfigurableAmount stored = new ConfigurableAmount();
+        stored.setIdConfigurableAmount(1L);
+        stored.setPrescriptionAmount(new BigDecimal("300.00"));
+        when(mockQuery.setMaxResults(1)).thenReturn(mockQuery);
+        when(mockQuery.uniqueResult()).thenReturn(stored);
+        ConfigurableAmount current = configurableAmountDAO.findCurrentConfig();
+
+        // Act
+        current.setPrescriptionAmount(new BigDecimal("500.00"));
+        configurableAmountDAO.update(current);
+        ConfigurableAmount result = configurableAmountDAO.findCurrentConfig();
+
+        // Assert
+        assertEquals(new BigDecimal("500.00"), result.getPrescriptionAmount());
+        verify(mockQuery, times(1)).uniqueResult();
+    }
+
+    @Test
+    void update_Failure_KeepsCachedCurrentConfig() {
+        // Arrange
+        ConfigurableAmount stored = new ConfigurableAmount();
+        stored.setIdConfigurableAmount(1L);
+        stored.setPrescriptionAmount(new BigDecimal("300.00"));
+        when(mockQuery.setMaxResults(1)).thenReturn(mockQuery);
+        when(mockQuery.uniqueResult()).thenReturn(stored);
+        ConfigurableAmount current = configurableAmountDAO.findCurrentConfig();
+        doThrow(new RuntimeException("DB Update Error")).when(mockSession).update(any(ConfigurableAmount.class));
+
+        // Act
+        current.setPrescriptionAmount(new BigDecimal("500.00"));
+        assertNull(configurableAmountDAO.update(current));
+        ConfigurableAmount result = configurableAmountDAO.findCurrentConfig();
+
+        // Assert
+        assertEquals(new BigDecimal("300.00"), result.getPrescriptionAmount());
+    }
+
+    @Test
+    void create_WithoutCachedConfig_BecomesCurrentConfig() {
+        // Act
+        configurableAmountDAO.create(new BigDecimal("400.00"));
+        ConfigurableAmount result = configurableAmountDAO.findCurrentConfig();
+
+        // Assert
+        assertEquals(new BigDecimal("400.00"), result.getPrescriptionAmount());
+        verify(mockSession, never()).createQuery(anyString(), eq(ConfigurableAmount.class));
+    }
+
+    @Test
+    void findCurrentConfig_DefaultCreatedOnlyOnce() {
+        // Arrange
+        when(mockQuery.setMaxResults(1)).thenReturn(mockQuery);
+        when(mockQuery.uniqueResult()).thenReturn(null);
+
+        // Act
+        ConfigurableAmount first = configurableAmountDAO.findCurrentConfig();
+        ConfigurableAmount second = configurableAmountDAO.findCurrentConfig();
+
+        // Assert
+        assertEquals(new BigDecimal("250.00"), first.getPrescriptionAmount());
+        assertEquals(new BigDecimal("250.00"), second.getPrescriptionAmount());
+        verify(mockSession, times(1)).save(any(ConfigurableAmount.class));
+    }
+}
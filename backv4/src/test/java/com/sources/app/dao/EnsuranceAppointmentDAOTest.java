@@ -16,13 +16,16 @@ import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -246,6 +249,28 @@ class EnsuranceAppointmentDAOTest {
         assertNull(result);
     }
 
+    @Test
+    void streamAll_ConsumesResultStreamWhileSessionIsOpen() throws Exception {
+        // Arrange
+        EnsuranceAppointment appointment = new EnsuranceAppointment();
+        when(mockQuery.setFetchSize(anyInt())).thenReturn(mockQuery);
+        when(mockQuery.getResultStream()).thenReturn(Stream.of(appointment));
+        List<EnsuranceAppointment> consumed = new ArrayList<>();
+
+        // Act
+        ensuranceAppointmentDAO.streamAll(results -> {
+            verify(mockSession, never()).close();
+            results.forEach(consumed::add);
+        });
+
+        // Assert
+        assertEquals(List.of(appointment), consumed);
+        verify(mockSession).createQuery("FROM EnsuranceAppointment ORDER BY appointmentDate DESC", EnsuranceAppointment.class);
+        verify(mockSession).setDefaultReadOnly(true);
+        verify(mockSession).detach(appointment);
+        verify(mockSession).close();
+    }
+
     @Test
     void update_Success() {
         // Arrange
@@ -12,14 +12,18 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -348,4 +352,52 @@ class InsuranceServiceDAOTest {
         // Assert
         assertNull(result);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void findByExternalIds_OneQueryPerChunk() {
+        Query<Object[]> rowsQuery = mock(Query.class);
+        when(mockSession.createQuery(anyString(), eq(Object[].class))).thenReturn(rowsQuery);
+        when(rowsQuery.setParameterList(eq("externalIds"), anyCollection())).thenReturn(rowsQuery);
+        when(rowsQuery.getResultList()).thenReturn(List.of(new Object[]{"EXT7", 70L}, new Object[]{"EXT7", 71L}));
+
+        List<String> small = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            small.add("EXT" + i);
+        }
+        Map<String, Long> result = insuranceServiceDAO.findByExternalIds(small);
+
+        assertEquals(Map.of("EXT7", 70L), result);
+        verify(mockSessionFactory, times(1)).openSession();
+        verify(mockSession, times(1)).createQuery(anyString(), eq(Object[].class));
+
+        // El número de consultas sólo crece con cada bloque de 1000 IDs
+        List<String> large = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            large.add("EXT" + i);
+        }
+        large.add("EXT1");
+        large.add(null);
+        insuranceServiceDAO.findByExternalIds(large);
+
+        verify(mockSessionFactory, times(2)).openSession();
+        verify(mockSession, times(4)).createQuery(anyString(), eq(Object[].class));
+        ArgumentCaptor<Collection<String>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(rowsQuery, times(4)).setParameterList(eq("externalIds"), chunks.capture());
+        assertEquals(List.of(500, 1000, 1000, 500),
+                chunks.getAllValues().stream().map(Collection::size).toList());
+        verify(mockSession, never()).createQuery(anyString(), eq(InsuranceService.class));
+    }
+
+    @Test
+    void findByExternalIds_EmptyInput_NoQuery() {
+        assertEquals(Map.of(), insuranceServiceDAO.findByExternalIds(List.of()));
+        verify(mockSessionFactory, never()).openSession();
+    }
+
+    @Test
+    void findByExternalIds_Exception_ReturnsNull() {
+        when(mockSession.createQuery(anyString(), eq(Object[].class))).thenThrow(new RuntimeException("DB Error"));
+
+        assertNull(insuranceServiceDAO.findByExternalIds(List.of("EXT1")));
+    }
+}
@@ -0,0 +1,131 @@
+package com.sources.app.dao;
+
+import com.sources.app.entities.MedicinePres;
+import com.sources.app.entities.Policy;
+import com.sources.app.entities.PrescriptionApproval;
+import com.sources.app.entities.Service;
+import com.sources.app.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KeysetQueryTest {
+
+    @Mock
+    private SessionFactory mockSessionFactory;
+    @Mock
+    private Session mockSession;
+    @Mock
+    private Query<Object[]> mockQuery;
+
+    private MockedStatic<HibernateUtil> mockedHibernateUtil;
+
+    private final PolicyDAO policyDAO = new PolicyDAO();
+
+    @BeforeEach
+    void setUp() {
+        mockedHibernateUtil = Mockito.mockStatic(HibernateUtil.class);
+        mockedHibernateUtil.when(HibernateUtil::getSessionFactory).thenReturn(mockSessionFactory);
+        lenient().when(mockSessionFactory.openSession()).thenReturn(mockSession);
+        lenient().when(mockSession.createQuery(anyString(), eq(Object[].class))).thenReturn(mockQuery);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedHibernateUtil.close();
+    }
+
+    private static Object[] row(Policy policy) {
+        return new Object[]{policy, policy.getIdPolicy()};
+    }
+
+    private static Policy policy(long id) {
+        Policy policy = new Policy();
+        policy.setIdPolicy(id);
+        return policy;
+    }
+
+    @Test
+    void findPage_FirstPage_ReturnsLimitRowsAndNextCursor() {
+        List<Object[]> rows = Arrays.asList(row(policy(1L)), row(policy(2L)), row(policy(3L)));
+        when(mockQuery.getResultList()).thenReturn(rows);
+
+        KeysetPage<Policy> page = policyDAO.findPage(null, 2);
+
+        verify(mockSession).createQuery("select e, e.idPolicy from Policy e order by e.idPolicy asc", Object[].class);
+        verify(mockQuery).setMaxResults(3);
+        verify(mockQuery, never()).setParameter(anyString(), any());
+        assertEquals(2, page.getItems().size());
+        assertEquals(2L, page.getItems().get(1).getIdPolicy());
+        assertEquals("2", page.getNextCursor());
+        verify(mockSession).close();
+    }
+
+    @Test
+    void findPage_WithCursor_FiltersAfterLastKey() {
+        when(mockQuery.getResultList()).thenReturn(Arrays.<Object[]>asList(row(policy(3L))));
+
+        KeysetPage<Policy> page = policyDAO.findPage("2", 2);
+
+        verify(mockSession).createQuery(
+                "select e, e.idPolicy from Policy e where (e.idPolicy > :k0) order by e.idPolicy asc", Object[].class);
+        verify(mockQuery).setParameter("k0", 2L);
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.hasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findPage_DatabaseError_Propagates() {
+        when(mockQuery.getResultList()).thenThrow(new RuntimeException("DB Error"));
+
+        assertThrows(RuntimeException.class, () -> policyDAO.findPage(null, 10));
+        verify(mockSession).close();
+    }
+
+    @Test
+    void findPage_InvalidCursorOrLimit_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> policyDAO.findPage("abc", 10));
+        assertThrows(IllegalArgumentException.class, () -> policyDAO.findPage("1:2", 10));
+        assertThrows(IllegalArgumentException.class, () -> policyDAO.findPage(null, 0));
+        verifyNoInteractions(mockSessionFactory);
+    }
+
+    @Test
+    void hql_CompositeAndDescendingKeys() {
+        KeysetQuery<MedicinePres> composite =
+                KeysetQuery.of(MedicinePres.class, "prescription.idPrescription", "medicine.idMedicine");
+        assertEquals("select e, e.prescription.idPrescription, e.medicine.idMedicine from MedicinePres e"
+                + " where (e.prescription.idPrescription > :k0)"
+                + " or (e.prescription.idPrescription = :k0 and e.medicine.idMedicine > :k1)"
+                + " order by e.prescription.idPrescription asc, e.medicine.idMedicine asc", composite.hql(true));
+        assertArrayEquals(new long[]{4L, 7L}, composite.parseCursor("4:7"));
+        assertThrows(IllegalArgumentException.class, () -> composite.parseCursor("4"));
+
+        KeysetQuery<PrescriptionApproval> newest = KeysetQuery.of(PrescriptionApproval.class, "idApproval").descending();
+        assertEquals("select e, e.idApproval from PrescriptionApproval e where (e.idApproval < :k0) order by e.idApproval desc",
+                newest.hql(true));
+
+        KeysetQuery<Service> withDetails = KeysetQuery.of(Service.class, "idService").fetchJoin("hospital");
+        assertEquals("select e, e.idService from Service e join fetch e.hospital order by e.idService asc",
+                withDetails.hql(false));
+    }
+}
@@ -0,0 +1,141 @@
+package com.sources.app.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sources.app.entities.ServiceApproval;
+import com.sources.app.util.HibernateUtil;
+
+/**
+ * Runs the rollup query against a real SQLite database, where the approval
+ * timestamp is stored with its time of day.
+ */
+class ServiceApprovalRollupGroupsTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2025, 3, 1);
+    private static final LocalDate DAY_2 = LocalDate.of(2025, 3, 2);
+
+    @TempDir
+    Path dir;
+
+    private SessionFactory sessionFactory;
+    private final ServiceApprovalDAO dao = new ServiceApprovalDAO();
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(ServiceApproval.class)
+                .setProperty("hibernate.connection.driver_class", "org.sqlite.JDBC")
+                .setProperty("hibernate.connection.url", "jdbc:sqlite:" + dir.resolve("approvals.sqlite"))
+                .setProperty("hibernate.dialect", "org.hibernate.community.dialect.SQLiteDialect")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .buildSessionFactory();
+        HibernateUtil.setSessionFactory(sessionFactory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        HibernateUtil.setSessionFactory(null);
+        sessionFactory.close();
+    }
+
+    @Test
+    void findRollupGroups_ApprovalsOnTheSameDayShareOneRow() {
+        create(at(DAY_1, 8), 100.0);
+        create(at(DAY_1, 12), 200.0);
+        create(at(DAY_1, 18), 300.0);
+        create(at(DAY_2, 9), 50.0);
+
+        List<Object[]> rows = sortedGroups();
+
+        assertEquals(2, rows.size());
+        assertEquals(DAY_1, rows.get(0)[2]);
+        assertEquals(3L, ((Number) rows.get(0)[3]).longValue());
+        assertEquals(600.0, ((Number) rows.get(0)[7]).doubleValue());
+        assertEquals(DAY_2, rows.get(1)[2]);
+        assertEquals(1L, ((Number) rows.get(1)[3]).longValue());
+    }
+
+    @Test
+    void backfillApprovalDays_GroupsApprovalsSavedWithoutADay() {
+        create(at(DAY_1, 8), 100.0);
+        create(at(DAY_1, 12), 200.0);
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.createMutationQuery("UPDATE ServiceApproval SET approvalDay = null").executeUpdate();
+            transaction.commit();
+        }
+
+        assertEquals(2, dao.backfillApprovalDays());
+        assertEquals(0, dao.backfillApprovalDays());
+
+        List<Object[]> rows = sortedGroups();
+        assertEquals(1, rows.size());
+        assertEquals(DAY_1, rows.get(0)[2]);
+        assertEquals(2L, ((Number) rows.get(0)[3]).longValue());
+    }
+
+    @Test
+    void backfillApprovalDays_CommitsEachChunkAcrossDays() {
+        create(at(DAY_1, 8), 100.0);
+        create(at(DAY_2, 9), 50.0);
+        create(at(DAY_1, 12), 200.0);
+        create(at(DAY_2, 18), 75.0);
+        create(at(DAY_1, 20), 300.0);
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.createMutationQuery("UPDATE ServiceApproval SET approvalDay = null").executeUpdate();
+            transaction.commit();
+        }
+
+        assertEquals(5, dao.backfillApprovalDays(2));
+        assertEquals(0, dao.backfillApprovalDays(2));
+
+        List<Object[]> rows = sortedGroups();
+        assertEquals(2, rows.size());
+        assertEquals(DAY_1, rows.get(0)[2]);
+        assertEquals(3L, ((Number) rows.get(0)[3]).longValue());
+        assertEquals(DAY_2, rows.get(1)[2]);
+        assertEquals(2L, ((Number) rows.get(1)[3]).longValue());
+    }
+
+    private void create(Date approvalDate, double cost) {
+        ServiceApproval approval = new ServiceApproval();
+        approval.setUserId(1L);
+        approval.setHospitalId(1L);
+        approval.setServiceId("SVC-1");
+        approval.setServiceName("Rayos X");
+        approval.setServiceCost(cost);
+        approval.setCoveredAmount(cost * 0.8);
+        approval.setPatientAmount(cost * 0.2);
+        approval.setStatus("APPROVED");
+        approval.setApprovalDate(approvalDate);
+        assertEquals(approvalDate, dao.create(approval).getApprovalDate());
+    }
+
+    private List<Object[]> sortedGroups() {
+        List<Object[]> rows = new ArrayList<>(dao.findRollupGroups());
+        rows.sort(Comparator.comparing(row -> (LocalDate) row[2]));
+        return rows;
+    }
+
+    private static Date at(LocalDate day, int hour) {
+        return Date.from(day.atTime(hour, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,157 @@
+package com.sources.app.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sources.app.entities.ServiceApproval;
+
+class ServiceApprovalRollupTest {
+
+    private static final LocalDate DAY_1 = LocalDate.of(2025, 3, 1);
+    private static final LocalDate DAY_2 = LocalDate.of(2025, 3, 2);
+
+    private final ServiceApprovalRollup rollup = new ServiceApprovalRollup();
+
+    @AfterEach
+    void tearDown() {
+        rollup.stop();
+    }
+
+    private static Date at(LocalDate day, int hour) {
+        return Date.from(day.atTime(hour, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Fila con el formato de {@link ServiceApprovalDAO#findRollupGroups()}.
+     */
+    private static Object[] group(String status, Long hospitalId, LocalDate day, long count, long withPrescription,
+                                  Double covered, Double patient, Double cost) {
+        return new Object[]{status, hospitalId, day, count, withPrescription, covered, patient, cost};
+    }
+
+    private static ServiceApproval approval(Long id, String status, Long hospitalId, Date date, double cost) {
+        ServiceApproval approval = new ServiceApproval();
+        approval.setId(id);
+        approval.setStatus(status);
+        approval.setHospitalId(hospitalId);
+        approval.setApprovalDate(date);
+        approval.setServiceCost(cost);
+        approval.setCoveredAmount(cost * 0.8);
+        approval.setPatientAmount(cost * 0.2);
+        return approval;
+    }
+
+    @Test
+    void start_FoldsGroupedRowsByStatusHospitalAndDay() {
+        List<Object[]> rows = List.of(
+                group("APPROVED", 1L, DAY_1, 3, 1, 240.0, 60.0, 300.0),
+                group("PENDING", 2L, DAY_2, 3, 3, 0.0, 0.0, 300.0),
+                group("REJECTED", null, null, 1, 0, null, null, null));
+
+        rollup.start(() -> rows, 0);
+
+        assertTrue(rollup.isLoaded());
+        ServiceApprovalRollup.Snapshot snapshot = rollup.snapshot();
+        assertEquals(7, snapshot.getTotals().getCount());
+        assertEquals(4, snapshot.getTotals().getWithPrescription());
+        assertEquals(600.0, snapshot.getTotals().getServiceCost());
+        assertEquals(240.0, snapshot.getTotals().getCoveredAmount());
+        assertEquals(3, snapshot.status("APPROVED").getCount());
+        assertEquals(1, snapshot.status("REJECTED").getCount());
+        assertEquals(0, snapshot.status("COMPLETED").getCount());
+        assertEquals(3, snapshot.getByHospital().get(1L).getCount());
+        assertEquals(300.0, snapshot.getByHospital().get(2L).getServiceCost());
+        assertEquals(List.of(DAY_1, DAY_2), new ArrayList<>(snapshot.getByDay().keySet()));
+        assertEquals(3, snapshot.getByDay().get(DAY_1).getCount());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getByStatus().clear());
+    }
+
+    @Test
+    void start_LoaderFailure_StaysUnloaded() {
+        rollup.start(() -> null, 0);
+        assertFalse(rollup.isLoaded());
+
+        rollup.start(() -> {
+            throw new IllegalStateException("DB down");
+        }, 0);
+        assertFalse(rollup.isLoaded());
+    }
+
+    @Test
+    void replace_MovesApprovalBetweenBuckets() {
+        rollup.start(List::of, 0);
+        ServiceApproval pending = approval(1L, "PENDING", 1L, at(DAY_1, 9), 100.0);
+        rollup.replace(null, ServiceApprovalRollup.Entry.of(pending));
+
+        ServiceApproval approved = approval(1L, "APPROVED", 1L, at(DAY_1, 9), 100.0);
+        approved.setPrescriptionId(5L);
+        rollup.replace(ServiceApprovalRollup.Entry.of(pending), ServiceApprovalRollup.Entry.of(approved));
+
+        ServiceApprovalRollup.Snapshot snapshot = rollup.snapshot();
+        assertEquals(1, snapshot.getTotals().getCount());
+        assertEquals(1, snapshot.getTotals().getWithPrescription());
+        assertEquals(100.0, snapshot.getTotals().getServiceCost());
+        assertEquals(0, snapshot.status("PENDING").getCount());
+        assertFalse(snapshot.getByStatus().containsKey("PENDING"));
+        assertEquals(1, snapshot.status("APPROVED").getCount());
+        assertEquals(1, snapshot.getByHospital().get(1L).getCount());
+    }
+
+    @Test
+    void replace_BeforeLoadIsIgnored() {
+        rollup.replace(null, ServiceApprovalRollup.Entry.of(approval(1L, "PENDING", 1L, new Date(), 10.0)));
+        assertFalse(rollup.isLoaded());
+
+        rollup.start(List::of, 0);
+        assertEquals(0, rollup.snapshot().getTotals().getCount());
+    }
+
+    @Test
+    void rebuild_WriteDuringLoadIsNotLost() {
+        AtomicInteger calls = new AtomicInteger();
+        ServiceApproval created = approval(9L, "PENDING", 1L, at(DAY_2, 8), 50.0);
+        rollup.start(() -> {
+            int call = calls.incrementAndGet();
+            if (call == 2) {
+                // Alta que se confirma mientras la reconstrucción lee datos viejos
+                rollup.replace(null, ServiceApprovalRollup.Entry.of(created));
+                return List.<Object[]>of();
+            }
+            return call == 1 ? List.<Object[]>of()
+                    : List.<Object[]>of(group("PENDING", 1L, DAY_2, 1, 0, 40.0, 10.0, 50.0));
+        }, 0);
+
+        assertTrue(rollup.rebuild());
+        assertEquals(1, rollup.snapshot().getTotals().getCount());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void summarize_MatchesIncrementalTotals() {
+        List<ServiceApproval> approvals = List.of(
+                approval(1L, "APPROVED", 1L, at(DAY_1, 9), 100.0),
+                approval(2L, "COMPLETED", 2L, at(DAY_2, 9), 200.0),
+                approval(3L, "APPROVED", 2L, null, 50.0));
+
+        ServiceApprovalRollup.Snapshot snapshot = ServiceApprovalRollup.summarize(approvals);
+
+        assertEquals(3, snapshot.getTotals().getCount());
+        assertEquals(350.0, snapshot.getTotals().getServiceCost());
+        assertEquals(2, snapshot.status("APPROVED").getCount());
+        assertEquals(2, snapshot.getByHospital().get(2L).getCount());
+        assertEquals(2, snapshot.getByDay().size());
+        assertFalse(rollup.isLoaded());
+    }
+}
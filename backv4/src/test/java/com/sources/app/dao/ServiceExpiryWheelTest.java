@@ -0,0 +1,102 @@
+package com.sources.app.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.sources.app.entities.User;
+
+class ServiceExpiryWheelTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+    private final ServiceExpiryWheel wheel = new ServiceExpiryWheel(clock::get);
+    private final List<List<Long>> batches = new ArrayList<>();
+
+    private int expire(Collection<Long> ids) {
+        batches.add(new ArrayList<>(ids));
+        return ids.size();
+    }
+
+    private static Object[] row(long idUser, long expirationMillis) {
+        return new Object[]{idUser, new Date(expirationMillis)};
+    }
+
+    private static User user(long idUser, Boolean paidService, Date expirationDate) {
+        User user = new User();
+        user.setIdUser(idUser);
+        user.setPaidService(paidService);
+        user.setExpirationDate(expirationDate);
+        return user;
+    }
+
+    @Test
+    void tick_ExpiresDueUsersInBatches() {
+        assertTrue(wheel.load(() -> List.of(
+                row(1L, NOW - 60_000),
+                row(2L, NOW - 1),
+                row(3L, NOW - 1_000),
+                row(4L, NOW + 5_000)), this::expire, 2));
+
+        assertEquals(3, wheel.tick());
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        assertEquals(Set.of(1L, 2L, 3L), Set.of(batches.get(0).get(0), batches.get(0).get(1), batches.get(1).get(0)));
+
+        clock.set(NOW + 4_999);
+        assertEquals(0, wheel.tick());
+        clock.set(NOW + 6_000);
+        assertEquals(1, wheel.tick());
+        assertEquals(List.of(4L), batches.get(2));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void tick_FailedBatchIsRetried() {
+        List<Integer> results = new ArrayList<>(List.of(-1, 1));
+        assertTrue(wheel.load(() -> List.<Object[]>of(row(1L, NOW - 1_000)), ids -> results.remove(0), 10));
+
+        assertEquals(0, wheel.tick());
+        assertEquals(1, wheel.tick());
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    void track_ReschedulesAndCancelsAfterUpdate() {
+        wheel.load(List::of, this::expire, 10);
+
+        wheel.track(user(1L, true, new Date(NOW + 10_000)));
+        wheel.track(user(2L, true, new Date(NOW + 10_000)));
+        wheel.track(user(1L, true, new Date(NOW + 86_400_000)));
+        wheel.track(user(2L, false, null));
+
+        assertEquals(NOW + 86_400_001, wheel.deadlineOf(1L));
+        assertNull(wheel.deadlineOf(2L));
+        clock.set(NOW + 20_000);
+        assertEquals(0, wheel.tick());
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    void load_FailureLeavesWheelStopped() {
+        assertFalse(wheel.load(() -> null, this::expire, 10));
+        assertFalse(wheel.load(() -> {
+            throw new IllegalStateException("DB down");
+        }, this::expire, 10));
+
+        wheel.track(user(1L, true, new Date(NOW)));
+        assertFalse(wheel.isStarted());
+        assertEquals(0, wheel.tick());
+    }
+}
@@ -84,6 +84,20 @@ class SystemConfigDAOTest {
         verify(mockTransaction).commit();
     }
 
+    @Test
+    void saveOrUpdate_PublishesValueToRegistry() {
+        // Arrange
+        String key = "REGISTRY_KEY";
+        when(mockConfigQuery.setParameter(eq("key"), eq(key))).thenReturn(mockConfigQuery);
+        when(mockConfigQuery.uniqueResult()).thenReturn(null);
+
+        // Act
+        systemConfigDAO.saveOrUpdate(key, "42", null);
+
+        // Assert
+        assertEquals("42", SystemConfigRegistry.getInstance().asMap().get(key));
+    }
+
     @Test
     void saveOrUpdate_UpdateExisting() {
         // Arrange
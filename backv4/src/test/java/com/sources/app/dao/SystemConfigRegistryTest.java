@@ -0,0 +1,99 @@
+package com.sources.app.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sources.app.entities.SystemConfig;
+
+class SystemConfigRegistryTest {
+
+    private final SystemConfigRegistry registry = new SystemConfigRegistry();
+
+    @AfterEach
+    void tearDown() {
+        registry.stop();
+    }
+
+    @Test
+    void start_LoadsAllKeysWithTypedLookups() {
+        List<SystemConfig> rows = List.of(
+                new SystemConfig("MIN_PRESCRIPTION_AMOUNT", "250.00", null),
+                new SystemConfig("MAX_RETRIES", "3", null),
+                new SystemConfig("FEATURE_ENABLED", "yes", null),
+                new SystemConfig("BROKEN_INT", "abc", null));
+
+        registry.start(() -> rows, 0);
+
+        assertTrue(registry.isLoaded());
+        assertEquals(250.0, registry.getDouble("MIN_PRESCRIPTION_AMOUNT", 0.0));
+        assertEquals(3, registry.getInt("MAX_RETRIES", 0));
+        assertTrue(registry.getBoolean("FEATURE_ENABLED", false));
+        assertEquals(7, registry.getInt("BROKEN_INT", 7));
+        assertEquals("fallback", registry.getString("MISSING", "fallback"));
+        assertThrows(UnsupportedOperationException.class, () -> registry.asMap().put("X", "Y"));
+    }
+
+    @Test
+    void start_LoaderFailure_StaysUnloaded() {
+        registry.start(() -> null, 0);
+        assertFalse(registry.isLoaded());
+
+        registry.start(() -> {
+            throw new IllegalStateException("DB down");
+        }, 0);
+        assertFalse(registry.isLoaded());
+    }
+
+    @Test
+    void putAndRemove_PublishNewVersion() {
+        registry.start(() -> List.of(new SystemConfig("THEME", "light", null)), 0);
+        long version = registry.getVersion();
+
+        registry.put("THEME", "dark");
+        assertEquals("dark", registry.getString("THEME", null));
+        assertEquals(version + 1, registry.getVersion());
+
+        registry.remove("THEME");
+        assertNull(registry.getString("THEME", null));
+        assertEquals(version + 2, registry.getVersion());
+    }
+
+    @Test
+    void refresh_FailureKeepsPreviousSnapshot() {
+        List<SystemConfig> rows = new ArrayList<>();
+        rows.add(new SystemConfig("THEME", "light", null));
+        AtomicInteger calls = new AtomicInteger();
+        registry.start(() -> calls.incrementAndGet() == 1 ? rows : null, 0);
+
+        assertFalse(registry.refresh());
+        assertEquals("light", registry.getString("THEME", null));
+    }
+
+    @Test
+    void refresh_WriteDuringLoadIsNotOverwritten() {
+        AtomicInteger calls = new AtomicInteger();
+        registry.start(() -> {
+            int call = calls.incrementAndGet();
+            if (call == 2) {
+                // Escritura local que termina mientras la recarga lee datos viejos
+                registry.put("THEME", "dark");
+                return List.of(new SystemConfig("THEME", "light", null));
+            }
+            return List.of(new SystemConfig("THEME", call == 1 ? "light" : "dark", null));
+        }, 0);
+
+        assertTrue(registry.refresh());
+        assertEquals("dark", registry.getString("THEME", null));
+        assertEquals(3, calls.get());
+    }
+}
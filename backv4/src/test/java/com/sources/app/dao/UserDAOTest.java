@@ -1,5 +1,6 @@
 package com.sources.app.dao;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -7,6 +8,7 @@ import java.util.List;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.query.MutationQuery;
 import org.hibernate.query.Query;
 import org.hibernate.resource.transaction.spi.TransactionStatus;
 import org.junit.jupiter.api.AfterEach;
@@ -14,11 +16,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
@@ -52,6 +57,8 @@ class UserDAOTest {
     @Mock
     private Query<Long> mockLongQuery;
     @Mock
+    private MutationQuery mockMutationQuery;
+    @Mock
     private Policy mockPolicy;
     @Mock
     private TransactionStatus mockTransactionStatus;
@@ -599,103 +606,140 @@ class UserDAOTest {
         verify(mockTransaction, never()).commit();
     }
 
-    @Test
-    void checkAllUsersServiceExpiration_Success() {
-        // Arrange
-        Date yesterday = new Date(System.currentTimeMillis() - 86400000);
-        User expiredUser1 = new User();
-        expiredUser1.setIdUser(1L);
-        expiredUser1.setPaidService(true);
-        expiredUser1.setExpirationDate(yesterday);
-        expiredUser1.setPolicy(mockPolicy); // Has policy
+    private static final String EXPIRED_IDS_HQL = "SELECT u.idUser FROM User u WHERE u.paidService = true"
+            + " AND u.expirationDate < :now AND u.idUser > :lastId ORDER BY u.idUser";
 
-        User expiredUser2 = new User();
-        expiredUser2.setIdUser(2L);
-        expiredUser2.setPaidService(true);
-        expiredUser2.setExpirationDate(yesterday);
-        expiredUser2.setPolicy(mockPolicy); // Has policy
+    private void stubExpiredIdQuery() {
+        when(mockSession.createQuery(EXPIRED_IDS_HQL, Long.class)).thenReturn(mockLongQuery);
+        when(mockLongQuery.setParameter(anyString(), any())).thenReturn(mockLongQuery);
+        when(mockLongQuery.setMaxResults(anyInt())).thenReturn(mockLongQuery);
+    }
 
-        List<User> expiredList = List.of(expiredUser1, expiredUser2);
+    private void stubExpireUpdate() {
+        when(mockSession.createMutationQuery(anyString())).thenReturn(mockMutationQuery);
+        when(mockMutationQuery.setParameterList(eq("ids"), anyCollection())).thenReturn(mockMutationQuery);
+        when(mockMutationQuery.setParameter(eq("now"), any(Date.class))).thenReturn(mockMutationQuery);
+    }
 
-        when(mockSession.createQuery(anyString(), eq(User.class))).thenReturn(mockUserQuery);
-        when(mockUserQuery.setParameter(eq("today"), any(Date.class))).thenReturn(mockUserQuery);
-        when(mockUserQuery.getResultList()).thenReturn(expiredList);
+    @Test
+    void checkAllUsersServiceExpiration_Success() {
+        // Arrange: dos lotes completos de 2 y un último lote parcial
+        stubExpiredIdQuery();
+        stubExpireUpdate();
+        when(mockLongQuery.getResultList()).thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        when(mockMutationQuery.executeUpdate()).thenReturn(2, 2, 1);
+        List<Integer> chunks = new ArrayList<>();
 
         // Act
-        int updatedCount = userDAO.checkAllUsersServiceExpiration();
+        int updatedCount = userDAO.checkAllUsersServiceExpiration(2, chunks::add);
 
         // Assert
-        assertEquals(2, updatedCount);
-        verify(mockSession).createQuery("FROM User WHERE paidService = true AND expirationDate < :today", User.class);
-        verify(mockUserQuery).setParameter(eq("today"), any(Date.class));
-        verify(mockSession, times(2)).update(any(User.class));
-        verify(mockSession).update(expiredUser1);
-        verify(mockSession).update(expiredUser2);
-        assertFalse(expiredUser1.getPaidService()); // Should be updated
-        assertNull(expiredUser1.getPolicy()); // Policy should be removed
-        assertFalse(expiredUser2.getPaidService()); // Should be updated
-        assertNull(expiredUser2.getPolicy()); // Policy should be removed
-        verify(mockTransaction).commit();
+        assertEquals(5, updatedCount);
+        assertEquals(List.of(2, 2, 1), chunks);
+        verify(mockLongQuery).setParameter("lastId", Long.MIN_VALUE);
+        verify(mockLongQuery).setParameter("lastId", 2L);
+        verify(mockLongQuery).setParameter("lastId", 4L);
+        verify(mockLongQuery, times(3)).setMaxResults(2);
+        verify(mockSession, times(3)).createMutationQuery("UPDATE User u SET u.paidService = false, u.policy = null"
+                + " WHERE u.idUser IN (:ids) AND u.paidService = true AND u.expirationDate < :now");
+        verify(mockMutationQuery).setParameterList("ids", List.of(3L, 4L));
+        verify(mockTransaction, times(3)).commit();
+        verify(mockSession, times(3)).close();
+        verify(mockSession, never()).update(any(User.class));
     }
 
     @Test
     void checkAllUsersServiceExpiration_NoExpiredUsers() {
         // Arrange
-        List<User> emptyList = Collections.emptyList();
-
-        when(mockSession.createQuery(anyString(), eq(User.class))).thenReturn(mockUserQuery);
-        when(mockUserQuery.setParameter(eq("today"), any(Date.class))).thenReturn(mockUserQuery);
-        when(mockUserQuery.getResultList()).thenReturn(emptyList);
+        stubExpiredIdQuery();
+        when(mockLongQuery.getResultList()).thenReturn(Collections.emptyList());
 
         // Act
         int updatedCount = userDAO.checkAllUsersServiceExpiration();
 
         // Assert
         assertEquals(0, updatedCount);
-        verify(mockSession).createQuery("FROM User WHERE paidService = true AND expirationDate < :today", User.class);
-        verify(mockUserQuery).setParameter(eq("today"), any(Date.class));
-        verify(mockSession, never()).update(any(User.class));
+        verify(mockLongQuery).setMaxResults(UserDAO.DEFAULT_EXPIRATION_BATCH_SIZE);
+        verify(mockSession, never()).createMutationQuery(anyString());
         verify(mockTransaction).commit();
     }
 
     @Test
     void checkAllUsersServiceExpiration_ExceptionDuringQuery() {
         // Arrange
-        when(mockSession.createQuery(anyString(), eq(User.class))).thenThrow(new RuntimeException("DB Query Error"));
+        when(mockSession.createQuery(anyString(), eq(Long.class))).thenThrow(new RuntimeException("DB Query Error"));
 
         // Act
-        userDAO.checkAllUsersServiceExpiration();
+        int updatedCount = userDAO.checkAllUsersServiceExpiration();
 
         // Assert
+        assertEquals(0, updatedCount);
         verify(mockTransaction).rollback();
         verify(mockTransaction, never()).commit();
     }
 
     @Test
-    void checkAllUsersServiceExpiration_ExceptionDuringUpdate() {
-        // Arrange
-        User expiredUser = new User();
-        expiredUser.setIdUser(1L);
-        expiredUser.setPaidService(true);
-        expiredUser.setExpirationDate(new Date(System.currentTimeMillis() - 100000)); // Expired
-        expiredUser.setPolicy(mockPolicy);
-
-        List<User> userList = Collections.singletonList(expiredUser);
-        when(mockSession.createQuery(anyString(), eq(User.class))).thenReturn(mockUserQuery);
-        when(mockUserQuery.getResultList()).thenReturn(userList);
-
-        // Throw exception during the update call within the loop
-        doThrow(new RuntimeException("DB Update Error")).when(mockSession).update(any(User.class));
+    void checkAllUsersServiceExpiration_ExceptionDuringUpdate_KeepsCommittedBatches() {
+        // Arrange: el primer lote se confirma, el segundo falla
+        stubExpiredIdQuery();
+        stubExpireUpdate();
+        when(mockLongQuery.getResultList()).thenReturn(List.of(1L, 2L), List.of(3L, 4L));
+        when(mockMutationQuery.executeUpdate()).thenReturn(2).thenThrow(new RuntimeException("DB Update Error"));
 
         // Act
-        userDAO.checkAllUsersServiceExpiration();
+        int updatedCount = userDAO.checkAllUsersServiceExpiration(2, null);
 
         // Assert
-        verify(mockSession).update(expiredUser);
+        assertEquals(2, updatedCount);
+        verify(mockTransaction).commit();
+        verify(mockTransaction).rollback();
+    }
+
+    @Test
+    void checkAllUsersServiceExpiration_InvalidBatchSize() {
+        assertThrows(IllegalArgumentException.class, () -> userDAO.checkAllUsersServiceExpiration(0, null));
+        verify(mockSessionFactory, never()).openSession();
+    }
+
+    @Test
+    void expireServices_UpdatesGivenIdsInOneStatement() {
+        stubExpireUpdate();
+        when(mockMutationQuery.executeUpdate()).thenReturn(2);
+
+        int updated = userDAO.expireServices(List.of(7L, 9L));
+
+        assertEquals(2, updated);
+        verify(mockSession).createMutationQuery("UPDATE User u SET u.paidService = false, u.policy = null"
+                + " WHERE u.idUser IN (:ids) AND u.paidService = true AND u.expirationDate < :now");
+        verify(mockMutationQuery).setParameterList("ids", List.of(7L, 9L));
+        verify(mockTransaction).commit();
+        verify(mockSession).close();
+    }
+
+    @Test
+    void expireServices_Exception_ReturnsMinusOne() {
+        stubExpireUpdate();
+        when(mockMutationQuery.executeUpdate()).thenThrow(new RuntimeException("DB Update Error"));
+
+        assertEquals(-1, userDAO.expireServices(List.of(7L)));
+        assertEquals(0, userDAO.expireServices(List.of()));
         verify(mockTransaction).rollback();
         verify(mockTransaction, never()).commit();
     }
 
+    @Test
+    void findOldestPendingExpiration_ReturnsMinimum() {
+        Date oldest = new Date(System.currentTimeMillis() - 86400000);
+        @SuppressWarnings("unchecked")
+        Query<Date> dateQuery = mock(Query.class);
+        when(mockSession.createQuery(anyString(), eq(Date.class))).thenReturn(dateQuery);
+        when(dateQuery.setParameter(eq("now"), any(Date.class))).thenReturn(dateQuery);
+        when(dateQuery.uniqueResult()).thenReturn(oldest);
+
+        assertEquals(oldest, userDAO.findOldestPendingExpiration());
+        verify(mockSession).close();
+    }
+
     @Test
     void findByEmail_Found() {
         // Arrange
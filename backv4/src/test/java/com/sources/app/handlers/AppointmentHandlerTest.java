@@ -24,7 +24,6 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
@@ -50,8 +49,8 @@ class AppointmentHandlerTest {
     private Headers mockRequestHeaders;
     @Mock
     private Headers mockResponseHeaders;
-    @Mock
-    private OutputStream mockResponseBody;
+    @Spy
+    private ByteArrayOutputStream mockResponseBody;
 
     // Use a real ObjectMapper configured similarly to the handler
     @Spy
@@ -129,8 +128,9 @@ class AppointmentHandlerTest {
 
         verify(mockAppointmentDAO).findAll();
         verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
-        verify(mockHttpExchange).sendResponseHeaders(eq(200), anyLong());
-        verify(mockResponseBody).write(any(byte[].class));
+        long responseLength = mockResponseBody.size();
+        verify(mockHttpExchange).sendResponseHeaders(eq(200), eq(responseLength));
+        assertArrayEquals(expectedBytes, mockResponseBody.toByteArray());
         verify(mockResponseBody).close();
     }
 
@@ -158,11 +158,10 @@ class AppointmentHandlerTest {
         verify(mockAppointmentDAO).findAll();
         verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
         verify(mockHttpExchange).sendResponseHeaders(statusCodeCaptor.capture(), responseLengthCaptor.capture());
-        verify(mockResponseBody).write(responseBodyCaptor.capture());
 
         assertEquals(200, statusCodeCaptor.getValue());
-        assertTrue(responseLengthCaptor.getValue() > 0);
-        String jsonResponse = new String(responseBodyCaptor.getValue(), StandardCharsets.UTF_8);
+        assertEquals(mockResponseBody.size(), responseLengthCaptor.getValue());
+        String jsonResponse = new String(mockResponseBody.toByteArray(), StandardCharsets.UTF_8);
         // Basic check, could use JSONAssert for detailed comparison
         assertTrue(jsonResponse.startsWith("["));
         assertTrue(jsonResponse.endsWith("]"));
@@ -227,8 +226,9 @@ class AppointmentHandlerTest {
 
         verify(mockAppointmentDAO).findByUserId(userId);
         verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
-        verify(mockHttpExchange).sendResponseHeaders(eq(200), anyLong());
-        verify(mockResponseBody).write(any(byte[].class));
+        long responseLength = mockResponseBody.size();
+        verify(mockHttpExchange).sendResponseHeaders(eq(200), eq(responseLength));
+        assertArrayEquals(objectMapper.writeValueAsBytes(appointments), mockResponseBody.toByteArray());
         verify(mockResponseBody).close();
     }
 
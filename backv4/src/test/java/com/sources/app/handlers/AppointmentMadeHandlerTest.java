@@ -18,9 +18,9 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
@@ -46,8 +46,8 @@ class AppointmentMadeHandlerTest {
     private Headers mockRequestHeaders;
     @Mock
     private Headers mockResponseHeaders;
-    @Mock
-    private OutputStream mockResponseBody;
+    @Spy
+    private ByteArrayOutputStream mockResponseBody;
 
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
@@ -116,8 +116,9 @@ class AppointmentMadeHandlerTest {
 
         verify(mockAppointmentMadeDAO).findAll();
         verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
-        verify(mockHttpExchange).sendResponseHeaders(eq(200), anyLong());
-        verify(mockResponseBody).write(any(byte[].class));
+        long responseLength = mockResponseBody.size();
+        verify(mockHttpExchange).sendResponseHeaders(eq(200), eq(responseLength));
+        assertArrayEquals(expectedBytes, mockResponseBody.toByteArray());
         verify(mockResponseBody).close();
     }
 
@@ -143,8 +144,9 @@ class AppointmentMadeHandlerTest {
 
         verify(mockAppointmentMadeDAO).findAll();
         verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
-        verify(mockHttpExchange).sendResponseHeaders(eq(200), anyLong());
-        verify(mockResponseBody).write(any(byte[].class));
+        long responseLength = mockResponseBody.size();
+        verify(mockHttpExchange).sendResponseHeaders(eq(200), eq(responseLength));
+        assertArrayEquals(objectMapper.writeValueAsBytes(appointments), mockResponseBody.toByteArray());
         verify(mockResponseBody).close();
     }
 
@@ -161,8 +163,9 @@ class AppointmentMadeHandlerTest {
 
         verify(mockAppointmentMadeDAO).findAll();
         verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
-        verify(mockHttpExchange).sendResponseHeaders(eq(200), eq((long) expectedBytes.length));
-        verify(mockResponseBody).write(expectedBytes);
+        long responseLength = mockResponseBody.size();
+        verify(mockHttpExchange).sendResponseHeaders(eq(200), eq(responseLength));
+        assertArrayEquals(expectedBytes, mockResponseBody.toByteArray());
         verify(mockResponseBody).close();
     }
 
@@ -57,6 +57,8 @@ class DashboardHandlerTest {
     private OutputStream mockResponseBody;
     @Mock
     private SessionFactory mockSessionFactory;
+    @Mock
+    private ServiceApprovalRollup mockRollup; // Sin stubs: isLoaded() = false, se calcula desde findAll()
 
     private MockedStatic<HibernateUtil> mockedHibernateUtil;
 
@@ -236,6 +238,51 @@ class DashboardHandlerTest {
         assertEquals(app1.getStatus(), recentTransactions.get(0).get("status"));
     }
 
+    @Test
+    void handleDashboardGet_RollupLoaded_DoesNotReadAllApprovals() throws IOException {
+        when(mockHttpExchange.getRequestURI()).thenReturn(URI.create(ENDPOINT_DASHBOARD));
+        when(mockHttpExchange.getRequestMethod()).thenReturn("GET");
+
+        ServiceApproval approved = new ServiceApproval();
+        approved.setId(1L);
+        approved.setStatus("APPROVED");
+        approved.setHospitalId(7L);
+        approved.setServiceCost(100.0);
+        approved.setApprovalDate(new Date());
+        ServiceApproval rejected = new ServiceApproval();
+        rejected.setId(2L);
+        rejected.setStatus("REJECTED");
+        rejected.setHospitalId(7L);
+        rejected.setServiceCost(30.0);
+        rejected.setPrescriptionId(9L);
+        when(mockRollup.isLoaded()).thenReturn(true);
+        when(mockRollup.snapshot()).thenReturn(ServiceApprovalRollup.summarize(Arrays.asList(approved, rejected)));
+        when(mockServiceApprovalDAO.findRecent(10)).thenReturn(Collections.singletonList(rejected));
+        when(mockHospitalDAO.findAll()).thenReturn(Collections.emptyList());
+        when(mockInsuranceServiceDAO.findAll()).thenReturn(Collections.emptyList());
+
+        dashboardHandler.handle(mockHttpExchange);
+
+        verify(mockServiceApprovalDAO, never()).findAll();
+        verify(mockHttpExchange).sendResponseHeaders(eq(200), anyLong());
+        verify(mockResponseBody).write(responseBodyCaptor.capture());
+        Map<String, Object> dashboardData = objectMapper.readValue(
+                new String(responseBodyCaptor.getValue(), StandardCharsets.UTF_8), new TypeReference<Map<String, Object>>() {
+        });
+        Map<String, Object> approvalStats = (Map<String, Object>) dashboardData.get("approvalStats");
+        assertEquals(2, approvalStats.get("total"));
+        assertEquals(1, approvalStats.get("approved"));
+        assertEquals(1, approvalStats.get("rejected"));
+        assertEquals(1, approvalStats.get("withPrescription"));
+        assertEquals(130.0, approvalStats.get("totalAmount"));
+        Map<String, Map<String, Object>> byHospital = (Map<String, Map<String, Object>>) dashboardData.get("approvalsByHospital");
+        assertEquals(2, byHospital.get("7").get("count"));
+        assertEquals(1, ((Map<String, Object>) dashboardData.get("approvalsByDay")).size());
+        List<Map<String, Object>> recent = (List<Map<String, Object>>) dashboardData.get("recentTransactions");
+        assertEquals(1, recent.size());
+        assertEquals("REJECTED", recent.get(0).get("status"));
+    }
+
     @Test
     void handleDashboardGet_DaoException_SendsError() throws IOException {
         when(mockHttpExchange.getRequestURI()).thenReturn(URI.create(ENDPOINT_DASHBOARD));
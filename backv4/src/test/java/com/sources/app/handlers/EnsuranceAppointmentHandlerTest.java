@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.sources.app.dao.EnsuranceAppointmentDAO;
+import com.sources.app.dao.ResultStreamConsumer;
 import com.sources.app.entities.EnsuranceAppointment;
 import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
@@ -19,9 +20,9 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
@@ -49,8 +50,8 @@ class EnsuranceAppointmentHandlerTest {
     private Headers mockRequestHeaders;
     @Mock
     private Headers mockResponseHeaders;
-    @Mock
-    private OutputStream mockResponseBody;
+    @Spy
+    private ByteArrayOutputStream mockResponseBody;
 
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
@@ -108,14 +109,17 @@ class EnsuranceAppointmentHandlerTest {
     void handleGet_FindAll_Success() throws IOException {
         when(mockHttpExchange.getRequestMethod()).thenReturn("GET");
         List<EnsuranceAppointment> appointments = Arrays.asList(new EnsuranceAppointment(), new EnsuranceAppointment());
-        when(mockAppointmentDAO.findAll()).thenReturn(appointments);
+        doAnswer(invocation -> {
+            invocation.<ResultStreamConsumer<EnsuranceAppointment>>getArgument(0).accept(appointments.stream());
+            return null;
+        }).when(mockAppointmentDAO).streamAll(any());
         String expectedJson = objectMapper.writeValueAsString(appointments);
         byte[] expectedBytes = expectedJson.getBytes(StandardCharsets.UTF_8);
 
         ensuranceAppointmentHandler.handle(mockHttpExchange);
 
-        verify(mockAppointmentDAO).findAll();
-        verifyResponseSent(200, expectedBytes);
+        verify(mockAppointmentDAO).streamAll(any());
+        verifyStreamedResponseSent(200, expectedBytes);
     }
 
     @Test
@@ -161,7 +165,7 @@ class EnsuranceAppointmentHandlerTest {
         ensuranceAppointmentHandler.handle(mockHttpExchange);
 
         verify(mockAppointmentDAO).findByUserId(userId);
-        verifyResponseSent(200, expectedBytes);
+        verifyStreamedResponseSent(200, expectedBytes);
     }
 
     @Test
@@ -187,7 +191,7 @@ class EnsuranceAppointmentHandlerTest {
         ensuranceAppointmentHandler.handle(mockHttpExchange);
 
         verify(mockAppointmentDAO).findTodayAppointments();
-        verifyResponseSent(200, expectedBytes);
+        verifyStreamedResponseSent(200, expectedBytes);
     }
 
     @Test
@@ -207,7 +211,7 @@ class EnsuranceAppointmentHandlerTest {
         // Assert dates are equal ignoring time part if format is just yyyy-MM-dd
         assertEquals(expectedDate.toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDate(),
                 dateCaptor.getValue().toInstant().atZone(java.time.ZoneId.systemDefault()).toLocalDate());
-        verifyResponseSent(200, expectedBytes);
+        verifyStreamedResponseSent(200, expectedBytes);
     }
 
     @Test
@@ -452,4 +456,12 @@ class EnsuranceAppointmentHandlerTest {
         assertArrayEquals(expectedBodyBytes, responseBodyCaptor.getValue());
         assertEquals((long) expectedBodyBytes.length, responseLengthCaptor.getValue());
     }
+
+    // Helper method to verify a JSON list streamed with chunked transfer
+    private void verifyStreamedResponseSent(int expectedStatusCode, byte[] expectedBodyBytes) throws IOException {
+        verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
+        verify(mockHttpExchange).sendResponseHeaders(eq(expectedStatusCode), eq((long) expectedBodyBytes.length));
+        verify(mockResponseBody).close();
+        assertArrayEquals(expectedBodyBytes, mockResponseBody.toByteArray());
+    }
 }
@@ -18,9 +18,9 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
@@ -46,8 +46,8 @@ class HospitalHandlerTest {
     private Headers mockRequestHeaders;
     @Mock
     private Headers mockResponseHeaders;
-    @Mock
-    private OutputStream mockResponseBody;
+    @Spy
+    private ByteArrayOutputStream mockResponseBody;
 
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
@@ -111,8 +111,9 @@ class HospitalHandlerTest {
 
         verify(mockHospitalDAO).findAll();
         verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
-        verify(mockHttpExchange).sendResponseHeaders(eq(200), anyLong());
-        verify(mockResponseBody).write(any(byte[].class));
+        long responseLength = mockResponseBody.size();
+        verify(mockHttpExchange).sendResponseHeaders(eq(200), eq(responseLength));
+        assertArrayEquals(expectedBytes, mockResponseBody.toByteArray());
         verify(mockResponseBody).close();
     }
 
@@ -135,7 +136,7 @@ class HospitalHandlerTest {
         hospitalHandler.handle(mockHttpExchange);
 
         verify(mockHospitalDAO).findAll();
-        verifyResponseSent(200, expectedBytes);
+        verifyStreamedResponseSent(200, expectedBytes);
     }
 
     @Test
@@ -284,4 +285,12 @@ class HospitalHandlerTest {
         assertArrayEquals(expectedBodyBytes, responseBodyCaptor.getValue());
         assertEquals((long) expectedBodyBytes.length, responseLengthCaptor.getValue());
     }
+
+    // Helper method to verify a JSON list streamed with chunked transfer
+    private void verifyStreamedResponseSent(int expectedStatusCode, byte[] expectedBodyBytes) throws IOException {
+        verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
+        verify(mockHttpExchange).sendResponseHeaders(eq(expectedStatusCode), eq((long) expectedBodyBytes.length));
+        verify(mockResponseBody).close();
+        assertArrayEquals(expectedBodyBytes, mockResponseBody.toByteArray());
+    }
 }
@@ -22,9 +22,9 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -54,8 +54,8 @@ class HospitalInsuranceServiceHandlerTest {
     private Headers mockRequestHeaders;
     @Mock
     private Headers mockResponseHeaders;
-    @Mock
-    private OutputStream mockResponseBody;
+    @Spy
+    private ByteArrayOutputStream mockResponseBody;
 
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
@@ -133,7 +133,7 @@ class HospitalInsuranceServiceHandlerTest {
 
         verify(mockHospitalDAO).findById(hospitalId);
         verify(mockHospInsSvcDAO).findApprovedByHospital(hospital);
-        verifyResponseSent(200, expectedBytes);
+        verifyStreamedResponseSent(200, expectedBytes);
     }
 
     @Test
@@ -167,7 +167,7 @@ class HospitalInsuranceServiceHandlerTest {
 
         verify(mockInsuranceServiceDAO).findById(serviceId);
         verify(mockHospInsSvcDAO).findHospitalsByService(service);
-        verifyResponseSent(200, expectedBytes);
+        verifyStreamedResponseSent(200, expectedBytes);
     }
 
     @Test
@@ -512,4 +512,12 @@ class HospitalInsuranceServiceHandlerTest {
         assertArrayEquals(expectedBodyBytes, responseBodyCaptor.getValue());
         assertEquals((long) expectedBodyBytes.length, responseLengthCaptor.getValue());
     }
+
+    // Helper method to verify a JSON list streamed with chunked transfer
+    private void verifyStreamedResponseSent(int expectedStatusCode, byte[] expectedBodyBytes) throws IOException {
+        verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
+        verify(mockHttpExchange).sendResponseHeaders(eq(expectedStatusCode), eq((long) expectedBodyBytes.length));
+        verify(mockResponseBody).close();
+        assertArrayEquals(expectedBodyBytes, mockResponseBody.toByteArray());
+    }
 }
@@ -15,6 +15,7 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
@@ -24,6 +25,8 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -38,8 +41,8 @@ class HospitalServiceProxyHandlerTest {
     private Headers mockRequestHeaders;
     @Mock
     private Headers mockResponseHeaders;
-    @Mock
-    private OutputStream mockResponseBody;
+    @Spy
+    private ByteArrayOutputStream mockResponseBody;
 
     @InjectMocks
     private HospitalServiceProxyHandler handler;
@@ -136,10 +139,9 @@ class HospitalServiceProxyHandlerTest {
             handler.handle(mockHttpExchange);
 
             verify(mockHttpExchange).sendResponseHeaders(statusCodeCaptor.capture(), responseLengthCaptor.capture());
-            verify(mockResponseBody).write(responseBodyCaptor.capture());
             verify(mockResponseBody).close();
             assertEquals(200, statusCodeCaptor.getValue());
-            assertEquals("{\"ok\":true}", new String(responseBodyCaptor.getValue(), StandardCharsets.UTF_8));
+            assertEquals("{\"ok\":true}", mockResponseBody.toString(StandardCharsets.UTF_8));
         } finally {
             server.stop(0);
         }
@@ -173,10 +175,9 @@ class HospitalServiceProxyHandlerTest {
             handler.handle(mockHttpExchange);
 
             verify(mockHttpExchange).sendResponseHeaders(statusCodeCaptor.capture(), responseLengthCaptor.capture());
-            verify(mockResponseBody).write(responseBodyCaptor.capture());
             verify(mockResponseBody).close();
             assertEquals(200, statusCodeCaptor.getValue());
-            assertEquals(payload, new String(responseBodyCaptor.getValue(), StandardCharsets.UTF_8));
+            assertEquals(payload, mockResponseBody.toString(StandardCharsets.UTF_8));
         } finally {
             server.stop(0);
         }
@@ -195,10 +196,9 @@ class HospitalServiceProxyHandlerTest {
         handler.handle(mockHttpExchange);
 
         verify(mockHttpExchange).sendResponseHeaders(statusCodeCaptor.capture(), responseLengthCaptor.capture());
-        verify(mockResponseBody).write(responseBodyCaptor.capture());
         verify(mockResponseBody).close();
         assertEquals(502, statusCodeCaptor.getValue());
-        String body = new String(responseBodyCaptor.getValue(), StandardCharsets.UTF_8);
+        String body = mockResponseBody.toString(StandardCharsets.UTF_8);
         assertTrue(body.contains("Error al comunicarse con el servicio del hospital"));
     }
 
@@ -225,9 +225,8 @@ class HospitalServiceProxyHandlerTest {
 
             verify(mockResponseHeaders, atLeastOnce()).add(eq("Content-Type"), eq("application/json"));
             verify(mockHttpExchange).sendResponseHeaders(statusCodeCaptor.capture(), responseLengthCaptor.capture());
-            verify(mockResponseBody).write(responseBodyCaptor.capture());
             assertEquals(200, statusCodeCaptor.getValue());
-            assertEquals("{\"echo\":true}", new String(responseBodyCaptor.getValue(), StandardCharsets.UTF_8));
+            assertEquals("{\"echo\":true}", mockResponseBody.toString(StandardCharsets.UTF_8));
         } finally {
             server.stop(0);
         }
@@ -257,10 +256,9 @@ class HospitalServiceProxyHandlerTest {
             handler.handle(mockHttpExchange);
 
             verify(mockHttpExchange).sendResponseHeaders(statusCodeCaptor.capture(), responseLengthCaptor.capture());
-            verify(mockResponseBody).write(responseBodyCaptor.capture());
             verify(mockResponseBody).close();
             assertEquals(200, statusCodeCaptor.getValue());
-            assertEquals("abc123", new String(responseBodyCaptor.getValue(), StandardCharsets.UTF_8));
+            assertEquals("abc123", mockResponseBody.toString(StandardCharsets.UTF_8));
         } finally {
             server.stop(0);
         }
@@ -289,10 +287,80 @@ class HospitalServiceProxyHandlerTest {
             handler.handle(mockHttpExchange);
 
             verify(mockHttpExchange).sendResponseHeaders(statusCodeCaptor.capture(), responseLengthCaptor.capture());
-            verify(mockResponseBody).write(responseBodyCaptor.capture());
             verify(mockResponseBody).close();
             assertEquals(404, statusCodeCaptor.getValue());
-            assertEquals("{\"error\":\"missing\"}", new String(responseBodyCaptor.getValue(), StandardCharsets.UTF_8));
+            assertEquals("{\"error\":\"missing\"}", mockResponseBody.toString(StandardCharsets.UTF_8));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void handle_CachesHospitalRoute() throws Exception {
+        com.sun.net.httpserver.HttpServer server = com.sun.net.httpserver.HttpServer.create(new InetSocketAddress("localhost", ephemeralPort), 0);
+        server.createContext("/5/status", exchange -> {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_NO_CONTENT, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            Hospital hospital = new Hospital();
+            hospital.setPort(String.valueOf(ephemeralPort));
+            when(mockHospitalDAO.findById(5L)).thenReturn(hospital);
+            when(mockHttpExchange.getRequestURI()).thenReturn(URI.create("/api/hospital-proxy/5/status"));
+            when(mockHttpExchange.getRequestMethod()).thenReturn("GET");
+
+            handler.handle(mockHttpExchange);
+            handler.handle(mockHttpExchange);
+
+            verify(mockHospitalDAO, times(1)).findById(5L);
+            verify(mockHttpExchange, times(2)).sendResponseHeaders(204, -1);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void handle_LargeResponse_StreamedInChunks() throws Exception {
+        byte[] payload = new byte[5 * 1024 * 1024];
+        new java.util.Random(42).nextBytes(payload);
+        com.sun.net.httpserver.HttpServer server = com.sun.net.httpserver.HttpServer.create(new InetSocketAddress("localhost", ephemeralPort), 0);
+        server.createContext("/6/export", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+            // Sin longitud declarada: el hospital responde en chunks
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(payload);
+            }
+        });
+        server.createContext("/6/sized", exchange -> {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, payload.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(payload);
+            }
+        });
+        server.start();
+        try {
+            when(mockHospitalDAO.findById(6L)).thenReturn(new Hospital());
+            when(mockRequestHeaders.getFirst("X-Hospital-Port")).thenReturn(String.valueOf(ephemeralPort));
+            when(mockHttpExchange.getRequestURI()).thenReturn(URI.create("/api/hospital-proxy/6/export"));
+            when(mockHttpExchange.getRequestMethod()).thenReturn("GET");
+
+            handler.handle(mockHttpExchange);
+
+            verify(mockHttpExchange).sendResponseHeaders(200, 0L);
+            assertArrayEquals(payload, mockResponseBody.toByteArray());
+            ArgumentCaptor<Integer> lengths = ArgumentCaptor.forClass(Integer.class);
+            verify(mockResponseBody, atLeast(payload.length / HospitalServiceProxyHandler.TRANSFER_BUFFER_SIZE))
+                    .write(any(byte[].class), anyInt(), lengths.capture());
+            assertTrue(lengths.getAllValues().stream().allMatch(n -> n <= HospitalServiceProxyHandler.TRANSFER_BUFFER_SIZE));
+
+            mockResponseBody.reset();
+            when(mockHttpExchange.getRequestURI()).thenReturn(URI.create("/api/hospital-proxy/6/sized"));
+            handler.handle(mockHttpExchange);
+
+            verify(mockHttpExchange).sendResponseHeaders(200, (long) payload.length);
+            assertArrayEquals(payload, mockResponseBody.toByteArray());
         } finally {
             server.stop(0);
         }
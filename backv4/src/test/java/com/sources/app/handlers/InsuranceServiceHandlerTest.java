@@ -7,6 +7,8 @@ import com.sources.app.dao.CategoryDAO;
 import com.sources.app.dao.InsuranceServiceDAO;
 import com.sources.app.entities.Category;
 import com.sources.app.entities.InsuranceService;
+import com.sources.app.util.HospitalServiceCatalog;
+import com.sources.app.util.HospitalServiceDiscovery;
 import com.sources.app.util.HttpClientUtil;
 import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
@@ -16,7 +18,6 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -24,9 +25,9 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
@@ -56,15 +57,14 @@ class InsuranceServiceHandlerTest {
     private Headers mockRequestHeaders;
     @Mock
     private Headers mockResponseHeaders;
-    @Mock
-    private OutputStream mockResponseBody;
+    @Spy
+    private ByteArrayOutputStream mockResponseBody;
 
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
             .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
             .setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
 
-    @InjectMocks
     private InsuranceServiceHandler insuranceServiceHandler;
 
     @Captor
@@ -81,6 +81,8 @@ class InsuranceServiceHandlerTest {
     private static final String APPROVE_SVC_ENDPOINT = BASE_ENDPOINT + "/approve-hospital-service";
     private static final String REGISTER_SVC_ENDPOINT = BASE_ENDPOINT + "/register";
     private static final String REGISTER_MED_ENDPOINT = "/api/pharmacy-medications/register";
+    private static final List<String> HOSPITAL_URLS = List.of(
+            "http://localhost:5050/api/services/", "http://127.0.0.1:5050/api/services");
 
     private MockedStatic<HttpClientUtil> mockedHttpClientUtil;
 
@@ -92,6 +94,14 @@ class InsuranceServiceHandlerTest {
 
         // Mock static HttpClientUtil methods
         mockedHttpClientUtil = Mockito.mockStatic(HttpClientUtil.class);
+        // Ejecutor directo: los sondeos corren en este hilo, donde aplica el mock estático
+        HospitalServiceDiscovery discovery = new HospitalServiceDiscovery(HOSPITAL_URLS, HttpClientUtil::get,
+                Runnable::run, 60_000, 300, System::currentTimeMillis);
+        HospitalServiceCatalog catalog = new HospitalServiceCatalog(() -> {
+            HospitalServiceDiscovery.Result result = discovery.fetch();
+            return result == null ? null : result.body();
+        }, 60_000, 60_000, Runnable::run, System::currentTimeMillis);
+        insuranceServiceHandler = new InsuranceServiceHandler(mockInsuranceServiceDAO, mockCategoryDAO, catalog);
     }
 
     @AfterEach
@@ -138,21 +148,18 @@ class InsuranceServiceHandlerTest {
         mockedHttpClientUtil.when(() -> HttpClientUtil.get(anyString())).thenReturn(mockHospitalResponse);
 
         // Mock DAO check for existing services
-        when(mockInsuranceServiceDAO.findByExternalId("HOSP1")).thenReturn(Collections.emptyList());
-        InsuranceService existingService = new InsuranceService();
-        existingService.setIdInsuranceService(5L);
-        when(mockInsuranceServiceDAO.findByExternalId("HOSP2")).thenReturn(Collections.singletonList(existingService));
+        when(mockInsuranceServiceDAO.findByExternalIds(List.of("HOSP1", "HOSP2"))).thenReturn(Map.of("HOSP2", 5L));
 
         insuranceServiceHandler.handle(mockHttpExchange);
 
         mockedHttpClientUtil.verify(() -> HttpClientUtil.get(anyString()), times(1)); // Verify it tried at least one URL
-        verify(mockInsuranceServiceDAO).findByExternalId("HOSP1");
-        verify(mockInsuranceServiceDAO).findByExternalId("HOSP2");
-        verify(mockHttpExchange).sendResponseHeaders(eq(200), anyLong());
-        verify(mockResponseBody).write(responseBodyCaptor.capture());
+        verify(mockInsuranceServiceDAO).findByExternalIds(List.of("HOSP1", "HOSP2"));
+        verify(mockInsuranceServiceDAO, never()).findByExternalId(anyString());
+        long responseLength = mockResponseBody.size();
+        verify(mockHttpExchange).sendResponseHeaders(eq(200), eq(responseLength));
         verify(mockResponseBody).close();
 
-        String jsonResponse = new String(responseBodyCaptor.getValue(), StandardCharsets.UTF_8);
+        String jsonResponse = new String(mockResponseBody.toByteArray(), StandardCharsets.UTF_8);
         List<Map<String, Object>> responseList = objectMapper.readValue(jsonResponse, new TypeReference<List<Map<String, Object>>>() {
         });
 
@@ -170,6 +177,30 @@ class InsuranceServiceHandlerTest {
         assertEquals(5L, ((Number) responseList.get(1).get("insuranceServiceId")).longValue());
     }
 
+    @Test
+    void handleGetHospitalServices_LargeCatalog_ResolvesImportStatusInOneLookup() throws IOException {
+        when(mockHttpExchange.getRequestURI()).thenReturn(URI.create(HOSPITAL_SVC_ENDPOINT));
+        when(mockHttpExchange.getRequestMethod()).thenReturn("GET");
+        StringBuilder catalog = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) {
+            catalog.append(i == 0 ? "" : ",").append("{\"id\": \"HOSP").append(i).append("\"}");
+        }
+        mockedHttpClientUtil.when(() -> HttpClientUtil.get(anyString())).thenReturn(catalog.append("]").toString());
+        when(mockInsuranceServiceDAO.findByExternalIds(anyList())).thenReturn(Map.of("HOSP7", 70L));
+
+        insuranceServiceHandler.handle(mockHttpExchange);
+
+        verify(mockInsuranceServiceDAO, times(1)).findByExternalIds(anyList());
+        verify(mockInsuranceServiceDAO, never()).findByExternalId(anyString());
+        List<Map<String, Object>> responseList = objectMapper.readValue(mockResponseBody.toByteArray(),
+                new TypeReference<List<Map<String, Object>>>() {
+                });
+        assertEquals(500, responseList.size());
+        assertEquals(true, responseList.get(7).get("imported"));
+        assertEquals(70L, ((Number) responseList.get(7).get("insuranceServiceId")).longValue());
+        assertEquals(false, responseList.get(8).get("imported"));
+    }
+
     @Test
     void handleGetHospitalServices_HttpClientFails_SendsServiceUnavailable() throws IOException {
         when(mockHttpExchange.getRequestURI()).thenReturn(URI.create(HOSPITAL_SVC_ENDPOINT));
@@ -203,6 +234,28 @@ class InsuranceServiceHandlerTest {
         verify(mockResponseBody).close();
     }
 
+    @Test
+    void handleGetHospitalServices_ServesCachedCatalogUntilInvalidated() throws IOException {
+        when(mockHttpExchange.getRequestURI()).thenReturn(URI.create(HOSPITAL_SVC_ENDPOINT));
+        when(mockHttpExchange.getRequestMethod()).thenReturn("GET");
+        mockedHttpClientUtil.when(() -> HttpClientUtil.get(anyString())).thenReturn("[{\"id\": \"HOSP1\"}]");
+        when(mockInsuranceServiceDAO.findByExternalIds(List.of("HOSP1"))).thenReturn(Map.of());
+
+        insuranceServiceHandler.handle(mockHttpExchange);
+        insuranceServiceHandler.handle(mockHttpExchange);
+        mockedHttpClientUtil.verify(() -> HttpClientUtil.get(anyString()), times(1));
+
+        when(mockHttpExchange.getRequestURI()).thenReturn(URI.create(HOSPITAL_SVC_ENDPOINT + "/cache"));
+        when(mockHttpExchange.getRequestMethod()).thenReturn("DELETE");
+        insuranceServiceHandler.handle(mockHttpExchange);
+        verify(mockHttpExchange).sendResponseHeaders(204, -1);
+
+        when(mockHttpExchange.getRequestURI()).thenReturn(URI.create(HOSPITAL_SVC_ENDPOINT));
+        when(mockHttpExchange.getRequestMethod()).thenReturn("GET");
+        insuranceServiceHandler.handle(mockHttpExchange);
+        mockedHttpClientUtil.verify(() -> HttpClientUtil.get(anyString()), times(2));
+    }
+
     // --- POST /approve-hospital-service Tests ---
     @Test
     void handleApproveHospitalService_CreateNewService_Success() throws IOException {
@@ -334,7 +387,7 @@ class InsuranceServiceHandlerTest {
 
         verify(mockCategoryDAO).findById(catId);
         verify(mockInsuranceServiceDAO).findByCategory(category);
-        verifyResponseSent(200, expectedBytes);
+        verifyStreamedResponseSent(200, expectedBytes);
     }
 
     @Test
@@ -604,7 +657,7 @@ class InsuranceServiceHandlerTest {
         insuranceServiceHandler.handle(mockHttpExchange);
 
         verify(mockInsuranceServiceDAO).findAll();
-        verifyResponseSent(200, expectedBytes);
+        verifyStreamedResponseSent(200, expectedBytes);
     }
 
     @Test
@@ -710,4 +763,12 @@ class InsuranceServiceHandlerTest {
         assertArrayEquals(expectedBodyBytes, responseBodyCaptor.getValue());
         assertEquals((long) expectedBodyBytes.length, responseLengthCaptor.getValue());
     }
+
+    // Helper method to verify a JSON list streamed with chunked transfer
+    private void verifyStreamedResponseSent(int expectedStatusCode, byte[] expectedBodyBytes) throws IOException {
+        verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
+        verify(mockHttpExchange).sendResponseHeaders(eq(expectedStatusCode), eq((long) expectedBodyBytes.length));
+        verify(mockResponseBody).close();
+        assertArrayEquals(expectedBodyBytes, mockResponseBody.toByteArray());
+    }
 }
@@ -19,9 +19,9 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
@@ -47,8 +47,8 @@ class MedicineHandlerTest {
     private Headers mockRequestHeaders;
     @Mock
     private Headers mockResponseHeaders;
-    @Mock
-    private OutputStream mockResponseBody;
+    @Spy
+    private ByteArrayOutputStream mockResponseBody;
 
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
@@ -118,7 +118,7 @@ class MedicineHandlerTest {
         medicineHandler.handle(mockHttpExchange);
 
         verify(mockMedicineDAO).findAll();
-        verifyResponseSent(200, expectedBytes);
+        verifyStreamedResponseSent(200, expectedBytes);
     }
 
     @Test
@@ -174,7 +174,7 @@ class MedicineHandlerTest {
         medicineHandler.handle(mockHttpExchange);
 
         verify(mockMedicineDAO).findAll();
-        verifyResponseSent(200, expectedBytes);
+        verifyStreamedResponseSent(200, expectedBytes);
     }
 
     @Test
@@ -317,4 +317,12 @@ class MedicineHandlerTest {
         assertArrayEquals(expectedBodyBytes, responseBodyCaptor.getValue());
         assertEquals((long) expectedBodyBytes.length, responseLengthCaptor.getValue());
     }
+
+    // Helper method to verify a JSON list streamed with chunked transfer
+    private void verifyStreamedResponseSent(int expectedStatusCode, byte[] expectedBodyBytes) throws IOException {
+        verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
+        verify(mockHttpExchange).sendResponseHeaders(eq(expectedStatusCode), eq((long) expectedBodyBytes.length));
+        verify(mockResponseBody).close();
+        assertArrayEquals(expectedBodyBytes, mockResponseBody.toByteArray());
+    }
 }
@@ -2,6 +2,7 @@ package com.sources.app.handlers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sources.app.dao.KeysetPage;
 import com.sources.app.dao.PolicyDAO;
 import com.sources.app.entities.Policy;
 import com.sun.net.httpserver.Headers;
@@ -18,9 +19,9 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
@@ -32,6 +33,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -46,8 +48,8 @@ class PolicyHandlerTest {
     private Headers mockRequestHeaders;
     @Mock
     private Headers mockResponseHeaders;
-    @Mock
-    private OutputStream mockResponseBody;
+    @Spy
+    private ByteArrayOutputStream mockResponseBody;
 
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
@@ -118,7 +120,49 @@ class PolicyHandlerTest {
         policyHandler.handle(mockHttpExchange);
 
         verify(mockPolicyDAO).findAll();
-        verifyResponseSent(200, expectedBytes);
+        verifyStreamedResponseSent(200, expectedBytes);
+    }
+
+    @Test
+    void handleGet_Page_SendsItemsAndNextCursor() throws IOException {
+        when(mockHttpExchange.getRequestMethod()).thenReturn("GET");
+        when(mockHttpExchange.getRequestURI()).thenReturn(URI.create(API_ENDPOINT + "?limit=2"));
+        Policy first = new Policy(); first.setIdPolicy(1L);
+        Policy second = new Policy(); second.setIdPolicy(2L);
+        List<Policy> policies = Arrays.asList(first, second);
+        when(mockPolicyDAO.findPage(null, 2)).thenReturn(new KeysetPage<>(policies, "2"));
+        byte[] expectedBytes = objectMapper.writeValueAsString(policies).getBytes(StandardCharsets.UTF_8);
+
+        policyHandler.handle(mockHttpExchange);
+
+        verify(mockPolicyDAO, never()).findAll();
+        verify(mockResponseHeaders).set(KeysetPagination.NEXT_CURSOR_HEADER, "2");
+        verify(mockResponseHeaders).set("Link", "<" + API_ENDPOINT + "?limit=2&after=2>; rel=\"next\"");
+        verifyStreamedResponseSent(200, expectedBytes);
+    }
+
+    @Test
+    void handleGet_LastPage_SendsNoNextCursor() throws IOException {
+        when(mockHttpExchange.getRequestMethod()).thenReturn("GET");
+        when(mockHttpExchange.getRequestURI()).thenReturn(URI.create(API_ENDPOINT + "?after=2"));
+        when(mockPolicyDAO.findPage("2", KeysetPagination.DEFAULT_LIMIT))
+                .thenReturn(new KeysetPage<>(Collections.emptyList(), null));
+
+        policyHandler.handle(mockHttpExchange);
+
+        verify(mockResponseHeaders, never()).set(eq(KeysetPagination.NEXT_CURSOR_HEADER), anyString());
+        verifyStreamedResponseSent(200, "[]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void handleGet_Page_InvalidLimit_SendsBadRequest() throws IOException {
+        when(mockHttpExchange.getRequestMethod()).thenReturn("GET");
+        when(mockHttpExchange.getRequestURI()).thenReturn(URI.create(API_ENDPOINT + "?limit=abc"));
+
+        policyHandler.handle(mockHttpExchange);
+
+        verify(mockHttpExchange).sendResponseHeaders(eq(400), anyLong());
+        verifyNoInteractions(mockPolicyDAO);
     }
 
     @Test
@@ -312,4 +356,12 @@ class PolicyHandlerTest {
         assertArrayEquals(expectedBodyBytes, responseBodyCaptor.getValue());
         assertEquals((long)expectedBodyBytes.length, responseLengthCaptor.getValue());
     }
+
+    // Helper method to verify a JSON list streamed with chunked transfer
+    private void verifyStreamedResponseSent(int expectedStatusCode, byte[] expectedBodyBytes) throws IOException {
+        verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
+        verify(mockHttpExchange).sendResponseHeaders(eq(expectedStatusCode), eq((long) expectedBodyBytes.length));
+        verify(mockResponseBody).close();
+        assertArrayEquals(expectedBodyBytes, mockResponseBody.toByteArray());
+    }
 } 
\ No newline at end of file
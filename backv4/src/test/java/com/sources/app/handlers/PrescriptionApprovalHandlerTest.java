@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.ConfigurableAmountDAO;
 import com.sources.app.dao.PrescriptionApprovalDAO;
+import com.sources.app.dao.ResultStreamConsumer;
 import com.sources.app.dao.UserDAO;
 import com.sources.app.entities.ConfigurableAmount;
 import com.sources.app.entities.PrescriptionApproval;
@@ -22,9 +23,9 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
@@ -55,8 +56,8 @@ class PrescriptionApprovalHandlerTest {
     private Headers mockRequestHeaders;
     @Mock
     private Headers mockResponseHeaders;
-    @Mock
-    private OutputStream mockResponseBody;
+    @Spy
+    private ByteArrayOutputStream mockResponseBody;
 
     @Spy
     private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
@@ -146,14 +147,17 @@ class PrescriptionApprovalHandlerTest {
         when(mockHttpExchange.getRequestURI()).thenReturn(URI.create(GET_APPROVALS_ENDPOINT));
         when(mockHttpExchange.getRequestMethod()).thenReturn("GET");
         List<PrescriptionApproval> approvals = Arrays.asList(new PrescriptionApproval(), new PrescriptionApproval());
-        when(mockApprovalDAO.findAll()).thenReturn(approvals);
+        doAnswer(invocation -> {
+            invocation.<ResultStreamConsumer<PrescriptionApproval>>getArgument(0).accept(approvals.stream());
+            return null;
+        }).when(mockApprovalDAO).streamAll(any());
         String expectedJson = objectMapper.writeValueAsString(approvals);
         byte[] expectedBytes = expectedJson.getBytes(StandardCharsets.UTF_8);
 
         handler.handle(mockHttpExchange);
 
-        verify(mockApprovalDAO).findAll();
-        verifyResponseSent(200, expectedBytes);
+        verify(mockApprovalDAO).streamAll(any());
+        verifyStreamedResponseSent(200, expectedBytes);
     }
     
      @Test
@@ -169,7 +173,7 @@ class PrescriptionApprovalHandlerTest {
         handler.handle(mockHttpExchange);
 
         verify(mockApprovalDAO).findByUserId(userId);
-        verifyResponseSent(200, expectedBytes);
+        verifyStreamedResponseSent(200, expectedBytes);
     }
     
      @Test
@@ -330,4 +334,12 @@ class PrescriptionApprovalHandlerTest {
         assertArrayEquals(expectedBodyBytes, responseBodyCaptor.getValue());
         assertEquals((long)expectedBodyBytes.length, responseLengthCaptor.getValue());
     }
+
+    // Helper method to verify a JSON list streamed with chunked transfer
+    private void verifyStreamedResponseSent(int expectedStatusCode, byte[] expectedBodyBytes) throws IOException {
+        verify(mockResponseHeaders).set(eq("Content-Type"), eq("application/json"));
+        verify(mockHttpExchange).sendResponseHeaders(eq(expectedStatusCode), eq((long) expectedBodyBytes.length));
+        verify(mockResponseBody).close();
+        assertArrayEquals(expectedBodyBytes, mockResponseBody.toByteArray());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.sources.app.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.prometheus.client.Collector.MetricFamilySamples;
+
+class CacheMetricsCollectorTest {
+
+    public interface CacheStats {
+        long getCacheHits();
+
+        long getCacheMisses();
+
+        long getCachePuts();
+
+        long getCacheEvictions();
+    }
+
+    private MBeanServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = MBeanServerFactory.newMBeanServer();
+    }
+
+    @Test
+    void collect_ExportsCountersPerCache() throws Exception {
+        register("managerA", "category", 10, 2, 3, 1);
+        register("managerB", "category", 5, 1, 1, 0);
+        register("managerA", "hospital", 7, 4, 4, 2);
+
+        List<MetricFamilySamples> families = new CacheMetricsCollector(server).collect();
+
+        assertEquals(15.0, value(families, "ensurance_cache_hits", "category"));
+        assertEquals(3.0, value(families, "ensurance_cache_misses", "category"));
+        assertEquals(4.0, value(families, "ensurance_cache_puts", "category"));
+        assertEquals(1.0, value(families, "ensurance_cache_evictions", "category"));
+        assertEquals(7.0, value(families, "ensurance_cache_hits", "hospital"));
+        assertEquals(2.0, value(families, "ensurance_cache_evictions", "hospital"));
+    }
+
+    @Test
+    void collect_NoCachesRegistered() {
+        List<MetricFamilySamples> families = new CacheMetricsCollector(server).collect();
+
+        assertEquals(4, families.size());
+        assertTrue(families.stream().allMatch(f -> f.samples.isEmpty()));
+    }
+
+    private void register(String manager, String cache, long hits, long misses, long puts, long evictions)
+            throws Exception {
+        CacheStats stats = new CacheStats() {
+            @Override
+            public long getCacheHits() {
+                return hits;
+            }
+
+            @Override
+            public long getCacheMisses() {
+                return misses;
+            }
+
+            @Override
+            public long getCachePuts() {
+                return puts;
+            }
+
+            @Override
+            public long getCacheEvictions() {
+                return evictions;
+            }
+        };
+        ObjectName name = new ObjectName("javax.cache:type=CacheStatistics,CacheManager=" + manager + ",Cache=" + cache);
+        server.registerMBean(new StandardMBean(stats, CacheStats.class), name);
+    }
+
+    private static double value(List<MetricFamilySamples> families, String family, String cache) {
+        return families.stream()
+                .filter(f -> f.name.equals(family))
+                .flatMap(f -> f.samples.stream())
+                .filter(s -> s.labelValues.equals(List.of(cache)))
+                .findFirst()
+                .orElseThrow()
+                .value;
+    }
+}
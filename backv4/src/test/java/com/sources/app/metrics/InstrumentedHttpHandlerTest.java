@@ -0,0 +1,165 @@
+package com.sources.app.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.DoubleSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+
+class InstrumentedHttpHandlerTest {
+
+    private static final String CONTEXT = "/api/metrics-test";
+
+    private HttpServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(CONTEXT, InstrumentedHttpHandler.of(CONTEXT, exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            if (exchange.getRequestURI().getPath().endsWith("/missing")) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if ("DELETE".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (exchange.getRequestURI().getPath().contains("/bad")) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            byte[] body = "hello".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void handle_RecordsMetricsUnderRouteTemplate() throws Exception {
+        String route = CONTEXT + "/{id}/details";
+        double before = sample("ensurance_http_requests_total", route, "POST", "200");
+
+        send("POST", CONTEXT + "/42/details", "abc");
+        send("POST", CONTEXT + "/43/details", "abcd");
+
+        awaitSample(before + 2, () -> sample("ensurance_http_requests_total", route, "POST", "200"));
+        assertEquals(2, sample("ensurance_http_request_duration_seconds_count", route, "POST"));
+        assertEquals(7, sample("ensurance_http_request_size_bytes_sum", route, "POST"));
+        assertEquals(10, sample("ensurance_http_response_size_bytes_sum", route, "POST"));
+        assertEquals(0, CollectorRegistry.defaultRegistry.getSampleValue("ensurance_http_inflight_requests",
+                new String[]{"path"}, new String[]{CONTEXT}));
+    }
+
+    @Test
+    void handle_NotFound_IsLabeledWithContextPath() throws Exception {
+        double before = sample("ensurance_http_requests_total", CONTEXT, "GET", "404");
+
+        send("GET", CONTEXT + "/missing", "");
+
+        awaitSample(before + 1, () -> sample("ensurance_http_requests_total", CONTEXT, "GET", "404"));
+    }
+
+    @Test
+    void handle_ClientErrorsOnRandomPaths_DoNotCreateNewRouteLabels() throws Exception {
+        Random random = new Random(42);
+        double before400 = sample("ensurance_http_requests_total", CONTEXT, "GET", "400");
+        double before405 = sample("ensurance_http_requests_total", CONTEXT, "DELETE", "405");
+
+        for (int i = 0; i < 25; i++) {
+            send("GET", CONTEXT + "/bad" + word(random) + "/" + word(random), "");
+            send("DELETE", CONTEXT + "/" + word(random), "");
+        }
+
+        awaitSample(before400 + 25, () -> sample("ensurance_http_requests_total", CONTEXT, "GET", "400"));
+        awaitSample(before405 + 25, () -> sample("ensurance_http_requests_total", CONTEXT, "DELETE", "405"));
+        Set<String> routes = new HashSet<>();
+        for (Collector.MetricFamilySamples family : Collections.list(CollectorRegistry.defaultRegistry.metricFamilySamples())) {
+            for (Collector.MetricFamilySamples.Sample sample : family.samples) {
+                int path = sample.labelNames.indexOf("path");
+                if (path >= 0 && sample.labelValues.get(path).startsWith(CONTEXT + "/bad")) {
+                    routes.add(sample.labelValues.get(path));
+                }
+            }
+        }
+        assertEquals(Set.of(), routes);
+    }
+
+    @Test
+    void routeTemplate_ReplacesIdentifiersAndBoundsDepth() {
+        assertEquals("/api/insurance-services", InstrumentedHttpHandler.routeTemplate("/api/insurance-services", "/api/insurance-services"));
+        assertEquals("/api/insurance-services/{id}", InstrumentedHttpHandler.routeTemplate("/api/insurance-services", "/api/insurance-services/5"));
+        assertEquals("/api/users/by-email/{id}", InstrumentedHttpHandler.routeTemplate("/api/users/by-email/", "/api/users/by-email/ana@example.com"));
+        assertEquals("/api/prescriptions/approvals", InstrumentedHttpHandler.routeTemplate("/api/prescriptions/", "/api/prescriptions/approvals"));
+        assertEquals("/api/hospital-proxy/{id}/api/**", InstrumentedHttpHandler.routeTemplate("/api/hospital-proxy", "/api/hospital-proxy/3/api/services/9"));
+        assertEquals("/api/items/{param}", InstrumentedHttpHandler.routeTemplate("/api/items", "/api/items/Some%20Thing"));
+        assertEquals("/api/items/{id}", InstrumentedHttpHandler.routeTemplate("/api/items", "/api/items/0f8fad5b-d9cb-469f-a165-70867728950e"));
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    private void send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        client.send(request, HttpResponse.BodyHandlers.discarding());
+    }
+
+    /**
+     * The client can see the response before the handler's finally block has
+     * recorded it, so poll briefly for the expected value.
+     */
+    private static void awaitSample(double expected, DoubleSupplier sample) throws InterruptedException {
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (sample.getAsDouble() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, sample.getAsDouble());
+    }
+
+    private static double sample(String name, String path, String method) {
+        Double value = CollectorRegistry.defaultRegistry.getSampleValue(name,
+                new String[]{"path", "method"}, new String[]{path, method});
+        return value == null ? 0 : value;
+    }
+
+    private static double sample(String name, String path, String method, String status) {
+        Double value = CollectorRegistry.defaultRegistry.getSampleValue(name,
+                new String[]{"path", "method", "status"}, new String[]{path, method, status});
+        return value == null ? 0 : value;
+    }
+}
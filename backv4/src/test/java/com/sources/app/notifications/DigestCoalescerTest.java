@@ -0,0 +1,150 @@
+package com.sources.app.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class DigestCoalescerTest {
+
+    private static final long LONG_WINDOW_MILLIS = 60_000;
+    private static final int RECIPIENTS = 100;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private EmailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = mock(EmailDispatcher.class);
+        when(dispatcher.submit(any(OutgoingEmail.class))).thenReturn(true);
+        when(dispatcher.hasCapacity()).thenReturn(true);
+        when(dispatcher.store(any(OutgoingEmail.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void burstToOneRecipient_IsSentAsOneDigest() {
+        DigestCoalescer coalescer = new DigestCoalescer(dispatcher, LONG_WINDOW_MILLIS, 50, RECIPIENTS, scheduler);
+        coalescer.add(new OutgoingEmail("ana@example.com", "Aprobación 1", "Servicio 1 aprobado"));
+        coalescer.add(new OutgoingEmail("ANA@example.com ", "Aprobación 2", "Servicio 2 aprobado"));
+        coalescer.add(new OutgoingEmail("ana@example.com", "Aprobación 3", "Servicio 3 aprobado"));
+        coalescer.add(new OutgoingEmail("luis@example.com", "Aviso", "Solo uno"));
+
+        verify(dispatcher, never()).submit(any());
+        coalescer.flushAll();
+
+        ArgumentCaptor<OutgoingEmail> sent = ArgumentCaptor.forClass(OutgoingEmail.class);
+        verify(dispatcher, times(2)).submit(sent.capture());
+        OutgoingEmail digest = sent.getAllValues().stream()
+                .filter(email -> email.to().equals("ana@example.com")).findFirst().orElseThrow();
+        assertEquals("Resumen de 3 notificaciones", digest.subject());
+        assertTrue(digest.body().contains("1. Aprobación 1\nServicio 1 aprobado"));
+        assertTrue(digest.body().contains("3. Aprobación 3\nServicio 3 aprobado"));
+        assertTrue(sent.getAllValues().contains(new OutgoingEmail("luis@example.com", "Aviso", "Solo uno")));
+        assertEquals(0, coalescer.pendingRecipients());
+    }
+
+    @Test
+    void window_FlushesOnItsOwn() {
+        DigestCoalescer coalescer = new DigestCoalescer(dispatcher, 50, 50, RECIPIENTS, scheduler);
+        coalescer.add(new OutgoingEmail("ana@example.com", "A", "1"));
+        coalescer.add(new OutgoingEmail("ana@example.com", "B", "2"));
+
+        ArgumentCaptor<OutgoingEmail> sent = ArgumentCaptor.forClass(OutgoingEmail.class);
+        verify(dispatcher, timeout(2_000)).submit(sent.capture());
+        assertEquals("Resumen de 2 notificaciones", sent.getValue().subject());
+    }
+
+    @Test
+    void fullWindow_IsSentWithoutWaitingAndANewOneOpens() {
+        DigestCoalescer coalescer = new DigestCoalescer(dispatcher, LONG_WINDOW_MILLIS, 2, RECIPIENTS, scheduler);
+        coalescer.add(new OutgoingEmail("ana@example.com", "A", "1"));
+        coalescer.add(new OutgoingEmail("ana@example.com", "B", "2"));
+        coalescer.add(new OutgoingEmail("ana@example.com", "C", "3"));
+
+        verify(dispatcher, times(1)).submit(any());
+        assertEquals(1, coalescer.pendingRecipients());
+        coalescer.flushAll();
+        verify(dispatcher).submit(new OutgoingEmail("ana@example.com", "C", "3"));
+    }
+
+    @Test
+    void fullQueueOrTooManyRecipients_RejectsTheNotification() {
+        DigestCoalescer coalescer = new DigestCoalescer(dispatcher, LONG_WINDOW_MILLIS, 50, 2, scheduler);
+        assertTrue(coalescer.add(new OutgoingEmail("ana@example.com", "A", "1")));
+        assertTrue(coalescer.add(new OutgoingEmail("luis@example.com", "B", "2")));
+
+        assertFalse(coalescer.add(new OutgoingEmail("eva@example.com", "C", "3")));
+        verify(dispatcher).discard(new OutgoingEmail("eva@example.com", "C", "3"));
+        assertTrue(coalescer.add(new OutgoingEmail("ana@example.com", "D", "4")));
+        assertEquals(2, coalescer.pendingRecipients());
+
+        when(dispatcher.hasCapacity()).thenReturn(false);
+        assertFalse(coalescer.add(new OutgoingEmail("ana@example.com", "E", "5")));
+    }
+
+    @Test
+    void rejectedDigest_ReturnsToTheRecipientWindow() {
+        DigestCoalescer coalescer = new DigestCoalescer(dispatcher, LONG_WINDOW_MILLIS, 50, RECIPIENTS, scheduler);
+        coalescer.add(new OutgoingEmail("ana@example.com", "A", "1"));
+        coalescer.add(new OutgoingEmail("ana@example.com", "B", "2"));
+        when(dispatcher.submit(any(OutgoingEmail.class))).thenReturn(false);
+
+        coalescer.flushAll();
+        assertEquals(1, coalescer.pendingRecipients());
+
+        coalescer.add(new OutgoingEmail("ana@example.com", "C", "3"));
+        when(dispatcher.submit(any(OutgoingEmail.class))).thenReturn(true);
+        coalescer.flushAll();
+
+        ArgumentCaptor<OutgoingEmail> sent = ArgumentCaptor.forClass(OutgoingEmail.class);
+        verify(dispatcher, times(2)).submit(sent.capture());
+        OutgoingEmail digest = sent.getAllValues().get(1);
+        assertEquals("Resumen de 3 notificaciones", digest.subject());
+        assertTrue(digest.body().indexOf("1. A") < digest.body().indexOf("3. C"));
+        assertEquals(0, coalescer.pendingRecipients());
+    }
+
+    @Test
+    void rejectedDigest_StaysInTheOutboxWhenTheDispatcherIsClosing() {
+        DigestCoalescer coalescer = new DigestCoalescer(dispatcher, LONG_WINDOW_MILLIS, 50, RECIPIENTS, scheduler);
+        coalescer.add(new OutgoingEmail("ana@example.com", "A", "1"));
+        when(dispatcher.submit(any(OutgoingEmail.class))).thenReturn(false);
+        when(dispatcher.isClosed()).thenReturn(true);
+
+        coalescer.flushAll();
+
+        assertEquals(0, coalescer.pendingRecipients());
+        verify(dispatcher, never()).discard(any());
+    }
+
+    @Test
+    void digest_ListsNotificationsInArrivalOrder() {
+        OutgoingEmail digest = DigestCoalescer.digest(List.of(
+                new OutgoingEmail("ana@example.com", "Primera", "uno", List.of(7L)),
+                new OutgoingEmail("ana@example.com", "Segunda", "dos", List.of(9L))));
+
+        assertEquals("ana@example.com", digest.to());
+        assertEquals(List.of(7L, 9L), digest.outboxIds());
+        assertEquals("Tienes 2 notificaciones nuevas:\n\n1. Primera\nuno\n\n2. Segunda\ndos\n", digest.body());
+    }
+}
@@ -0,0 +1,205 @@
+package com.sources.app.notifications;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sources.app.dao.EmailOutboxDAO;
+import com.sources.app.entities.EmailOutbox;
+import com.sources.app.metrics.MetricsConfiguration;
+import com.sources.app.util.HibernateUtil;
+
+class EmailDispatcherTest {
+
+    private final FakeSmtpServer smtp = new FakeSmtpServer("nobody@example.com");
+    private EmailDispatcher dispatcher;
+    private SessionFactory sessionFactory;
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.shutdown(5_000);
+        }
+        smtp.close();
+        if (sessionFactory != null) {
+            HibernateUtil.setSessionFactory(null);
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    void queuedEmails_AreSentInOneBatchOverOneConnection() throws Exception {
+        dispatcher = dispatcher(1, 3);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(dispatcher.submit(new OutgoingEmail("user" + i + "@example.com", "Aviso " + i, "Cuerpo " + i)));
+        }
+
+        dispatcher.start();
+
+        assertTrue(smtp.awaitMessages(5, 5_000));
+        assertEquals(1, smtp.connections());
+        assertTrue(smtp.messages().get(0).contains("Subject: Aviso 0"));
+        assertTrue(smtp.messages().get(0).contains("Cuerpo 0"));
+    }
+
+    @Test
+    void transientFailure_IsRetriedOnANewConnection() throws Exception {
+        double retries = deliveries("retry");
+        smtp.failNextData(1);
+        dispatcher = dispatcher(1, 3);
+        dispatcher.start();
+
+        dispatcher.submit(new OutgoingEmail("user@example.com", "Reintento", "Cuerpo"));
+
+        assertTrue(smtp.awaitMessages(1, 5_000));
+        assertEquals(1, deliveries("retry") - retries);
+        assertEquals(2, smtp.connections());
+    }
+
+    @Test
+    void permanentRejection_IsNotRetriedAndDoesNotBlockOthers() throws Exception {
+        double retries = deliveries("retry");
+        double failed = deliveries("failed");
+        dispatcher = dispatcher(1, 3);
+        dispatcher.submit(new OutgoingEmail("nobody@example.com", "Rechazado", "Cuerpo"));
+        dispatcher.submit(new OutgoingEmail("user@example.com", "Aceptado", "Cuerpo"));
+
+        dispatcher.start();
+
+        assertTrue(smtp.awaitMessages(1, 5_000));
+        assertTrue(dispatcher.shutdown(5_000));
+        assertEquals(1, smtp.messages().size());
+        assertTrue(smtp.messages().get(0).contains("Subject: Aceptado"));
+        assertEquals(1, deliveries("failed") - failed);
+        assertEquals(0, deliveries("retry") - retries);
+    }
+
+    @Test
+    void fullQueue_RejectsSubmit() {
+        dispatcher = new EmailDispatcher(mailProperties(), 1, 10, 1, 3, 10, 30_000);
+
+        assertTrue(dispatcher.submit(new OutgoingEmail("a@example.com", "S", "B")));
+        assertFalse(dispatcher.submit(new OutgoingEmail("b@example.com", "S", "B")));
+        assertEquals(1, dispatcher.queueDepth());
+    }
+
+    @Test
+    void shutdown_DrainsQueueAndRejectsNewEmails() throws Exception {
+        dispatcher = dispatcher(2, 3);
+        dispatcher.start();
+        for (int i = 0; i < 10; i++) {
+            dispatcher.submit(new OutgoingEmail("user" + i + "@example.com", "S", "B"));
+        }
+
+        assertTrue(dispatcher.shutdown(5_000));
+
+        assertEquals(10, smtp.messages().size());
+        assertFalse(dispatcher.submit(new OutgoingEmail("late@example.com", "S", "B")));
+    }
+
+    @Test
+    void outbox_PendingEmailsSurviveARestartAndAreDeletedOnceSent() throws Exception {
+        EmailOutboxDAO outbox = outbox();
+        EmailDispatcher crashed = new EmailDispatcher(mailProperties(), outbox, 1, 20, 100, 3, 10, 30_000);
+        assertTrue(crashed.submit(new OutgoingEmail("a@example.com", "Uno", "B")));
+        assertTrue(crashed.submit(new OutgoingEmail("b@example.com", "Dos", "B")));
+        // Nunca arrancó: la cola en memoria se pierde, el outbox no
+        assertFalse(crashed.shutdown(100));
+        assertEquals(2, outbox.findPending().size());
+
+        dispatcher = new EmailDispatcher(mailProperties(), outbox, 1, 20, 100, 3, 10, 30_000);
+        dispatcher.start();
+
+        assertTrue(smtp.awaitMessages(2, 5_000));
+        assertTrue(dispatcher.shutdown(5_000));
+        assertTrue(smtp.messages().get(0).contains("Subject: Uno"));
+        assertEquals(0, rows());
+    }
+
+    @Test
+    void outbox_UndeliverableEmailsAreKeptAsFailed() throws Exception {
+        EmailOutboxDAO outbox = outbox();
+        dispatcher = new EmailDispatcher(mailProperties(), outbox, 1, 20, 100, 3, 10, 30_000);
+        dispatcher.submit(new OutgoingEmail("nobody@example.com", "Rechazado", "Cuerpo"));
+        dispatcher.submit(new OutgoingEmail("user@example.com", "Aceptado", "Cuerpo"));
+
+        dispatcher.start();
+
+        assertTrue(smtp.awaitMessages(1, 5_000));
+        assertTrue(dispatcher.shutdown(5_000));
+        assertEquals(List.of(), outbox.findPending());
+        try (Session session = sessionFactory.openSession()) {
+            EmailOutbox failed = session.createQuery("FROM EmailOutbox", EmailOutbox.class).getSingleResult();
+            assertEquals(EmailOutbox.FAILED, failed.getStatus());
+            assertEquals("nobody@example.com", failed.getRecipient());
+            assertEquals(1, failed.getAttempts());
+            assertNotNull(failed.getLastError());
+        }
+    }
+
+    @Test
+    void isConfigured_RequiresHostPortSenderAndPasswordWithAuth() {
+        Properties props = mailProperties();
+        assertTrue(new EmailDispatcher(props, 1, 1, 1, 1, 1, 1).isConfigured());
+
+        props.setProperty("mail.smtp.auth", "true");
+        assertFalse(new EmailDispatcher(props, 1, 1, 1, 1, 1, 1).isConfigured());
+
+        props.setProperty("mail.sender.password", "secret");
+        assertTrue(new EmailDispatcher(props, 1, 1, 1, 1, 1, 1).isConfigured());
+
+        props.remove("mail.smtp.host");
+        assertFalse(new EmailDispatcher(props, 1, 1, 1, 1, 1, 1).isConfigured());
+    }
+
+    private EmailOutboxDAO outbox() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(EmailOutbox.class)
+                .setProperty("hibernate.connection.driver_class", "org.sqlite.JDBC")
+                .setProperty("hibernate.connection.url", "jdbc:sqlite:" + dir.resolve("outbox.sqlite"))
+                .setProperty("hibernate.dialect", "org.hibernate.community.dialect.SQLiteDialect")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .buildSessionFactory();
+        HibernateUtil.setSessionFactory(sessionFactory);
+        return new EmailOutboxDAO();
+    }
+
+    private long rows() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("SELECT count(e) FROM EmailOutbox e", Long.class).getSingleResult();
+        }
+    }
+
+    private EmailDispatcher dispatcher(int workers, int maxAttempts) {
+        return new EmailDispatcher(mailProperties(), workers, 20, 100, maxAttempts, 10, 30_000);
+    }
+
+    private Properties mailProperties() {
+        Properties props = new Properties();
+        props.setProperty("mail.smtp.host", "127.0.0.1");
+        props.setProperty("mail.smtp.port", String.valueOf(smtp.port()));
+        props.setProperty("mail.smtp.auth", "false");
+        props.setProperty("mail.smtp.starttls.enable", "false");
+        props.setProperty("mail.sender.email", "sender@example.com");
+        return props;
+    }
+
+    private static double deliveries(String result) {
+        return MetricsConfiguration.EMAIL_DELIVERIES_TOTAL.labels(result).get();
+    }
+}
@@ -0,0 +1,145 @@
+package com.sources.app.notifications;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP mínimo en local para las pruebas: acepta todo salvo los
+ * destinatarios rechazados y los {@code DATA} que se pidan fallar, y guarda
+ * los mensajes recibidos.
+ */
+final class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Set<String> rejectedRecipients;
+    private final AtomicInteger transientDataFailures = new AtomicInteger();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private final List<Socket> clients = new CopyOnWriteArrayList<>();
+
+    FakeSmtpServer(String... rejectedRecipients) {
+        this.rejectedRecipients = Set.of(rejectedRecipients);
+        try {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Thread acceptor = new Thread(this::acceptLoop, "fake-smtp");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    int connections() {
+        return connections.get();
+    }
+
+    List<String> messages() {
+        return messages;
+    }
+
+    /**
+     * Responde 451 a los próximos {@code count} mensajes.
+     */
+    void failNextData(int count) {
+        transientDataFailures.set(count);
+    }
+
+    boolean awaitMessages(int count, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (messages.size() < count) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket client : clients) {
+            client.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                connections.incrementAndGet();
+                clients.add(client);
+                Thread session = new Thread(() -> serve(client), "fake-smtp-session");
+                session.setDaemon(true);
+                session.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        try (client;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII))) {
+            OutputStream out = client.getOutputStream();
+            reply(out, "220 localhost ESMTP fake");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase();
+                if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("RCPT TO:")) {
+                    String address = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                    reply(out, rejectedRecipients.contains(address) ? "550 5.1.1 unknown user" : "250 OK");
+                } else if (command.equals("DATA")) {
+                    reply(out, "354 end with .");
+                    String data = readData(in);
+                    if (transientDataFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                        reply(out, "451 4.3.0 try again later");
+                    } else {
+                        messages.add(data);
+                        reply(out, "250 OK queued");
+                    }
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 bye");
+                    return;
+                } else {
+                    // MAIL FROM, RSET, NOOP
+                    reply(out, "250 OK");
+                }
+            }
+        } catch (IOException e) {
+            // el cliente cerró la conexión
+        }
+    }
+
+    private static String readData(BufferedReader in) throws IOException {
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            data.append(line.startsWith("..") ? line.substring(1) : line).append('\n');
+        }
+        return data.toString();
+    }
+
+    private static void reply(OutputStream out, String response) throws IOException {
+        out.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
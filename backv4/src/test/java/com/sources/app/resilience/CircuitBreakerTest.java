@@ -0,0 +1,89 @@
+package com.sources.app.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+
+    private CircuitBreaker breaker(String name) {
+        // Ventana de 4, mínimo 4 llamadas, 50 % de fallos, 1 s abierto, 2 pruebas
+        return new CircuitBreaker(name, 4, 4, 50, 1_000, 2, clock::get);
+    }
+
+    private static void call(CircuitBreaker breaker, boolean failure) {
+        assertTrue(breaker.tryAcquirePermission());
+        if (failure) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+
+    @Test
+    void opensOnlyAfterMinimumCallsAndFailureRate() {
+        CircuitBreaker breaker = breaker("test-open");
+        call(breaker, true);
+        call(breaker, true);
+        call(breaker, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        call(breaker, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        call(breaker, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        CircuitBreaker breaker = breaker("test-window");
+        call(breaker, true);
+        call(breaker, false);
+        call(breaker, false);
+        call(breaker, false);
+        // La ventana pasa a [ok, ok, ok, fallo]: 25 %
+        call(breaker, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpen_ClosesAfterSuccessfulTrials() {
+        CircuitBreaker breaker = breaker("test-close");
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true);
+        }
+        clock.addAndGet(999);
+        assertFalse(breaker.tryAcquirePermission());
+
+        clock.addAndGet(1);
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        breaker.onSuccess();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        // Ventana vacía tras cerrar: un fallo aislado no vuelve a abrir
+        call(breaker, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpen_FailedTrialReopens() {
+        CircuitBreaker breaker = breaker("test-reopen");
+        for (int i = 0; i < 4; i++) {
+            call(breaker, true);
+        }
+        clock.addAndGet(1_000);
+        call(breaker, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+    }
+}
@@ -0,0 +1,51 @@
+package com.sources.app.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.sources.app.dao.UserDAO;
+import com.sources.app.metrics.MetricsConfiguration;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceExpirationSchedulerTest {
+
+    @Mock
+    private UserDAO mockUserDAO;
+
+    @Test
+    void runOnce_RecordsChunksRowsAndLag() {
+        Date twoDaysAgo = new Date(System.currentTimeMillis() - 2 * 86400000L);
+        when(mockUserDAO.findOldestPendingExpiration()).thenReturn(twoDaysAgo, (Date) null);
+        when(mockUserDAO.checkAllUsersServiceExpiration(eq(50), any(IntConsumer.class))).thenAnswer(invocation -> {
+            IntConsumer onChunk = invocation.getArgument(1);
+            onChunk.accept(50);
+            onChunk.accept(20);
+            return 70;
+        });
+        double rowsBefore = MetricsConfiguration.SERVICE_EXPIRATION_ROWS_TOTAL.get();
+        double chunksBefore = MetricsConfiguration.SERVICE_EXPIRATION_CHUNKS_TOTAL.get();
+
+        int count = new ServiceExpirationScheduler(mockUserDAO, 50).runOnce();
+
+        assertEquals(70, count);
+        assertEquals(70.0, MetricsConfiguration.SERVICE_EXPIRATION_ROWS_TOTAL.get() - rowsBefore);
+        assertEquals(2.0, MetricsConfiguration.SERVICE_EXPIRATION_CHUNKS_TOTAL.get() - chunksBefore);
+        assertTrue(MetricsConfiguration.SERVICE_EXPIRATION_ROWS_PER_SECOND.get() > 0);
+        // Tras la ejecución no queda nada pendiente
+        assertEquals(0.0, MetricsConfiguration.SERVICE_EXPIRATION_LAG_SECONDS.get());
+        verify(mockUserDAO, times(2)).findOldestPendingExpiration();
+    }
+}
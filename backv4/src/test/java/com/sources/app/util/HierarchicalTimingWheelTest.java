@@ -0,0 +1,91 @@
+package com.sources.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void advance_ExpiresOnlyDueKeys() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, START);
+        wheel.schedule("a", START + 1500);
+        wheel.schedule("b", START + 3000);
+        wheel.schedule("c", START - 5000);
+
+        assertEquals(List.of("c"), wheel.advance(START));
+        assertEquals(List.of(), wheel.advance(START + 1999));
+        assertEquals(List.of("a"), wheel.advance(START + 2000));
+        assertEquals(List.of("b"), wheel.advance(START + 3000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void schedule_ReplacesAndCancelRemoves() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, START);
+        wheel.schedule(1L, START + 10_000);
+        wheel.schedule(1L, START + 5_000_000);
+        wheel.schedule(2L, START + 10_000);
+
+        assertEquals(START + 5_000_000, wheel.deadlineOf(1L));
+        assertTrue(wheel.cancel(2L));
+        assertFalse(wheel.cancel(2L));
+        assertNull(wheel.deadlineOf(2L));
+        assertEquals(List.of(), wheel.advance(START + 4_999_999));
+        assertEquals(List.of(1L), wheel.advance(START + 5_000_000));
+    }
+
+    @Test
+    void advance_MatchesBruteForceAcrossLevels() {
+        Random random = new Random(42);
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1000, START);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int key = 0; key < 5000; key++) {
+            // Plazos desde segundos hasta ~3 años, para pasar por varios niveles
+            long deadline = START + (long) (Math.pow(random.nextDouble(), 4) * 100_000_000_000L);
+            wheel.schedule(key, deadline);
+            deadlines.put(key, deadline);
+        }
+        for (int key = 0; key < 5000; key += 7) {
+            wheel.cancel(key);
+            deadlines.remove(key);
+        }
+
+        long now = START;
+        while (!deadlines.isEmpty()) {
+            // Pasos cortos al principio para comprobar la precisión al tick
+            long elapsed = now - START;
+            long maxStep = elapsed < 600_000 ? 2_000 : elapsed < 86_400_000 ? 60_000 : 3_000_000_000L;
+            now += 1 + (long) (random.nextDouble() * maxStep);
+            List<Integer> expired = wheel.advance(now);
+            List<Integer> expected = new ArrayList<>();
+            for (Map.Entry<Integer, Long> entry : deadlines.entrySet()) {
+                // Vence en el primer tick que no es anterior a su plazo
+                if (Math.ceilDiv(entry.getValue(), 1000L) * 1000L <= now) {
+                    expected.add(entry.getKey());
+                }
+            }
+            expected.forEach(deadlines::remove);
+            assertEquals(expected.size(), expired.size());
+            assertTrue(expired.containsAll(expected));
+            assertEquals(deadlines.size(), wheel.size());
+        }
+    }
+
+    @Test
+    void constructor_RejectsInvalidTick() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<String>(0, START));
+    }
+}
@@ -0,0 +1,84 @@
+package com.sources.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+class HospitalServiceCatalogTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicReference<String> json = new AtomicReference<>("[{\"id\": 1}]");
+    private final AtomicInteger downloads = new AtomicInteger();
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    private final HospitalServiceCatalog catalog = new HospitalServiceCatalog(() -> {
+        downloads.incrementAndGet();
+        return json.get();
+    }, 1_000, 10_000, refreshes::add, clock::get);
+
+    @Test
+    void get_WithinTtl_ServesCopyWithoutDownloading() throws IOException {
+        assertEquals(1, catalog.get().get(0).get("id"));
+        clock.addAndGet(999);
+
+        assertEquals(1, catalog.get().get(0).get("id"));
+        assertEquals(1, downloads.get());
+        assertEquals(0.999, catalog.ageSeconds(), 1e-9);
+    }
+
+    @Test
+    void get_Stale_ServesOldCopyAndRefreshesOnce() throws IOException {
+        catalog.get();
+        json.set("[{\"id\": 2}]");
+        clock.addAndGet(1_000);
+
+        assertEquals(1, catalog.get().get(0).get("id"));
+        assertEquals(1, catalog.get().get(0).get("id"));
+        assertEquals(1, refreshes.size());
+
+        refreshes.get(0).run();
+        assertEquals(2, catalog.get().get(0).get("id"));
+        assertEquals(2, downloads.get());
+    }
+
+    @Test
+    void get_FailedRefresh_KeepsOldCopy() throws IOException {
+        catalog.get();
+        json.set(null);
+        clock.addAndGet(5_000);
+
+        catalog.get();
+        refreshes.get(0).run();
+
+        assertEquals(1, catalog.get().get(0).get("id"));
+    }
+
+    @Test
+    void get_BeyondMaxStale_DownloadsSynchronously() throws IOException {
+        catalog.get();
+        json.set(null);
+        clock.addAndGet(11_000);
+
+        assertNull(catalog.get());
+        assertEquals(2, downloads.get());
+    }
+
+    @Test
+    void get_InvalidJson_ThrowsAndInvalidateForcesDownload() throws IOException {
+        catalog.get();
+        catalog.invalidate();
+        json.set("not json");
+
+        assertThrows(IOException.class, catalog::get);
+        assertEquals(0, catalog.ageSeconds());
+    }
+}
@@ -0,0 +1,175 @@
+package com.sources.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sources.app.resilience.CircuitBreaker;
+import com.sources.app.resilience.Downstream;
+import com.sources.app.resilience.DownstreamGuard;
+
+class HospitalServiceDiscoveryTest {
+
+    private static final String SLOW = "http://slow:5050/api/services";
+    private static final String DOWN = "http://down:5050/api/services";
+    private static final String UP = "http://up:5050/api/services";
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fetch_ProbesConcurrentlyAndTakesFirstHealthy() {
+        CountDownLatch release = new CountDownLatch(1);
+        HospitalServiceDiscovery discovery = discovery(url -> {
+            count(url);
+            if (url.equals(SLOW)) {
+                await(release);
+                return "[\"slow\"]";
+            }
+            return url.equals(UP) ? "[]" : null;
+        }, new AtomicLong());
+
+        long start = System.nanoTime();
+        HospitalServiceDiscovery.Result result = discovery.fetch();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+
+        assertEquals(UP, result.url());
+        assertEquals("[]", result.body());
+        assertEquals(UP, discovery.lastGoodUrl());
+        assertTrue(elapsedMillis < 2_000, "tardó " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void fetch_TriesLastGoodFirstWithoutProbingTheRest() {
+        HospitalServiceDiscovery discovery = sequentialDiscovery(url -> {
+            count(url);
+            return url.equals(UP) ? "[]" : null;
+        }, new AtomicLong());
+        discovery.fetch();
+        calls.clear();
+
+        HospitalServiceDiscovery.Result result = discovery.fetch();
+
+        assertEquals(UP, result.url());
+        assertEquals(Map.of(UP, 1), snapshot());
+    }
+
+    @Test
+    void fetch_FallsBackToOthersWhenLastGoodFails() {
+        AtomicInteger upCalls = new AtomicInteger();
+        HospitalServiceDiscovery discovery = sequentialDiscovery(url -> {
+            count(url);
+            if (url.equals(UP)) {
+                return upCalls.incrementAndGet() == 1 ? "[]" : null;
+            }
+            return url.equals(SLOW) ? "[\"slow\"]" : null;
+        }, new AtomicLong());
+        discovery.fetch();
+
+        HospitalServiceDiscovery.Result result = discovery.fetch();
+
+        assertEquals(SLOW, result.url());
+        assertEquals(SLOW, discovery.lastGoodUrl());
+    }
+
+    @Test
+    void fetch_NoHealthyCandidate_ReturnsNullAndForgets() {
+        AtomicInteger upCalls = new AtomicInteger();
+        HospitalServiceDiscovery discovery = sequentialDiscovery(url -> {
+            count(url);
+            return url.equals(UP) && upCalls.incrementAndGet() == 1 ? "[]" : " ";
+        }, new AtomicLong());
+        discovery.fetch();
+
+        assertNull(discovery.fetch());
+        assertNull(discovery.lastGoodUrl());
+    }
+
+    @Test
+    void fetch_StaleLastGood_ReprobesAll() {
+        AtomicLong clock = new AtomicLong();
+        HospitalServiceDiscovery discovery = sequentialDiscovery(url -> {
+            count(url);
+            return url.equals(UP) ? "[]" : null;
+        }, clock);
+        discovery.fetch();
+        calls.clear();
+        clock.addAndGet(60_000);
+
+        assertEquals(UP, discovery.fetch().url());
+
+        assertEquals(1, snapshot().get(SLOW));
+        assertEquals(1, snapshot().get(DOWN));
+    }
+
+    @Test
+    void create_UnreachableCandidatesDoNotOpenTheHospitalBreaker() throws IOException {
+        List<String> unreachable = List.of(closedPortUrl(), closedPortUrl());
+        // Misma autoridad que la URL configurada del hospital
+        unreachable.forEach(url -> DownstreamGuard.register(Downstream.HOSPITAL, url));
+        HospitalServiceDiscovery discovery = HospitalServiceDiscovery.create(unreachable);
+
+        for (int i = 0; i < 15; i++) {
+            assertNull(discovery.fetch());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, DownstreamGuard.forDownstream(Downstream.HOSPITAL).getState());
+    }
+
+    private HospitalServiceDiscovery discovery(Function<String, String> fetcher, AtomicLong clock) {
+        return new HospitalServiceDiscovery(List.of(SLOW, DOWN, UP), fetcher, executor, 60_000, 300, clock::get);
+    }
+
+    /**
+     * Sondeos en el hilo llamante, en orden: hace deterministas los conteos.
+     */
+    private HospitalServiceDiscovery sequentialDiscovery(Function<String, String> fetcher, AtomicLong clock) {
+        return new HospitalServiceDiscovery(List.of(SLOW, DOWN, UP), fetcher, Runnable::run, 60_000, 300, clock::get);
+    }
+
+    private static String closedPortUrl() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return "http://127.0.0.1:" + socket.getLocalPort() + "/api/services";
+        }
+    }
+
+    private void count(String url) {
+        calls.computeIfAbsent(url, u -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private Map<String, Integer> snapshot() {
+        Map<String, Integer> copy = new ConcurrentHashMap<>();
+        calls.forEach((url, count) -> copy.put(url, count.get()));
+        return copy;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
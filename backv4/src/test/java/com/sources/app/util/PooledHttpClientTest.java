@@ -0,0 +1,252 @@
+package com.sources.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sources.app.exceptions.DownstreamUnavailableException;
+import com.sources.app.resilience.Downstream;
+import com.sources.app.resilience.DownstreamGuard;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+class PooledHttpClientTest {
+
+    private MockWebServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    private static PooledHttpClient newClient(int maxConnectionsPerHost) {
+        return new PooledHttpClient(HttpClient.newHttpClient(), maxConnectionsPerHost);
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        try (stream) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void sequentialRequests_ReuseOneConnection() throws Exception {
+        PooledHttpClient client = newClient(4);
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setBody("{\"n\":" + i + "}"));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            HttpURLConnection connection = client.connect(server.url("/api/items").url());
+            connection.setRequestProperty("Accept", "application/json");
+            assertEquals(200, connection.getResponseCode());
+            assertEquals("{\"n\":" + i + "}", read(connection.getInputStream()));
+            connection.disconnect();
+        }
+
+        for (int i = 0; i < 3; i++) {
+            RecordedRequest request = server.takeRequest();
+            assertEquals("application/json", request.getHeader("Accept"));
+            // Número de petición dentro de la misma conexión TCP
+            assertEquals(i, request.getSequenceNumber());
+        }
+    }
+
+    @Test
+    void post_SendsBodyAndHeaders() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(201).setHeader("X-Id", "7").setBody("{\"created\":true}"));
+        HttpURLConnection connection = newClient(4).connect(server.url("/api/items").url());
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setDoOutput(true);
+        try (OutputStream os = connection.getOutputStream()) {
+            os.write("{\"name\":\"Alice\"}".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertEquals(201, connection.getResponseCode());
+        assertEquals("Created", connection.getResponseMessage());
+        assertEquals("7", connection.getHeaderField("X-Id"));
+        assertEquals("{\"created\":true}", read(connection.getInputStream()));
+        RecordedRequest request = server.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("application/json", request.getHeader("Content-Type"));
+        assertEquals("{\"name\":\"Alice\"}", request.getBody().readUtf8());
+    }
+
+    @Test
+    void errorStatus_BodyOnlyOnErrorStream() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("{\"error\":\"boom\"}"));
+        HttpURLConnection connection = newClient(4).connect(server.url("/api/fail").url());
+
+        assertEquals(500, connection.getResponseCode());
+        assertEquals("Internal Server Error", connection.getResponseMessage());
+        assertEquals("{\"error\":\"boom\"}", read(connection.getErrorStream()));
+        assertThrows(IOException.class, connection::getInputStream);
+    }
+
+    @Test
+    void readTimeout_ThrowsSocketTimeout() throws Exception {
+        server.enqueue(new MockResponse().setHeadersDelay(2, TimeUnit.SECONDS).setBody("late"));
+        HttpURLConnection connection = newClient(4).connect(server.url("/api/slow").url());
+        connection.setReadTimeout(200);
+
+        assertThrows(SocketTimeoutException.class, connection::getResponseCode);
+    }
+
+    @Test
+    void perHostLimit_QueuesAndTimesOut() throws Exception {
+        PooledHttpClient client = newClient(1);
+        server.enqueue(new MockResponse().setHeadersDelay(1, TimeUnit.SECONDS).setBody("first"));
+        URL url = server.url("/api/slow").url();
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return client.connect(url).getResponseCode();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        server.takeRequest();
+        // Otra URL: un GET idéntico se agruparía con el primero en lugar de esperar turno
+        HttpURLConnection second = client.connect(server.url("/api/slow?second").url());
+        second.setConnectTimeout(100);
+
+        SocketTimeoutException error = assertThrows(SocketTimeoutException.class, second::getResponseCode);
+        assertTrue(error.getMessage().contains("conexiones simultáneas"));
+        assertEquals(200, first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void registeredDownstream_FailsFastOnceCircuitOpens() throws Exception {
+        // Configuración por defecto: el circuito abre con 10 llamadas y 50 % de fallos
+        DownstreamGuard.register(Downstream.INSURANCE, server.url("/").toString());
+        PooledHttpClient client = newClient(4);
+        for (int i = 0; i < 10; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(503, client.connect(server.url("/api/policies").url()).getResponseCode());
+        }
+
+        HttpURLConnection rejected = client.connect(server.url("/api/policies").url());
+        assertThrows(DownstreamUnavailableException.class, rejected::getResponseCode);
+        assertEquals(10, server.getRequestCount());
+    }
+
+    @Test
+    void identicalConcurrentGets_ShareOneRequest() throws Exception {
+        int callers = 8;
+        PooledHttpClient client = newClient(4);
+        server.enqueue(new MockResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS).setBody("{\"shared\":true}"));
+        server.enqueue(new MockResponse().setBody("{\"shared\":false}"));
+        URL url = server.url("/api/catalog").url();
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> read(client.connect(url).getInputStream())));
+            }
+            for (Future<String> result : results) {
+                assertEquals("{\"shared\":true}", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, server.getRequestCount());
+
+        // Una vez terminada, la siguiente llamada vuelve a salir al servicio
+        assertEquals("{\"shared\":false}", read(client.connect(url).getInputStream()));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void sharedGet_WaitsNoLongerThanItsOwnTimeout() throws Exception {
+        PooledHttpClient client = newClient(4);
+        server.enqueue(new MockResponse().setHeadersDelay(4, TimeUnit.SECONDS).setBody("lento"));
+        URL url = server.url("/api/catalog").url();
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> {
+            try {
+                return read(client.connect(url).getInputStream());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        server.takeRequest(5, TimeUnit.SECONDS);
+
+        HttpURLConnection follower = client.connect(url);
+        follower.setReadTimeout(200);
+        long start = System.nanoTime();
+        assertThrows(SocketTimeoutException.class, follower::getResponseCode);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3_000);
+
+        assertEquals("lento", leader.get(10, TimeUnit.SECONDS));
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void concurrentPosts_AreNotCoalesced() throws Exception {
+        PooledHttpClient client = newClient(4);
+        server.enqueue(new MockResponse().setHeadersDelay(300, TimeUnit.MILLISECONDS).setBody("a"));
+        server.enqueue(new MockResponse().setHeadersDelay(300, TimeUnit.MILLISECONDS).setBody("b"));
+        URL url = server.url("/api/orders").url();
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> post(client, url));
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> post(client, url));
+
+        assertEquals(200, first.get(5, TimeUnit.SECONDS));
+        assertEquals(200, second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private static int post(PooledHttpClient client, URL url) {
+        try {
+            HttpURLConnection connection = client.connect(url);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+            return connection.getResponseCode();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void open_ReturnsUnsentConnection() throws Exception {
+        HttpURLConnection connection = PooledHttpClient.open(server.url("/api/none").toString());
+        connection.disconnect();
+
+        assertNull(connection.getErrorStream());
+        assertEquals(0, server.getRequestCount());
+    }
+}
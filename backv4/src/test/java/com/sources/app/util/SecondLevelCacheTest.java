@@ -0,0 +1,52 @@
+package com.sources.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SecondLevelCacheTest {
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("DB_CACHE_ENABLED");
+    }
+
+    @Test
+    void configure_EnablesJCacheRegions() {
+        Configuration configuration = new Configuration();
+
+        assertTrue(SecondLevelCache.configure(configuration));
+
+        assertEquals("true", configuration.getProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE));
+        assertEquals("true", configuration.getProperty(AvailableSettings.USE_QUERY_CACHE));
+        assertEquals("jcache", configuration.getProperty(AvailableSettings.CACHE_REGION_FACTORY));
+        assertEquals(SecondLevelCache.PROVIDER, configuration.getProperty("hibernate.javax.cache.provider"));
+        assertEquals("ehcache.xml", configuration.getProperty("hibernate.javax.cache.uri"));
+    }
+
+    @Test
+    void configure_RespectsExplicitlyDisabledCache() {
+        Configuration configuration = new Configuration();
+        configuration.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+
+        assertFalse(SecondLevelCache.configure(configuration));
+
+        assertNull(configuration.getProperty(AvailableSettings.CACHE_REGION_FACTORY));
+    }
+
+    @Test
+    void configure_DisabledBySetting() {
+        System.setProperty("DB_CACHE_ENABLED", "false");
+        Configuration configuration = new Configuration();
+
+        assertFalse(SecondLevelCache.configure(configuration));
+
+        assertNull(configuration.getProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE));
+    }
+}
@@ -10,6 +10,9 @@ import java.util.Enumeration;
 
 import org.hibernate.Session;
 
+import com.sources.app.admission.AdmissionControlHandler;
+import com.sources.app.admission.RouteClass;
+import com.sources.app.config.ServerExecutors;
 import com.sources.app.dao.BillDAO;
 import com.sources.app.dao.BillMedicineDAO;
 import com.sources.app.dao.CategoryDAO;
@@ -22,6 +25,8 @@ import com.sources.app.dao.OrdersDAO;
 import com.sources.app.dao.PrescriptionDAO;
 import com.sources.app.dao.PrescriptionMedicineDAO;
 import com.sources.app.dao.SubcategoryDAO;
+import com.sources.app.dao.SystemConfigDAO;
+import com.sources.app.dao.SystemConfigRegistry;
 import com.sources.app.dao.UserDAO;
 import com.sources.app.handlers.BillHandler;
 import com.sources.app.handlers.BillMedicineHandler;
@@ -42,6 +47,7 @@ import com.sources.app.handlers.VerificationHandler;
 import com.sources.app.metrics.InstrumentedHttpHandler;
 import com.sources.app.metrics.MetricsConfiguration;
 import com.sources.app.util.HibernateUtil;
+import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -155,8 +161,11 @@ public class App {
     public static void main(String[] args) throws Exception {
         testDatabaseConnection();
         startMetricsServer();
+        // Configuración del sistema en memoria con recarga periódica
+        SystemConfigRegistry.getInstance().start(new SystemConfigDAO());
         HttpServer server = createAndConfigureHttpServer();
-        server.setExecutor(null); // Usa el executor por defecto
+        // Executor configurable (virtual, pool o inline) vía SERVER_EXECUTOR
+        ServerExecutors.apply(server);
         server.start();
         logger.info("Servidor iniciado en http://{}:{}/api2", 
                 getEnvOrDefault("SERVER_HOST", DEFAULT_HOST),
@@ -227,21 +236,31 @@ public class App {
     }
 
     private static void configureApiRoutes(HttpServer server) {
-        server.createContext("/api2/login", InstrumentedHttpHandler.of("/api2/login", new LoginHandler(userDAO)));
-        server.createContext("/api2/users", InstrumentedHttpHandler.of("/api2/users", new UserHandler(userDAO)));
-        server.createContext("/api2/bills", InstrumentedHttpHandler.of("/api2/bills", new BillHandler(billDAO)));
-        server.createContext("/api2/bill_medicines", InstrumentedHttpHandler.of("/api2/bill_medicines", new BillMedicineHandler(billMedicineDAO)));
-        server.createContext("/api2/categories", InstrumentedHttpHandler.of("/api2/categories", new CategoryHandler(categoryDAO)));
-        server.createContext("/api2/comments", InstrumentedHttpHandler.of("/api2/comments", new CommentsHandler(commentsDAO)));
-        server.createContext("/api2/hospitals", InstrumentedHttpHandler.of("/api2/hospitals", new HospitalHandler(hospitalDAO)));
-        server.createContext("/api2/medicines", InstrumentedHttpHandler.of("/api2/medicines", new MedicineHandler(medicineDAO)));
-        server.createContext("/api2/medicines/search", InstrumentedHttpHandler.of("/api2/medicines/search", new SearchMedicineHandler(medicineDAO)));
-        server.createContext("/api2/order_medicines", InstrumentedHttpHandler.of("/api2/order_medicines", new OrderMedicineHandler(orderMedicineDAO)));
-        server.createContext("/api2/orders", InstrumentedHttpHandler.of("/api2/orders", new OrdersHandler(ordersDAO)));
-        server.createContext("/api2/prescription_medicines", InstrumentedHttpHandler.of("/api2/prescription_medicines", new PrescriptionMedicineHandler(prescriptionMedicineDAO)));
-        server.createContext("/api2/prescriptions", InstrumentedHttpHandler.of("/api2/prescriptions", new PrescriptionHandler(prescriptionDAO)));
-        server.createContext("/api2/subcategories", InstrumentedHttpHandler.of("/api2/subcategories", new SubcategoryHandler(subcategoryDAO)));
-        server.createContext("/api2/external_medicines", InstrumentedHttpHandler.of("/api2/external_medicines", new ExternalMedicineHandler(externalMedicineDAO)));
-        server.createContext("/api2/verification", InstrumentedHttpHandler.of("/api2/verification", new VerificationHandler()));
+        route(server, "/api2/login", RouteClass.AUTH, new LoginHandler(userDAO));
+        route(server, "/api2/users", RouteClass.AUTH, new UserHandler(userDAO));
+        route(server, "/api2/bills", RouteClass.DEFAULT, new BillHandler(billDAO));
+        route(server, "/api2/bill_medicines", RouteClass.DEFAULT, new BillMedicineHandler(billMedicineDAO));
+        route(server, "/api2/categories", RouteClass.CATALOG, new CategoryHandler(categoryDAO));
+        route(server, "/api2/comments", RouteClass.DEFAULT, new CommentsHandler(commentsDAO));
+        route(server, "/api2/hospitals", RouteClass.CATALOG, new HospitalHandler(hospitalDAO));
+        route(server, "/api2/medicines", RouteClass.CATALOG, new MedicineHandler(medicineDAO));
+        route(server, "/api2/medicines/search", RouteClass.CATALOG, new SearchMedicineHandler(medicineDAO));
+        route(server, "/api2/order_medicines", RouteClass.DEFAULT, new OrderMedicineHandler(orderMedicineDAO));
+        route(server, "/api2/orders", RouteClass.DEFAULT, new OrdersHandler(ordersDAO));
+        route(server, "/api2/prescription_medicines", RouteClass.DEFAULT, new PrescriptionMedicineHandler(prescriptionMedicineDAO));
+        route(server, "/api2/prescriptions", RouteClass.DEFAULT, new PrescriptionHandler(prescriptionDAO));
+        route(server, "/api2/subcategories", RouteClass.CATALOG, new SubcategoryHandler(subcategoryDAO));
+        route(server, "/api2/external_medicines", RouteClass.CATALOG, new ExternalMedicineHandler(externalMedicineDAO));
+        route(server, "/api2/verification", RouteClass.APPROVALS, new VerificationHandler());
+    }
+
+    /**
+     * Registra una ruta con métricas y control de admisión. Las métricas
+     * envuelven al control de admisión para que los rechazos 503 también se
+     * contabilicen.
+     */
+    private static void route(HttpServer server, String path, RouteClass routeClass, HttpHandler handler) {
+        server.createContext(path, InstrumentedHttpHandler.of(path,
+                AdmissionControlHandler.of(routeClass, path, handler)));
     }
 }
@@ -0,0 +1,87 @@
+package com.sources.app.admission;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sources.app.metrics.MetricsConfiguration;
+
+/**
+ * Concurrency limiter for one {@link RouteClass}. Up to {@code maxConcurrent}
+ * requests run at once; up to {@code maxQueue} more wait at most
+ * {@code maxWaitMillis} for a slot. Anything beyond that is rejected
+ * immediately so the caller can answer with 503 instead of letting the
+ * request time out.
+ */
+public final class AdmissionController {
+
+    private static final Map<RouteClass, AdmissionController> CONTROLLERS = new EnumMap<>(RouteClass.class);
+
+    private final String routeClass;
+    private final Semaphore permits;
+    private final int maxQueue;
+    private final long maxWaitMillis;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    AdmissionController(String routeClass, int maxConcurrent, int maxQueue, long maxWaitMillis) {
+        this.routeClass = routeClass;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxQueue = maxQueue;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Devuelve el controlador compartido de la clase de ruta, creándolo con
+     * la configuración del entorno la primera vez.
+     */
+    public static synchronized AdmissionController forClass(RouteClass routeClass) {
+        return CONTROLLERS.computeIfAbsent(routeClass, rc -> new AdmissionController(
+                rc.label(), rc.maxConcurrent(), rc.maxQueue(), rc.maxWaitMillis()));
+    }
+
+    /**
+     * Tries to obtain a slot, waiting in the bounded queue if needed.
+     *
+     * @return {@code true} if the request may proceed; the caller must then
+     * call {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        if (permits.tryAcquire()) {
+            MetricsConfiguration.ADMISSION_INFLIGHT_REQUESTS.labels(routeClass).inc();
+            return true;
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        MetricsConfiguration.ADMISSION_QUEUED_REQUESTS.labels(routeClass).inc();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+            MetricsConfiguration.ADMISSION_QUEUED_REQUESTS.labels(routeClass).dec();
+        }
+        if (acquired) {
+            MetricsConfiguration.ADMISSION_INFLIGHT_REQUESTS.labels(routeClass).inc();
+        }
+        return acquired;
+    }
+
+    /**
+     * Libera el cupo obtenido con {@link #tryAcquire()}.
+     */
+    public void release() {
+        MetricsConfiguration.ADMISSION_INFLIGHT_REQUESTS.labels(routeClass).dec();
+        permits.release();
+    }
+
+    public String getRouteClass() {
+        return routeClass;
+    }
+}
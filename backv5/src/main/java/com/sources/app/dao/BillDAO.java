@@ -20,6 +20,7 @@ import java.util.logging.Logger;
 public class BillDAO {
 
     private static final Logger LOGGER = Logger.getLogger(BillDAO.class.getName());
+    private static final KeysetQuery<Bill> PAGE_QUERY = KeysetQuery.of(Bill.class, "idBill");
 
     /**
      * Crea un nuevo registro de Factura (Bill) en la base de datos, vinculándolo a una Receta (Prescription).
@@ -69,6 +70,18 @@ public class BillDAO {
         }
     }
 
+    /**
+     * Recupera una página de facturas ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de facturas de la página.
+     * @return La página de entidades {@link Bill}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Bill> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Recupera un registro de Factura (Bill) específico por su identificador único.
      *
@@ -22,6 +22,8 @@ import java.util.logging.Logger;
  */
 public class BillMedicineDAO {
     private static final Logger LOGGER = Logger.getLogger(BillMedicineDAO.class.getName());
+    private static final KeysetQuery<BillMedicine> PAGE_QUERY =
+            KeysetQuery.of(BillMedicine.class, "id.billId", "id.medicineId");
 
     /**
      * Crea una nueva asociación entre una Factura (Bill) y un Medicamento (Medicine) en la base de datos.
@@ -74,6 +76,18 @@ public class BillMedicineDAO {
         }
     }
 
+    /**
+     * Recupera una página de medicamentos de factura ordenada por clave, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de medicamentos de factura de la página.
+     * @return La página de entidades {@link BillMedicine}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<BillMedicine> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Recupera un registro BillMedicine específico por su clave primaria compuesta.
      *
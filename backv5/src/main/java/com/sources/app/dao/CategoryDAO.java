@@ -18,6 +18,7 @@ import java.util.logging.Logger;
  */
 public class CategoryDAO {
     private static final Logger LOGGER = Logger.getLogger(CategoryDAO.class.getName());
+    private static final KeysetQuery<Category> PAGE_QUERY = KeysetQuery.of(Category.class, "idCategory");
 
     /**
      * Crea un nuevo registro de Categoría en la base de datos.
@@ -51,6 +52,7 @@ public class CategoryDAO {
     public List<Category> getAll() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<Category> query = session.createQuery("FROM Category", Category.class);
+            query.setCacheable(true);
             return query.list();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error fetching all Category records", e);
@@ -58,6 +60,18 @@ public class CategoryDAO {
         }
     }
 
+    /**
+     * Recupera una página de categorías ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de categorías de la página.
+     * @return La página de entidades {@link Category}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Category> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Recupera un registro de Categoría específico por su identificador único.
      *
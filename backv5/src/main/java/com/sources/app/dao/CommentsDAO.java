@@ -21,6 +21,7 @@ import java.util.logging.Logger;
  */
 public class CommentsDAO {
     private static final Logger LOGGER = Logger.getLogger(CommentsDAO.class.getName());
+    private static final KeysetQuery<Comments> PAGE_QUERY = KeysetQuery.of(Comments.class, "idComments");
 
     /**
      * Crea un nuevo registro de Comentario en la base de datos.
@@ -68,6 +69,18 @@ public class CommentsDAO {
         }
     }
 
+    /**
+     * Recupera una página de comentarios ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de comentarios de la página.
+     * @return La página de entidades {@link Comments}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Comments> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Recupera un registro de Comentario específico por su identificador único.
      *
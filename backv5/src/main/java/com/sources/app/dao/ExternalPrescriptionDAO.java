@@ -3,6 +3,7 @@ package com.sources.app.dao;
 import com.sources.app.entities.Prescription;
 import com.sources.app.exceptions.ExternalServiceException;
 import com.sources.app.util.HibernateUtil;
+import com.sources.app.util.PooledHttpClient;
 import com.sun.net.httpserver.HttpExchange;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
@@ -30,6 +31,7 @@ import java.util.logging.Logger;
  */
 public class ExternalPrescriptionDAO {
     private static final Logger LOGGER = Logger.getLogger(ExternalPrescriptionDAO.class.getName());
+    private static final int TIMEOUT = 10000; // 10 segundos
 
     /**
      * Recupera una receta por su ID, pero solo después de verificar exitosamente el email proporcionado
@@ -96,8 +98,10 @@ public class ExternalPrescriptionDAO {
     
     private boolean performHttpVerification(URL url, String email) throws ExternalServiceException {
         try {
-            HttpURLConnection con = (HttpURLConnection) url.openConnection();
+            HttpURLConnection con = PooledHttpClient.shared().connect(url);
             con.setRequestMethod("GET");
+            con.setConnectTimeout(TIMEOUT);
+            con.setReadTimeout(TIMEOUT);
             
             int status = con.getResponseCode();
             String verify = readHttpResponse(con).trim();
@@ -19,6 +19,7 @@ import java.util.logging.Logger;
 public class HospitalDAO {
 
     private static final Logger LOGGER = Logger.getLogger(HospitalDAO.class.getName());
+    private static final KeysetQuery<Hospital> PAGE_QUERY = KeysetQuery.of(Hospital.class, "idHospital");
 
     /**
      * Crea un nuevo registro de Hospital en la base de datos.
@@ -60,6 +61,7 @@ public class HospitalDAO {
     public List<Hospital> getAll() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<Hospital> query = session.createQuery("FROM Hospital", Hospital.class);
+            query.setCacheable(true);
             return query.list();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error fetching all Hospital records", e);
@@ -67,6 +69,18 @@ public class HospitalDAO {
         }
     }
 
+    /**
+     * Recupera una página de hospitales ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de hospitales de la página.
+     * @return La página de entidades {@link Hospital}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Hospital> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Recupera un registro de Hospital específico por su identificador único.
      *
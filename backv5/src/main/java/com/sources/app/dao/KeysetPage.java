@@ -0,0 +1,44 @@
+package com.sources.app.dao;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Página de resultados de una consulta paginada por cursor (keyset).
+ *
+ * <p>El cursor es opaco para el cliente: se devuelve tal cual en el parámetro
+ * {@code after} para pedir la página siguiente. Internamente son los valores
+ * de la clave primaria de la última fila de la página, separados por
+ * {@code :} en las claves compuestas.</p>
+ *
+ * @param <T> El tipo de entidad de la página.
+ */
+public final class KeysetPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * @param items Las entidades de la página, en el orden de la clave.
+     * @param nextCursor El cursor de la página siguiente, o null si esta es la última.
+     */
+    public KeysetPage(List<T> items, String nextCursor) {
+        this.items = items == null ? Collections.emptyList() : Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return El cursor para el parámetro {@code after} de la página siguiente, o null si no hay más filas.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -23,6 +23,8 @@ import java.util.logging.Logger;
 public class MedicineCatSubcatDAO {
 
     private static final Logger LOGGER = Logger.getLogger(MedicineCatSubcatDAO.class.getName());
+    private static final KeysetQuery<MedicineCatSubcat> PAGE_QUERY =
+            KeysetQuery.of(MedicineCatSubcat.class, "id.medicineId", "id.categoryId", "id.subcategoryId");
 
     /**
      * Crea un nuevo registro de asociación que vincula un Medicamento, Categoría y Subcategoría.
@@ -67,6 +69,18 @@ public class MedicineCatSubcatDAO {
         }
     }
 
+    /**
+     * Recupera una página de relaciones medicamento-categoría-subcategoría ordenada por clave, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de relaciones medicamento-categoría-subcategoría de la página.
+     * @return La página de entidades {@link MedicineCatSubcat}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<MedicineCatSubcat> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Recupera un registro de asociación Medicamento-Categoría-Subcategoría específico por su clave primaria compuesta.
      *
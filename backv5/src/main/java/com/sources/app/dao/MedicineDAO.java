@@ -9,6 +9,8 @@ import org.hibernate.query.Query;
 
 import java.util.List;
 import java.util.Collections;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -20,6 +22,19 @@ import java.util.logging.Logger;
 public class MedicineDAO {
 
     private static final Logger LOGGER = Logger.getLogger(MedicineDAO.class.getName());
+    private static final KeysetQuery<Medicine> PAGE_QUERY = KeysetQuery.of(Medicine.class, "idMedicine");
+
+    private final List<Consumer<Medicine>> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registra un observador que recibe cada medicamento creado o modificado
+     * con éxito por este DAO (p. ej. el índice de búsqueda en memoria).
+     *
+     * @param listener función invocada después del commit.
+     */
+    public void addChangeListener(Consumer<Medicine> listener) {
+        changeListeners.add(listener);
+    }
 
     /**
      * Crea un nuevo registro de Medicamento en la base de datos.
@@ -58,6 +73,7 @@ public class MedicineDAO {
 
             session.persist(med);
             tx.commit();
+            notifyChange(med);
         } catch (Exception _) {
             if (tx != null) tx.rollback();
             LOGGER.log(Level.SEVERE, () -> "Error creating Medicine (name=" + request.getName() + ")");
@@ -92,6 +108,18 @@ public class MedicineDAO {
         }
     }
 
+    /**
+     * Recupera una página de medicamentos ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de medicamentos de la página.
+     * @return La página de entidades {@link Medicine}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Medicine> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Recupera un registro de Medicamento específico por su identificador único.
      *
@@ -117,8 +145,9 @@ public class MedicineDAO {
         Transaction tx = null;
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             tx = session.beginTransaction();
-            session.merge(medicine);
+            Medicine merged = session.merge(medicine);
             tx.commit();
+            notifyChange(merged != null ? merged : medicine);
             return medicine;
         } catch (Exception _) {
             if (tx != null) tx.rollback();
@@ -126,4 +155,14 @@ public class MedicineDAO {
             return null;
         }
     }
+
+    private void notifyChange(Medicine medicine) {
+        for (Consumer<Medicine> listener : changeListeners) {
+            try {
+                listener.accept(medicine);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error notifying Medicine change listener", e);
+            }
+        }
+    }
 }
@@ -22,6 +22,8 @@ import java.util.logging.Logger;
 public class OrderMedicineDAO {
 
     private static final Logger LOGGER = Logger.getLogger(OrderMedicineDAO.class.getName());
+    private static final KeysetQuery<OrderMedicine> PAGE_QUERY =
+            KeysetQuery.of(OrderMedicine.class, "id.orderId", "id.medicineId");
 
     /**
      * Crea una nueva asociación entre un Pedido (Order) y un Medicamento (Medicine) en la base de datos.
@@ -78,6 +80,18 @@ public class OrderMedicineDAO {
         }
     }
 
+    /**
+     * Recupera una página de medicamentos de pedido ordenada por clave, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de medicamentos de pedido de la página.
+     * @return La página de entidades {@link OrderMedicine}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<OrderMedicine> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Elimina un registro OrderMedicine de la base de datos basado en su clave primaria compuesta.
      *
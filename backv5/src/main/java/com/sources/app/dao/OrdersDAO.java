@@ -7,6 +7,7 @@ import org.hibernate.Session;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Collections;
 import java.util.logging.Level;
@@ -20,6 +21,7 @@ import java.util.logging.Logger;
 public class OrdersDAO {
 
     private static final Logger LOGGER = Logger.getLogger(OrdersDAO.class.getName());
+    private static final KeysetQuery<Orders> PAGE_QUERY = KeysetQuery.of(Orders.class, "idOrder");
 
     /**
      * Crea un nuevo Pedido (Order) en la base de datos, asociándolo a un Usuario (User) existente.
@@ -63,6 +65,29 @@ public class OrdersDAO {
         }
     }
 
+    /**
+     * Recorre todos los registros de Pedido (Order) sin cargarlos en una lista; la sesión sigue abierta
+     * mientras {@code consumer} consume el stream.
+     *
+     * @param consumer Recibe las entidades {@link Orders}.
+     * @throws IOException Si la lanza {@code consumer}; los errores de base de datos también se propagan.
+     */
+    public void streamAll(ResultStreamConsumer<Orders> consumer) throws IOException {
+        StreamQuery.stream(Orders.class, "FROM Orders", consumer);
+    }
+
+    /**
+     * Recupera una página de pedidos ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de pedidos de la página.
+     * @return La página de entidades {@link Orders}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Orders> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Recupera un registro de Pedido (Order) específico por su identificador único.
      *
@@ -19,6 +19,7 @@ import java.util.logging.Logger;
 public class PolicyDAO {
 
     private static final Logger LOGGER = Logger.getLogger(PolicyDAO.class.getName());
+    private static final KeysetQuery<Policy> PAGE_QUERY = KeysetQuery.of(Policy.class, "idPolicy");
 
     /**
      * Crea un nuevo registro de Póliza (Policy) en la base de datos.
@@ -54,6 +55,7 @@ public class PolicyDAO {
     public List<Policy> getAll() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<Policy> query = session.createQuery("FROM Policy", Policy.class);
+            query.setCacheable(true);
             return query.list();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error fetching all Policy records", e);
@@ -61,6 +63,18 @@ public class PolicyDAO {
         }
     }
 
+    /**
+     * Recupera una página de pólizas ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de pólizas de la página.
+     * @return La página de entidades {@link Policy}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Policy> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Recupera un registro de Póliza (Policy) específico por su identificador único.
      *
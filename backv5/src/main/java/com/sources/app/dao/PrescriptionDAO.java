@@ -20,6 +20,7 @@ import java.util.logging.Logger;
 public class PrescriptionDAO {
 
     private static final Logger LOGGER = Logger.getLogger(PrescriptionDAO.class.getName());
+    private static final KeysetQuery<Prescription> PAGE_QUERY = KeysetQuery.of(Prescription.class, "idPrescription");
 
     /**
      * Crea una nueva prescripción en la base de datos.
@@ -64,6 +65,18 @@ public class PrescriptionDAO {
         }
     }
 
+    /**
+     * Recupera una página de recetas ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de recetas de la página.
+     * @return La página de entidades {@link Prescription}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Prescription> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Obtiene una prescripción específica por su identificador único.
      *
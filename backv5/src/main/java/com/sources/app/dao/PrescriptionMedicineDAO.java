@@ -22,6 +22,8 @@ import java.util.logging.Logger;
 public class PrescriptionMedicineDAO {
 
     private static final Logger LOGGER = Logger.getLogger(PrescriptionMedicineDAO.class.getName());
+    private static final KeysetQuery<PrescriptionMedicine> PAGE_QUERY =
+            KeysetQuery.of(PrescriptionMedicine.class, "id.prescriptionId", "id.medicineId");
 
     /**
      * Crea un nuevo registro PrescriptionMedicine en la base de datos.
@@ -72,6 +74,18 @@ public class PrescriptionMedicineDAO {
         }
     }
 
+    /**
+     * Recupera una página de medicamentos de receta ordenada por clave, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de medicamentos de receta de la página.
+     * @return La página de entidades {@link PrescriptionMedicine}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<PrescriptionMedicine> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     // READ BY ID (clave compuesta)
     public PrescriptionMedicine getById(PrescriptionMedicineId id) {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
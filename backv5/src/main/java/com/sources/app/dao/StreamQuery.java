@@ -0,0 +1,43 @@
+package com.sources.app.dao;
+
+import com.sources.app.util.HibernateUtil;
+import org.hibernate.Session;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+/**
+ * Recorre el resultado de una consulta HQL sin cargarlo entero en memoria.
+ *
+ * <p>La sesión queda abierta, en modo de sólo lectura, mientras el
+ * {@link ResultStreamConsumer} consume el stream; las filas se leen del cursor
+ * de JDBC en bloques de {@link #FETCH_SIZE} y cada entidad se separa de la
+ * sesión al entregarla, de modo que el contexto de persistencia no crece con
+ * el número de filas. Como en {@link KeysetQuery}, los errores de base de
+ * datos se propagan: un listado vacío se confundiría con una tabla sin
+ * filas.</p>
+ */
+final class StreamQuery {
+
+    /** Filas que el driver trae de la base de datos en cada viaje. */
+    static final int FETCH_SIZE = 500;
+
+    private StreamQuery() {
+    }
+
+    /**
+     * Ejecuta {@code hql} y entrega sus filas a {@code consumer}.
+     *
+     * @throws IOException Si la lanza {@code consumer}.
+     */
+    static <T> void stream(Class<T> type, String hql, ResultStreamConsumer<T> consumer) throws IOException {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.setDefaultReadOnly(true);
+            try (Stream<T> results = session.createQuery(hql, type)
+                    .setFetchSize(FETCH_SIZE)
+                    .getResultStream()) {
+                consumer.accept(results.peek(session::detach));
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@ import java.util.logging.Logger;
 public class SubcategoryDAO {
 
     private static final Logger LOGGER = Logger.getLogger(SubcategoryDAO.class.getName());
+    private static final KeysetQuery<Subcategory> PAGE_QUERY = KeysetQuery.of(Subcategory.class, "idSubcategory");
 
     /**
      * Crea un nuevo registro de Subcategoría en la base de datos.
@@ -51,6 +52,7 @@ public class SubcategoryDAO {
     public List<Subcategory> getAll() {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Query<Subcategory> query = session.createQuery("FROM Subcategory", Subcategory.class);
+            query.setCacheable(true);
             return query.list();
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error fetching all Subcategory records", e);
@@ -58,6 +60,18 @@ public class SubcategoryDAO {
         }
     }
 
+    /**
+     * Recupera una página de subcategorías ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de subcategorías de la página.
+     * @return La página de entidades {@link Subcategory}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<Subcategory> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Recupera un registro de Subcategoría específico por su identificador único.
      *
@@ -56,6 +56,7 @@ public class SystemConfigDAO {
             }
 
             transaction.commit();
+            SystemConfigRegistry.getInstance().put(configKey, config.getConfigValue());
             return config;
         } catch (Exception _) {
             if (transaction != null) {
@@ -115,6 +116,7 @@ public class SystemConfigDAO {
             if (config != null) {
                 session.remove(config);
                 transaction.commit();
+                SystemConfigRegistry.getInstance().remove(config.getConfigKey());
                 return true;
             }
             return false;
@@ -129,12 +131,17 @@ public class SystemConfigDAO {
     
     /**
      * Recupera el valor de una configuración como String, devolviendo un valor predeterminado si no se encuentra la clave.
+     * Una vez cargado el {@link SystemConfigRegistry} se responde desde memoria; antes de eso se consulta la base de datos.
      *
      * @param configKey    La clave de la configuración.
      * @param defaultValue El valor a devolver si la clave de configuración no existe.
      * @return El valor de la configuración como String, o el defaultValue.
      */
     public String getConfigValue(String configKey, String defaultValue) {
+        SystemConfigRegistry registry = SystemConfigRegistry.getInstance();
+        if (registry.isLoaded()) {
+            return registry.getString(configKey, defaultValue);
+        }
         SystemConfig config = getByKey(configKey);
         return (config != null) ? config.getConfigValue() : defaultValue;
     }
@@ -148,10 +155,10 @@ public class SystemConfigDAO {
      * @return El valor de la configuración como Double, o el defaultValue.
      */
     public Double getConfigValueAsDouble(String configKey, Double defaultValue) {
-        SystemConfig config = getByKey(configKey);
-        if (config != null) {
+        String value = getConfigValue(configKey, null);
+        if (value != null) {
             try {
-                return Double.parseDouble(config.getConfigValue());
+                return Double.parseDouble(value);
             } catch (NumberFormatException _) {
                 return defaultValue;
             }
@@ -20,6 +20,7 @@ import java.util.logging.Logger;
 public class UserDAO {
 
     private static final Logger LOGGER = Logger.getLogger(UserDAO.class.getName());
+    private static final KeysetQuery<User> PAGE_QUERY = KeysetQuery.of(User.class, "idUser");
 
     /**
      * Autentica a un usuario basado en su email y contraseña.
@@ -105,6 +106,18 @@ public class UserDAO {
         }
     }
 
+    /**
+     * Recupera una página de usuarios ordenada por ID, a partir del cursor dado.
+     *
+     * @param after El cursor de la página anterior ({@link KeysetPage#getNextCursor()}), o null para la primera.
+     * @param limit El número máximo de usuarios de la página.
+     * @return La página de entidades {@link User}.
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos.
+     */
+    public KeysetPage<User> getPage(String after, int limit) {
+        return PAGE_QUERY.fetch(after, limit);
+    }
+
     /**
      * Recupera un registro de Usuario específico por su identificador único.
      *
@@ -2,12 +2,17 @@ package com.sources.app.entities;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Entidad que representa una categoría de medicamentos u otros ítems.
  * Mapea a la tabla "CATEGORY".
  */
 @Entity
 @Table(name = "CATEGORY")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 public class Category {
 
     /** Identificador único de la categoría. Generado automáticamente. */
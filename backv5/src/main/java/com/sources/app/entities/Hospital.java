@@ -2,12 +2,17 @@ package com.sources.app.entities;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Entidad que representa un hospital o centro médico.
  * Mapea a la tabla "HOSPITAL".
  */
 @Entity
 @Table(name = "HOSPITAL")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "hospital")
 public class Hospital {
 
     /** Identificador único del hospital. Generado automáticamente. */
@@ -4,12 +4,17 @@ import jakarta.persistence.*;
 import java.util.Date;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Entidad que representa una póliza de seguro o una política de cobertura.
  * Mapea a la tabla "POLICY".
  */
 @Entity
 @Table(name = "POLICY")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "policy")
 public class Policy {
 
     /** Identificador único de la póliza. Generado automáticamente. */
@@ -2,12 +2,17 @@ package com.sources.app.entities;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Entidad que representa una subcategoría, posiblemente anidada dentro de una categoría.
  * Mapea a la tabla "SUBCATEGORY".
  */
 @Entity
 @Table(name = "SUBCATEGORY")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "subcategory")
 public class Subcategory {
 
     /** Identificador único de la subcategoría. Generado automáticamente. */
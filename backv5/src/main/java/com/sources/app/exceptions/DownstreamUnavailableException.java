@@ -0,0 +1,18 @@
+package com.sources.app.exceptions;
+
+import java.io.IOException;
+
+/**
+ * Thrown without contacting a downstream service (hospital, pharmacy,
+ * insurance) when its circuit breaker is open or its bulkhead is full. It
+ * extends {@link IOException} so callers that already handle connection
+ * failures fail fast through the same path.
+ */
+public class DownstreamUnavailableException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DownstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.BillDAO;
 import com.sources.app.entities.Bill;
 import com.sources.app.entities.Prescription;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -126,8 +127,12 @@ public class BillHandler implements HttpHandler {
                 sendResponse(exchange, 400, "{\"error\": \"Invalid ID format\"}");
             }
         } else {
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json; charset=UTF-8", billDAO::getPage)) {
+                return;
+            }
             List<Bill> bills = billDAO.getAll();
-            sendResponse(exchange, 200, objectMapper.writeValueAsString(bills));
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            JsonResponseWriter.write(exchange, 200, objectMapper, bills);
         }
     }
 
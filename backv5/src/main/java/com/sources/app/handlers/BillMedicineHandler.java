@@ -5,6 +5,7 @@ import com.sources.app.dao.BillMedicineDAO;
 import com.sources.app.entities.BillMedicine;
 import com.sources.app.entities.Bill;
 import com.sources.app.entities.Medicine;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -160,8 +161,12 @@ public class BillMedicineHandler implements HttpHandler {
      * @throws IOException Si ocurre un error de entrada/salida.
      */
     private void handleGetAll(HttpExchange exchange) throws IOException {
+        if (KeysetPagination.respond(exchange, objectMapper, "application/json; charset=UTF-8", billMedicineDAO::getPage)) {
+            return;
+        }
         List<BillMedicine> list = billMedicineDAO.getAll();
-        sendResponse(exchange, 200, objectMapper.writeValueAsString(list));
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        JsonResponseWriter.write(exchange, 200, objectMapper, list);
     }
 
     /**
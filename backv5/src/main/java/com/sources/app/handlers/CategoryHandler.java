@@ -3,6 +3,7 @@ package com.sources.app.handlers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.entities.Category;
 import com.sources.app.dao.CategoryDAO;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -139,8 +140,12 @@ public class CategoryHandler implements HttpHandler {
      * @throws IOException Si ocurre un error de entrada/salida.
      */
     private void handleGetAll(HttpExchange exchange) throws IOException {
+        if (KeysetPagination.respond(exchange, objectMapper, "application/json; charset=UTF-8", categoryDAO::getPage)) {
+            return;
+        }
         List<Category> list = categoryDAO.getAll();
-        sendResponse(exchange, 200, objectMapper.writeValueAsString(list));
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        JsonResponseWriter.write(exchange, 200, objectMapper, list);
     }
 
     /**
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.CommentsDAO;
 import com.sources.app.entities.Comments;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -168,8 +169,12 @@ public class CommentsHandler implements HttpHandler {
      * @throws IOException Si ocurre un error de entrada/salida.
      */
     private void handleGetAll(HttpExchange exchange) throws IOException {
+        if (KeysetPagination.respond(exchange, objectMapper, "application/json; charset=UTF-8", commentsDAO::getPage)) {
+            return;
+        }
         List<Comments> list = commentsDAO.getAll();
-        sendResponse(exchange, 200, objectMapper.writeValueAsString(list));
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        JsonResponseWriter.write(exchange, 200, objectMapper, list);
     }
 
     /**
@@ -3,12 +3,11 @@ package com.sources.app.handlers;
 import com.sources.app.dao.ExternalMedicineDAO;
 import com.sources.app.entities.Medicine;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
 import java.io.IOException;
-import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -70,12 +69,7 @@ public class ExternalMedicineHandler implements HttpHandler {
      */
     private void handleGet(HttpExchange exchange) throws IOException {
         List<Medicine> medicines = externalMedicineDAO.getAll();
-        String jsonResponse = objectMapper.writeValueAsString(medicines);
         exchange.getResponseHeaders().set("Content-Type", "application/json");
-        byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(200, responseBytes.length);
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(responseBytes);
-        }
+        JsonResponseWriter.write(exchange, 200, objectMapper, medicines);
     }
 }
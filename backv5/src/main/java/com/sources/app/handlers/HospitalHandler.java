@@ -3,6 +3,7 @@ package com.sources.app.handlers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.entities.Hospital;
 import com.sources.app.dao.HospitalDAO;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -146,8 +147,12 @@ public class HospitalHandler implements HttpHandler {
      * @throws IOException Si ocurre un error de entrada/salida.
      */
     private void handleGetAll(HttpExchange exchange) throws IOException {
+        if (KeysetPagination.respond(exchange, objectMapper, "application/json; charset=UTF-8", hospitalDAO::getPage)) {
+            return;
+        }
         List<Hospital> list = hospitalDAO.getAll();
-        sendResponse(exchange, 200, objectMapper.writeValueAsString(list));
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        JsonResponseWriter.write(exchange, 200, objectMapper, list);
     }
 
     /**
@@ -0,0 +1,143 @@
+package com.sources.app.handlers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sources.app.dao.KeysetPage;
+import com.sources.app.util.JsonResponseWriter;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Paginación por cursor de los listados ({@code GET} sin filtros).
+ *
+ * <p>Con {@code ?limit=N} o {@code ?after=CURSOR} el listado devuelve como
+ * mucho {@code limit} registros ordenados por clave primaria. El cuerpo sigue
+ * siendo un array JSON; el cursor de la página siguiente va en la cabecera
+ * {@code X-Next-Cursor} y en un enlace {@code Link: <...>; rel="next"}, que
+ * faltan en la última página. Sin esos parámetros el listado se comporta
+ * como antes y devuelve la tabla completa, para no romper a los clientes
+ * actuales.</p>
+ */
+public final class KeysetPagination {
+
+    public static final String LIMIT_PARAM = "limit";
+    public static final String AFTER_PARAM = "after";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /** Tamaño de página cuando se pide {@code after} sin {@code limit}. */
+    static final int DEFAULT_LIMIT = 100;
+    /** Un {@code limit} mayor se recorta a este valor. */
+    static final int MAX_LIMIT = 1000;
+
+    /**
+     * Lee una página de la fuente de datos (normalmente {@code dao::getPage}).
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        KeysetPage<T> fetch(String after, int limit);
+    }
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Responde con una página si la petición trae {@code limit} o {@code after}.
+     * Un límite o cursor no válido se responde con 400.
+     *
+     * @param contentType El {@code Content-Type} que usa el handler en sus respuestas.
+     * @return true si la petición era paginada y ya se respondió; false si el handler debe listar todo.
+     */
+    public static <T> boolean respond(HttpExchange exchange, ObjectMapper mapper, String contentType,
+                                      PageSource<T> source) throws IOException {
+        Map<String, String> params = queryParams(exchange.getRequestURI());
+        if (!params.containsKey(LIMIT_PARAM) && !params.containsKey(AFTER_PARAM)) {
+            return false;
+        }
+
+        int limit;
+        KeysetPage<T> page;
+        try {
+            limit = parseLimit(params.get(LIMIT_PARAM));
+            page = source.fetch(params.get(AFTER_PARAM), limit);
+        } catch (IllegalArgumentException e) {
+            byte[] body = mapper.writeValueAsBytes(Map.of("error", e.getMessage()));
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(400, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+            return true;
+        }
+
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", contentType);
+        headers.set("Access-Control-Expose-Headers", NEXT_CURSOR_HEADER + ", Link");
+        if (page.hasNext()) {
+            headers.set(NEXT_CURSOR_HEADER, page.getNextCursor());
+            headers.set("Link", "<" + nextLink(exchange.getRequestURI(), limit, page.getNextCursor()) + ">; rel=\"next\"");
+        }
+        JsonResponseWriter.write(exchange, 200, mapper, page.getItems());
+        return true;
+    }
+
+    static int parseLimit(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT_LIMIT;
+        }
+        int limit;
+        try {
+            limit = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("El parámetro limit debe ser un entero positivo");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("El parámetro limit debe ser un entero positivo");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * La misma URL con {@code after} y {@code limit} de la página siguiente; el resto de parámetros se conserva.
+     */
+    static String nextLink(URI uri, int limit, String nextCursor) {
+        Map<String, String> params = queryParams(uri);
+        params.put(LIMIT_PARAM, String.valueOf(limit));
+        params.put(AFTER_PARAM, nextCursor);
+        StringBuilder link = new StringBuilder(uri.getRawPath()).append('?');
+        boolean first = true;
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (!first) {
+                link.append('&');
+            }
+            first = false;
+            link.append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8));
+            link.append('=').append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+        }
+        return link.toString();
+    }
+
+    private static Map<String, String> queryParams(URI uri) {
+        Map<String, String> params = new LinkedHashMap<>();
+        String query = uri.getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(key, value);
+        }
+        return params;
+    }
+}
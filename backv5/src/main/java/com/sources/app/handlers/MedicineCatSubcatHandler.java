@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.MedicineCatSubcatDAO;
 import com.sources.app.entities.MedicineCatSubcat;
 import com.sources.app.entities.MedicineCatSubcatId;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -161,8 +162,12 @@ public class MedicineCatSubcatHandler implements HttpHandler {
      * @throws IOException If an I/O error occurs or JSON processing fails.
      */
     private void handleGetAll(HttpExchange exchange) throws IOException {
+        if (KeysetPagination.respond(exchange, objectMapper, "application/json; charset=UTF-8", mcsDAO::getPage)) {
+            return;
+        }
         List<MedicineCatSubcat> list = mcsDAO.getAll();
-        sendResponse(exchange, 200, objectMapper.writeValueAsString(list));
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        JsonResponseWriter.write(exchange, 200, objectMapper, list);
     }
 
     /**
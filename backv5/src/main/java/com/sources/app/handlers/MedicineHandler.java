@@ -3,6 +3,7 @@ package com.sources.app.handlers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.entities.Medicine;
 import com.sources.app.dao.MedicineDAO;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -96,8 +97,12 @@ public class MedicineHandler implements HttpHandler {
     private void handleGet(HttpExchange exchange, String path) throws IOException {
         if (path.equalsIgnoreCase(ENDPOINT)) {
             // Get all medicines
+            if (KeysetPagination.respond(exchange, objectMapper, "application/json; charset=UTF-8", medicineDAO::getPage)) {
+                return;
+            }
             List<Medicine> medicines = medicineDAO.getAll();
-            sendResponse(exchange, 200, objectMapper.writeValueAsString(medicines));
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            JsonResponseWriter.write(exchange, 200, objectMapper, medicines);
         } else {
             // Get medicine by ID from path
             try {
@@ -6,6 +6,7 @@ import com.sources.app.entities.OrderMedicine;
 import com.sources.app.entities.OrderMedicineId;
 import com.sources.app.entities.Orders;
 import com.sources.app.entities.Medicine;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -163,8 +164,12 @@ public class OrderMedicineHandler implements HttpHandler {
      * @throws IOException Si ocurre un error de entrada/salida.
      */
     private void handleGetAll(HttpExchange exchange) throws IOException {
+        if (KeysetPagination.respond(exchange, objectMapper, "application/json; charset=UTF-8", orderMedicineDAO::getPage)) {
+            return;
+        }
         List<OrderMedicine> list = orderMedicineDAO.getAll();
-        sendResponse(exchange, 200, objectMapper.writeValueAsString(list));
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        JsonResponseWriter.write(exchange, 200, objectMapper, list);
     }
 
     /**
@@ -3,12 +3,12 @@ package com.sources.app.handlers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.OrdersDAO;
 import com.sources.app.entities.Orders;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.util.List;
 import com.sources.app.entities.User; // Import para validación
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -144,14 +144,18 @@ public class OrdersHandler implements HttpHandler {
     }
 
     /**
-     * Maneja la obtención de todos los pedidos.
+     * Maneja la obtención de todos los pedidos, escritos como un array JSON a medida que se leen de la base de
+     * datos.
      *
      * @param exchange El objeto HttpExchange.
      * @throws IOException Si ocurre un error de entrada/salida.
      */
     private void handleGetAll(HttpExchange exchange) throws IOException {
-        List<Orders> list = ordersDAO.getAll();
-        sendResponse(exchange, 200, objectMapper.writeValueAsString(list));
+        if (KeysetPagination.respond(exchange, objectMapper, "application/json; charset=UTF-8", ordersDAO::getPage)) {
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        ordersDAO.streamAll(orders -> JsonResponseWriter.writeArray(exchange, 200, objectMapper, orders));
     }
 
     /**
@@ -5,6 +5,7 @@ import com.sources.app.entities.Prescription;
 import com.sources.app.dao.PrescriptionDAO;
 import com.sources.app.entities.Hospital;
 import com.sources.app.entities.User;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -149,8 +150,12 @@ public class PrescriptionHandler implements HttpHandler {
      * @throws IOException Si ocurre un error de entrada/salida.
      */
     private void handleGetAll(HttpExchange exchange) throws IOException {
+        if (KeysetPagination.respond(exchange, objectMapper, "application/json; charset=UTF-8", prescriptionDAO::getPage)) {
+            return;
+        }
         List<Prescription> list = prescriptionDAO.getAll();
-        sendResponse(exchange, 200, objectMapper.writeValueAsString(list));
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        JsonResponseWriter.write(exchange, 200, objectMapper, list);
     }
 
     /**
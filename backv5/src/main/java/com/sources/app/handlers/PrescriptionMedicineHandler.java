@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.PrescriptionMedicineDAO;
 import com.sources.app.entities.PrescriptionMedicine;
 import com.sources.app.entities.PrescriptionMedicineId;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -215,14 +216,12 @@ public class PrescriptionMedicineHandler implements HttpHandler {
      * @throws IOException if an I/O error occurs during request processing
      */
     private void handleGetAll(HttpExchange exchange) throws IOException {
+        if (KeysetPagination.respond(exchange, objectMapper, "application/json", prescriptionMedicineDAO::getPage)) {
+            return;
+        }
         List<PrescriptionMedicine> list = prescriptionMedicineDAO.getAll();
-        String jsonResponse = objectMapper.writeValueAsString(list);
         exchange.getResponseHeaders().set("Content-Type", "application/json");
-        byte[] responseBytes = jsonResponse.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(200, responseBytes.length);
-        try(OutputStream os = exchange.getResponseBody()){
-            os.write(responseBytes);
-        }
+        JsonResponseWriter.write(exchange, 200, objectMapper, list);
     }
     
     /**
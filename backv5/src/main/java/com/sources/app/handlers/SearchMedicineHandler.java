@@ -2,7 +2,8 @@ package com.sources.app.handlers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.dao.MedicineDAO;
-import com.sources.app.entities.Medicine;
+import com.sources.app.search.MedicineSearchIndex;
+import com.sources.app.search.MedicineSearchIndex.Field;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
@@ -10,25 +11,44 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Manejador para búsquedas avanzadas de medicamentos por diferentes criterios.
  * Maneja el endpoint /api2/medicines/search
+ *
+ * <p>Parámetros: {@code activeMedicament}, {@code name}, {@code brand} o
+ * {@code q} (todos los campos, incluida la descripción en la búsqueda
+ * aproximada); {@code match} ({@code exact}, {@code prefix},
+ * {@code contains}, por defecto, o {@code fuzzy}); {@code weights} para
+ * ajustar los pesos por campo de la búsqueda aproximada
+ * ({@code name:3,description:0}); {@code offset} y {@code limit} para paginar.
+ * Si no se indica {@code match} y la búsqueda por subcadena no encuentra nada,
+ * se repite en modo aproximado, ordenada por relevancia. El total de
+ * coincidencias se devuelve en la cabecera {@code X-Total-Count} y el modo
+ * usado en {@code X-Search-Mode}.
+ * Las búsquedas se resuelven sobre {@link MedicineSearchIndex}, que se
+ * mantiene con los cambios hechos a través del {@link MedicineDAO}.</p>
  */
 public class SearchMedicineHandler implements HttpHandler {
     private static final Logger LOGGER = Logger.getLogger(SearchMedicineHandler.class.getName());
-    private final MedicineDAO medicineDAO;
+    private final MedicineSearchIndex searchIndex;
     private final ObjectMapper objectMapper;
 
     public SearchMedicineHandler(MedicineDAO medicineDAO) {
-        this.medicineDAO = medicineDAO;
+        this(medicineDAO, new MedicineSearchIndex(medicineDAO::getAll));
+    }
+
+    SearchMedicineHandler(MedicineDAO medicineDAO, MedicineSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
         this.objectMapper = new ObjectMapper();
+        medicineDAO.addChangeListener(searchIndex::upsert);
     }
 
     @Override
@@ -52,80 +72,82 @@ public class SearchMedicineHandler implements HttpHandler {
 
     private void handleSearch(HttpExchange exchange) throws IOException {
         try {
-            // Analizar parámetros de consulta
-            String query = exchange.getRequestURI().getQuery();
-            LOGGER.info("Query recibida: " + query);
-            Map<String, String> params = parseQueryParams(query);
-
-            // Log de todos los parámetros para depuración
-            for (Map.Entry<String, String> entry : params.entrySet()) {
-                LOGGER.info("Parámetro: " + entry.getKey() + " = " + entry.getValue());
+            Map<String, String> params = parseQueryParams(exchange.getRequestURI().getQuery());
+            LOGGER.fine(() -> "Búsqueda de medicamentos: " + params);
+
+            int offset;
+            int limit;
+            try {
+                offset = parseNonNegative(params.get("offset"), 0);
+                limit = parseNonNegative(params.get("limit"), Integer.MAX_VALUE);
+            } catch (NumberFormatException e) {
+                sendErrorResponse(exchange, 400, "Parámetros offset y limit deben ser enteros no negativos.");
+                return;
             }
+            MedicineSearchIndex.Match match = MedicineSearchIndex.Match.parse(params.get("match"));
 
-            // Obtener todos los medicamentos para filtrar
-            List<Medicine> allMedicines = medicineDAO.getAll();
-            LOGGER.info("Total de medicamentos en base de datos: " + allMedicines.size());
-            List<Medicine> results = new ArrayList<>();
-
-            // Buscar por principio activo
+            // Mismo orden de prioridad que antes: principio activo, nombre, marca
+            Set<Field> fields;
+            String text;
             if (params.containsKey("activeMedicament")) {
-                String activeMedicament = params.get("activeMedicament");
-                LOGGER.info("Buscando medicamentos con principio activo: " + activeMedicament);
-                
-                // Imprimir los primeros medicamentos para depuración
-                LOGGER.info("Ejemplos de principios activos en la base de datos:");
-                for (int i = 0; i < Math.min(10, allMedicines.size()); i++) {
-                    LOGGER.info("Medicamento " + i + ": " + allMedicines.get(i).getName() + 
-                               ", Principio activo: " + allMedicines.get(i).getActiveMedicament());
-                }
-                
-                // Filtrar medicamentos por principio activo (insensible a mayúsculas/minúsculas)
-                for (Medicine medicine : allMedicines) {
-                    if (medicine.getActiveMedicament() != null) {
-                        // Búsqueda más flexible: primero intentamos coincidencia exacta
-                        if (medicine.getActiveMedicament().equalsIgnoreCase(activeMedicament)) {
-                            LOGGER.info("¡Coincidencia exacta encontrada! Medicamento: " + medicine.getName());
-                            results.add(medicine);
-                        } 
-                        // Si no hay coincidencia exacta, buscamos coincidencia parcial
-                        else if (medicine.getActiveMedicament().toLowerCase().contains(activeMedicament.toLowerCase())) {
-                            LOGGER.info("Coincidencia parcial encontrada. Medicamento: " + medicine.getName() + 
-                                       ", Principio activo: " + medicine.getActiveMedicament());
-                            results.add(medicine);
-                        }
-                    }
-                }
-            } 
-            // Buscar por nombre si no se especificó principio activo o como búsqueda secundaria
-            else if (params.containsKey("name")) {
-                String name = params.get("name");
-                LOGGER.info("Buscando medicamentos con nombre: " + name);
-                
-                // Filtrar medicamentos por nombre (insensible a mayúsculas/minúsculas)
-                for (Medicine medicine : allMedicines) {
-                    if (medicine.getName() != null && 
-                        medicine.getName().toLowerCase().contains(name.toLowerCase())) {
-                        results.add(medicine);
-                    }
+                fields = EnumSet.of(Field.ACTIVE_MEDICAMENT);
+                text = params.get("activeMedicament");
+            } else if (params.containsKey("name")) {
+                fields = EnumSet.of(Field.NAME);
+                text = params.get("name");
+            } else if (params.containsKey("brand")) {
+                fields = EnumSet.of(Field.BRAND);
+                text = params.get("brand");
+            } else if (params.containsKey("q")) {
+                fields = EnumSet.allOf(Field.class);
+                text = params.get("q");
+            } else {
+                fields = null;
+                text = null;
+            }
+
+            MedicineSearchIndex.Page page;
+            if (fields == null) {
+                page = searchIndex.all(offset, limit);
+            } else if (match == MedicineSearchIndex.Match.FUZZY) {
+                page = fuzzySearch(fields, text, params.get("weights"), offset, limit);
+            } else {
+                page = searchIndex.search(fields, text, match, offset, limit);
+                // Sin modo explícito, una búsqueda sin resultados se repite tolerando errores
+                if (page.getTotal() == 0 && !params.containsKey("match") && !text.isBlank()) {
+                    match = MedicineSearchIndex.Match.FUZZY;
+                    page = fuzzySearch(fields, text, params.get("weights"), offset, limit);
                 }
-            } 
-            // Si no hay parámetros de búsqueda, devolver todos
-            else {
-                LOGGER.info("No se especificó criterio de búsqueda, devolviendo todos los medicamentos");
-                results = allMedicines;
             }
 
-            LOGGER.info("Total de resultados encontrados: " + results.size());
-            
-            // Enviar resultados
-            sendJsonResponse(exchange, 200, results);
-            
+            exchange.getResponseHeaders().set("X-Total-Count", String.valueOf(page.getTotal()));
+            exchange.getResponseHeaders().set("X-Search-Mode", match.name().toLowerCase(Locale.ROOT));
+            sendJsonResponse(exchange, 200, page.getItems());
+
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error al procesar la búsqueda: " + e.getMessage(), e);
             sendErrorResponse(exchange, 500, "Error interno al buscar medicamentos: " + e.getMessage());
         }
     }
 
+    private MedicineSearchIndex.Page fuzzySearch(Set<Field> fields, String text, String weightsParam,
+                                                 int offset, int limit) {
+        Map<Field, Double> weights = MedicineSearchIndex.parseWeights(weightsParam, searchIndex.getDefaultWeights());
+        weights.keySet().retainAll(fields);
+        return searchIndex.fuzzySearch(text, weights, offset, limit);
+    }
+
+    private static int parseNonNegative(String value, int defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        int parsed = Integer.parseInt(value.trim());
+        if (parsed < 0) {
+            throw new NumberFormatException(value);
+        }
+        return parsed;
+    }
+
     private Map<String, String> parseQueryParams(String query) {
         Map<String, String> params = new HashMap<>();
         if (query == null || query.isEmpty()) {
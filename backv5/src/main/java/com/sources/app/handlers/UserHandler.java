@@ -2,8 +2,10 @@ package com.sources.app.handlers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sources.app.entities.User;
+import com.sources.app.dao.KeysetPage;
 import com.sources.app.dao.UserDAO;
 import com.sources.app.dto.UserCreateRequest;
+import com.sources.app.util.JsonResponseWriter;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import java.io.IOException;
@@ -162,10 +164,19 @@ public class UserHandler implements HttpHandler {
      * @throws IOException If an I/O error occurs or JSON processing fails.
      */
     private void handleGetAll(HttpExchange exchange) throws IOException {
+        boolean paged = KeysetPagination.respond(exchange, objectMapper, "application/json; charset=UTF-8", (after, limit) -> {
+            KeysetPage<User> page = userDAO.getPage(after, limit);
+            page.getItems().forEach(u -> u.setPassword(null));
+            return page;
+        });
+        if (paged) {
+            return;
+        }
         List<User> users = userDAO.getAll();
         // Omit passwords from the list
         users.forEach(u -> u.setPassword(null)); 
-        sendResponse(exchange, 200, objectMapper.writeValueAsString(users));
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        JsonResponseWriter.write(exchange, 200, objectMapper, users);
     }
 
     /**
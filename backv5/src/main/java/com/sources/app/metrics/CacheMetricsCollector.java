@@ -0,0 +1,95 @@
+package com.sources.app.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+
+/**
+ * Exports the JCache statistics of the Hibernate second-level cache regions
+ * (hits, misses, puts and evictions per cache).
+ *
+ * <p>The values are read on every scrape from the standard
+ * {@code javax.cache:type=CacheStatistics} MBeans, which Ehcache registers
+ * when {@code enable-statistics} is set in {@code ehcache.xml}.</p>
+ */
+public class CacheMetricsCollector extends Collector {
+
+    private static final String[] ATTRIBUTES = {"CacheHits", "CacheMisses", "CachePuts", "CacheEvictions"};
+
+    private final MBeanServer server;
+    private final ObjectName pattern;
+
+    public CacheMetricsCollector() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    CacheMetricsCollector(MBeanServer server) {
+        this.server = server;
+        try {
+            this.pattern = new ObjectName("javax.cache:type=CacheStatistics,*");
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        // Un mismo nombre de caché puede existir en varios CacheManager
+        Map<String, long[]> totals = new TreeMap<>();
+        Set<ObjectName> names = server.queryNames(pattern, null);
+        for (ObjectName name : names) {
+            String cache = name.getKeyProperty("Cache");
+            if (cache == null) {
+                continue;
+            }
+            long[] values = totals.computeIfAbsent(cache, k -> new long[ATTRIBUTES.length]);
+            for (int i = 0; i < ATTRIBUTES.length; i++) {
+                values[i] += readLong(name, ATTRIBUTES[i]);
+            }
+        }
+
+        CounterMetricFamily hits = new CounterMetricFamily("ensurance_cache_hits_total",
+                "Second-level cache hits per cache region", List.of("cache"));
+        CounterMetricFamily misses = new CounterMetricFamily("ensurance_cache_misses_total",
+                "Second-level cache misses per cache region", List.of("cache"));
+        CounterMetricFamily puts = new CounterMetricFamily("ensurance_cache_puts_total",
+                "Entries stored in the second-level cache per cache region", List.of("cache"));
+        CounterMetricFamily evictions = new CounterMetricFamily("ensurance_cache_evictions_total",
+                "Entries evicted from the second-level cache per cache region", List.of("cache"));
+        for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+            List<String> labels = List.of(entry.getKey());
+            long[] values = entry.getValue();
+            hits.addMetric(labels, values[0]);
+            misses.addMetric(labels, values[1]);
+            puts.addMetric(labels, values[2]);
+            evictions.addMetric(labels, values[3]);
+        }
+
+        List<MetricFamilySamples> samples = new ArrayList<>();
+        samples.add(hits);
+        samples.add(misses);
+        samples.add(puts);
+        samples.add(evictions);
+        return samples;
+    }
+
+    private long readLong(ObjectName name, String attribute) {
+        try {
+            Object value = server.getAttribute(name, attribute);
+            return value instanceof Number ? ((Number) value).longValue() : 0L;
+        } catch (Exception e) {
+            // La caché pudo cerrarse entre la consulta y la lectura
+            return 0L;
+        }
+    }
+}
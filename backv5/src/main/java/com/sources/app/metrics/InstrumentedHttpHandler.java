@@ -1,5 +1,8 @@
 package com.sources.app.metrics;
 
+import com.sources.app.tracing.Span;
+import com.sources.app.tracing.Tracing;
+import com.sources.app.util.QueryMetrics;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import io.prometheus.client.Histogram;
@@ -10,6 +13,9 @@ import java.util.Objects;
 
 /**
  * Decorates {@link HttpHandler} instances with Prometheus metrics instrumentation.
+ * SQL statements issued while the request runs are counted through
+ * {@link QueryMetrics}, and each request runs inside a server span that
+ * continues the caller's {@code traceparent} ({@link Tracing}).
  */
 public final class InstrumentedHttpHandler implements HttpHandler {
 
@@ -31,6 +37,11 @@ public final class InstrumentedHttpHandler implements HttpHandler {
         
         String method = exchange.getRequestMethod();
         MetricsConfiguration.HTTP_INFLIGHT_REQUESTS.labels(pathLabel).inc();
+        QueryMetrics.beginRequest();
+        Span span = Tracing.startServerSpan(method + " " + pathLabel,
+                exchange.getRequestHeaders().getFirst(Tracing.TRACEPARENT_HEADER),
+                exchange.getRequestHeaders().getFirst(Tracing.TRACESTATE_HEADER));
+        Span.Scope scope = span.makeCurrent();
         Histogram.Timer timer = MetricsConfiguration.HTTP_REQUEST_DURATION_SECONDS
                 .labels(pathLabel, method)
                 .startTimer();
@@ -49,10 +60,12 @@ public final class InstrumentedHttpHandler implements HttpHandler {
             }
         } catch (IOException | RuntimeException e) {
             statusCode = 500;
+            span.recordException(e);
             throw e;
         } finally {
             timer.observeDuration();
             MetricsConfiguration.HTTP_INFLIGHT_REQUESTS.labels(pathLabel).dec();
+            QueryMetrics.endRequest(pathLabel);
             
             double bytes = countingStream.getCount();
             MetricsConfiguration.HTTP_REQUEST_SIZE_BYTES
@@ -62,6 +75,16 @@ public final class InstrumentedHttpHandler implements HttpHandler {
             MetricsConfiguration.HTTP_REQUESTS_TOTAL
                     .labels(pathLabel, method, Integer.toString(statusCode))
                     .inc();
+
+            span.setAttribute("http.request.method", method)
+                    .setAttribute("http.route", pathLabel)
+                    .setAttribute("url.path", exchange.getRequestURI().getPath())
+                    .setAttribute("http.response.status_code", statusCode);
+            if (statusCode >= 500) {
+                span.setError("HTTP " + statusCode);
+            }
+            span.end();
+            scope.close();
         }
     }
 
@@ -34,12 +34,116 @@ public final class MetricsConfiguration {
             .labelNames("path")
             .register(REGISTRY);
 
+    public static final Counter DB_QUERIES_TOTAL = Counter.build()
+            .name("ensurance_db_queries_total")
+            .help("Total database queries executed by the pharmacy backend")
+            .labelNames("operation", "entity", "status")
+            .register(REGISTRY);
+
+    public static final Histogram DB_QUERY_DURATION_SECONDS = Histogram.build()
+            .name("ensurance_db_query_duration_seconds")
+            .help("Hibernate query execution time by normalized statement and entity")
+            .labelNames("statement", "entity")
+            .buckets(0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5)
+            .register(REGISTRY);
+
+    public static final Histogram DB_STATEMENTS_PER_REQUEST = Histogram.build()
+            .name("ensurance_db_statements_per_request")
+            .help("SQL statements issued while handling one HTTP request")
+            .labelNames("path")
+            .buckets(0, 1, 2, 5, 10, 25, 50, 100, 250)
+            .register(REGISTRY);
+
+    public static final Counter DB_REQUEST_STATEMENT_THRESHOLD_EXCEEDED_TOTAL = Counter.build()
+            .name("ensurance_db_request_statement_threshold_exceeded_total")
+            .help("HTTP requests that issued more SQL statements than DB_REQUEST_STATEMENT_THRESHOLD")
+            .labelNames("path")
+            .register(REGISTRY);
+
+    public static final Gauge HTTP_EXECUTOR_ACTIVE_REQUESTS = Gauge.build()
+            .name("ensurance_http_executor_active_requests")
+            .help("HTTP requests currently running on the server executor")
+            .labelNames("mode")
+            .register(REGISTRY);
+
+    public static final Gauge HTTP_EXECUTOR_QUEUED_REQUESTS = Gauge.build()
+            .name("ensurance_http_executor_queued_requests")
+            .help("HTTP requests accepted and waiting for an executor thread")
+            .labelNames("mode")
+            .register(REGISTRY);
+
     public static final Summary HTTP_REQUEST_SIZE_BYTES = Summary.build()
             .name("ensurance_http_request_size_bytes")
             .help("Size of HTTP request bodies in bytes")
             .labelNames("path", LABEL_METHOD)
             .register(REGISTRY);
 
+    public static final Counter ADMISSION_REJECTED_TOTAL = Counter.build()
+            .name("ensurance_admission_rejected_total")
+            .help("Requests rejected with 503 by admission control")
+            .labelNames("route_class", "path")
+            .register(REGISTRY);
+
+    public static final Gauge ADMISSION_INFLIGHT_REQUESTS = Gauge.build()
+            .name("ensurance_admission_inflight_requests")
+            .help("Requests currently holding an admission slot")
+            .labelNames("route_class")
+            .register(REGISTRY);
+
+    public static final Gauge ADMISSION_QUEUED_REQUESTS = Gauge.build()
+            .name("ensurance_admission_queued_requests")
+            .help("Requests waiting for an admission slot")
+            .labelNames("route_class")
+            .register(REGISTRY);
+
+    public static final Counter HTTP_CLIENT_REQUESTS_TOTAL = Counter.build()
+            .name("ensurance_http_client_requests_total")
+            .help("Outgoing HTTP requests sent through the shared pooled client")
+            .labelNames("host", "version")
+            .register(REGISTRY);
+
+    public static final Gauge HTTP_CLIENT_IN_FLIGHT = Gauge.build()
+            .name("ensurance_http_client_inflight_requests")
+            .help("Outgoing HTTP requests currently waiting for a response, per host")
+            .labelNames("host")
+            .register(REGISTRY);
+
+    public static final Counter HTTP_CLIENT_LIMIT_WAITS_TOTAL = Counter.build()
+            .name("ensurance_http_client_limit_waits_total")
+            .help("Outgoing HTTP requests that had to wait for the per-host connection limit")
+            .labelNames("host")
+            .register(REGISTRY);
+
+    public static final Counter HTTP_CLIENT_SINGLE_FLIGHT_TOTAL = Counter.build()
+            .name("ensurance_http_client_single_flight_total")
+            .help("Outgoing GET calls by single-flight role: leader sends the request, shared reuses an identical one in flight")
+            .labelNames("host", "role")
+            .register(REGISTRY);
+
+    public static final Gauge CIRCUIT_BREAKER_STATE = Gauge.build()
+            .name("ensurance_circuit_breaker_state")
+            .help("Circuit breaker state per downstream service: 0 closed, 1 open, 2 half-open")
+            .labelNames("downstream")
+            .register(REGISTRY);
+
+    public static final Counter CIRCUIT_BREAKER_TRANSITIONS_TOTAL = Counter.build()
+            .name("ensurance_circuit_breaker_transitions_total")
+            .help("Circuit breaker state transitions per downstream service")
+            .labelNames("downstream", "from", "to")
+            .register(REGISTRY);
+
+    public static final Counter DOWNSTREAM_REJECTED_TOTAL = Counter.build()
+            .name("ensurance_downstream_rejected_total")
+            .help("Calls to a downstream service refused without being attempted")
+            .labelNames("downstream", "reason")
+            .register(REGISTRY);
+
+    public static final Counter TRACE_SPANS_TOTAL = Counter.build()
+            .name("ensurance_trace_spans_total")
+            .help("Sampled trace spans by export result: exported, dropped or failed")
+            .labelNames("result")
+            .register(REGISTRY);
+
     private static volatile boolean initialized = false;
 
     private MetricsConfiguration() {
@@ -47,11 +151,13 @@ public final class MetricsConfiguration {
     }
 
     /**
-     * Initializes the default JVM and system metrics exactly once.
+     * Initializes the default JVM and system metrics, plus the second-level
+     * cache statistics, exactly once.
      */
     public static synchronized void initialize() {
         if (!initialized) {
             DefaultExports.initialize();
+            new CacheMetricsCollector().register(REGISTRY);
             initialized = true;
         }
     }
@@ -0,0 +1,141 @@
+package com.sources.app.resilience;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
+
+import com.sources.app.exceptions.DownstreamUnavailableException;
+import com.sources.app.metrics.MetricsConfiguration;
+
+/**
+ * Circuit breaker plus bulkhead for one {@link Downstream}. A call is refused
+ * right away with {@link DownstreamUnavailableException} when the circuit is
+ * open or when {@code maxConcurrent} calls to that service are already
+ * running, so request threads do not pile up waiting on a service that is
+ * down.
+ *
+ * <p>The shared HTTP client finds the guard of each request by its host and
+ * port; clients register their base URLs with {@link #register}. Requests to
+ * unregistered hosts are not guarded.</p>
+ */
+public final class DownstreamGuard {
+
+    /**
+     * Llamada de E/S protegida por el guard.
+     */
+    @FunctionalInterface
+    public interface IoCall<T> {
+        T call() throws IOException;
+    }
+
+    private static final Map<Downstream, DownstreamGuard> GUARDS = new EnumMap<>(Downstream.class);
+    private static final Map<String, Downstream> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private final String downstream;
+    private final CircuitBreaker breaker;
+    private final Semaphore bulkhead;
+    private final int maxConcurrent;
+
+    DownstreamGuard(String downstream, int maxConcurrent, CircuitBreaker breaker) {
+        this.downstream = downstream;
+        this.breaker = breaker;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Devuelve el guard compartido del servicio, creándolo con la
+     * configuración del entorno la primera vez.
+     */
+    public static synchronized DownstreamGuard forDownstream(Downstream downstream) {
+        return GUARDS.computeIfAbsent(downstream, d -> new DownstreamGuard(d.label(), d.maxConcurrent(),
+                new CircuitBreaker(d.label(), d.windowSize(), d.minimumCalls(), d.failureRatePercent(),
+                        d.openMillis(), d.halfOpenCalls(), System::currentTimeMillis)));
+    }
+
+    /**
+     * Asocia el host y puerto de una URL base al servicio dado. URLs mal
+     * formadas se ignoran.
+     */
+    public static void register(Downstream downstream, String baseUrl) {
+        if (baseUrl == null) {
+            return;
+        }
+        try {
+            String authority = authority(URI.create(baseUrl.trim()));
+            if (authority != null) {
+                AUTHORITIES.put(authority, downstream);
+            }
+        } catch (IllegalArgumentException e) {
+            // URL base inválida: las peticiones a ese host quedan sin guard
+        }
+    }
+
+    /**
+     * @return el guard del servicio registrado para el host y puerto de la
+     * URI, o null si no hay ninguno.
+     */
+    public static DownstreamGuard forUri(URI uri) {
+        String authority = authority(uri);
+        Downstream downstream = authority == null ? null : AUTHORITIES.get(authority);
+        return downstream == null ? null : forDownstream(downstream);
+    }
+
+    private static String authority(URI uri) {
+        if (uri.getHost() == null) {
+            return null;
+        }
+        return uri.getHost().toLowerCase(Locale.ROOT) + (uri.getPort() == -1 ? "" : ":" + uri.getPort());
+    }
+
+    /**
+     * Ejecuta la llamada si el circuito y el bulkhead lo permiten.
+     *
+     * @param isFailure Decide si un resultado sin excepción cuenta como fallo
+     * (por ejemplo, una respuesta 5xx).
+     * @throws DownstreamUnavailableException Si la llamada se rechaza sin
+     * intentarla.
+     */
+    public <T> T call(IoCall<T> call, Predicate<? super T> isFailure) throws IOException {
+        if (!bulkhead.tryAcquire()) {
+            MetricsConfiguration.DOWNSTREAM_REJECTED_TOTAL.labels(downstream, "bulkhead_full").inc();
+            throw new DownstreamUnavailableException("Servicio " + downstream + " saturado: "
+                    + maxConcurrent + " llamadas en curso");
+        }
+        try {
+            if (!breaker.tryAcquirePermission()) {
+                MetricsConfiguration.DOWNSTREAM_REJECTED_TOTAL.labels(downstream, "circuit_open").inc();
+                throw new DownstreamUnavailableException("Servicio " + downstream
+                        + " no disponible: circuito abierto");
+            }
+            T result;
+            try {
+                result = call.call();
+            } catch (IOException | RuntimeException e) {
+                breaker.onFailure();
+                throw e;
+            }
+            if (isFailure.test(result)) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+            return result;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public CircuitBreaker.State getState() {
+        return breaker.getState();
+    }
+
+    public String getDownstream() {
+        return downstream;
+    }
+}
@@ -0,0 +1,652 @@
+package com.sources.app.search;
+
+import com.sources.app.entities.Medicine;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Índice en memoria del catálogo de medicamentos para el endpoint
+ * /api2/medicines/search.
+ *
+ * <p>Cada campo indexado ({@link Field}) guarda sus valores normalizados
+ * (minúsculas y sin tildes) en un mapa ordenado, que resuelve las búsquedas
+ * exactas y por prefijo, y en un índice de trigramas que reduce las búsquedas
+ * por subcadena a los documentos que contienen todos los trigramas de la
+ * consulta.</p>
+ *
+ * <p>Para la búsqueda aproximada ({@link Match#FUZZY}) se mantiene además un
+ * vocabulario de palabras con sus trigramas ({@link TermIndex}) que incluye
+ * la descripción; los resultados se ordenan por relevancia según el peso de
+ * cada campo ({@code MEDICINE_SEARCH_WEIGHTS}, p. ej.
+ * {@code name:3,activeMedicament:2.5,brand:1.5,description:1}).</p>
+ *
+ * <p>El índice se construye con el cargador en la primera búsqueda y se
+ * mantiene con {@link #upsert(Medicine)}, que {@code MedicineDAO} invoca tras
+ * cada alta o modificación. Para recoger cambios hechos por otras instancias,
+ * se reconstruye en segundo plano cuando tiene más de
+ * {@code MEDICINE_INDEX_REFRESH_SECONDS} segundos (300 por defecto, 0 lo
+ * desactiva); mientras tanto se sigue respondiendo con la versión anterior.</p>
+ */
+public class MedicineSearchIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(MedicineSearchIndex.class.getName());
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    static final long DEFAULT_REFRESH_SECONDS = 300;
+    static final int GRAM_SIZE = 3;
+
+    /**
+     * Campos del medicamento incluidos en el índice.
+     */
+    public enum Field {
+        NAME("name", 3.0, true, Medicine::getName),
+        ACTIVE_MEDICAMENT("activeMedicament", 2.5, true, Medicine::getActiveMedicament),
+        BRAND("brand", 1.5, true, Medicine::getBrand),
+        /** Solo participa en la búsqueda aproximada. */
+        DESCRIPTION("description", 1.0, false, Medicine::getDescription);
+
+        private final String param;
+        private final double defaultWeight;
+        private final boolean substringIndexed;
+        private final Function<Medicine, String> accessor;
+
+        Field(String param, double defaultWeight, boolean substringIndexed, Function<Medicine, String> accessor) {
+            this.param = param;
+            this.defaultWeight = defaultWeight;
+            this.substringIndexed = substringIndexed;
+            this.accessor = accessor;
+        }
+
+        /**
+         * @return nombre del campo en la API (el del atributo de la entidad).
+         */
+        public String getParam() {
+            return param;
+        }
+
+        String valueOf(Medicine medicine) {
+            return accessor.apply(medicine);
+        }
+
+        static Field fromParam(String param) {
+            for (Field field : values()) {
+                if (field.param.equalsIgnoreCase(param)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Tipo de coincidencia entre la consulta y el valor del campo.
+     */
+    public enum Match {
+        EXACT, PREFIX, CONTAINS, FUZZY;
+
+        /**
+         * @return el tipo indicado, o {@link #CONTAINS} si el valor es nulo o
+         * no se reconoce.
+         */
+        public static Match parse(String value) {
+            if (value == null || value.isBlank()) {
+                return CONTAINS;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return CONTAINS;
+            }
+        }
+    }
+
+    /**
+     * Página de resultados junto con el total de coincidencias.
+     */
+    public static final class Page {
+
+        private final int total;
+        private final List<Medicine> items;
+
+        Page(int total, List<Medicine> items) {
+            this.total = total;
+            this.items = items;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public List<Medicine> getItems() {
+            return items;
+        }
+    }
+
+    private final Supplier<List<Medicine>> loader;
+    private final long refreshNanos;
+    private final Map<Field, Double> defaultWeights;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    // Protegidos por lock
+    private Documents documents;
+    private List<Medicine> pendingUpserts;
+    private long loadedAt;
+
+    /**
+     * @param loader fuente del catálogo completo, normalmente
+     * {@code MedicineDAO::getAll}.
+     */
+    public MedicineSearchIndex(Supplier<List<Medicine>> loader) {
+        this(loader, refreshSeconds());
+    }
+
+    MedicineSearchIndex(Supplier<List<Medicine>> loader, long refreshSeconds) {
+        this.loader = loader;
+        this.refreshNanos = refreshSeconds > 0 ? refreshSeconds * 1_000_000_000L : 0L;
+        this.defaultWeights = parseWeights(System.getenv("MEDICINE_SEARCH_WEIGHTS"), null);
+    }
+
+    /**
+     * @return pesos por campo usados en la búsqueda aproximada cuando la
+     * petición no indica otros ({@code MEDICINE_SEARCH_WEIGHTS}).
+     */
+    public Map<Field, Double> getDefaultWeights() {
+        return defaultWeights;
+    }
+
+    /**
+     * Busca medicamentos cuyo valor en alguno de los campos coincide con la
+     * consulta. Los resultados conservan el orden de carga, salvo con
+     * {@link Match#FUZZY}, que ordena por relevancia con los pesos por
+     * defecto (ver {@link #fuzzySearch}).
+     *
+     * @param fields campos en los que buscar.
+     * @param query texto buscado; se normaliza igual que los valores.
+     * @param match tipo de coincidencia.
+     * @param offset número de resultados a saltar.
+     * @param limit número máximo de resultados a devolver.
+     * @return la página pedida y el total de coincidencias.
+     * @throws RuntimeException si el índice no estaba cargado y el cargador
+     * falla.
+     */
+    public Page search(Collection<Field> fields, String query, Match match, int offset, int limit) {
+        if (match == Match.FUZZY) {
+            Map<Field, Double> weights = new EnumMap<>(Field.class);
+            for (Field field : fields) {
+                weights.put(field, defaultWeights.get(field));
+            }
+            return fuzzySearch(query, weights, offset, limit);
+        }
+        ensureLoaded();
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            SortedSet<Integer> matches = new TreeSet<>();
+            for (Field field : fields) {
+                FieldIndex index = documents.fields.get(field);
+                if (index != null) {
+                    index.collect(normalized == null ? "" : normalized, match, matches);
+                }
+            }
+            return documents.page(matches, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Búsqueda tolerante a errores de escritura, ordenada por relevancia.
+     *
+     * <p>Cada palabra de la consulta se compara con las palabras de los campos
+     * por trigramas y distancia de edición (hasta una edición en palabras de
+     * 3 a 5 letras y dos en las más largas); una palabra que empieza por la de
+     * la consulta también cuenta. La puntuación de un medicamento suma, por
+     * cada palabra de la consulta, su mejor similitud multiplicada por el peso
+     * del campo donde aparece. A igual puntuación se respeta el orden de
+     * carga.</p>
+     *
+     * @param query texto buscado.
+     * @param weights peso por campo; los campos ausentes o con peso 0 no se
+     * consultan.
+     * @param offset número de resultados a saltar.
+     * @param limit número máximo de resultados a devolver.
+     * @return la página pedida y el total de medicamentos con alguna
+     * coincidencia.
+     */
+    public Page fuzzySearch(String query, Map<Field, Double> weights, int offset, int limit) {
+        ensureLoaded();
+        double[] fieldWeights = new double[Field.values().length];
+        for (Map.Entry<Field, Double> entry : weights.entrySet()) {
+            if (entry.getValue() != null) {
+                fieldWeights[entry.getKey().ordinal()] = entry.getValue();
+            }
+        }
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            return documents.rank(normalized, fieldWeights, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return una página de todo el catálogo, en orden de carga.
+     */
+    public Page all(int offset, int limit) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return documents.page(null, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Añade o reemplaza un medicamento en el índice. Si el índice aún no se
+     * ha cargado no hace nada, porque la carga inicial ya lo leerá.
+     */
+    public void upsert(Medicine medicine) {
+        if (medicine == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (pendingUpserts != null) {
+                pendingUpserts.add(medicine);
+            }
+            if (documents != null) {
+                documents.upsert(medicine);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vuelve a leer el catálogo completo y reemplaza el índice. Las
+     * modificaciones recibidas durante la carga se aplican sobre el nuevo
+     * índice antes de publicarlo.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                pendingUpserts = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Documents fresh = new Documents();
+            try {
+                List<Medicine> medicines = loader.get();
+                if (medicines != null) {
+                    medicines.forEach(fresh::upsert);
+                }
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pendingUpserts = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                pendingUpserts.forEach(fresh::upsert);
+                pendingUpserts = null;
+                documents = fresh;
+                loadedAt = System.nanoTime();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            LOGGER.fine(() -> "Índice de medicamentos reconstruido (" + fresh.size() + " documentos)");
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * @return número de medicamentos indexados (0 si aún no se cargó).
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents == null ? 0 : documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        long age;
+        lock.readLock().lock();
+        try {
+            age = documents == null ? -1L : System.nanoTime() - loadedAt;
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (age < 0) {
+            // Solo una petición hace la carga inicial; las demás esperan su resultado
+            rebuildLock.lock();
+            try {
+                if (!isLoaded()) {
+                    rebuild();
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        } else if (refreshNanos > 0 && age > refreshNanos && refreshing.compareAndSet(false, true)) {
+            Thread.ofPlatform().daemon().name("medicine-index-refresh").start(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Error reconstruyendo el índice de medicamentos", e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+    }
+
+    private boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return documents != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Pasa a minúsculas y elimina tildes y espacios en los extremos.
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    /**
+     * Lee pesos con el formato {@code campo:peso} separados por comas, p. ej.
+     * {@code name:3,activeMedicament:2.5,description:0}. Los campos que no
+     * aparecen o no se entienden conservan el peso base.
+     *
+     * @param spec texto a interpretar; puede ser nulo.
+     * @param base pesos de partida, o {@code null} para los de {@link Field}.
+     * @return pesos para todos los campos.
+     */
+    public static Map<Field, Double> parseWeights(String spec, Map<Field, Double> base) {
+        Map<Field, Double> weights = new EnumMap<>(Field.class);
+        for (Field field : Field.values()) {
+            weights.put(field, base != null && base.get(field) != null ? base.get(field) : field.defaultWeight);
+        }
+        if (spec == null || spec.isBlank()) {
+            return weights;
+        }
+        for (String pair : spec.split(",")) {
+            String[] parts = pair.split(":", 2);
+            Field field = parts.length == 2 ? Field.fromParam(parts[0].trim()) : null;
+            if (field == null) {
+                continue;
+            }
+            try {
+                weights.put(field, Math.max(0.0, Double.parseDouble(parts[1].trim())));
+            } catch (NumberFormatException e) {
+                LOGGER.fine(() -> "Peso inválido ignorado: " + pair);
+            }
+        }
+        return weights;
+    }
+
+    static long refreshSeconds() {
+        String value = System.getenv("MEDICINE_INDEX_REFRESH_SECONDS");
+        if (value == null || value.isBlank()) {
+            return DEFAULT_REFRESH_SECONDS;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_REFRESH_SECONDS;
+        }
+    }
+
+    /**
+     * Documentos indexados. Cada medicamento recibe un número de documento
+     * según su orden de llegada; un medicamento con id conocido reutiliza su
+     * número al modificarse.
+     */
+    private static final class Documents {
+
+        private final List<Medicine> medicines = new ArrayList<>();
+        private final Map<Long, Integer> docById = new HashMap<>();
+        private final Map<Field, FieldIndex> fields = new EnumMap<>(Field.class);
+        private final TermIndex terms = new TermIndex();
+
+        Documents() {
+            for (Field field : Field.values()) {
+                if (field.substringIndexed) {
+                    fields.put(field, new FieldIndex());
+                }
+            }
+        }
+
+        void upsert(Medicine medicine) {
+            Long id = medicine.getIdMedicine();
+            Integer doc = id == null ? null : docById.get(id);
+            if (doc == null) {
+                doc = medicines.size();
+                medicines.add(medicine);
+                if (id != null) {
+                    docById.put(id, doc);
+                }
+            } else {
+                for (FieldIndex index : fields.values()) {
+                    index.remove(doc);
+                }
+                terms.remove(doc);
+                medicines.set(doc, medicine);
+            }
+            for (Map.Entry<Field, FieldIndex> entry : fields.entrySet()) {
+                entry.getValue().add(doc, normalize(entry.getKey().valueOf(medicine)));
+            }
+            terms.add(doc, medicine);
+        }
+
+        Page rank(String query, double[] weights, int offset, int limit) {
+            TermIndex.Scores scores = terms.score(query, weights, medicines.size());
+            int total = scores.size();
+            int from = Math.min(Math.max(0, offset), total);
+            int to = (int) Math.min(total, (long) from + Math.max(0, limit));
+            // Clave ordenable: puntuación descendente y, a igualdad, orden de carga
+            long[] keys = new long[total];
+            for (int i = 0; i < total; i++) {
+                int doc = scores.doc(i);
+                int bits = Float.floatToIntBits((float) scores.score(doc));
+                keys[i] = ((long) (Integer.MAX_VALUE - bits) << 32) | doc;
+            }
+            long[] top = smallest(keys, to);
+            List<Medicine> items = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                items.add(medicines.get((int) top[i]));
+            }
+            return new Page(total, items);
+        }
+
+        /**
+         * @return las {@code count} claves menores, ordenadas. Para páginas
+         * pequeñas evita ordenar todas las coincidencias.
+         */
+        private static long[] smallest(long[] keys, int count) {
+            if (count >= keys.length / 4) {
+                Arrays.sort(keys);
+                return keys;
+            }
+            PriorityQueue<Long> heap = new PriorityQueue<>(count + 1, Collections.reverseOrder());
+            for (long key : keys) {
+                if (heap.size() < count) {
+                    heap.add(key);
+                } else if (count > 0 && key < heap.peek()) {
+                    heap.poll();
+                    heap.add(key);
+                }
+            }
+            long[] top = new long[heap.size()];
+            for (int i = top.length - 1; i >= 0; i--) {
+                top[i] = heap.poll();
+            }
+            return top;
+        }
+
+        int size() {
+            return medicines.size();
+        }
+
+        Page page(SortedSet<Integer> docs, int offset, int limit) {
+            int total = docs == null ? medicines.size() : docs.size();
+            int from = Math.min(Math.max(0, offset), total);
+            int to = (int) Math.min(total, (long) from + Math.max(0, limit));
+            if (docs == null) {
+                return new Page(total, new ArrayList<>(medicines.subList(from, to)));
+            }
+            List<Medicine> items = new ArrayList<>(to - from);
+            int position = 0;
+            for (Integer doc : docs) {
+                if (position >= to) {
+                    break;
+                }
+                if (position >= from) {
+                    items.add(medicines.get(doc));
+                }
+                position++;
+            }
+            return new Page(total, items);
+        }
+    }
+
+    /**
+     * Índice de un campo: valor normalizado por documento, documentos por
+     * valor (ordenado) y documentos por trigrama.
+     */
+    private static final class FieldIndex {
+
+        private final Map<Integer, String> valueByDoc = new HashMap<>();
+        private final NavigableMap<String, Set<Integer>> docsByValue = new TreeMap<>();
+        private final Map<String, Set<Integer>> docsByGram = new HashMap<>();
+
+        void add(int doc, String value) {
+            if (value == null) {
+                return;
+            }
+            valueByDoc.put(doc, value);
+            docsByValue.computeIfAbsent(value, k -> new TreeSet<>()).add(doc);
+            for (String gram : grams(value)) {
+                docsByGram.computeIfAbsent(gram, k -> new TreeSet<>()).add(doc);
+            }
+        }
+
+        void remove(int doc) {
+            String value = valueByDoc.remove(doc);
+            if (value == null) {
+                return;
+            }
+            removeFrom(docsByValue, value, doc);
+            for (String gram : grams(value)) {
+                removeFrom(docsByGram, gram, doc);
+            }
+        }
+
+        void collect(String query, Match match, Set<Integer> out) {
+            switch (match) {
+                case EXACT:
+                    out.addAll(docsByValue.getOrDefault(query, Collections.emptySet()));
+                    break;
+                case PREFIX:
+                    for (Set<Integer> docs : docsByValue.subMap(query, true, query + Character.MAX_VALUE, true).values()) {
+                        out.addAll(docs);
+                    }
+                    break;
+                case CONTAINS:
+                default:
+                    collectContaining(query, out);
+                    break;
+            }
+        }
+
+        private void collectContaining(String query, Set<Integer> out) {
+            if (query.length() < GRAM_SIZE) {
+                // Consulta más corta que un trigrama: se recorren los valores distintos
+                for (Map.Entry<String, Set<Integer>> entry : docsByValue.entrySet()) {
+                    if (entry.getKey().contains(query)) {
+                        out.addAll(entry.getValue());
+                    }
+                }
+                return;
+            }
+            Set<Integer> candidates = null;
+            for (String gram : grams(query)) {
+                Set<Integer> docs = docsByGram.get(gram);
+                if (docs == null) {
+                    return;
+                }
+                if (candidates == null || docs.size() < candidates.size()) {
+                    candidates = docs;
+                }
+            }
+            // Los trigramas solo descartan; la subcadena se comprueba sobre el valor
+            for (Integer doc : candidates) {
+                if (valueByDoc.get(doc).contains(query)) {
+                    out.add(doc);
+                }
+            }
+        }
+
+        private static void removeFrom(Map<String, Set<Integer>> postings, String key, int doc) {
+            Set<Integer> docs = postings.get(key);
+            if (docs != null) {
+                docs.remove(doc);
+                if (docs.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+}
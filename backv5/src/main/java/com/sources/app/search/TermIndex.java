@@ -0,0 +1,359 @@
+package com.sources.app.search;
+
+import com.sources.app.entities.Medicine;
+import com.sources.app.search.MedicineSearchIndex.Field;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Vocabulario de palabras de los campos del catálogo para la búsqueda
+ * aproximada.
+ *
+ * <p>Cada palabra distinta se guarda una sola vez con sus documentos por
+ * campo y con sus trigramas, que incluyen los bordes de la
+ * palabra ({@code "$ib"}, {@code "no$"}). Una palabra de la consulta se
+ * compara solo contra las palabras del vocabulario que comparten suficientes
+ * trigramas con ella, y esas candidatas se confirman con la distancia de
+ * edición. Así el coste depende del tamaño del vocabulario y no del número de
+ * medicamentos.</p>
+ *
+ * <p>No es seguro para uso concurrente; {@link MedicineSearchIndex} lo protege
+ * con su cerrojo.</p>
+ */
+final class TermIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int FIELD_COUNT = Field.values().length;
+    private static final int[] NO_ENTRIES = new int[0];
+    private static final ThreadLocal<Scores> SCORES = ThreadLocal.withInitial(Scores::new);
+
+    /** Similitud base de una palabra que empieza por la de la consulta. */
+    static final double PREFIX_SIMILARITY = 0.8;
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<String> terms = new ArrayList<>();
+    // Por palabra y campo: documentos donde aparece
+    private final List<IntList[]> postings = new ArrayList<>();
+    private final Map<String, IntList> termsByGram = new HashMap<>();
+    // Por documento: palabra * FIELD_COUNT + campo, para poder retirarlo
+    private final List<int[]> entriesByDoc = new ArrayList<>();
+
+    void add(int doc, Medicine medicine) {
+        IntList entries = new IntList();
+        for (Field field : Field.values()) {
+            String value = MedicineSearchIndex.normalize(field.valueOf(medicine));
+            for (String token : tokenize(value)) {
+                int term = termId(token);
+                postingsOf(term, field.ordinal()).add(doc);
+                entries.add(term * FIELD_COUNT + field.ordinal());
+            }
+        }
+        while (entriesByDoc.size() <= doc) {
+            entriesByDoc.add(NO_ENTRIES);
+        }
+        entriesByDoc.set(doc, entries.toArray());
+    }
+
+    void remove(int doc) {
+        if (doc >= entriesByDoc.size()) {
+            return;
+        }
+        for (int entry : entriesByDoc.get(doc)) {
+            int term = entry / FIELD_COUNT;
+            int field = entry % FIELD_COUNT;
+            postings.get(term)[field].removeValue(doc);
+        }
+        entriesByDoc.set(doc, NO_ENTRIES);
+    }
+
+    /**
+     * Puntúa los documentos contra la consulta. Por cada palabra de la
+     * consulta se toma, en cada documento, la mejor coincidencia
+     * (similitud por peso del campo); la puntuación del documento es la suma
+     * de esas mejores coincidencias.
+     *
+     * <p>Los acumuladores se reutilizan por hilo, así que el resultado solo
+     * es válido hasta la siguiente llamada desde el mismo hilo.</p>
+     *
+     * @param query consulta ya normalizada.
+     * @param weights peso por campo (índice = ordinal); 0 excluye el campo.
+     * @param docCount número de documentos del índice.
+     * @return documentos con puntuación mayor que 0.
+     */
+    Scores score(String query, double[] weights, int docCount) {
+        Scores scores = SCORES.get();
+        scores.reset(docCount);
+        for (String token : tokenize(query)) {
+            for (Map.Entry<Integer, Double> candidate : similarTerms(token).entrySet()) {
+                double similarity = candidate.getValue();
+                IntList[] byField = postings.get(candidate.getKey());
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    if (weights[field] > 0 && byField[field] != null) {
+                        scores.offer(byField[field], weights[field] * similarity);
+                    }
+                }
+            }
+            scores.endToken();
+        }
+        return scores;
+    }
+
+    /**
+     * @return palabras del vocabulario parecidas a {@code token}, con su
+     * similitud entre 0 y 1.
+     */
+    Map<Integer, Double> similarTerms(String token) {
+        Set<String> grams = paddedGrams(token);
+        int maxEdits = maxEdits(token.length());
+        // Cada edición altera como mucho tres trigramas; un prefijo pierde solo el del borde final
+        int minShared = Math.max(1, Math.min(grams.size() - 3 * maxEdits, grams.size() - 1));
+
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            IntList candidates = termsByGram.get(gram);
+            if (candidates == null) {
+                continue;
+            }
+            for (int i = 0; i < candidates.size(); i++) {
+                shared.merge(candidates.get(i), 1, Integer::sum);
+            }
+        }
+
+        Map<Integer, Double> similar = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : shared.entrySet()) {
+            if (entry.getValue() < minShared || !hasPostings(entry.getKey())) {
+                continue;
+            }
+            double similarity = similarity(token, terms.get(entry.getKey()), maxEdits);
+            if (similarity > 0) {
+                similar.put(entry.getKey(), similarity);
+            }
+        }
+        return similar;
+    }
+
+    static double similarity(String token, String term, int maxEdits) {
+        if (term.equals(token)) {
+            return 1.0;
+        }
+        double similarity = 0;
+        if (token.length() >= 3 && term.startsWith(token)) {
+            similarity = PREFIX_SIMILARITY + (1 - PREFIX_SIMILARITY) * token.length() / term.length();
+        }
+        int distance = editDistance(token, term, maxEdits);
+        if (distance <= maxEdits) {
+            similarity = Math.max(similarity, 1.0 - (double) distance / Math.max(token.length(), term.length()));
+        }
+        return similarity;
+    }
+
+    /**
+     * Ediciones toleradas según la longitud de la palabra: ninguna hasta 2
+     * caracteres, una hasta 5 y dos a partir de 6.
+     */
+    static int maxEdits(int length) {
+        if (length <= 2) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Distancia de Damerau-Levenshtein (alineamiento óptimo: inserción,
+     * borrado, sustitución y transposición de dos letras contiguas).
+     *
+     * @return la distancia, o {@code max + 1} en cuanto se sabe que la supera.
+     */
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    static Set<String> tokenize(String normalized) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (normalized == null) {
+            return tokens;
+        }
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> paddedGrams(String token) {
+        return MedicineSearchIndex.grams("$" + token + "$");
+    }
+
+    private int termId(String token) {
+        Integer id = termIds.get(token);
+        if (id != null) {
+            return id;
+        }
+        int created = terms.size();
+        termIds.put(token, created);
+        terms.add(token);
+        postings.add(new IntList[FIELD_COUNT]);
+        for (String gram : paddedGrams(token)) {
+            termsByGram.computeIfAbsent(gram, k -> new IntList()).add(created);
+        }
+        return created;
+    }
+
+    private boolean hasPostings(int term) {
+        for (IntList docs : postings.get(term)) {
+            if (docs != null && docs.size() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private IntList postingsOf(int term, int field) {
+        IntList[] byField = postings.get(term);
+        if (byField[field] == null) {
+            byField[field] = new IntList();
+        }
+        return byField[field];
+    }
+
+    /**
+     * Acumuladores de puntuación de una consulta: la mejor coincidencia de la
+     * palabra actual y la suma por documento, con la lista de documentos
+     * tocados para no recorrer todo el catálogo.
+     */
+    static final class Scores {
+
+        private double[] total = new double[0];
+        private double[] best = new double[0];
+        private final IntList matched = new IntList();
+        private final IntList touched = new IntList();
+
+        void reset(int docCount) {
+            for (int i = 0; i < matched.size(); i++) {
+                total[matched.get(i)] = 0;
+            }
+            matched.clear();
+            if (total.length < docCount) {
+                total = new double[docCount];
+                best = new double[docCount];
+            }
+        }
+
+        void offer(IntList docs, double value) {
+            for (int i = 0; i < docs.size(); i++) {
+                int doc = docs.get(i);
+                if (best[doc] == 0) {
+                    touched.add(doc);
+                }
+                if (value > best[doc]) {
+                    best[doc] = value;
+                }
+            }
+        }
+
+        void endToken() {
+            for (int i = 0; i < touched.size(); i++) {
+                int doc = touched.get(i);
+                if (total[doc] == 0) {
+                    matched.add(doc);
+                }
+                total[doc] += best[doc];
+                best[doc] = 0;
+            }
+            touched.clear();
+        }
+
+        /**
+         * @return número de documentos con alguna coincidencia.
+         */
+        int size() {
+            return matched.size();
+        }
+
+        int doc(int index) {
+            return matched.get(index);
+        }
+
+        double score(int doc) {
+            return total[doc];
+        }
+    }
+
+    /**
+     * Lista de enteros sin cajas; el orden no se conserva al retirar.
+     */
+    static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void removeValue(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.sources.app.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sources.app.config.EnvConfig;
+import com.sources.app.metrics.MetricsConfiguration;
+
+/**
+ * Cola de spans terminados que un hilo en segundo plano exporta por lotes,
+ * para que ni las peticiones ni las consultas esperen al exportador.
+ *
+ * <p>La cola admite {@code TRACE_QUEUE_CAPACITY} spans (2048 por defecto);
+ * si se llena, los nuevos se descartan. El hilo exporta cada
+ * {@code TRACE_EXPORT_INTERVAL_MS} (5000 por defecto) o en cuanto hay
+ * {@value #MAX_BATCH_SIZE} spans. El resultado se cuenta en
+ * {@code ensurance_trace_spans_total} ({@code exported}, {@code dropped},
+ * {@code failed}).</p>
+ */
+final class BatchSpanProcessor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchSpanProcessor.class);
+
+    static final int MAX_BATCH_SIZE = 512;
+    private static final int DEFAULT_CAPACITY = 2048;
+    private static final long DEFAULT_INTERVAL_MILLIS = 5_000;
+
+    private final SpanExporter exporter;
+    private final String serviceName;
+    private final BlockingQueue<Span> queue;
+    private final long intervalMillis;
+
+    BatchSpanProcessor(SpanExporter exporter, String serviceName, int capacity, long intervalMillis) {
+        this.exporter = exporter;
+        this.serviceName = serviceName;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Crea el procesador con la configuración del entorno y arranca su hilo.
+     */
+    static BatchSpanProcessor create(SpanExporter exporter, String serviceName) {
+        BatchSpanProcessor processor = new BatchSpanProcessor(exporter, serviceName,
+                EnvConfig.positiveInt("TRACE_QUEUE_CAPACITY", DEFAULT_CAPACITY),
+                EnvConfig.positiveLong("TRACE_EXPORT_INTERVAL_MS", DEFAULT_INTERVAL_MILLIS));
+        processor.start();
+        return processor;
+    }
+
+    void start() {
+        Thread worker = new Thread(this::run, "trace-export");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Encola un span terminado; nunca bloquea.
+     */
+    void offer(Span span) {
+        if (!queue.offer(span)) {
+            MetricsConfiguration.TRACE_SPANS_TOTAL.labels("dropped").inc();
+        }
+    }
+
+    /**
+     * Exporta en el hilo llamante todo lo encolado.
+     */
+    void flush() {
+        List<Span> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (queue.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+            export(batch);
+            batch.clear();
+        }
+    }
+
+    private void run() {
+        List<Span> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                long waitNanos = deadline - System.nanoTime();
+                Span span = waitNanos > 0 ? queue.poll(waitNanos, TimeUnit.NANOSECONDS) : null;
+                if (span != null) {
+                    batch.add(span);
+                    queue.drainTo(batch, MAX_BATCH_SIZE - batch.size());
+                }
+                if (batch.size() >= MAX_BATCH_SIZE || System.nanoTime() - deadline >= 0) {
+                    if (!batch.isEmpty()) {
+                        export(batch);
+                        batch.clear();
+                    }
+                    deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void export(List<Span> batch) {
+        try {
+            exporter.export(serviceName, batch);
+            MetricsConfiguration.TRACE_SPANS_TOTAL.labels("exported").inc(batch.size());
+        } catch (Exception e) {
+            MetricsConfiguration.TRACE_SPANS_TOTAL.labels("failed").inc(batch.size());
+            LOGGER.warn("No se pudieron exportar {} spans: {}", batch.size(), e.getMessage());
+        }
+    }
+}
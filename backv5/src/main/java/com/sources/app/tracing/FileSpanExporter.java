@@ -0,0 +1,31 @@
+package com.sources.app.tracing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Añade cada lote a un fichero como una línea OTLP/JSON, el formato que lee
+ * el receptor {@code otlpjsonfile} de un collector.
+ */
+final class FileSpanExporter implements SpanExporter {
+
+    private final Path file;
+
+    FileSpanExporter(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void export(String serviceName, List<Span> spans) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, OtlpJson.encode(serviceName, spans) + "\n", StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
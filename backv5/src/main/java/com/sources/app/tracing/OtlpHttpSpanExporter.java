@@ -0,0 +1,50 @@
+package com.sources.app.tracing;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Envía cada lote por OTLP/HTTP con codificación JSON.
+ *
+ * <p>Usa su propio {@link HttpClient} en lugar de {@code PooledHttpClient}
+ * para que las exportaciones no generen spans ni pasen por los circuit
+ * breakers de los servicios de negocio.</p>
+ */
+final class OtlpHttpSpanExporter implements SpanExporter {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final URI endpoint;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(TIMEOUT)
+            .build();
+
+    OtlpHttpSpanExporter(String endpoint) {
+        this.endpoint = URI.create(endpoint);
+    }
+
+    @Override
+    public void export(String serviceName, List<Span> spans) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(OtlpJson.encode(serviceName, spans)))
+                .build();
+        HttpResponse<Void> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrumpido exportando spans a " + endpoint, e);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("El collector respondió " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.sources.app.tracing;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Codifica lotes de spans como {@code ExportTraceServiceRequest} en la
+ * codificación JSON de OTLP, que aceptan tanto el receptor HTTP de un
+ * collector como su lector de ficheros.
+ */
+final class OtlpJson {
+
+    static final String SCOPE_NAME = "com.sources.app.tracing";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int STATUS_OK = 1;
+    private static final int STATUS_ERROR = 2;
+
+    private OtlpJson() {
+    }
+
+    static String encode(String serviceName, List<Span> spans) throws JsonProcessingException {
+        ObjectNode request = MAPPER.createObjectNode();
+        ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+        addAttribute(resourceSpans.putObject("resource").putArray("attributes"), "service.name", serviceName);
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", SCOPE_NAME);
+        ArrayNode encoded = scopeSpans.putArray("spans");
+        for (Span span : spans) {
+            ObjectNode node = encoded.addObject();
+            node.put("traceId", span.context().traceId());
+            node.put("spanId", span.context().spanId());
+            if (span.parentSpanId() != null) {
+                node.put("parentSpanId", span.parentSpanId());
+            }
+            if (span.context().traceState() != null) {
+                node.put("traceState", span.context().traceState());
+            }
+            node.put("name", span.name());
+            node.put("kind", span.kind().otlpCode());
+            // Los enteros de 64 bits van como cadena en OTLP/JSON
+            node.put("startTimeUnixNano", Long.toString(span.startEpochNanos()));
+            node.put("endTimeUnixNano", Long.toString(span.endEpochNanos()));
+            ArrayNode attributes = node.putArray("attributes");
+            for (Map.Entry<String, Object> attribute : span.attributes().entrySet()) {
+                addAttribute(attributes, attribute.getKey(), attribute.getValue());
+            }
+            ObjectNode status = node.putObject("status");
+            if (span.errorMessage() != null) {
+                status.put("code", STATUS_ERROR);
+                status.put("message", span.errorMessage());
+            } else {
+                status.put("code", STATUS_OK);
+            }
+        }
+        return MAPPER.writeValueAsString(request);
+    }
+
+    private static void addAttribute(ArrayNode attributes, String key, Object value) {
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        ObjectNode anyValue = attribute.putObject("value");
+        if (value instanceof Long number) {
+            anyValue.put("intValue", Long.toString(number));
+        } else {
+            anyValue.put("stringValue", String.valueOf(value));
+        }
+    }
+}
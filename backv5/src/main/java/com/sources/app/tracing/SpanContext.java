@@ -0,0 +1,89 @@
+package com.sources.app.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Identificadores de un span tal como viajan en la cabecera W3C
+ * {@code traceparent} ({@code 00-<trace-id>-<span-id>-<flags>}), más el
+ * {@code tracestate} recibido, que se reenvía sin tocar.
+ *
+ * @param traceId 32 caracteres hexadecimales en minúscula.
+ * @param spanId 16 caracteres hexadecimales en minúscula.
+ * @param sampled bandera {@code sampled} de la traza.
+ * @param traceState valor de {@code tracestate}, o {@code null}.
+ */
+public record SpanContext(String traceId, String spanId, boolean sampled, String traceState) {
+
+    private static final Pattern TRACEPARENT = Pattern.compile(
+            "([0-9a-f]{2})-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})(-.*)?");
+    private static final String INVALID_TRACE_ID = "0".repeat(32);
+    private static final String INVALID_SPAN_ID = "0".repeat(16);
+
+    /**
+     * Interpreta una cabecera {@code traceparent}.
+     *
+     * @return el contexto remoto, o {@code null} si falta o no es válida.
+     */
+    public static SpanContext fromTraceparent(String traceparent, String traceState) {
+        if (traceparent == null) {
+            return null;
+        }
+        var matcher = TRACEPARENT.matcher(traceparent.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        String version = matcher.group(1);
+        // La versión 00 no admite campos extra; versiones futuras sí
+        if ("ff".equals(version) || ("00".equals(version) && matcher.group(5) != null)) {
+            return null;
+        }
+        String traceId = matcher.group(2);
+        String spanId = matcher.group(3);
+        if (INVALID_TRACE_ID.equals(traceId) || INVALID_SPAN_ID.equals(spanId)) {
+            return null;
+        }
+        boolean sampled = (Integer.parseInt(matcher.group(4), 16) & 1) == 1;
+        String state = traceState == null || traceState.isBlank() ? null : traceState.trim();
+        return new SpanContext(traceId, spanId, sampled, state);
+    }
+
+    /**
+     * @return un contexto para el primer span de una traza nueva.
+     */
+    static SpanContext newRoot(boolean sampled) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String traceId;
+        do {
+            traceId = hex(random.nextLong()) + hex(random.nextLong());
+        } while (INVALID_TRACE_ID.equals(traceId));
+        return new SpanContext(traceId, newSpanId(), sampled, null);
+    }
+
+    /**
+     * @return un contexto hijo: misma traza y muestreo, span nuevo.
+     */
+    SpanContext newChild() {
+        return new SpanContext(traceId, newSpanId(), sampled, traceState);
+    }
+
+    /**
+     * @return el valor de la cabecera {@code traceparent} para este span.
+     */
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    private static String newSpanId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return hex(id);
+    }
+
+    private static String hex(long value) {
+        String hex = Long.toHexString(value);
+        return "0".repeat(16 - hex.length()) + hex;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sources.app.tracing;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino de los spans terminados. Las implementaciones reciben los lotes
+ * desde el hilo de {@link BatchSpanProcessor}.
+ */
+interface SpanExporter {
+
+    /**
+     * @param serviceName valor de {@code service.name} para el lote.
+     * @throws IOException si el lote no pudo entregarse; se descarta.
+     */
+    void export(String serviceName, List<Span> spans) throws IOException;
+}
@@ -0,0 +1,84 @@
+package com.sources.app.tracing;
+
+import java.util.Locale;
+
+import org.hibernate.SessionEventListener;
+
+import com.sources.app.util.QueryMetrics;
+
+/**
+ * Abre un span {@code CLIENT} por cada sentencia o lote JDBC que Hibernate
+ * ejecuta dentro de una traza muestreada; fuera de ellas no hace nada.
+ *
+ * <p>El texto de la sentencia lo aporta el inspector de
+ * {@link QueryMetrics} mediante {@link #statementInspected(String)}, y se
+ * guarda normalizado, sin literales ni parámetros.</p>
+ */
+public final class TracingSessionListener implements SessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<String> PENDING_STATEMENT = new ThreadLocal<>();
+
+    private transient Span statementSpan;
+
+    /**
+     * Recuerda la sentencia que Hibernate está a punto de ejecutar en este
+     * hilo.
+     */
+    public static void statementInspected(String sql) {
+        Span current = Tracing.current();
+        if (current != null && current.isRecording()) {
+            PENDING_STATEMENT.set(sql);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementSpan = startStatementSpan(false);
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        endStatementSpan();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statementSpan = startStatementSpan(true);
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        endStatementSpan();
+    }
+
+    private static Span startStatementSpan(boolean batch) {
+        String sql = PENDING_STATEMENT.get();
+        PENDING_STATEMENT.remove();
+        Span parent = Tracing.current();
+        if (parent == null || !parent.isRecording()) {
+            return null;
+        }
+        Span span = Tracing.startSpan("db", Span.Kind.CLIENT);
+        if (sql != null) {
+            String operation = QueryMetrics.operationOf(sql);
+            String table = QueryMetrics.targetOf(sql);
+            span.updateName(operation.toUpperCase(Locale.ROOT) + " " + table)
+                    .setAttribute("db.operation.name", operation)
+                    .setAttribute("db.collection.name", table)
+                    .setAttribute("db.query.text", QueryMetrics.normalize(sql));
+        }
+        if (batch) {
+            span.setAttribute("db.operation.batch", "true");
+        }
+        return span;
+    }
+
+    private void endStatementSpan() {
+        if (statementSpan != null) {
+            statementSpan.end();
+            statementSpan = null;
+        }
+    }
+}
@@ -12,6 +12,9 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sources.app.resilience.Downstream;
+import com.sources.app.resilience.DownstreamGuard;
+import com.sources.app.tracing.Tracing;
 
 /**
  * Cliente para realizar llamadas a servicios externos (hospital y farmacia)
@@ -37,6 +40,9 @@ public class ExternalServiceClient {
         this.insuranceBaseUrl = System.getenv("ENS_BACKEND_API_URL") != null
                 ? System.getenv("ENS_BACKEND_API_URL") + "/pharmacy-insurance"
                 : "http://localhost:8080/api/pharmacy-insurance";
+        DownstreamGuard.register(Downstream.HOSPITAL, hospitalBaseUrl);
+        DownstreamGuard.register(Downstream.PHARMACY, pharmacyBaseUrl);
+        DownstreamGuard.register(Downstream.INSURANCE, insuranceBaseUrl);
     }
 
     /**
@@ -56,7 +62,7 @@ public class ExternalServiceClient {
         URI uri = URI.create(baseUrl + endpoint);
         URL url = uri.toURL();
 
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        HttpURLConnection connection = PooledHttpClient.shared().connect(url);
         connection.setRequestMethod("GET");
         connection.setConnectTimeout(TIMEOUT);
         connection.setReadTimeout(TIMEOUT);
@@ -72,7 +78,7 @@ public class ExternalServiceClient {
         URI uri = URI.create(baseUrl + endpoint);
         URL url = uri.toURL();
 
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        HttpURLConnection connection = PooledHttpClient.shared().connect(url);
         connection.setRequestMethod("POST");
         connection.setRequestProperty("Content-Type", "application/json");
         connection.setConnectTimeout(TIMEOUT);
@@ -97,7 +103,7 @@ public class ExternalServiceClient {
         URI uri = URI.create(baseUrl + endpoint);
         URL url = uri.toURL();
 
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        HttpURLConnection connection = PooledHttpClient.shared().connect(url);
         connection.setRequestMethod("PUT");
         connection.setRequestProperty("Content-Type", "application/json");
         connection.setConnectTimeout(TIMEOUT);
@@ -121,39 +127,39 @@ public class ExternalServiceClient {
      * Realiza una petición GET asíncrona
      */
     public CompletableFuture<String> getAsync(String serviceType, String endpoint) {
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(Tracing.propagating(() -> {
             try {
                 return get(serviceType, endpoint);
             } catch (IOException e) {
                 throw new RuntimeException("Error en petición asíncrona GET", e);
             }
-        }, executor);
+        }), executor);
     }
 
     /**
      * Realiza una petición POST asíncrona
      */
     public CompletableFuture<String> postAsync(String serviceType, String endpoint, Object requestBody) {
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(Tracing.propagating(() -> {
             try {
                 return post(serviceType, endpoint, requestBody);
             } catch (IOException e) {
                 throw new RuntimeException("Error en petición asíncrona POST", e);
             }
-        }, executor);
+        }), executor);
     }
 
     /**
      * Realiza una petición PUT asíncrona
      */
     public CompletableFuture<String> putAsync(String serviceType, String endpoint, Object requestBody) {
-        return CompletableFuture.supplyAsync(() -> {
+        return CompletableFuture.supplyAsync(Tracing.propagating(() -> {
             try {
                 return put(serviceType, endpoint, requestBody);
             } catch (IOException e) {
                 throw new RuntimeException("Error en petición asíncrona PUT", e);
             }
-        }, executor);
+        }), executor);
     }
 
     /**
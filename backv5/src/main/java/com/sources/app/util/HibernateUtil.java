@@ -4,6 +4,7 @@ import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
 
 import com.sources.app.entities.User;
+import com.sources.app.tracing.Tracing;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -47,6 +48,18 @@ public class HibernateUtil {
                 LOGGER.log(Level.WARNING, () -> "Variable DB_SCHEMA_PHARMACY no definida, usando esquema por defecto");
             }
 
+            // Caché de segundo nivel para entidades de referencia (ver ehcache.xml)
+            SecondLevelCache.configure(configuration);
+
+            // Tiempo por consulta y sentencias por petición en Prometheus
+            QueryMetrics.configure(configuration);
+
+        // Spans por sentencia SQL en las trazas muestreadas
+        Tracing.configure(configuration);
+
+            // Pool de conexiones HikariCP con métricas en Prometheus
+            ConnectionPool.configure(configuration, "pharmacy-db");
+
             return configuration
                     .addAnnotatedClass(User.class) // Registra la entidad User
                     .buildSessionFactory();
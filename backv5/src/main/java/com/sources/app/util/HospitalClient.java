@@ -1,6 +1,8 @@
 package com.sources.app.util;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sources.app.resilience.Downstream;
+import com.sources.app.resilience.DownstreamGuard;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -21,6 +23,7 @@ public class HospitalClient {
     static {
         String env = System.getenv("HOSPITAL_API_URL");
         HOSPITAL_API_BASE_URL = (env != null && !env.isBlank()) ? env : "http://localhost:8000";
+        DownstreamGuard.register(Downstream.HOSPITAL, HOSPITAL_API_BASE_URL);
     }
     // Método de soporte para pruebas para inyectar base URL con puertos efímeros
     public static void setBaseUrlForTests(String baseUrl) {
@@ -38,7 +41,7 @@ public class HospitalClient {
         URI uri = URI.create(HOSPITAL_API_BASE_URL + endpoint);
         URL url = uri.toURL();
         
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        HttpURLConnection connection = PooledHttpClient.shared().connect(url);
         connection.setRequestMethod("GET");
         connection.setRequestProperty("Content-Type", "application/json");
         connection.setConnectTimeout(TIMEOUT);
@@ -59,7 +62,7 @@ public class HospitalClient {
         URI uri = URI.create(HOSPITAL_API_BASE_URL + endpoint);
         URL url = uri.toURL();
         
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        HttpURLConnection connection = PooledHttpClient.shared().connect(url);
         connection.setRequestMethod("POST");
         connection.setRequestProperty("Content-Type", "application/json");
         connection.setConnectTimeout(TIMEOUT);
@@ -88,7 +91,7 @@ public class HospitalClient {
         URI uri = URI.create(HOSPITAL_API_BASE_URL + endpoint);
         URL url = uri.toURL();
         
-        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        HttpURLConnection connection = PooledHttpClient.shared().connect(url);
         connection.setRequestMethod("PUT");
         connection.setRequestProperty("Content-Type", "application/json");
         connection.setConnectTimeout(TIMEOUT);
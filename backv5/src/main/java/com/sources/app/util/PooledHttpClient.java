@@ -0,0 +1,445 @@
+package com.sources.app.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.sources.app.config.EnvConfig;
+import com.sources.app.metrics.MetricsConfiguration;
+import com.sources.app.resilience.DownstreamGuard;
+import com.sources.app.tracing.Span;
+import com.sources.app.tracing.Tracing;
+
+/**
+ * Motor HTTP compartido por los clientes de servicios externos
+ * ({@link ExternalServiceClient}, {@link HospitalClient} y la verificación de
+ * recetas externas).
+ *
+ * <p>Todas las llamadas salen por un único {@link HttpClient}; con HTTPS
+ * negocia HTTP/2 y multiplexa las peticiones sobre una sola conexión. Las
+ * peticiones a un mismo host se limitan a
+ * {@code HTTP_CLIENT_MAX_CONNECTIONS_PER_HOST} simultáneas (32 por defecto).
+ * Los GET idénticos simultáneos comparten una sola llamada; la proporción
+ * agrupada se ve en {@code ensurance_http_client_single_flight_total}.
+ * {@code PooledHttpClientBenchmark} (en los tests) compara su rendimiento y
+ * las conexiones que abre con las de un {@link HttpURLConnection} simple.</p>
+ *
+ * <p>Cada llamada abre un span {@code CLIENT} ({@link Tracing}) y envía su
+ * {@code traceparent}; en los GET agrupados sólo viaja el de la primera.</p>
+ *
+ * <p>{@link #open(String)} devuelve un {@link HttpURLConnection} respaldado
+ * por este motor, de modo que el código existente y sus tests siguen usando
+ * la misma API. Los timeouts de conexión y lectura de cada llamada se
+ * convierten en el timeout de la petición.</p>
+ */
+public final class PooledHttpClient {
+
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 32;
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    /** Espera máxima de una llamada compartida que no fijó timeouts. */
+    private static final Duration DEFAULT_SHARED_WAIT = Duration.ofSeconds(30);
+    /** Margen sobre el timeout propio al esperar una llamada compartida. */
+    private static final Duration SHARED_WAIT_MARGIN = Duration.ofSeconds(1);
+    /** Cabeceras que gestiona el propio {@link HttpClient}. */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host",
+            "upgrade");
+
+    private static final PooledHttpClient SHARED = new PooledHttpClient(HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(DEFAULT_CONNECT_TIMEOUT)
+            .build(), maxConnectionsPerHost());
+
+    private final HttpClient client;
+    private final int maxConnectionsPerHost;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<HttpResponse<byte[]>>> inFlightGets = new ConcurrentHashMap<>();
+
+    PooledHttpClient(HttpClient client, int maxConnectionsPerHost) {
+        this.client = client;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    /**
+     * @return el motor compartido por toda la aplicación.
+     */
+    public static PooledHttpClient shared() {
+        return SHARED;
+    }
+
+    /**
+     * Abre una conexión a la URL dada sobre el motor compartido.
+     */
+    public static HttpURLConnection open(String urlString) throws IOException {
+        return SHARED.connect(URI.create(urlString).toURL());
+    }
+
+    /**
+     * Crea una conexión a la URL dada sobre este motor. La petición se envía
+     * al pedir la respuesta ({@code getResponseCode()}, {@code getInputStream()}...).
+     */
+    public HttpURLConnection connect(URL url) {
+        return new Connection(url, this);
+    }
+
+    /**
+     * Envía una petición; los GET idénticos simultáneos se agrupan en una
+     * sola llamada ({@link #sendCoalesced}).
+     */
+    HttpResponse<byte[]> send(HttpRequest request, Duration timeout) throws IOException {
+        Span span = Tracing.startSpan(request.method() + " " + hostKey(request), Span.Kind.CLIENT)
+                .setAttribute("http.request.method", request.method())
+                .setAttribute("server.address", request.uri().getHost())
+                .setAttribute("url.path", request.uri().getPath());
+        try {
+            HttpResponse<byte[]> response = Tracing.inScope(span, () -> "GET".equals(request.method())
+                    ? sendCoalesced(request, timeout)
+                    : sendGuarded(request, timeout));
+            span.setAttribute("http.response.status_code", response.statusCode());
+            if (response.statusCode() >= 500) {
+                span.setError("HTTP " + response.statusCode());
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Single-flight: las peticiones GET idénticas (misma URL y cabeceras)
+     * que coinciden en el tiempo comparten una sola llamada al servicio y
+     * reciben la misma respuesta, o el mismo error. Quien llega mientras la
+     * primera está en curso espera a que termine como mucho su propio
+     * timeout más {@link #SHARED_WAIT_MARGIN}, o {@link #DEFAULT_SHARED_WAIT}
+     * si no fijó ninguno; al agotarlo recibe un
+     * {@link SocketTimeoutException} y la primera sigue su curso.
+     */
+    private HttpResponse<byte[]> sendCoalesced(HttpRequest request, Duration timeout) throws IOException {
+        String key = request.uri() + " " + request.headers().map();
+        String host = hostKey(request);
+        CompletableFuture<HttpResponse<byte[]>> flight = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<byte[]>> leader = inFlightGets.putIfAbsent(key, flight);
+        if (leader != null) {
+            MetricsConfiguration.HTTP_CLIENT_SINGLE_FLIGHT_TOTAL.labels(host, "shared").inc();
+            return awaitShared(leader, host, timeout);
+        }
+        MetricsConfiguration.HTTP_CLIENT_SINGLE_FLIGHT_TOTAL.labels(host, "leader").inc();
+        try {
+            HttpResponse<byte[]> response = sendGuarded(request, timeout);
+            inFlightGets.remove(key, flight);
+            flight.complete(response);
+            return response;
+        } catch (IOException | RuntimeException | Error e) {
+            inFlightGets.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static HttpResponse<byte[]> awaitShared(CompletableFuture<HttpResponse<byte[]>> leader, String host,
+                                                    Duration timeout) throws IOException {
+        Duration wait = timeout != null ? timeout.plus(SHARED_WAIT_MARGIN) : DEFAULT_SHARED_WAIT;
+        try {
+            return leader.get(wait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new SocketTimeoutException("Tiempo agotado esperando la respuesta compartida de " + host);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando respuesta de " + host);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Envía una petición. Si el host pertenece a un servicio registrado en
+     * {@link DownstreamGuard}, la llamada pasa por su circuit breaker y su
+     * bulkhead, y las respuestas 5xx cuentan como fallos.
+     */
+    private HttpResponse<byte[]> sendGuarded(HttpRequest request, Duration timeout) throws IOException {
+        DownstreamGuard guard = DownstreamGuard.forUri(request.uri());
+        if (guard == null) {
+            return sendPooled(request, timeout);
+        }
+        return guard.call(() -> sendPooled(request, timeout), response -> response.statusCode() >= 500);
+    }
+
+    /**
+     * Envía una petición respetando el límite de peticiones simultáneas del host.
+     */
+    private HttpResponse<byte[]> sendPooled(HttpRequest request, Duration timeout) throws IOException {
+        String host = hostKey(request);
+        Semaphore permits = hostPermits.computeIfAbsent(host, h -> new Semaphore(maxConnectionsPerHost, true));
+        try {
+            if (!permits.tryAcquire()) {
+                MetricsConfiguration.HTTP_CLIENT_LIMIT_WAITS_TOTAL.labels(host).inc();
+                long waitMillis = timeout != null ? timeout.toMillis() : DEFAULT_CONNECT_TIMEOUT.toMillis();
+                if (!permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                    throw new SocketTimeoutException("Límite de " + maxConnectionsPerHost
+                            + " conexiones simultáneas alcanzado para " + host);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando conexión a " + host);
+        }
+        MetricsConfiguration.HTTP_CLIENT_IN_FLIGHT.labels(host).inc();
+        try {
+            HttpResponse<byte[]> response = client.send(withTraceContext(request), HttpResponse.BodyHandlers.ofByteArray());
+            MetricsConfiguration.HTTP_CLIENT_REQUESTS_TOTAL.labels(host, versionLabel(response.version())).inc();
+            return response;
+        } catch (HttpTimeoutException e) {
+            SocketTimeoutException timeoutException = new SocketTimeoutException(e.getMessage());
+            timeoutException.initCause(e);
+            throw timeoutException;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrumpido esperando respuesta de " + host);
+        } finally {
+            MetricsConfiguration.HTTP_CLIENT_IN_FLIGHT.labels(host).dec();
+            permits.release();
+        }
+    }
+
+    /**
+     * Añade el {@code traceparent} del span actual. Se hace aquí, y no al
+     * construir la petición, para que no forme parte de la clave de
+     * {@link #sendCoalesced}.
+     */
+    private static HttpRequest withTraceContext(HttpRequest request) {
+        if (Tracing.current() == null) {
+            return request;
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) ->
+                !Tracing.TRACEPARENT_HEADER.equalsIgnoreCase(name) && !Tracing.TRACESTATE_HEADER.equalsIgnoreCase(name));
+        Tracing.inject(builder::header);
+        return builder.build();
+    }
+
+    private static String hostKey(HttpRequest request) {
+        int port = request.uri().getPort();
+        return request.uri().getHost() + (port == -1 ? "" : ":" + port);
+    }
+
+    private static String versionLabel(HttpClient.Version version) {
+        return version == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+    }
+
+    static int maxConnectionsPerHost() {
+        return EnvConfig.positiveInt("HTTP_CLIENT_MAX_CONNECTIONS_PER_HOST", DEFAULT_MAX_CONNECTIONS_PER_HOST);
+    }
+
+    /**
+     * {@link HttpURLConnection} que acumula el cuerpo de la petición y la
+     * envía por el {@link HttpClient} compartido al pedir la respuesta.
+     */
+    static final class Connection extends HttpURLConnection {
+
+        private final PooledHttpClient engine;
+        private ByteArrayOutputStream requestBody;
+        private HttpResponse<byte[]> response;
+
+        Connection(URL url, PooledHttpClient engine) {
+            super(url);
+            this.engine = engine;
+        }
+
+        @Override
+        public void connect() {
+            // La petición se envía al pedir la respuesta
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            if (response != null) {
+                throw new IOException("La petición ya fue enviada");
+            }
+            if (requestBody == null) {
+                requestBody = new ByteArrayOutputStream();
+            }
+            return requestBody;
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+            return execute().statusCode();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            HttpResponse<byte[]> current = execute();
+            if (current.statusCode() == HTTP_NOT_FOUND || current.statusCode() == HTTP_GONE) {
+                throw new FileNotFoundException(url.toString());
+            }
+            if (current.statusCode() >= HTTP_BAD_REQUEST) {
+                throw new IOException("Server returned HTTP response code: " + current.statusCode()
+                        + " for URL: " + url);
+            }
+            return new ByteArrayInputStream(current.body());
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            if (response == null || response.statusCode() < HTTP_BAD_REQUEST) {
+                return null;
+            }
+            return new ByteArrayInputStream(response.body());
+        }
+
+        @Override
+        public String getHeaderField(String name) {
+            try {
+                return name == null ? null : execute().headers().firstValue(name).orElse(null);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaderFields() {
+            try {
+                return execute().headers().map();
+            } catch (IOException e) {
+                return Map.of();
+            }
+        }
+
+        @Override
+        public String getResponseMessage() throws IOException {
+            execute();
+            return responseMessage;
+        }
+
+        @Override
+        public void disconnect() {
+            // La conexión pertenece al pool del HttpClient; no hay nada que cerrar
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+
+        private HttpResponse<byte[]> execute() throws IOException {
+            if (response != null) {
+                return response;
+            }
+            HttpRequest.Builder builder;
+            try {
+                builder = HttpRequest.newBuilder(url.toURI());
+            } catch (URISyntaxException e) {
+                throw new IOException("URL inválida: " + url, e);
+            }
+            Map<String, List<String>> headers = new LinkedHashMap<>(getRequestProperties());
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (header.getKey() == null || RESTRICTED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                    continue;
+                }
+                for (String value : new ArrayList<>(header.getValue())) {
+                    builder.header(header.getKey(), value);
+                }
+            }
+            byte[] body = requestBody == null ? null : requestBody.toByteArray();
+            if (body != null && "GET".equals(method)) {
+                // Igual que HttpURLConnection: escribir un cuerpo convierte el GET en POST
+                method = "POST";
+            }
+            builder.method(method, body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(body));
+            if (!"https".equalsIgnoreCase(url.getProtocol())) {
+                // Sin TLS no hay ALPN; se evita el intento de upgrade a h2c
+                builder.version(HttpClient.Version.HTTP_1_1);
+            }
+            Duration timeout = timeout();
+            if (timeout != null) {
+                builder.timeout(timeout);
+            }
+            connected = true;
+            response = engine.send(builder.build(), timeout);
+            responseCode = response.statusCode();
+            responseMessage = reasonPhrase(responseCode);
+            return response;
+        }
+
+        /**
+         * HttpClient no expone la frase de estado que envió el servidor (HTTP/2
+         * ni la tiene), así que se usa la estándar del código; null si no es
+         * uno conocido, igual que HttpURLConnection ante una línea sin frase.
+         */
+        private static String reasonPhrase(int status) {
+            return switch (status) {
+                case HTTP_OK -> "OK";
+                case HTTP_CREATED -> "Created";
+                case HTTP_ACCEPTED -> "Accepted";
+                case HTTP_NO_CONTENT -> "No Content";
+                case HTTP_MOVED_PERM -> "Moved Permanently";
+                case HTTP_MOVED_TEMP -> "Found";
+                case HTTP_NOT_MODIFIED -> "Not Modified";
+                case HTTP_BAD_REQUEST -> "Bad Request";
+                case HTTP_UNAUTHORIZED -> "Unauthorized";
+                case HTTP_FORBIDDEN -> "Forbidden";
+                case HTTP_NOT_FOUND -> "Not Found";
+                case HTTP_BAD_METHOD -> "Method Not Allowed";
+                case HTTP_CONFLICT -> "Conflict";
+                case HTTP_GONE -> "Gone";
+                case 422 -> "Unprocessable Content";
+                case 429 -> "Too Many Requests";
+                case HTTP_INTERNAL_ERROR -> "Internal Server Error";
+                case HTTP_NOT_IMPLEMENTED -> "Not Implemented";
+                case HTTP_BAD_GATEWAY -> "Bad Gateway";
+                case HTTP_UNAVAILABLE -> "Service Unavailable";
+                case HTTP_GATEWAY_TIMEOUT -> "Gateway Timeout";
+                default -> null;
+            };
+        }
+
+        /**
+         * Timeout total de la petición: conexión más lectura, o null si la
+         * llamada no fijó ninguno.
+         */
+        private Duration timeout() {
+            long millis = (long) Math.max(0, getConnectTimeout()) + Math.max(0, getReadTimeout());
+            return millis > 0 ? Duration.ofMillis(millis) : null;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.sources.app.util;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sources.app.config.EnvConfig;
+import com.sources.app.metrics.MetricsConfiguration;
+import com.sources.app.tracing.TracingSessionListener;
+
+/**
+ * Exporta a Prometheus el tiempo de cada consulta de Hibernate y el número de
+ * sentencias SQL por petición HTTP.
+ *
+ * <ul>
+ * <li>Cada consulta HQL, criteria o nativa se observa en
+ * {@code ensurance_db_query_duration_seconds}, etiquetada con la sentencia
+ * normalizada (literales y parámetros como {@code ?}) y su entidad. Las
+ * cargas por id y los flush no pasan por aquí: Hibernate no las cronometra,
+ * pero sí se cuentan abajo.</li>
+ * <li>Cada sentencia SQL enviada a la base de datos se cuenta en
+ * {@code ensurance_db_queries_total} por operación y tabla.</li>
+ * <li>Entre {@link #beginRequest()} y {@link #endRequest(String)} se cuentan
+ * las sentencias del hilo; el total va a
+ * {@code ensurance_db_statements_per_request} y, si supera
+ * {@code DB_REQUEST_STATEMENT_THRESHOLD} (25 por defecto), se suma a
+ * {@code ensurance_db_request_statement_threshold_exceeded_total}: señal
+ * típica de un N+1.</li>
+ * </ul>
+ *
+ * <p>{@code DB_QUERY_METRICS_ENABLED=false} (propiedad de sistema o variable
+ * de entorno) lo desactiva.</p>
+ */
+public final class QueryMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryMetrics.class);
+
+    static final int DEFAULT_STATEMENT_THRESHOLD = 25;
+    static final int MAX_STATEMENT_LABEL_LENGTH = 200;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern PARAMETER = Pattern.compile("\\?\\d+|:\\w+");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TARGET = Pattern.compile("\\b(?:from|into|update)\\s+([\\w.$\"]+)",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final ThreadLocal<int[]> REQUEST_STATEMENTS = new ThreadLocal<>();
+    private static final int STATEMENT_THRESHOLD =
+            EnvConfig.positiveInt("DB_REQUEST_STATEMENT_THRESHOLD", DEFAULT_STATEMENT_THRESHOLD);
+
+    private QueryMetrics() {
+    }
+
+    /**
+     * Activa las estadísticas de Hibernate con el cronómetro por consulta y
+     * el inspector de sentencias.
+     *
+     * @param configuration configuración de Hibernate ya cargada.
+     * @return {@code true} si quedó activado.
+     */
+    public static boolean configure(Configuration configuration) {
+        String enabled = System.getProperty("DB_QUERY_METRICS_ENABLED");
+        if (enabled == null || enabled.isBlank()) {
+            enabled = System.getenv("DB_QUERY_METRICS_ENABLED");
+        }
+        if (enabled != null && !enabled.isBlank() && !Boolean.parseBoolean(enabled.trim())) {
+            LOGGER.info("Métricas de consultas desactivadas por DB_QUERY_METRICS_ENABLED");
+            return false;
+        }
+        configuration.setProperty(AvailableSettings.GENERATE_STATISTICS, "true");
+        configuration.setProperty(AvailableSettings.STATS_BUILDER, TimingStatisticsFactory.class.getName());
+        configuration.setProperty(AvailableSettings.STATEMENT_INSPECTOR, CountingStatementInspector.class.getName());
+        return true;
+    }
+
+    /**
+     * Empieza a contar las sentencias del hilo actual.
+     */
+    public static void beginRequest() {
+        REQUEST_STATEMENTS.set(new int[1]);
+    }
+
+    /**
+     * Deja de contar y publica el total de la petición.
+     *
+     * @param route plantilla de la ruta, para las etiquetas.
+     * @return sentencias ejecutadas desde {@link #beginRequest()}.
+     */
+    public static int endRequest(String route) {
+        int[] counter = REQUEST_STATEMENTS.get();
+        REQUEST_STATEMENTS.remove();
+        if (counter == null) {
+            return 0;
+        }
+        int statements = counter[0];
+        MetricsConfiguration.DB_STATEMENTS_PER_REQUEST.labels(route).observe(statements);
+        if (statements > STATEMENT_THRESHOLD) {
+            MetricsConfiguration.DB_REQUEST_STATEMENT_THRESHOLD_EXCEEDED_TOTAL.labels(route).inc();
+            LOGGER.warn("{} ejecutó {} sentencias SQL (umbral {}); posible N+1", route, statements, STATEMENT_THRESHOLD);
+        }
+        return statements;
+    }
+
+    /**
+     * Normaliza una sentencia para usarla como etiqueta: literales y
+     * parámetros pasan a {@code ?}, las listas {@code IN} a {@code (?)} y los
+     * espacios se colapsan.
+     */
+    public static String normalize(String statement) {
+        String normalized = STRING_LITERAL.matcher(statement).replaceAll("?");
+        normalized = PARAMETER.matcher(normalized).replaceAll("?");
+        normalized = NUMBER.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return normalized.length() > MAX_STATEMENT_LABEL_LENGTH
+                ? normalized.substring(0, MAX_STATEMENT_LABEL_LENGTH)
+                : normalized;
+    }
+
+    /**
+     * @return la entidad o tabla principal (tras {@code FROM}, {@code INTO} o
+     * {@code UPDATE}), sin esquema, o {@code unknown}.
+     */
+    public static String targetOf(String statement) {
+        Matcher matcher = TARGET.matcher(statement);
+        if (!matcher.find()) {
+            return "unknown";
+        }
+        String target = matcher.group(1).replace("\"", "");
+        return target.substring(target.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * @return {@code select}, {@code insert}, {@code update}, {@code delete},
+     * {@code merge} u {@code other}.
+     */
+    public static String operationOf(String statement) {
+        String trimmed = statement.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String operation = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (operation) {
+            case "select", "insert", "update", "delete", "merge" -> operation;
+            case "with" -> "select";
+            default -> "other";
+        };
+    }
+
+    /**
+     * Cuenta cada sentencia SQL que Hibernate prepara, sin modificarla.
+     */
+    public static final class CountingStatementInspector implements StatementInspector {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String inspect(String sql) {
+            MetricsConfiguration.DB_QUERIES_TOTAL.labels(operationOf(sql), targetOf(sql), "issued").inc();
+            TracingSessionListener.statementInspected(sql);
+            int[] counter = REQUEST_STATEMENTS.get();
+            if (counter != null) {
+                counter[0]++;
+            }
+            return sql;
+        }
+    }
+
+    /**
+     * Estadísticas de Hibernate que además publican la duración de cada
+     * consulta.
+     */
+    public static final class TimingStatisticsFactory implements StatisticsFactory {
+
+        @Override
+        public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+            return new StatisticsImpl(sessionFactory) {
+                @Override
+                public void queryExecuted(String query, int rows, long timeMillis) {
+                    super.queryExecuted(query, rows, timeMillis);
+                    MetricsConfiguration.DB_QUERY_DURATION_SECONDS
+                            .labels(normalize(query), targetOf(query))
+                            .observe(timeMillis / 1000.0);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.sources.app.util;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Activa la caché de segundo nivel de Hibernate (JCache sobre Ehcache) para
+ * las entidades de referencia marcadas con
+ * {@link org.hibernate.annotations.Cache}.
+ *
+ * <p>El TTL y el número máximo de entradas de cada región se definen en
+ * {@code ehcache.xml}. Las escrituras hechas a través de la sesión (las
+ * operaciones {@code save}/{@code update}/{@code delete} de los DAO) actualizan
+ * o invalidan la región correspondiente al hacer commit, y las consultas
+ * marcadas con {@code setCacheable(true)} se invalidan cuando cambia cualquiera
+ * de sus tablas.</p>
+ *
+ * <p>{@code DB_CACHE_ENABLED=false} (propiedad de sistema o variable de
+ * entorno) desactiva la caché; también se respeta un
+ * {@code hibernate.cache.use_second_level_cache=false} explícito en el
+ * archivo de configuración.</p>
+ */
+public final class SecondLevelCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SecondLevelCache.class);
+
+    static final String PROVIDER = "org.ehcache.jsr107.EhcacheCachingProvider";
+    static final String CONFIG_RESOURCE = "ehcache.xml";
+
+    private SecondLevelCache() {
+    }
+
+    /**
+     * Aplica la configuración de caché sobre la configuración de Hibernate.
+     *
+     * @param configuration configuración de Hibernate ya cargada.
+     * @return {@code true} si la caché quedó activada.
+     */
+    public static boolean configure(Configuration configuration) {
+        String enabled = System.getProperty("DB_CACHE_ENABLED");
+        if (enabled == null || enabled.isBlank()) {
+            enabled = System.getenv("DB_CACHE_ENABLED");
+        }
+        if (enabled != null && !enabled.isBlank() && !Boolean.parseBoolean(enabled.trim())) {
+            LOGGER.info("Caché de segundo nivel desactivada por DB_CACHE_ENABLED");
+            return false;
+        }
+        String configured = configuration.getProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE);
+        if (configured != null && !Boolean.parseBoolean(configured.trim())) {
+            LOGGER.info("Caché de segundo nivel desactivada en la configuración de Hibernate");
+            return false;
+        }
+
+        configuration.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+        configuration.setProperty(AvailableSettings.USE_QUERY_CACHE, "true");
+        configuration.setProperty(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+        configuration.setProperty("hibernate.javax.cache.provider", PROVIDER);
+        configuration.setProperty("hibernate.javax.cache.uri", CONFIG_RESOURCE);
+        configuration.setProperty("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+        LOGGER.info("Caché de segundo nivel activada ({})", CONFIG_RESOURCE);
+        return true;
+    }
+}
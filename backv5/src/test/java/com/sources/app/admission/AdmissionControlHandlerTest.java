@@ -0,0 +1,174 @@
+package com.sources.app.admission;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AdmissionControlHandlerTest {
+
+    private static class MockHttpExchange extends HttpExchange {
+
+        private final String method;
+        private final Headers requestHeaders = new Headers();
+        private final Headers responseHeaders = new Headers();
+        private final ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+        private int responseCode = -1;
+
+        MockHttpExchange(String method) {
+            this.method = method;
+        }
+
+        @Override
+        public Headers getRequestHeaders() {
+            return requestHeaders;
+        }
+
+        @Override
+        public Headers getResponseHeaders() {
+            return responseHeaders;
+        }
+
+        @Override
+        public URI getRequestURI() {
+            return URI.create("/api2/test");
+        }
+
+        @Override
+        public String getRequestMethod() {
+            return method;
+        }
+
+        @Override
+        public HttpContext getHttpContext() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public InputStream getRequestBody() {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public OutputStream getResponseBody() {
+            return responseBody;
+        }
+
+        @Override
+        public void sendResponseHeaders(int rCode, long responseLength) throws IOException {
+            this.responseCode = rCode;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return new InetSocketAddress(0);
+        }
+
+        @Override
+        public int getResponseCode() {
+            return responseCode;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return new InetSocketAddress(0);
+        }
+
+        @Override
+        public String getProtocol() {
+            return "HTTP/1.1";
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return null;
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+        }
+
+        @Override
+        public void setStreams(InputStream i, OutputStream o) {
+        }
+
+        @Override
+        public HttpPrincipal getPrincipal() {
+            return null;
+        }
+    }
+
+    @Test
+    void handle_slotAvailable_delegatesAndReleases() throws IOException {
+        AdmissionController controller = new AdmissionController("handler-ok", 1, 0, 0);
+        AtomicInteger calls = new AtomicInteger();
+        AdmissionControlHandler handler = new AdmissionControlHandler(controller, "/api2/test",
+                exchange -> calls.incrementAndGet());
+
+        handler.handle(new MockHttpExchange("GET"));
+        handler.handle(new MockHttpExchange("GET"));
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void handle_delegateThrows_stillReleasesSlot() {
+        AdmissionController controller = new AdmissionController("handler-throw", 1, 0, 0);
+        AdmissionControlHandler handler = new AdmissionControlHandler(controller, "/api2/test",
+                exchange -> {
+                    throw new IOException("boom");
+                });
+
+        assertThrows(IOException.class, () -> handler.handle(new MockHttpExchange("GET")));
+        assertTrue(controller.tryAcquire());
+        controller.release();
+    }
+
+    @Test
+    void handle_saturated_returns503WithRetryAfter() throws IOException {
+        AdmissionController controller = new AdmissionController("handler-full", 1, 0, 0);
+        AtomicInteger calls = new AtomicInteger();
+        AdmissionControlHandler handler = new AdmissionControlHandler(controller, "/api2/test",
+                exchange -> calls.incrementAndGet());
+        assertTrue(controller.tryAcquire());
+
+        MockHttpExchange exchange = new MockHttpExchange("POST");
+        handler.handle(exchange);
+
+        assertEquals(0, calls.get());
+        assertEquals(503, exchange.getResponseCode());
+        assertEquals("1", exchange.getResponseHeaders().getFirst("Retry-After"));
+        assertTrue(exchange.responseBody.toString(StandardCharsets.UTF_8).contains("error"));
+        controller.release();
+    }
+
+    @Test
+    void handle_options_bypassesAdmission() throws IOException {
+        AdmissionController controller = new AdmissionController("handler-options", 1, 0, 0);
+        AtomicInteger calls = new AtomicInteger();
+        AdmissionControlHandler handler = new AdmissionControlHandler(controller, "/api2/test",
+                exchange -> calls.incrementAndGet());
+        assertTrue(controller.tryAcquire());
+
+        handler.handle(new MockHttpExchange("OPTIONS"));
+
+        assertEquals(1, calls.get());
+        controller.release();
+    }
+}
@@ -0,0 +1,93 @@
+package com.sources.app.dao;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sources.app.entities.Medicine;
+import com.sources.app.entities.OrderMedicine;
+import com.sources.app.entities.Orders;
+import com.sources.app.entities.User;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class KeysetQueryTest {
+
+    private final OrdersDAO ordersDAO = new OrdersDAO();
+    private final OrderMedicineDAO orderMedicineDAO = new OrderMedicineDAO();
+    private final MedicineDAO medicineDAO = new MedicineDAO();
+    private final UserDAO userDAO = new UserDAO();
+
+    @Test
+    public void testPagesCoverAllRowsInKeyOrder() {
+        User user = userDAO.create("Keyset User", "CUI-KS-1", "555-3000", "keyset@test.com", new Date(), "Addr K", "pwd");
+        assertNotNull(user);
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(ordersDAO.create("Pending", user.getIdUser()));
+        }
+        List<Long> expected = ordersDAO.getAll().stream().map(Orders::getIdOrder).sorted().collect(Collectors.toList());
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            KeysetPage<Orders> page = ordersDAO.getPage(cursor, 2);
+            assertTrue(page.getItems().size() <= 2);
+            page.getItems().forEach(o -> seen.add(o.getIdOrder()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+        assertEquals((expected.size() + 1) / 2, pages);
+    }
+
+    @Test
+    public void testCompositeKeyPagination() {
+        User user = userDAO.create("Keyset User 2", "CUI-KS-2", "555-3001", "keyset2@test.com", new Date(), "Addr K", "pwd");
+        Orders order = ordersDAO.create("Pending", user.getIdUser());
+        for (int i = 0; i < 3; i++) {
+            Medicine medicine = medicineDAO.create("Keyset Med " + i, "Active", "Desc", "img.png",
+                    "10mg", 1.0, 10, "Brand", false, 1.0, 0);
+            assertNotNull(orderMedicineDAO.create(order, medicine, 1, 1.0, "1.0"));
+        }
+        int total = orderMedicineDAO.getAll().size();
+
+        KeysetPage<OrderMedicine> first = orderMedicineDAO.getPage(null, total - 1);
+        assertEquals(total - 1, first.getItems().size());
+        assertTrue(first.hasNext());
+        assertTrue(first.getNextCursor().contains(KeysetQuery.CURSOR_SEPARATOR));
+
+        KeysetPage<OrderMedicine> last = orderMedicineDAO.getPage(first.getNextCursor(), total);
+        assertEquals(1, last.getItems().size());
+        assertFalse(last.hasNext());
+        OrderMedicine previous = first.getItems().get(first.getItems().size() - 1);
+        OrderMedicine next = last.getItems().get(0);
+        assertTrue(previous.getId().getOrderId() < next.getId().getOrderId()
+                || (previous.getId().getOrderId().equals(next.getId().getOrderId())
+                    && previous.getId().getMedicineId() < next.getId().getMedicineId()));
+    }
+
+    @Test
+    public void testHqlForCompositeAndDescendingKeys() {
+        KeysetQuery<OrderMedicine> composite = KeysetQuery.of(OrderMedicine.class, "id.orderId", "id.medicineId");
+        assertEquals("select e, e.id.orderId, e.id.medicineId from OrderMedicine e"
+                + " where (e.id.orderId > :k0) or (e.id.orderId = :k0 and e.id.medicineId > :k1)"
+                + " order by e.id.orderId asc, e.id.medicineId asc", composite.hql(true));
+
+        KeysetQuery<Orders> newest = KeysetQuery.of(Orders.class, "idOrder").fetchJoin("user").descending();
+        assertEquals("select e, e.idOrder from Orders e join fetch e.user order by e.idOrder desc", newest.hql(false));
+        assertEquals("select e, e.idOrder from Orders e join fetch e.user where (e.idOrder < :k0) order by e.idOrder desc",
+                newest.hql(true));
+    }
+
+    @Test
+    public void testInvalidCursorAndLimit() {
+        assertThrows(IllegalArgumentException.class, () -> ordersDAO.getPage("abc", 10));
+        assertThrows(IllegalArgumentException.class, () -> ordersDAO.getPage("1:2", 10));
+        assertThrows(IllegalArgumentException.class, () -> orderMedicineDAO.getPage("1", 10));
+        assertThrows(IllegalArgumentException.class, () -> ordersDAO.getPage(null, 0));
+        assertNull(KeysetQuery.of(Orders.class, "idOrder").parseCursor(" "));
+    }
+}
@@ -203,4 +203,25 @@ public class MedicineDAOTest {
         // This tests the error handling path in the DAO
         assertNotNull(updated);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testChangeListenersReceiveCommittedChanges() {
+        MedicineDAO dao = new MedicineDAO();
+        List<Medicine> changes = new java.util.ArrayList<>();
+        dao.addChangeListener(changes::add);
+        dao.addChangeListener(m -> {
+            throw new IllegalStateException("listener roto");
+        });
+
+        Medicine created = dao.create(new com.sources.app.dto.MedicineCreateRequest(
+                "Listener Medicine", "Active", "Description", "image.jpg", "100mg",
+                5.0, 10, "Brand", false, 10.00, 0));
+        assertEquals(1, changes.size());
+        assertEquals(created.getIdMedicine(), changes.get(0).getIdMedicine());
+
+        created.setName("Listener Medicine Updated");
+        assertNotNull(dao.update(created));
+        assertEquals(2, changes.size());
+        assertEquals("Listener Medicine Updated", changes.get(1).getName());
+    }
+}
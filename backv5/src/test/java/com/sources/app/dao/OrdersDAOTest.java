@@ -65,6 +65,24 @@ public class OrdersDAOTest {
         assertEquals("Shipped", reloaded.getStatus());
     }
 
+    @Test
+    public void testStreamAllMatchesGetAllWithUsersLoaded() throws Exception {
+        User u = userDAO.create("User Stream", "CUI-3", "555-3000", "s@test.com", new java.util.Date(), "Addr S", "pwd");
+        Orders created = ordersDAO.create("Pending", u.getIdUser());
+        assertNotNull(created);
+
+        java.util.List<Long> expected = ordersDAO.getAll().stream().map(Orders::getIdOrder).sorted().toList();
+        java.util.List<Long> streamed = new java.util.ArrayList<>();
+        ordersDAO.streamAll(orders -> orders.forEach(o -> {
+            if (o.getIdOrder().equals(created.getIdOrder())) {
+                assertEquals("User Stream", o.getUser().getName());
+            }
+            streamed.add(o.getIdOrder());
+        }));
+
+        assertEquals(expected, streamed.stream().sorted().toList());
+    }
+
     @Test
     public void testGetByIdNegativeReturnsNull() {
         assertNull(ordersDAO.getById(-1L));
@@ -116,6 +116,16 @@ public class SystemConfigDAOTest {
         assertFalse(dao.delete(id));
     }
 
+    @Test
+    public void testWritesArePublishedToRegistry() {
+        SystemConfigDAO dao = new SystemConfigDAO();
+        SystemConfig cfg = dao.saveOrUpdate("REGISTRY_KEY", "on", null);
+        assertNotNull(cfg);
+        assertEquals("on", SystemConfigRegistry.getInstance().asMap().get("REGISTRY_KEY"));
+        assertTrue(dao.delete(cfg.getIdConfig()));
+        assertFalse(SystemConfigRegistry.getInstance().asMap().containsKey("REGISTRY_KEY"));
+    }
+
     @Test
     public void testInitializeDefaultConfigs() {
         SystemConfigDAO dao = new SystemConfigDAO();
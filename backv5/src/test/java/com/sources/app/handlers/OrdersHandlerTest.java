@@ -3,7 +3,9 @@ package com.sources.app.handlers;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.sources.app.dao.KeysetPage;
 import com.sources.app.dao.OrdersDAO;
+import com.sources.app.dao.ResultStreamConsumer;
 import com.sources.app.entities.Orders;
 import com.sources.app.entities.User;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -34,6 +36,9 @@ public class OrdersHandlerTest {
         boolean throwOnGetAll;
         boolean throwOnGetById;
         boolean throwOnUpdate;
+        KeysetPage<Orders> page;
+        String pageAfter;
+        int pageLimit;
 
         @Override
         public Orders create(String status, Long idUser) {
@@ -47,6 +52,20 @@ public class OrdersHandlerTest {
             return all;
         }
 
+        @Override
+        public void streamAll(ResultStreamConsumer<Orders> consumer) throws IOException {
+            if (throwOnGetAll) throw new RuntimeException("boom");
+            consumer.accept(all.stream());
+        }
+
+        @Override
+        public KeysetPage<Orders> getPage(String after, int limit) {
+            if ("bad".equals(after)) throw new IllegalArgumentException("Cursor no válido: " + after);
+            pageAfter = after;
+            pageLimit = limit;
+            return page;
+        }
+
         @Override
         public Orders getById(Long id) {
             if (throwOnGetById) throw new RuntimeException("boom");
@@ -251,6 +270,59 @@ public class OrdersHandlerTest {
         assertEquals(2, resp.size());
     }
 
+    @Test
+    public void testGetPageReturnsItemsAndNextCursor() throws Exception {
+        Orders a = new Orders("PENDING"); a.setIdOrder(3L); a.setUser(new User());
+        Orders b = new Orders("COMPLETED"); b.setIdOrder(4L); b.setUser(new User());
+        MockOrdersDAO dao = new MockOrdersDAO();
+        dao.page = new KeysetPage<>(List.of(a, b), "4");
+        OrdersHandler handler = new OrdersHandler(dao);
+
+        MockHttpExchange ex = new MockHttpExchange("GET", "http://localhost/api2/orders?limit=2&after=2");
+        handler.handle(ex);
+
+        assertEquals(200, ex.getResponseCode());
+        assertEquals("2", dao.pageAfter);
+        assertEquals(2, dao.pageLimit);
+        assertEquals("4", ex.getResponseHeaders().getFirst("X-Next-Cursor"));
+        assertEquals("</api2/orders?limit=2&after=4>; rel=\"next\"", ex.getResponseHeaders().getFirst("Link"));
+        List<?> resp = new ObjectMapper().readValue(ex.getResponseBytes(), new TypeReference<List<Object>>(){});
+        assertEquals(2, resp.size());
+    }
+
+    @Test
+    public void testGetLastPageHasNoNextCursor() throws Exception {
+        MockOrdersDAO dao = new MockOrdersDAO();
+        dao.page = new KeysetPage<>(List.of(), null);
+        OrdersHandler handler = new OrdersHandler(dao);
+
+        MockHttpExchange ex = new MockHttpExchange("GET", "http://localhost/api2/orders?after=10");
+        handler.handle(ex);
+
+        assertEquals(200, ex.getResponseCode());
+        assertEquals(100, dao.pageLimit);
+        assertNull(ex.getResponseHeaders().getFirst("X-Next-Cursor"));
+        assertEquals("[]", new String(ex.getResponseBytes()));
+    }
+
+    @Test
+    public void testGetPageRejectsInvalidLimitAndCursor() throws Exception {
+        OrdersHandler handler = new OrdersHandler(new MockOrdersDAO());
+
+        MockHttpExchange ex = new MockHttpExchange("GET", "http://localhost/api2/orders?limit=0");
+        handler.handle(ex);
+        assertEquals(400, ex.getResponseCode());
+
+        ex = new MockHttpExchange("GET", "http://localhost/api2/orders?limit=abc");
+        handler.handle(ex);
+        assertEquals(400, ex.getResponseCode());
+
+        ex = new MockHttpExchange("GET", "http://localhost/api2/orders?after=bad");
+        handler.handle(ex);
+        assertEquals(400, ex.getResponseCode());
+        assertTrue(new String(ex.getResponseBytes()).contains("Cursor no válido"));
+    }
+
     @Test
     public void testGetByIdFound() throws Exception {
         MockOrdersDAO dao = new MockOrdersDAO();
@@ -19,13 +19,16 @@ import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 import java.util.ArrayList;
+import java.util.function.Consumer;
 
 public class SearchMedicineHandlerTest {
 
     private static class MockMedicineDAO extends MedicineDAO {
 
         private final List<Medicine> data;
+        private final List<Consumer<Medicine>> listeners = new ArrayList<>();
         boolean throwOnGetAll;
 
         MockMedicineDAO(List<Medicine> data) {
@@ -49,6 +52,15 @@ public class SearchMedicineHandlerTest {
         public Medicine getById(Long id) {
             return null;
         }
+
+        void publish(Medicine medicine) {
+            listeners.forEach(listener -> listener.accept(medicine));
+        }
+
+        @Override
+        public void addChangeListener(Consumer<Medicine> listener) {
+            listeners.add(listener);
+        }
     }
 
     private static class MockHttpExchange extends HttpExchange {
@@ -267,4 +279,114 @@ public class SearchMedicineHandlerTest {
         assertTrue(body.contains("Error interno al buscar medicamentos"));
         assertEquals("application/json", ex.getResponseHeaders().getFirst("Content-Type"));
     }
+
+    @Test
+    public void testPaginationSetsTotalCountHeader() throws Exception {
+        List<Medicine> data = new ArrayList<>();
+        data.add(new Medicine("Ibuprofeno Forte", "Ibuprofeno", "d", "i", "c", 1.0, 10, "b", false, 15.0, 0));
+        data.add(new Medicine("Ibu Light", "Ibuprofeno", "d", "i", "c", 1.0, 10, "b", false, 7.0, 0));
+        data.add(new Medicine("Ibuflam", "Ibuprofeno", "d", "i", "c", 1.0, 10, "b", false, 5.0, 0));
+
+        SearchMedicineHandler handler = new SearchMedicineHandler(new MockMedicineDAO(data));
+        MockHttpExchange ex = new MockHttpExchange("GET",
+                "http://localhost/api2/medicines/search?activeMedicament=ibuprofeno&offset=1&limit=1");
+        handler.handle(ex);
+
+        assertEquals(200, ex.getResponseCode());
+        assertEquals("3", ex.getResponseHeaders().getFirst("X-Total-Count"));
+        List<Map<String, Object>> resp = new ObjectMapper().readValue(ex.getResponseBytes(),
+                new TypeReference<List<Map<String, Object>>>() {
+                });
+        assertEquals(1, resp.size());
+        assertEquals("Ibu Light", resp.get(0).get("name"));
+    }
+
+    @Test
+    public void testInvalidPaginationReturns400() throws Exception {
+        SearchMedicineHandler handler = new SearchMedicineHandler(new MockMedicineDAO(List.of()));
+        MockHttpExchange ex = new MockHttpExchange("GET", "http://localhost/api2/medicines/search?name=a&limit=-1");
+        handler.handle(ex);
+        assertEquals(400, ex.getResponseCode());
+    }
+
+    @Test
+    public void testPrefixAndBrandSearch() throws Exception {
+        List<Medicine> data = new ArrayList<>();
+        data.add(new Medicine("Tos Stop", "Dextrometorfano", "d", "i", "c", 1.0, 10, "Genfar", false, 9.0, 0));
+        data.add(new Medicine("Jarabe de Tos", "Dextrometorfano", "d", "i", "c", 1.0, 10, "Bayer", false, 9.0, 0));
+
+        SearchMedicineHandler handler = new SearchMedicineHandler(new MockMedicineDAO(data));
+        MockHttpExchange ex = new MockHttpExchange("GET", "http://localhost/api2/medicines/search?name=tos&match=prefix");
+        handler.handle(ex);
+        assertEquals("1", ex.getResponseHeaders().getFirst("X-Total-Count"));
+
+        ex = new MockHttpExchange("GET", "http://localhost/api2/medicines/search?brand=bayer");
+        handler.handle(ex);
+        assertEquals("1", ex.getResponseHeaders().getFirst("X-Total-Count"));
+    }
+
+    @Test
+    public void testIndexFollowsDaoChangesWithoutReloading() throws Exception {
+        List<Medicine> data = new ArrayList<>();
+        Medicine existing = new Medicine("Dolofen", "Paracetamol", "d", "i", "c", 1.0, 10, "b", false, 10.0, 0);
+        existing.setIdMedicine(1L);
+        data.add(existing);
+        MockMedicineDAO dao = new MockMedicineDAO(data);
+        SearchMedicineHandler handler = new SearchMedicineHandler(dao);
+
+        handler.handle(new MockHttpExchange("GET", "http://localhost/api2/medicines/search"));
+        dao.throwOnGetAll = true;
+
+        Medicine renamed = new Medicine("Dolofen Forte", "Paracetamol", "d", "i", "c", 1.0, 10, "b", false, 10.0, 0);
+        renamed.setIdMedicine(1L);
+        dao.publish(renamed);
+        Medicine created = new Medicine("Panadol", "Paracetamol", "d", "i", "c", 1.0, 10, "b", false, 10.0, 0);
+        created.setIdMedicine(2L);
+        dao.publish(created);
+
+        MockHttpExchange ex = new MockHttpExchange("GET", "http://localhost/api2/medicines/search?activeMedicament=paracetamol");
+        handler.handle(ex);
+        assertEquals(200, ex.getResponseCode());
+        assertEquals("2", ex.getResponseHeaders().getFirst("X-Total-Count"));
+        String body = new String(ex.getResponseBytes());
+        assertTrue(body.contains("Dolofen Forte"));
+        assertTrue(body.contains("Panadol"));
+    }
+
+    @Test
+    public void testMisspelledQueryFallsBackToFuzzySearch() throws Exception {
+        List<Medicine> data = new ArrayList<>();
+        data.add(new Medicine("Ibuprofeno Forte", "Ibuprofeno", "d", "i", "c", 1.0, 10, "b", false, 15.0, 0));
+        data.add(new Medicine("Jarabe de Tos", "Dextrometorfano", "d", "i", "c", 1.0, 10, "b", false, 9.0, 0));
+
+        SearchMedicineHandler handler = new SearchMedicineHandler(new MockMedicineDAO(data));
+        MockHttpExchange ex = new MockHttpExchange("GET", "http://localhost/api2/medicines/search?activeMedicament=ibuprofno");
+        handler.handle(ex);
+        assertEquals(200, ex.getResponseCode());
+        assertEquals("fuzzy", ex.getResponseHeaders().getFirst("X-Search-Mode"));
+        assertEquals("1", ex.getResponseHeaders().getFirst("X-Total-Count"));
+
+        // Con un modo explícito no hay segunda búsqueda
+        ex = new MockHttpExchange("GET", "http://localhost/api2/medicines/search?activeMedicament=ibuprofno&match=contains");
+        handler.handle(ex);
+        assertEquals("contains", ex.getResponseHeaders().getFirst("X-Search-Mode"));
+        assertEquals("0", ex.getResponseHeaders().getFirst("X-Total-Count"));
+    }
+
+    @Test
+    public void testFuzzySearchWithWeightsParam() throws Exception {
+        List<Medicine> data = new ArrayList<>();
+        data.add(new Medicine("Calmante", "Paracetamol", "Alivia la tos", "i", "c", 1.0, 10, "b", false, 15.0, 0));
+        data.add(new Medicine("Tos Stop", "Dextrometorfano", "d", "i", "c", 1.0, 10, "b", false, 9.0, 0));
+
+        SearchMedicineHandler handler = new SearchMedicineHandler(new MockMedicineDAO(data));
+        MockHttpExchange ex = new MockHttpExchange("GET",
+                "http://localhost/api2/medicines/search?q=tos&match=fuzzy&weights=name:1,description:5");
+        handler.handle(ex);
+        List<Map<String, Object>> resp = new ObjectMapper().readValue(ex.getResponseBytes(),
+                new TypeReference<List<Map<String, Object>>>() {
+                });
+        assertEquals(2, resp.size());
+        assertEquals("Calmante", resp.get(0).get("name"));
+    }
 }
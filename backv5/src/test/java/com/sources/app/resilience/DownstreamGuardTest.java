@@ -0,0 +1,90 @@
+package com.sources.app.resilience;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.sources.app.exceptions.DownstreamUnavailableException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownstreamGuardTest {
+
+    private static DownstreamGuard guard(String name, int maxConcurrent) {
+        return new DownstreamGuard(name, maxConcurrent,
+                new CircuitBreaker(name, 4, 2, 50, 60_000, 1, System::currentTimeMillis));
+    }
+
+    @Test
+    void openCircuit_FailsFastWithoutCalling() throws Exception {
+        DownstreamGuard guard = guard("test-fast", 4);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IOException.class, () -> guard.call(() -> {
+                calls.incrementAndGet();
+                throw new IOException("Connection refused");
+            }, r -> false));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState());
+
+        assertThrows(DownstreamUnavailableException.class, () -> guard.call(() -> calls.incrementAndGet(), r -> false));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void failingResults_CountAsFailures() throws Exception {
+        DownstreamGuard guard = guard("test-5xx", 4);
+
+        assertEquals(503, guard.call(() -> 503, status -> status >= 500));
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+        assertEquals(500, guard.call(() -> 500, status -> status >= 500));
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState());
+    }
+
+    @Test
+    void bulkheadFull_RejectsImmediately() throws Exception {
+        DownstreamGuard guard = guard("test-bulkhead", 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> {
+            try {
+                return guard.call(() -> {
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "ok";
+                }, r -> false);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        DownstreamUnavailableException error = assertThrows(DownstreamUnavailableException.class,
+                () -> guard.call(() -> "second", r -> false));
+        assertTrue(error.getMessage().contains("saturado"));
+
+        release.countDown();
+        assertEquals("ok", first.get(5, TimeUnit.SECONDS));
+        assertEquals("third", guard.call(() -> "third", r -> false));
+    }
+
+    @Test
+    void forUri_MatchesRegisteredHostAndPort() {
+        DownstreamGuard.register(Downstream.INSURANCE, "http://Insurance.test:9310/api");
+
+        DownstreamGuard guard = DownstreamGuard.forUri(URI.create("http://insurance.test:9310/api/policies?id=1"));
+        assertSame(DownstreamGuard.forDownstream(Downstream.INSURANCE), guard);
+        assertEquals("insurance", guard.getDownstream());
+        assertNull(DownstreamGuard.forUri(URI.create("http://insurance.test:9311/api")));
+    }
+}
@@ -0,0 +1,127 @@
+package com.sources.app.search;
+
+import com.sources.app.entities.Medicine;
+import com.sources.app.search.MedicineSearchIndex.Field;
+import com.sources.app.search.MedicineSearchIndex.Match;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark JMH de {@link MedicineSearchIndex} sobre un catálogo sintético.
+ *
+ * <p>Usa el modo {@code SampleTime}, que informa los percentiles (p0.99 entre
+ * ellos) de cada búsqueda. No lo ejecuta surefire; se lanza con:</p>
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.sources.app.search.MedicineSearchBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+public class MedicineSearchBenchmark {
+
+    private static final String[] INGREDIENTS = {
+        "ibuprofeno", "paracetamol", "amoxicilina", "omeprazol", "loratadina", "metformina", "losartan",
+        "atorvastatina", "diclofenaco", "naproxeno", "cetirizina", "salbutamol", "azitromicina",
+        "ciprofloxacino", "clonazepam", "sertralina", "fluoxetina", "enalapril", "ranitidina", "metamizol",
+        "dexametasona", "prednisona", "levotiroxina", "amlodipino", "ketorolaco", "ambroxol", "dextrometorfano"
+    };
+    private static final String[] BRANDS = {
+        "Bayer", "Pfizer", "Genfar", "Sanofi", "Novartis", "Roche", "Abbott", "Merck", "Bago", "Tecnoquimicas"
+    };
+    private static final String[] WORDS = {
+        "tableta", "jarabe", "capsula", "alivio", "dolor", "fiebre", "infeccion", "cabeza", "muscular",
+        "adultos", "ninos", "cada", "horas", "via", "oral", "liberacion", "prolongada", "forte", "plus",
+        "tratamiento", "alergia", "presion", "arterial", "gastrica", "acidez", "tos", "seca", "nasal"
+    };
+    private static final String[] SYLLABLES = {"ta", "ri", "mo", "fen", "lex", "dol", "pra", "vi", "zol", "cor", "nu", "san"};
+
+    @Param({"100000"})
+    public int catalogSize;
+
+    private MedicineSearchIndex index;
+    private final Set<Field> allFields = EnumSet.allOf(Field.class);
+    private final Set<Field> activeMedicament = EnumSet.of(Field.ACTIVE_MEDICAMENT);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Medicine> medicines = new ArrayList<>(catalogSize);
+        for (int i = 0; i < catalogSize; i++) {
+            String ingredient = INGREDIENTS[random.nextInt(INGREDIENTS.length)];
+            StringBuilder name = new StringBuilder();
+            for (int s = 0; s < 3; s++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+            name.append(' ').append(WORDS[random.nextInt(WORDS.length)]).append(' ').append(i);
+            StringBuilder description = new StringBuilder(ingredient);
+            for (int w = 0; w < 12; w++) {
+                description.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            Medicine medicine = new Medicine(name.toString(), ingredient, description.toString(), "img",
+                    (random.nextInt(10) + 1) * 50 + "mg", 1.0, 100, BRANDS[random.nextInt(BRANDS.length)],
+                    random.nextBoolean(), 10.0, 0);
+            medicine.setIdMedicine((long) i + 1);
+            medicines.add(medicine);
+        }
+        index = new MedicineSearchIndex(() -> medicines, 0);
+        index.rebuild();
+    }
+
+    @Benchmark
+    public MedicineSearchIndex.Page fuzzyActiveMedicamentTypo() {
+        return index.search(activeMedicament, "ibuprofno", Match.FUZZY, 0, 20);
+    }
+
+    @Benchmark
+    public MedicineSearchIndex.Page fuzzyAllFieldsTwoWords() {
+        return index.search(allFields, "amoxicilna bayr", Match.FUZZY, 0, 20);
+    }
+
+    @Benchmark
+    public MedicineSearchIndex.Page fuzzyNameRareWord() {
+        return index.search(EnumSet.of(Field.NAME), "tarimofen", Match.FUZZY, 0, 20);
+    }
+
+    @Benchmark
+    public MedicineSearchIndex.Page containsName() {
+        return index.search(EnumSet.of(Field.NAME), "lexdol", Match.CONTAINS, 0, 20);
+    }
+
+    @Benchmark
+    public MedicineSearchIndex.Page prefixName() {
+        return index.search(EnumSet.of(Field.NAME), "tari", Match.PREFIX, 0, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MedicineSearchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
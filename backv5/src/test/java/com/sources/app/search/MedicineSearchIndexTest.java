@@ -0,0 +1,235 @@
+package com.sources.app.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.sources.app.entities.Medicine;
+import com.sources.app.search.MedicineSearchIndex.Field;
+import com.sources.app.search.MedicineSearchIndex.Match;
+import com.sources.app.search.MedicineSearchIndex.Page;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+public class MedicineSearchIndexTest {
+
+    private static Medicine medicine(long id, String name, String activeMedicament, String brand) {
+        Medicine medicine = new Medicine(name, activeMedicament, "d", "i", "c", 1.0, 10, brand, false, 10.0, 0);
+        medicine.setIdMedicine(id);
+        return medicine;
+    }
+
+    private static List<Medicine> catalog() {
+        List<Medicine> data = new ArrayList<>();
+        data.add(medicine(1L, "Ibuprofeno Forte", "Ibuprofeno", "Bayer"));
+        data.add(medicine(2L, "Jarabe de Tos", "Dextrometorfano", "Genfar"));
+        data.add(medicine(3L, "Ibu Light", "Ibuprofeno", "Genfar"));
+        data.add(medicine(4L, "Aspirina", "Ácido acetilsalicílico", "Bayer"));
+        data.add(medicine(5L, "Dolofen", "Paracetamol", null));
+        return data;
+    }
+
+    private static List<String> names(Page page) {
+        return page.getItems().stream().map(Medicine::getName).collect(Collectors.toList());
+    }
+
+    private static MedicineSearchIndex index(List<Medicine> data) {
+        return new MedicineSearchIndex(() -> data, 0);
+    }
+
+    @Test
+    public void testExactMatchIgnoresCaseAndAccents() {
+        MedicineSearchIndex index = index(catalog());
+        Page page = index.search(EnumSet.of(Field.ACTIVE_MEDICAMENT), "ACIDO ACETILSALICILICO", Match.EXACT, 0, 10);
+        assertEquals(List.of("Aspirina"), names(page));
+        assertEquals(0, index.search(EnumSet.of(Field.ACTIVE_MEDICAMENT), "acido", Match.EXACT, 0, 10).getTotal());
+    }
+
+    @Test
+    public void testPrefixMatch() {
+        MedicineSearchIndex index = index(catalog());
+        Page page = index.search(EnumSet.of(Field.NAME), "ibu", Match.PREFIX, 0, 10);
+        assertEquals(List.of("Ibuprofeno Forte", "Ibu Light"), names(page));
+        assertEquals(0, index.search(EnumSet.of(Field.NAME), "tos", Match.PREFIX, 0, 10).getTotal());
+    }
+
+    @Test
+    public void testContainsUsesGramsAndVerifiesSubstring() {
+        MedicineSearchIndex index = index(catalog());
+        assertEquals(List.of("Jarabe de Tos"), names(index.search(EnumSet.of(Field.NAME), "de tos", Match.CONTAINS, 0, 10)));
+        // "Ana Nana" contiene los trigramas de "anana" (ana, nan) pero no la subcadena
+        MedicineSearchIndex grams = index(List.of(medicine(1L, "Ana Nana", "X", "Y")));
+        assertEquals(0, grams.search(EnumSet.of(Field.NAME), "anana", Match.CONTAINS, 0, 10).getTotal());
+        assertEquals(0, index.search(EnumSet.of(Field.NAME), "xyz", Match.CONTAINS, 0, 10).getTotal());
+    }
+
+    @Test
+    public void testShortContainsQueryScansValues() {
+        MedicineSearchIndex index = index(catalog());
+        assertEquals(List.of("Ibuprofeno Forte", "Ibu Light"),
+                names(index.search(EnumSet.of(Field.NAME), "ib", Match.CONTAINS, 0, 10)));
+    }
+
+    @Test
+    public void testSearchAcrossFieldsReturnsEachMedicineOnce() {
+        MedicineSearchIndex index = index(catalog());
+        Page page = index.search(EnumSet.allOf(Field.class), "bayer", Match.CONTAINS, 0, 10);
+        assertEquals(List.of("Ibuprofeno Forte", "Aspirina"), names(page));
+        page = index.search(EnumSet.allOf(Field.class), "ibuprofeno", Match.CONTAINS, 0, 10);
+        assertEquals(List.of("Ibuprofeno Forte", "Ibu Light"), names(page));
+    }
+
+    @Test
+    public void testPagination() {
+        MedicineSearchIndex index = index(catalog());
+        Page page = index.search(EnumSet.of(Field.BRAND), "genfar", Match.EXACT, 1, 1);
+        assertEquals(2, page.getTotal());
+        assertEquals(List.of("Ibu Light"), names(page));
+
+        Page all = index.all(3, 10);
+        assertEquals(5, all.getTotal());
+        assertEquals(List.of("Aspirina", "Dolofen"), names(all));
+        assertTrue(index.all(10, 10).getItems().isEmpty());
+    }
+
+    @Test
+    public void testUpsertReplacesIndexedValues() {
+        MedicineSearchIndex index = index(catalog());
+        index.rebuild();
+        assertEquals(5, index.size());
+
+        index.upsert(medicine(2L, "Jarabe Infantil", "Dextrometorfano", "Genfar"));
+        index.upsert(medicine(6L, "Ibuflam", "Ibuprofeno", "Mepha"));
+
+        assertEquals(6, index.size());
+        assertEquals(0, index.search(EnumSet.of(Field.NAME), "tos", Match.CONTAINS, 0, 10).getTotal());
+        assertEquals(List.of("Jarabe Infantil"), names(index.search(EnumSet.of(Field.NAME), "infantil", Match.CONTAINS, 0, 10)));
+        assertEquals(List.of("Ibuprofeno Forte", "Ibu Light", "Ibuflam"),
+                names(index.search(EnumSet.of(Field.NAME), "ibu", Match.PREFIX, 0, 10)));
+    }
+
+    @Test
+    public void testLoadsOnceAndIgnoresUpsertsBeforeLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        List<Medicine> data = catalog();
+        MedicineSearchIndex index = new MedicineSearchIndex(() -> {
+            loads.incrementAndGet();
+            return data;
+        }, 0);
+
+        index.upsert(medicine(99L, "Fantasma", "Nada", "Nadie"));
+        assertEquals(0, index.size());
+
+        index.all(0, 10);
+        index.search(EnumSet.of(Field.NAME), "ibu", Match.CONTAINS, 0, 10);
+        assertEquals(1, loads.get());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    public void testFailedLoadPropagatesAndIsRetried() {
+        AtomicInteger loads = new AtomicInteger();
+        MedicineSearchIndex index = new MedicineSearchIndex(() -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new RuntimeException("boom");
+            }
+            return catalog();
+        }, 0);
+
+        assertThrows(RuntimeException.class, () -> index.all(0, 10));
+        assertEquals(5, index.all(0, 10).getTotal());
+    }
+
+    @Test
+    public void testRebuildKeepsUpsertsReceivedDuringLoad() {
+        List<Medicine> stale = catalog();
+        MedicineSearchIndex[] holder = new MedicineSearchIndex[1];
+        AtomicInteger loads = new AtomicInteger();
+        holder[0] = new MedicineSearchIndex(() -> {
+            if (loads.incrementAndGet() == 2) {
+                // Una modificación confirmada mientras se lee el catálogo antiguo
+                holder[0].upsert(medicine(4L, "Aspirina Plus", "Ácido acetilsalicílico", "Bayer"));
+            }
+            return stale;
+        }, 0);
+        MedicineSearchIndex index = holder[0];
+
+        index.all(0, 10);
+        index.rebuild();
+
+        assertEquals(List.of("Aspirina Plus"), names(index.search(EnumSet.of(Field.NAME), "aspirina", Match.PREFIX, 0, 10)));
+    }
+
+    @Test
+    public void testNormalizeAndParse() {
+        assertEquals("acido acetilsalicilico", MedicineSearchIndex.normalize("  Ácido Acetilsalicílico "));
+        assertNull(MedicineSearchIndex.normalize(null));
+        assertEquals(Match.PREFIX, Match.parse("prefix"));
+        assertEquals(Match.CONTAINS, Match.parse(null));
+        assertEquals(Match.CONTAINS, Match.parse("otro"));
+    }
+
+    @Test
+    public void testFuzzySearchToleratesTyposAndRanksByField() {
+        List<Medicine> data = catalog();
+        data.add(medicine(6L, "Gel Muscular", "Diclofenaco", "Genfar"));
+        data.get(5).setDescription("Alternativa al ibuprofeno para dolor muscular");
+        MedicineSearchIndex index = index(data);
+
+        Page page = index.search(EnumSet.allOf(Field.class), "ibuprofno", Match.FUZZY, 0, 10);
+        // Nombre y principio activo pesan más que la descripción
+        assertEquals(List.of("Ibuprofeno Forte", "Ibu Light", "Gel Muscular"), names(page));
+
+        page = index.search(EnumSet.of(Field.ACTIVE_MEDICAMENT), "parcetamol", Match.FUZZY, 0, 10);
+        assertEquals(List.of("Dolofen"), names(page));
+        assertEquals(0, index.search(EnumSet.of(Field.NAME), "zzzz", Match.FUZZY, 0, 10).getTotal());
+    }
+
+    @Test
+    public void testFuzzySearchWeightsAreTunable() {
+        List<Medicine> data = new ArrayList<>();
+        data.add(medicine(1L, "Calmante", "Paracetamol", "Tos Pharma"));
+        data.add(medicine(2L, "Tos Stop", "Dextrometorfano", "Genfar"));
+        MedicineSearchIndex index = index(data);
+
+        Map<Field, Double> weights = MedicineSearchIndex.parseWeights("name:1,brand:5", null);
+        assertEquals(List.of("Calmante", "Tos Stop"), names(index.fuzzySearch("tos", weights, 0, 10)));
+
+        weights = MedicineSearchIndex.parseWeights("name:5,brand:1", null);
+        assertEquals(List.of("Tos Stop", "Calmante"), names(index.fuzzySearch("tos", weights, 0, 10)));
+
+        weights = MedicineSearchIndex.parseWeights("brand:0", null);
+        assertEquals(List.of("Tos Stop"), names(index.fuzzySearch("tos", weights, 0, 10)));
+    }
+
+    @Test
+    public void testFuzzySearchSumsMatchesPerQueryWord() {
+        MedicineSearchIndex index = index(catalog());
+        // Ibuprofeno Forte (ambas palabras), Ibu Light (principio activo) y Aspirina (marca)
+        Page page = index.search(EnumSet.allOf(Field.class), "ibuprofeno bayr", Match.FUZZY, 0, 1);
+        assertEquals(3, page.getTotal());
+        assertEquals(List.of("Ibuprofeno Forte"), names(page));
+    }
+
+    @Test
+    public void testFuzzySearchFollowsUpserts() {
+        MedicineSearchIndex index = index(catalog());
+        index.rebuild();
+        index.upsert(medicine(5L, "Dolofen", "Metamizol", null));
+        assertEquals(0, index.search(EnumSet.of(Field.ACTIVE_MEDICAMENT), "paracetamol", Match.FUZZY, 0, 10).getTotal());
+        assertEquals(List.of("Dolofen"),
+                names(index.search(EnumSet.of(Field.ACTIVE_MEDICAMENT), "metamisol", Match.FUZZY, 0, 10)));
+    }
+
+    @Test
+    public void testParseWeights() {
+        Map<Field, Double> weights = MedicineSearchIndex.parseWeights("name:4, description:0,otro:9,brand:x", null);
+        assertEquals(4.0, weights.get(Field.NAME));
+        assertEquals(0.0, weights.get(Field.DESCRIPTION));
+        assertEquals(1.5, weights.get(Field.BRAND));
+        assertEquals(2.5, weights.get(Field.ACTIVE_MEDICAMENT));
+    }
+}
@@ -0,0 +1,60 @@
+package com.sources.app.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+public class TermIndexTest {
+
+    @Test
+    public void testEditDistance() {
+        assertEquals(0, TermIndex.editDistance("ibuprofeno", "ibuprofeno", 2));
+        assertEquals(1, TermIndex.editDistance("ibuprofno", "ibuprofeno", 2));
+        assertEquals(1, TermIndex.editDistance("paracetmaol", "paracetamol", 2));
+        assertEquals(2, TermIndex.editDistance("amoxicilna", "amoxicilina2", 2));
+        // Se corta en cuanto supera el máximo
+        assertEquals(3, TermIndex.editDistance("aspirina", "diclofenaco", 2));
+        assertEquals(2, TermIndex.editDistance("abc", "abcdefgh", 1));
+    }
+
+    @Test
+    public void testMaxEditsByLength() {
+        assertEquals(0, TermIndex.maxEdits(2));
+        assertEquals(1, TermIndex.maxEdits(3));
+        assertEquals(1, TermIndex.maxEdits(5));
+        assertEquals(2, TermIndex.maxEdits(6));
+    }
+
+    @Test
+    public void testSimilarity() {
+        assertEquals(1.0, TermIndex.similarity("ibuprofeno", "ibuprofeno", 2));
+        assertEquals(0.9, TermIndex.similarity("ibuprofno", "ibuprofeno", 2), 1e-9);
+        double prefix = TermIndex.similarity("ibu", "ibuprofeno", 1);
+        assertTrue(prefix > TermIndex.PREFIX_SIMILARITY && prefix < 1.0);
+        assertEquals(0.0, TermIndex.similarity("tos", "dextrometorfano", 1));
+    }
+
+    @Test
+    public void testTokenizeAndGrams() {
+        assertEquals(List.of("acido", "acetilsalicilico", "500mg"),
+                List.copyOf(TermIndex.tokenize("acido acetilsalicilico (500mg)")));
+        assertTrue(TermIndex.tokenize(null).isEmpty());
+        assertEquals(Set.of("$ib", "ibu", "bu$"), TermIndex.paddedGrams("ibu"));
+    }
+
+    @Test
+    public void testIntListRemoveValue() {
+        TermIndex.IntList list = new TermIndex.IntList();
+        for (int i = 0; i < 10; i++) {
+            list.add(i);
+        }
+        list.removeValue(3);
+        list.removeValue(42);
+        assertEquals(9, list.size());
+        for (int i = 0; i < list.size(); i++) {
+            assertNotEquals(3, list.get(i));
+        }
+    }
+}
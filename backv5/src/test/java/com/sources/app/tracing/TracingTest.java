@@ -0,0 +1,203 @@
+package com.sources.app.tracing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sources.app.entities.Category;
+import com.sources.app.metrics.InstrumentedHttpHandler;
+import com.sources.app.util.PooledHttpClient;
+import com.sources.app.util.QueryMetrics;
+import com.sun.net.httpserver.HttpServer;
+
+class TracingTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    private final List<Span> exported = new CopyOnWriteArrayList<>();
+    private final BatchSpanProcessor processor = new BatchSpanProcessor(
+            (serviceName, spans) -> exported.addAll(spans), "test", 100, 60_000);
+    private final AtomicReference<String> downstreamTraceparent = new AtomicReference<>();
+    private HttpServer downstream;
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        downstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        downstream.createContext("/api/ping", exchange -> {
+            downstreamTraceparent.set(exchange.getRequestHeaders().getFirst("traceparent"));
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        downstream.start();
+
+        String downstreamUrl = "http://127.0.0.1:" + downstream.getAddress().getPort() + "/api/ping";
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/checkout", InstrumentedHttpHandler.of("/api/checkout", exchange -> {
+            HttpURLConnection connection = PooledHttpClient.open(downstreamUrl);
+            int status = connection.getResponseCode();
+            exchange.sendResponseHeaders(status == 204 ? 200 : 502, -1);
+            exchange.close();
+        }));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        downstream.stop(0);
+        Tracing.install(Tracing.DEFAULT_SAMPLE_RATE, null);
+    }
+
+    @Test
+    void traceparent_ParsesValidHeadersOnly() {
+        SpanContext context = SpanContext.fromTraceparent("00-" + TRACE_ID + "-" + PARENT_ID + "-01", " vendor=a ");
+        assertEquals(TRACE_ID, context.traceId());
+        assertEquals(PARENT_ID, context.spanId());
+        assertTrue(context.sampled());
+        assertEquals("vendor=a", context.traceState());
+        assertEquals("00-" + TRACE_ID + "-" + PARENT_ID + "-01", context.traceparent());
+
+        assertFalse(SpanContext.fromTraceparent("00-" + TRACE_ID + "-" + PARENT_ID + "-00", null).sampled());
+        assertEquals(TRACE_ID, SpanContext.fromTraceparent("01-" + TRACE_ID + "-" + PARENT_ID + "-01-extra", null).traceId());
+        assertNull(SpanContext.fromTraceparent("00-" + TRACE_ID + "-" + PARENT_ID + "-01-extra", null));
+        assertNull(SpanContext.fromTraceparent("ff-" + TRACE_ID + "-" + PARENT_ID + "-01", null));
+        assertNull(SpanContext.fromTraceparent("00-" + "0".repeat(32) + "-" + PARENT_ID + "-01", null));
+        assertNull(SpanContext.fromTraceparent("00-" + TRACE_ID.toUpperCase() + "-" + PARENT_ID + "-01", null));
+        assertNull(SpanContext.fromTraceparent(null, null));
+    }
+
+    @Test
+    void incomingTrace_IsContinuedByServerAndClientSpans() throws Exception {
+        Tracing.install(0, processor);
+
+        send("00-" + TRACE_ID + "-" + PARENT_ID + "-01");
+        awaitExported(2);
+
+        Span serverSpan = exported.stream().filter(span -> span.kind() == Span.Kind.SERVER).findFirst().orElseThrow();
+        Span clientSpan = exported.stream().filter(span -> span.kind() == Span.Kind.CLIENT).findFirst().orElseThrow();
+        assertEquals(TRACE_ID, serverSpan.context().traceId());
+        assertEquals(PARENT_ID, serverSpan.parentSpanId());
+        assertEquals("GET /api/checkout", serverSpan.name());
+        assertEquals(200L, serverSpan.attributes().get("http.response.status_code"));
+        assertEquals(TRACE_ID, clientSpan.context().traceId());
+        assertEquals(serverSpan.context().spanId(), clientSpan.parentSpanId());
+        assertEquals(204L, clientSpan.attributes().get("http.response.status_code"));
+        assertEquals(clientSpan.context().traceparent(), downstreamTraceparent.get());
+    }
+
+    @Test
+    void unsampledRoot_IsPropagatedButNotExported() throws Exception {
+        Tracing.install(0, processor);
+
+        send(null);
+        processor.flush();
+
+        SpanContext propagated = SpanContext.fromTraceparent(downstreamTraceparent.get(), null);
+        assertFalse(propagated.sampled());
+        assertNotEquals(TRACE_ID, propagated.traceId());
+        assertTrue(exported.isEmpty());
+    }
+
+    @Test
+    void sqlStatements_BecomeChildSpansOfTheCurrentSpan() {
+        Tracing.install(1, processor);
+        Configuration configuration = new Configuration()
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:tracing;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.driver_class", "org.h2.Driver")
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .addAnnotatedClass(Category.class);
+        QueryMetrics.configure(configuration);
+        assertTrue(Tracing.configure(configuration));
+
+        Span root = Tracing.startSpan("checkout", Span.Kind.INTERNAL);
+        try (SessionFactory sessionFactory = configuration.buildSessionFactory();
+             Session session = sessionFactory.openSession()) {
+            Tracing.inScope(root, () -> session.createQuery("FROM Category c WHERE c.name = :name", Category.class)
+                    .setParameter("name", "Vitaminas")
+                    .list());
+        }
+        root.end();
+        processor.flush();
+
+        Span statement = exported.stream().filter(span -> span.kind() == Span.Kind.CLIENT).findFirst().orElseThrow();
+        assertEquals("SELECT CATEGORY", statement.name());
+        assertEquals(root.context().spanId(), statement.parentSpanId());
+        assertEquals(root.context().traceId(), statement.context().traceId());
+        assertEquals("select c1_0.ID_CATEGORY,c1_0.NAME from CATEGORY c1_0 where c1_0.NAME=?",
+                statement.attributes().get("db.query.text"));
+    }
+
+    @Test
+    void fileExporter_WritesOneOtlpJsonLinePerBatch(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("traces/spans.jsonl");
+        Tracing.install(1, null);
+        Span span = new Span("SELECT POLICY", Span.Kind.CLIENT, SpanContext.newRoot(true), null, true)
+                .setAttribute("db.collection.name", "POLICY")
+                .setAttribute("rows", 3);
+        span.end();
+
+        new FileSpanExporter(file).export("backv5", List.of(span));
+        new FileSpanExporter(file).export("backv5", List.of(span));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        JsonNode resourceSpans = new ObjectMapper().readTree(lines.get(0)).get("resourceSpans").get(0);
+        assertEquals("backv5", resourceSpans.at("/resource/attributes/0/value/stringValue").asText());
+        JsonNode encoded = resourceSpans.at("/scopeSpans/0/spans/0");
+        assertEquals(span.context().traceId(), encoded.get("traceId").asText());
+        assertEquals(3, encoded.get("kind").asInt());
+        assertEquals("3", encoded.at("/attributes/1/value/intValue").asText());
+        assertEquals(1, encoded.at("/status/code").asInt());
+    }
+
+    private void send(String traceparent) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/api/checkout"));
+        if (traceparent != null) {
+            request.header("traceparent", traceparent);
+        }
+        HttpResponse<Void> response = HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.discarding());
+        assertEquals(200, response.statusCode());
+    }
+
+    /**
+     * The server span ends after its response is sent, so poll for it.
+     */
+    private void awaitExported(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        processor.flush();
+        while (exported.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            processor.flush();
+        }
+        assertEquals(count, exported.size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.sources.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.file.Path;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+class ConnectionPoolTest {
+
+    @Test
+    void buildConfig_UsesHibernatePoolSizeAsMaximum() {
+        Properties props = new Properties();
+        props.setProperty(AvailableSettings.JAKARTA_JDBC_DRIVER, "org.sqlite.JDBC");
+        props.setProperty(AvailableSettings.POOL_SIZE, "1");
+
+        HikariConfig config = ConnectionPool.buildConfig(props, "test-pool");
+
+        assertEquals("test-pool", config.getPoolName());
+        assertEquals(1, config.getMaximumPoolSize());
+        assertEquals(1, config.getMinimumIdle());
+        assertFalse(config.isAutoCommit());
+        assertNull(config.getDataSourceProperties().getProperty("oracle.jdbc.implicitStatementCacheSize"));
+    }
+
+    @Test
+    void buildConfig_DefaultsWithoutPoolSize() {
+        Properties props = new Properties();
+        props.setProperty(AvailableSettings.JAKARTA_JDBC_USER, "ADMIN");
+        props.setProperty(AvailableSettings.JAKARTA_JDBC_PASSWORD, "secret");
+
+        HikariConfig config = ConnectionPool.buildConfig(props, "test-pool");
+
+        assertEquals(10, config.getMaximumPoolSize());
+        assertEquals(2, config.getMinimumIdle());
+        assertEquals("ADMIN", config.getUsername());
+        assertEquals("secret", config.getPassword());
+        assertEquals(5_000L, config.getConnectionTimeout());
+        assertEquals(30_000L, config.getLeakDetectionThreshold());
+    }
+
+    @Test
+    void configure_ReadsLegacyNamesAndServesTheSessionFactory(@TempDir Path dir) {
+        // Los hibernate.cfg.xml del proyecto usan los nombres hibernate.connection.*
+        Configuration configuration = new Configuration()
+                .setProperty("hibernate.connection.driver_class", "org.sqlite.JDBC")
+                .setProperty("hibernate.connection.url", "jdbc:sqlite:" + dir.resolve("pool.sqlite"))
+                .setProperty(AvailableSettings.DIALECT, "org.hibernate.community.dialect.SQLiteDialect")
+                .setProperty(AvailableSettings.POOL_SIZE, "1");
+
+        try (HikariDataSource pool = ConnectionPool.configure(configuration, "test-pool");
+                SessionFactory sessionFactory = configuration.buildSessionFactory()) {
+            assertEquals("org.sqlite.JDBC", pool.getDriverClassName());
+            ConnectionProvider provider = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry().requireService(ConnectionProvider.class);
+            assertSame(pool, provider.unwrap(DataSource.class));
+            assertEquals(Integer.valueOf(1), sessionFactory.fromSession(session ->
+                    session.createNativeQuery("SELECT 1", Integer.class).getSingleResult()));
+        }
+    }
+}
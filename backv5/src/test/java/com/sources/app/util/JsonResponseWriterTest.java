@@ -0,0 +1,136 @@
+package com.sources.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+public class JsonResponseWriterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private HttpExchange exchange;
+    private ByteArrayOutputStream body;
+
+    /**
+     * Bean whose getter fails, to break serialization at a chosen point.
+     */
+    public static final class Failing {
+        public String getName() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        exchange = mock(HttpExchange.class);
+        body = new ByteArrayOutputStream();
+        when(exchange.getResponseBody()).thenReturn(body);
+        when(exchange.getResponseHeaders()).thenReturn(new Headers());
+        when(exchange.getRequestURI()).thenReturn(URI.create("/api/test"));
+    }
+
+    @Test
+    void write_LargeResponseUsesChunkedTransferAndMatchesWriteValueAsString() throws Exception {
+        List<Map<String, Object>> rows = rows(5000);
+
+        JsonResponseWriter.write(exchange, 200, mapper, rows);
+
+        verify(exchange).sendResponseHeaders(200, JsonResponseWriter.CHUNKED);
+        assertEquals(mapper.writeValueAsString(rows), body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void sendJson_SmallResponseIsSentWithItsLength() throws Exception {
+        String expected = mapper.writeValueAsString(rows(3));
+
+        JsonResponseWriter.sendJson(exchange, 201, mapper, rows(3));
+
+        verify(exchange).sendResponseHeaders(201, expected.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(expected, body.toString(StandardCharsets.UTF_8));
+        assertEquals("application/json", exchange.getResponseHeaders().getFirst("Content-Type"));
+    }
+
+    @Test
+    void write_FailureBeforeHeadersPropagatesWithoutSendingThem() throws Exception {
+        List<Object> items = List.of(Map.of("id", 1), new Failing());
+
+        assertThrows(IOException.class, () -> JsonResponseWriter.write(exchange, 200, mapper, items));
+
+        verify(exchange, never()).sendResponseHeaders(anyInt(), anyLong());
+        verify(exchange, never()).close();
+        assertEquals(0, body.size());
+    }
+
+    @Test
+    void write_FailureAfterHeadersClosesExchange() throws Exception {
+        List<Object> items = new ArrayList<>(rows(5000));
+        items.add(new Failing());
+
+        JsonResponseWriter.write(exchange, 200, mapper, items);
+
+        verify(exchange).sendResponseHeaders(200, JsonResponseWriter.CHUNKED);
+        verify(exchange).close();
+    }
+
+    @Test
+    void writeArray_LargeStreamUsesChunkedTransferMatchesWriteValueAsStringAndClosesStream() throws Exception {
+        List<Map<String, Object>> rows = rows(5000);
+        AtomicBoolean closed = new AtomicBoolean();
+
+        JsonResponseWriter.writeArray(exchange, 200, mapper, rows.stream().onClose(() -> closed.set(true)));
+
+        verify(exchange).sendResponseHeaders(200, JsonResponseWriter.CHUNKED);
+        assertEquals(mapper.writeValueAsString(rows), body.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void writeArray_EmptyStreamIsSentWithItsLength() throws Exception {
+        JsonResponseWriter.writeArray(exchange, 200, mapper, Stream.empty());
+
+        verify(exchange).sendResponseHeaders(200, 2L);
+        assertEquals("[]", body.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeArray_FailureReadingStreamBeforeHeadersPropagates() throws Exception {
+        Stream<Object> items = Stream.of(1, 2).map(i -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThrows(IllegalStateException.class, () -> JsonResponseWriter.writeArray(exchange, 200, mapper, items));
+
+        verify(exchange, never()).sendResponseHeaders(anyInt(), anyLong());
+        assertEquals(0, body.size());
+    }
+
+    private static List<Map<String, Object>> rows(int count) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(Map.of("id", i, "name", "Medicamento ñ " + i));
+        }
+        return rows;
+    }
+}
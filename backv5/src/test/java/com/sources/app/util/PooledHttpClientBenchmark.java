@@ -0,0 +1,157 @@
+package com.sources.app.util;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark JMH de {@link PooledHttpClient} frente a un
+ * {@link HttpURLConnection} simple ({@code url.openConnection()}, como hacían
+ * los clientes antes del motor compartido), contra un servidor HTTP local.
+ *
+ * <p>Además del rendimiento, informa dos contadores por iteración:
+ * {@code requests} y {@code newConnections}. El servidor responde con el
+ * puerto local del cliente, así que cada puerto no visto antes en la
+ * iteración es una conexión TCP nueva; {@code newConnections / requests} es
+ * la proporción de peticiones que no reutilizaron una conexión. El servidor
+ * desactiva Nagle ({@code sun.net.httpserver.nodelay}) para no añadir 40 ms
+ * de ACK retardado a cada respuesta. No lo ejecuta surefire; se lanza
+ * con:</p>
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.sources.app.util.PooledHttpClientBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+@Threads(16)
+public class PooledHttpClientBenchmark {
+
+    private static final int TIMEOUT_MILLIS = 5000;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Peticiones y conexiones nuevas de cada hilo en la iteración.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Connections {
+        public long requests;
+        public long newConnections;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+            newConnections = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/ping", exchange -> {
+            byte[] body = String.valueOf(exchange.getRemoteAddress().getPort()).getBytes(StandardCharsets.US_ASCII);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(32);
+        server.setExecutor(serverExecutor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/ping?n=";
+    }
+
+    @Setup(Level.Iteration)
+    public void forgetConnections() {
+        clientPorts.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int plainHttpUrlConnection(Connections connections) throws IOException {
+        return get((HttpURLConnection) nextUrl().openConnection(), connections);
+    }
+
+    @Benchmark
+    public int pooledHttpClient(Connections connections) throws IOException {
+        return get(PooledHttpClient.shared().connect(nextUrl()), connections);
+    }
+
+    /**
+     * Cada petición lleva una consulta distinta para que
+     * {@link PooledHttpClient} no agrupe GET idénticos simultáneos.
+     */
+    private URL nextUrl() throws IOException {
+        return URI.create(baseUrl + sequence.incrementAndGet()).toURL();
+    }
+
+    private int get(HttpURLConnection connection, Connections connections) throws IOException {
+        connection.setRequestMethod("GET");
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        int port;
+        try (InputStream in = connection.getInputStream()) {
+            port = Integer.parseInt(new String(in.readAllBytes(), StandardCharsets.US_ASCII));
+        }
+        connections.requests++;
+        if (clientPorts.add(port)) {
+            connections.newConnections++;
+        }
+        return port;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PooledHttpClientBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,173 @@
+package com.sources.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class PooledHttpClientTest {
+
+    @Test
+    void sequentialRequests_ReuseOneConnection() throws Exception {
+        Set<Integer> clientPorts = new HashSet<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        try {
+            server.createContext("/ping", exchange -> {
+                synchronized (clientPorts) {
+                    clientPorts.add(exchange.getRemoteAddress().getPort());
+                }
+                respond(exchange, 200, "pong");
+            });
+            server.start();
+            PooledHttpClient client = new PooledHttpClient(HttpClient.newHttpClient(), 4);
+            URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/ping");
+
+            for (int i = 0; i < 5; i++) {
+                HttpURLConnection connection = client.connect(uri.toURL());
+                assertEquals(200, connection.getResponseCode());
+                assertEquals("pong", read(connection.getInputStream()));
+                connection.disconnect();
+            }
+
+            assertEquals(1, clientPorts.size());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void errorStatus_BodyOnlyOnErrorStream() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        try {
+            server.createContext("/fail", exchange -> respond(exchange, 500, "boom"));
+            server.start();
+            PooledHttpClient client = new PooledHttpClient(HttpClient.newHttpClient(), 4);
+            URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/fail");
+
+            HttpURLConnection connection = client.connect(uri.toURL());
+            assertEquals(500, connection.getResponseCode());
+            assertEquals("Internal Server Error", connection.getResponseMessage());
+            assertEquals("boom", read(connection.getErrorStream()));
+            assertThrows(IOException.class, connection::getInputStream);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void identicalConcurrentGets_ShareOneRequest() throws Exception {
+        int callers = 8;
+        AtomicInteger hits = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            server.createContext("/catalog", exchange -> {
+                int n = hits.incrementAndGet();
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                respond(exchange, 200, "call-" + n);
+            });
+            server.start();
+            PooledHttpClient client = new PooledHttpClient(HttpClient.newHttpClient(), 4);
+            URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/catalog");
+
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> read(client.connect(uri.toURL()).getInputStream())));
+            }
+            for (Future<String> result : results) {
+                assertEquals("call-1", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, hits.get());
+        } finally {
+            executor.shutdownNow();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void sharedGet_WaitsNoLongerThanItsOwnTimeout() throws Exception {
+        CountDownLatch received = new CountDownLatch(1);
+        AtomicInteger hits = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        try {
+            server.createContext("/catalog", exchange -> {
+                hits.incrementAndGet();
+                received.countDown();
+                try {
+                    Thread.sleep(4_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                respond(exchange, 200, "lento");
+            });
+            server.start();
+            PooledHttpClient client = new PooledHttpClient(HttpClient.newHttpClient(), 4);
+            URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/catalog");
+            CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return read(client.connect(uri.toURL()).getInputStream());
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+
+            HttpURLConnection follower = client.connect(uri.toURL());
+            follower.setReadTimeout(200);
+            long start = System.nanoTime();
+            assertThrows(SocketTimeoutException.class, follower::getResponseCode);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3_000);
+
+            assertEquals("lento", leader.get(10, TimeUnit.SECONDS));
+            assertEquals(1, hits.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        try (stream) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+}
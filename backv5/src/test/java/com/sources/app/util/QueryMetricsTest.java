@@ -0,0 +1,139 @@
+package com.sources.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sources.app.entities.Category;
+import com.sources.app.metrics.MetricsConfiguration;
+
+import io.prometheus.client.CollectorRegistry;
+
+class QueryMetricsTest {
+
+    private final QueryMetrics.CountingStatementInspector inspector = new QueryMetrics.CountingStatementInspector();
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("DB_QUERY_METRICS_ENABLED");
+        QueryMetrics.endRequest("/test");
+    }
+
+    @Test
+    void configure_EnablesTimedStatisticsAndInspector() {
+        Configuration configuration = new Configuration();
+
+        assertTrue(QueryMetrics.configure(configuration));
+
+        assertEquals("true", configuration.getProperty(AvailableSettings.GENERATE_STATISTICS));
+        assertEquals(QueryMetrics.TimingStatisticsFactory.class.getName(),
+                configuration.getProperty(AvailableSettings.STATS_BUILDER));
+        assertEquals(QueryMetrics.CountingStatementInspector.class.getName(),
+                configuration.getProperty(AvailableSettings.STATEMENT_INSPECTOR));
+    }
+
+    @Test
+    void configure_DisabledBySetting() {
+        System.setProperty("DB_QUERY_METRICS_ENABLED", "false");
+        Configuration configuration = new Configuration();
+
+        assertFalse(QueryMetrics.configure(configuration));
+
+        assertNull(configuration.getProperty(AvailableSettings.STATEMENT_INSPECTOR));
+    }
+
+    @Test
+    void normalize_ReplacesLiteralsParametersAndInLists() {
+        assertEquals("SELECT s FROM Medicine s WHERE s.externalId IN (?) AND s.active = ?",
+                QueryMetrics.normalize("SELECT s FROM Medicine s\n   WHERE s.externalId IN (:externalIds) AND s.active = 1"));
+        assertEquals("select u1_0.id from USERS u1_0 where u1_0.email=? and u1_0.cui in (?)",
+                QueryMetrics.normalize("select u1_0.id from USERS u1_0 where u1_0.email='a''b@x.com' and u1_0.cui in (?, ?, ?)"));
+        assertEquals(QueryMetrics.MAX_STATEMENT_LABEL_LENGTH, QueryMetrics.normalize("x".repeat(500)).length());
+    }
+
+    @Test
+    void targetAndOperation_AreTakenFromTheStatement() {
+        assertEquals("Medicine", QueryMetrics.targetOf("SELECT s FROM Medicine s WHERE s.id = ?1"));
+        assertEquals("POLICY", QueryMetrics.targetOf("insert into PHARMACY.POLICY (a, b) values (?, ?)"));
+        assertEquals("USERS", QueryMetrics.targetOf("update \"USERS\" set x=? where id=?"));
+        assertEquals("unknown", QueryMetrics.targetOf("call refresh_totals()"));
+
+        assertEquals("select", QueryMetrics.operationOf("  SELECT 1 FROM DUAL"));
+        assertEquals("select", QueryMetrics.operationOf("with t as (select 1) select * from t"));
+        assertEquals("delete", QueryMetrics.operationOf("delete from POLICY where id=?"));
+        assertEquals("other", QueryMetrics.operationOf("call refresh_totals()"));
+    }
+
+    @Test
+    void inspector_CountsStatementsPerRequestAndFlagsExcess() {
+        String sql = "select p1_0.id from POLICY p1_0 where p1_0.user_id=?";
+        double issued = MetricsConfiguration.DB_QUERIES_TOTAL.labels("select", "POLICY", "issued").get();
+        double exceeded = MetricsConfiguration.DB_REQUEST_STATEMENT_THRESHOLD_EXCEEDED_TOTAL.labels("/test").get();
+
+        QueryMetrics.beginRequest();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(sql, inspector.inspect(sql));
+        }
+        assertEquals(3, QueryMetrics.endRequest("/test"));
+        assertEquals(exceeded, MetricsConfiguration.DB_REQUEST_STATEMENT_THRESHOLD_EXCEEDED_TOTAL.labels("/test").get());
+
+        QueryMetrics.beginRequest();
+        for (int i = 0; i <= QueryMetrics.DEFAULT_STATEMENT_THRESHOLD; i++) {
+            inspector.inspect(sql);
+        }
+        assertEquals(QueryMetrics.DEFAULT_STATEMENT_THRESHOLD + 1, QueryMetrics.endRequest("/test"));
+
+        assertEquals(exceeded + 1, MetricsConfiguration.DB_REQUEST_STATEMENT_THRESHOLD_EXCEEDED_TOTAL.labels("/test").get());
+        assertEquals(issued + 3 + QueryMetrics.DEFAULT_STATEMENT_THRESHOLD + 1,
+                MetricsConfiguration.DB_QUERIES_TOTAL.labels("select", "POLICY", "issued").get());
+    }
+
+    @Test
+    void inspector_OutsideARequest_OnlyCountsTotals() {
+        inspector.inspect("select 1 from POLICY");
+
+        assertEquals(0, QueryMetrics.endRequest("/test"));
+    }
+
+    @Test
+    void sessionFactory_TimesQueriesByNormalizedStatement() {
+        Configuration configuration = new Configuration()
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:query-metrics;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.driver_class", "org.h2.Driver")
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .addAnnotatedClass(Category.class);
+        QueryMetrics.configure(configuration);
+        String statement = "FROM Category c WHERE c.name = ?";
+        double before = durationCount(statement);
+
+        try (SessionFactory sessionFactory = configuration.buildSessionFactory();
+             Session session = sessionFactory.openSession()) {
+            QueryMetrics.beginRequest();
+            for (String name : List.of("Analgésicos", "Vitaminas")) {
+                session.createQuery("FROM Category c WHERE c.name = :name", Category.class)
+                        .setParameter("name", name)
+                        .list();
+            }
+            assertEquals(2, QueryMetrics.endRequest("/test"));
+        }
+
+        assertEquals(before + 2, durationCount(statement));
+    }
+
+    private static double durationCount(String statement) {
+        Double value = CollectorRegistry.defaultRegistry.getSampleValue("ensurance_db_query_duration_seconds_count",
+                new String[]{"statement", "entity"}, new String[]{statement, "Category"});
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,111 @@
+package com.sources.app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sources.app.entities.Category;
+import com.sources.app.metrics.CacheMetricsCollector;
+
+class SecondLevelCacheTest {
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("DB_CACHE_ENABLED");
+    }
+
+    @Test
+    void configure_EnablesJCacheRegions() {
+        Configuration configuration = new Configuration();
+
+        assertTrue(SecondLevelCache.configure(configuration));
+
+        assertEquals("true", configuration.getProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE));
+        assertEquals("true", configuration.getProperty(AvailableSettings.USE_QUERY_CACHE));
+        assertEquals("jcache", configuration.getProperty(AvailableSettings.CACHE_REGION_FACTORY));
+        assertEquals(SecondLevelCache.PROVIDER, configuration.getProperty("hibernate.javax.cache.provider"));
+        assertEquals("ehcache.xml", configuration.getProperty("hibernate.javax.cache.uri"));
+    }
+
+    @Test
+    void configure_RespectsExplicitlyDisabledCache() {
+        Configuration configuration = new Configuration();
+        configuration.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+
+        assertFalse(SecondLevelCache.configure(configuration));
+
+        assertNull(configuration.getProperty(AvailableSettings.CACHE_REGION_FACTORY));
+    }
+
+    @Test
+    void configure_DisabledBySetting() {
+        System.setProperty("DB_CACHE_ENABLED", "false");
+        Configuration configuration = new Configuration();
+
+        assertFalse(SecondLevelCache.configure(configuration));
+
+        assertNull(configuration.getProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE));
+    }
+
+    @Test
+    void updateThroughSession_RefreshesCachedEntity() {
+        Configuration configuration = new Configuration()
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:sqlite:file:l2cache?mode=memory&cache=shared")
+                .setProperty(AvailableSettings.JAKARTA_JDBC_DRIVER, "org.sqlite.JDBC")
+                .setProperty(AvailableSettings.DIALECT, "org.hibernate.community.dialect.SQLiteDialect")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.POOL_SIZE, "1")
+                .setProperty(AvailableSettings.GENERATE_STATISTICS, "true")
+                .addAnnotatedClass(Category.class);
+        assertTrue(SecondLevelCache.configure(configuration));
+
+        try (SessionFactory sf = configuration.buildSessionFactory()) {
+            Long id;
+            try (Session session = sf.openSession()) {
+                Transaction tx = session.beginTransaction();
+                Category category = new Category();
+                category.setName("Analgésicos");
+                session.persist(category);
+                tx.commit();
+                id = category.getIdCategory();
+            }
+
+            for (int i = 0; i < 2; i++) {
+                try (Session session = sf.openSession()) {
+                    assertEquals("Analgésicos", session.get(Category.class, id).getName());
+                }
+            }
+            CacheRegionStatistics stats = sf.getStatistics().getDomainDataRegionStatistics("category");
+            assertTrue(stats.getHitCount() >= 1);
+            assertTrue(new CacheMetricsCollector().collect().stream()
+                    .filter(f -> f.name.equals("ensurance_cache_hits"))
+                    .flatMap(f -> f.samples.stream())
+                    .anyMatch(sample -> sample.labelValues.equals(List.of("category")) && sample.value >= 1));
+
+            try (Session session = sf.openSession()) {
+                Transaction tx = session.beginTransaction();
+                Category detached = new Category();
+                detached.setIdCategory(id);
+                detached.setName("Antibióticos");
+                session.merge(detached);
+                tx.commit();
+            }
+
+            try (Session session = sf.openSession()) {
+                assertEquals("Antibióticos", session.get(Category.class, id).getName());
+            }
+        }
+    }
+}